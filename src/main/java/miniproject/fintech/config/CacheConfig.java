@@ -1,25 +1,194 @@
 package miniproject.fintech.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.env.Environment;
 
-import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
-import javax.cache.spi.CachingProvider;
+import javax.cache.Cache;
+import javax.cache.Caching;
+import java.io.File;
 import java.net.URI;
-import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
+/**
+ * Ehcache 3 (JCache) 캐시 매니저. 캐시마다 heap 항목 수 제한 + off-heap 계층 + 만료(TTL 또는 TTI) + 통계를 둔다.
+ * 설정은 cache.<캐시 이름>.* 가 있으면 그 값, 없으면 cache.default.* 를 쓴다.
+ * - heap-entries: heap 계층 최대 항목 수
+ * - offheap-mb: off-heap 계층 크기 (값은 JSON 으로 직렬화해 저장)
+ * - ttl-seconds / tti-seconds: tti 가 0 보다 크면 마지막 접근 후 만료, 아니면 저장 후 ttl 만료 (둘 다 0 이면 만료 없음)
+ * 캐시 저장 / 조회 실패는 예외를 던지지 않고 로그만 남긴다 (캐시 없이 원래 메서드 결과로 응답).
+ * 캐시는 SingleFlightCache 로 감싸 @Cacheable(sync = true) 의 동시 미스를 한 번의 조회로 모으고, TTL 캐시는 만료 전에 미리 갱신한다.
+ *
+ * cache.persistence.enabled=true 이면 accountsCache / MemberCache 에 디스크 계층을 더해 재시작 후에도 캐시를 이어 쓴다.
+ * 종료 시 캐시 매니저를 닫으면서 디스크에 기록하고, 기동 시 같은 디렉터리를 다시 연다 (남은 만료 시간도 이어짐).
+ * 값마다 cache.persistence.version 을 함께 저장하고, 기동 시 다른 버전의 값은 지운다 (DTO 형식이 바뀌면 버전을 올린다).
+ *
+ * 계층별 항목 수(OnHeap / OffHeap / Disk)는 Ehcache StatisticsService 로 읽는다 (CacheStatisticsService).
+ * JCache 매니저는 Ehcache 서비스를 따로 받지 않으므로 캐시를 만들 때 StatisticsService 에 직접 등록한다.
+ */
+@Slf4j
 @EnableCaching // 캐시 기능을 활성화
 @Configuration
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
+
+    public static final List<String> CACHE_NAMES = List.of(
+            "MemberCache", "depositCache", "adminCache", "accountsCache", "transfersCache", "transactionCache", "register");
+    // 재시작 직후 조회가 몰리는 캐시 (계좌 / 회원 조회)
+    public static final Set<String> PERSISTENT_CACHE_NAMES = Set.of("accountsCache", "MemberCache");
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final DefaultStatisticsService statisticsService = new DefaultStatisticsService();
+
+    public CacheConfig(Environment environment, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jcacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // 기본 URI 의 CacheManager 는 JVM 전역에서 공유되므로 (테스트의 여러 context 등) context 마다 따로 만든다
+        URI uri = URI.create("fintech-cache-" + UUID.randomUUID());
+        DefaultConfiguration configuration;
+        if (isPersistenceEnabled()) {
+            File directory = new File(environment.getProperty("cache.persistence.dir", "./data/cache"));
+            log.info("캐시 디스크 계층 사용: 디렉터리 = {}", directory.getAbsolutePath());
+            configuration = new DefaultConfiguration(getClass().getClassLoader(), new DefaultPersistenceConfiguration(directory));
+        } else {
+            configuration = new DefaultConfiguration(getClass().getClassLoader());
+        }
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(uri, configuration);
+        for (String name : CACHE_NAMES) {
+            Cache<Object, Object> cache = cacheManager.createCache(name,
+                    Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration(name)));
+            cacheManager.enableStatistics(name, true);
+            statisticsService.cacheAdded(name, cache.unwrap(org.ehcache.Cache.class));
+            if (isPersistent(name)) {
+                discardStaleEntries(cache);
+            }
+        }
+        return cacheManager;
+    }
 
     @Bean
+    public DefaultStatisticsService ehcacheStatisticsService() {
+        return statisticsService;
+    }
+
+    @Bean
+    @Override
     public CacheManager cacheManager() {
-        // 기본 메모리 내 캐시 매니저를 사용하여 "defaultCache"라는 이름의 캐시를 생성
-        return new ConcurrentMapCacheManager("MemberCache", "depositCache", "adminCache", "accountsCache", "transfersCache", "transactionCache", "register");
+        JCacheCacheManager jcacheCacheManager = new JCacheCacheManager(jcacheManager());
+        jcacheCacheManager.afterPropertiesSet();
+        return new SingleFlightCacheManager(jcacheCacheManager, this::ttlMillis,
+                environment.getProperty("cache.singleflight.early-refresh-beta", Double.class, 1.0),
+                environment.getProperty("cache.singleflight.max-tracked-keys", Integer.class, 10000),
+                meterRegistry);
+    }
+
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    private CacheConfiguration<Object, Object> cacheConfiguration(String name) {
+        long heapEntries = heapEntries(name);
+        long offheapMb = property(name, "offheap-mb", 16L);
+        long ttlSeconds = property(name, "ttl-seconds", 600L);
+        long ttiSeconds = property(name, "tti-seconds", 0L);
+        log.info("캐시 설정: 이름 = {}, heap = {}개, off-heap = {}MB, ttl = {}초, tti = {}초",
+                name, heapEntries, offheapMb, ttlSeconds, ttiSeconds);
+
+        ResourcePoolsBuilder pools = ResourcePoolsBuilder.newResourcePoolsBuilder()
+                .heap(heapEntries, EntryUnit.ENTRIES)
+                .offheap(offheapMb, MemoryUnit.MB);
+        if (isPersistent(name)) {
+            pools = pools.disk(property(name, "disk-mb", 256L), MemoryUnit.MB, true);
+        }
+        ResourcePools resourcePools = pools.build();
+
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(expiry(ttlSeconds, ttiSeconds))
+                // 키는 문자열 / 숫자 / SimpleKey 이므로 Java 직렬화
+                .withKeySerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+                .withValueSerializer(new JsonCacheValueSerializer(objectMapper,
+                        environment.getProperty("cache.persistence.version", "1")))
+                .build();
+    }
+
+    // 디스크에서 다시 연 값 중 다른 버전으로 저장된 값을 지운다 (요청을 받기 전, 캐시 매니저 생성 중에 실행)
+    private static void discardStaleEntries(Cache<Object, Object> cache) {
+        Set<Object> staleKeys = new HashSet<>();
+        int reopened = 0;
+        for (Cache.Entry<Object, Object> entry : cache) {
+            reopened++;
+            if (entry.getValue() == JsonCacheValueSerializer.STALE) {
+                staleKeys.add(entry.getKey());
+            }
+        }
+        cache.removeAll(staleKeys);
+        log.info("캐시 디스크 계층 다시 열기: 이름 = {}, 항목 수 = {}, 버전이 달라 삭제 = {}", cache.getName(), reopened, staleKeys.size());
+    }
+
+    public long heapEntries(String name) {
+        return property(name, "heap-entries", 1000L);
+    }
+
+    public boolean isPersistenceEnabled() {
+        return environment.getProperty("cache.persistence.enabled", Boolean.class, false);
+    }
+
+    private boolean isPersistent(String name) {
+        return isPersistenceEnabled() && PERSISTENT_CACHE_NAMES.contains(name);
+    }
+
+    // 미리 갱신은 저장 후 만료(TTL)에만 적용 (TTI 는 조회할 때마다 만료가 늦춰지므로 0)
+    private long ttlMillis(String name) {
+        return property(name, "tti-seconds", 0L) > 0 ? 0 : property(name, "ttl-seconds", 600L) * 1000;
+    }
+
+    private static ExpiryPolicy<Object, Object> expiry(long ttlSeconds, long ttiSeconds) {
+        if (ttiSeconds > 0) {
+            return ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(ttiSeconds));
+        }
+        if (ttlSeconds > 0) {
+            return ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds));
+        }
+        return ExpiryPolicyBuilder.noExpiration();
+    }
+
+    private long property(String cacheName, String key, long defaultValue) {
+        Long value = environment.getProperty("cache." + cacheName + "." + key, Long.class);
+        return value != null ? value : environment.getProperty("cache.default." + key, Long.class, defaultValue);
     }
 }
@@ -0,0 +1,52 @@
+package miniproject.fintech.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import miniproject.fintech.service.CacheStatisticsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * CacheStatisticsService 의 캐시별 통계를 메트릭으로 노출한다 (MeterBinder 빈은 Spring Boot 가 등록 시 바인딩).
+ * 메트릭: cache.stats.gets (result=hit|miss), cache.stats.evictions, cache.stats.size, cache.stats.heap.estimated.bytes (cache 태그).
+ * SingleFlightCache 로 감싼 캐시는 Spring Boot 의 캐시 메트릭 바인딩 대상이 아니므로 이름을 따로 쓴다.
+ * size 는 Ehcache 계층 통계에서 매번 읽고, heap 추정에 쓰는 평균 항목 크기는 size-refresh-ms 주기로만 다시 계산된다.
+ */
+@Component
+public class CacheMetricsBinder implements MeterBinder {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheMetricsBinder(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : CacheConfig.CACHE_NAMES) {
+            FunctionCounter.builder("cache.stats.gets", cacheStatisticsService,
+                            service -> service.jcacheStatistics(name)[0])
+                    .tag("cache", name)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.stats.gets", cacheStatisticsService,
+                            service -> service.jcacheStatistics(name)[1])
+                    .tag("cache", name)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.stats.evictions", cacheStatisticsService,
+                            service -> service.jcacheStatistics(name)[2])
+                    .tag("cache", name)
+                    .register(registry);
+            Gauge.builder("cache.stats.size", cacheStatisticsService, service -> service.entries(name))
+                    .tag("cache", name)
+                    .register(registry);
+            Gauge.builder("cache.stats.heap.estimated.bytes", cacheStatisticsService,
+                            service -> service.estimatedHeapBytes(name))
+                    .tag("cache", name)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package miniproject.fintech.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * off-heap 계층에 캐시 값을 JSON 으로 저장한다 (Java 직렬화는 ResponseEntity / 엔티티가 Serializable 이 아니라 쓸 수 없음).
+ * 캐시하는 값은 대부분 컨트롤러의 ResponseEntity 이므로 상태 코드 / 헤더 / 본문을 저장하고, 읽을 때 본문은 JsonNode 로 돌려준다.
+ * 응답은 어차피 JSON 으로 나가므로 JsonNode 본문과 원래 본문의 응답 내용은 같다.
+ * 그 밖의 값은 클래스 이름과 함께 저장해 그 클래스로 읽는다 (제네릭 요소 타입은 남지 않음).
+ * 값마다 저장할 때의 버전을 남기고, 다른 버전으로 저장된 값(디스크 계층에 남아 있던 이전 배포의 값)은 STALE 로 읽는다.
+ */
+public class JsonCacheValueSerializer implements Serializer<Object> {
+
+    // 버전이 다른 값 (CacheConfig 가 기동 시 디스크 계층에서 지운다)
+    public static final Object STALE = new Object();
+
+    private static final String RESPONSE_ENTITY = "ResponseEntity";
+
+    private final ObjectMapper objectMapper;
+    private final String version;
+
+    public JsonCacheValueSerializer(ObjectMapper objectMapper, String version) {
+        this.objectMapper = objectMapper;
+        this.version = version;
+    }
+
+    @Override
+    public ByteBuffer serialize(Object value) throws SerializerException {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("version", version);
+        if (value instanceof ResponseEntity<?> response) {
+            envelope.put("type", RESPONSE_ENTITY);
+            envelope.put("status", response.getStatusCode().value());
+            envelope.set("headers", objectMapper.valueToTree(response.getHeaders()));
+            envelope.set("body", objectMapper.valueToTree(response.getBody()));
+        } else {
+            envelope.put("type", value.getClass().getName());
+            envelope.set("value", objectMapper.valueToTree(value));
+        }
+        try {
+            return ByteBuffer.wrap(objectMapper.writeValueAsBytes(envelope));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializerException("캐시 값 직렬화 실패: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object read(ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+        byte[] bytes = new byte[binary.remaining()];
+        binary.get(bytes);
+        try {
+            JsonNode envelope = objectMapper.readTree(bytes);
+            if (!version.equals(envelope.path("version").asText())) {
+                return STALE;
+            }
+            String type = envelope.get("type").asText();
+            if (RESPONSE_ENTITY.equals(type)) {
+                HttpHeaders headers = new HttpHeaders();
+                Iterator<Map.Entry<String, JsonNode>> fields = envelope.get("headers").fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    field.getValue().forEach(headerValue -> headers.add(field.getKey(), headerValue.asText()));
+                }
+                JsonNode body = envelope.get("body");
+                return ResponseEntity.status(envelope.get("status").asInt())
+                        .headers(headers)
+                        .body(body.isNull() ? null : body);
+            }
+            return objectMapper.treeToValue(envelope.get("value"), Class.forName(type));
+        } catch (IOException e) {
+            throw new SerializerException("캐시 값 역직렬화 실패", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object object, ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+        return serialize(object).equals(binary);
+    }
+}
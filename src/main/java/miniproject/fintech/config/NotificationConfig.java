@@ -0,0 +1,63 @@
+package miniproject.fintech.config;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.service.notification.NotificationDispatcher;
+import miniproject.fintech.service.notification.NotificationGateway;
+import miniproject.fintech.type.NotificationDropPolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Configuration
+public class NotificationConfig {
+
+    // 알림 worker 스레드 생성 방식 (다른 ThreadFactory 를 쓰려면 같은 이름의 bean 으로 교체)
+    @Bean
+    public ThreadFactory notificationWorkerThreadFactory(@Value("${notification.dispatch.virtual-threads:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            ThreadFactory factory = virtualThreadFactory("notification-worker-");
+            if (factory != null) {
+                return factory;
+            }
+            log.warn("가상 스레드를 지원하지 않는 런타임입니다 (Java 21 이상 필요). 플랫폼 스레드로 알림 worker 를 생성합니다.");
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Bean(destroyMethod = "stop")
+    public NotificationDispatcher notificationDispatcher(NotificationGateway gateway,
+                                                         @Qualifier("notificationWorkerThreadFactory") ThreadFactory workerThreadFactory,
+                                                         @Value("${notification.dispatch.queue-capacity:8192}") int queueCapacity,
+                                                         @Value("${notification.dispatch.workers:4}") int workers,
+                                                         @Value("${notification.dispatch.drop-policy:DROP_NEWEST}") NotificationDropPolicy dropPolicy,
+                                                         @Value("${notification.dispatch.offer-timeout-ms:50}") long offerTimeoutMillis,
+                                                         @Value("${notification.dispatch.digest-window-ms:200}") long digestWindowMillis,
+                                                         @Value("${notification.dispatch.max-digest-size:20}") int maxDigestSize) {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(gateway, workerThreadFactory, queueCapacity, workers,
+                dropPolicy, offerTimeoutMillis, digestWindowMillis, maxDigestSize);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    // 컴파일 대상은 Java 17 이므로 Thread.ofVirtual() 은 리플렉션으로 찾는다 (없으면 null)
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
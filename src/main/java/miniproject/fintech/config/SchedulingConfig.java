@@ -0,0 +1,9 @@
+package miniproject.fintech.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling // @Scheduled 작업 활성화 (outbox relay 등)
+@Configuration
+public class SchedulingConfig {
+}
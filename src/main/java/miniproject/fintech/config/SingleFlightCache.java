@@ -0,0 +1,215 @@
+package miniproject.fintech.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캐시 미스를 키마다 한 번의 조회로 모은다 (@Cacheable(sync = true) 가 get(key, valueLoader) 로 들어오는 경로).
+ * 같은 키의 동시 미스는 먼저 온 요청의 조회 결과를 함께 받고, 조회는 한 번만 실행된다.
+ * TTL 이 있는 캐시는 만료 직전에 확률적으로 미리 다시 조회한다 (XFetch: now - delta * beta * ln(rand) >= 만료 시각).
+ * delta 는 마지막 조회에 걸린 시간이므로 조회가 느린 키일수록 일찍 갱신되고, 갱신 중에는 다른 요청이 기존 값을 그대로 받는다.
+ *
+ * 메트릭 (cache 태그)
+ * - cache.singleflight.loads: 실제 조회 수
+ * - cache.singleflight.coalesced: 다른 요청의 조회에 합류한 수
+ * - cache.singleflight.early-refreshes: 만료 전에 미리 다시 조회한 수
+ * - cache.singleflight.load: 조회 시간
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+    private final long ttlMillis;
+    private final double beta;
+    private final int maxTrackedKeys;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // 이 노드에서 조회해 넣은 키의 조회 시간 / 만료 시각 (XFetch 용)
+    // Ehcache 가 만료/축출한 키는 다음 미스 때 지우고, 다시 읽히지 않는 키는 자리가 찰 때 만료 시각 기준으로 정리한다
+    private final ConcurrentHashMap<Object, LoadInfo> loadInfos = new ConcurrentHashMap<>();
+    // 조회 정보 중 가장 이른 만료 시각 (그 전에는 정리해도 지울 것이 없다)
+    private volatile long nextPurgeAtMillis;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+    private final Timer loadTimer;
+
+    /**
+     * @param ttlMillis 저장 후 만료 시간 (0 이면 미리 갱신하지 않음)
+     */
+    public SingleFlightCache(Cache delegate, long ttlMillis, double beta, int maxTrackedKeys, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.beta = beta;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.loads = meterRegistry.counter("cache.singleflight.loads", "cache", delegate.getName());
+        this.coalesced = meterRegistry.counter("cache.singleflight.coalesced", "cache", delegate.getName());
+        this.earlyRefreshes = meterRegistry.counter("cache.singleflight.early-refreshes", "cache", delegate.getName());
+        this.loadTimer = Timer.builder("cache.singleflight.load").tag("cache", delegate.getName()).register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached == null) {
+            // 저장소에서 만료/축출된 키: 남아 있는 조회 정보는 더 이상 맞지 않는다
+            loadInfos.remove(key);
+            return (T) load(key, valueLoader, null);
+        }
+        if (!shouldRefreshEarly(key)) {
+            return (T) cached.get();
+        }
+        return (T) load(key, valueLoader, cached);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        loadInfos.remove(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        loadInfos.remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        loadInfos.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        loadInfos.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        loadInfos.clear();
+        return delegate.invalidate();
+    }
+
+    public Timer getLoadTimer() {
+        return loadTimer;
+    }
+
+    /**
+     * current 가 있으면 미리 갱신: 이미 다른 요청이 조회 중이면 기다리지 않고 기존 값을 쓰고, 갱신이 실패해도 기존 값을 쓴다.
+     */
+    private Object load(Object key, Callable<?> valueLoader, ValueWrapper current) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            if (current != null) {
+                return current.get();
+            }
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        if (current != null) {
+            earlyRefreshes.increment();
+        }
+        loads.increment();
+        try {
+            long startedAt = System.currentTimeMillis();
+            Object value = valueLoader.call();
+            long loadedAt = System.currentTimeMillis();
+            loadTimer.record(loadedAt - startedAt, TimeUnit.MILLISECONDS);
+            delegate.put(key, value);
+            if (ttlMillis > 0) {
+                track(key, new LoadInfo(loadedAt - startedAt, loadedAt + ttlMillis), loadedAt);
+            }
+            flight.complete(value);
+            return value;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            if (current != null) {
+                log.warn("캐시 미리 갱신 실패, 기존 값 사용: 캐시 = {}, 키 = {}", getName(), key, e);
+                return current.get();
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void track(Object key, LoadInfo info, long now) {
+        if (loadInfos.size() >= maxTrackedKeys && !loadInfos.containsKey(key)) {
+            purgeExpired(now);
+        }
+        if (loadInfos.size() < maxTrackedKeys || loadInfos.containsKey(key)) {
+            loadInfos.put(key, info);
+        }
+    }
+
+    // 만료 시각이 지난 조회 정보 제거 (Ehcache 가 만료시킨 뒤 다시 읽히지 않은 키)
+    private synchronized void purgeExpired(long now) {
+        if (now < nextPurgeAtMillis) {
+            return;
+        }
+        // 이후에 들어오는 정보는 now + ttl 이후에 만료된다
+        long earliest = now + ttlMillis;
+        for (Iterator<LoadInfo> iterator = loadInfos.values().iterator(); iterator.hasNext(); ) {
+            LoadInfo info = iterator.next();
+            if (info.expiresAtMillis() <= now) {
+                iterator.remove();
+            } else {
+                earliest = Math.min(earliest, info.expiresAtMillis());
+            }
+        }
+        nextPurgeAtMillis = earliest;
+    }
+
+    // XFetch: -ln(U) 는 지수 분포이므로 만료가 가까울수록, 조회가 느릴수록 미리 갱신할 확률이 커진다
+    private boolean shouldRefreshEarly(Object key) {
+        LoadInfo info = loadInfos.get(key);
+        if (info == null) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = -info.deltaMillis() * beta * Math.log(random);
+        return System.currentTimeMillis() + gap >= info.expiresAtMillis();
+    }
+
+    private record LoadInfo(long deltaMillis, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,49 @@
+package miniproject.fintech.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+// 캐시 매니저의 캐시를 SingleFlightCache 로 감싼다 (캐시별 TTL 은 ttlMillis 로 조회)
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final ToLongFunction<String> ttlMillis;
+    private final double beta;
+    private final int maxTrackedKeys;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, ToLongFunction<String> ttlMillis, double beta,
+                                    int maxTrackedKeys, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.beta = beta;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key ->
+                new SingleFlightCache(target, ttlMillis.applyAsLong(key), beta, maxTrackedKeys, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
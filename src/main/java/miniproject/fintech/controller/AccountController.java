@@ -9,17 +9,21 @@ import miniproject.fintech.dto.CreateAccountRequest;
 import miniproject.fintech.dto.DtoConverter;
 import miniproject.fintech.error.CustomError;
 import miniproject.fintech.service.AccountServiceImpl;
+import miniproject.fintech.service.BalanceHistoryService;
 import miniproject.fintech.service.MemoryMemberService;
 import miniproject.fintech.type.ErrorType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 import static miniproject.fintech.type.ErrorType.*;
 
 @Slf4j
@@ -30,18 +34,20 @@ public class AccountController {
     private final AccountServiceImpl accountService;
     private final MemoryMemberService memberService;
     private final DtoConverter dtoConverter;
+    private final BalanceHistoryService balanceHistoryService;
 
     @Autowired
-    public AccountController(AccountServiceImpl accountService, MemoryMemberService memberService, DtoConverter dtoConverter) {
+    public AccountController(AccountServiceImpl accountService, MemoryMemberService memberService, DtoConverter dtoConverter,
+                             BalanceHistoryService balanceHistoryService) {
         this.accountService = accountService;
         this.memberService = memberService;
         this.dtoConverter = dtoConverter;
+        this.balanceHistoryService = balanceHistoryService;
     }
 
     //accountNumber로 수정
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{accountNumber}/balance")
-    @Cacheable(value = "accountsCache", key = "#accountNumber + '_balance'")
     public ResponseEntity<Long> getBalance(@PathVariable String accountNumber) {
         log.info("계좌 잔액 조회 요청 수신: ID={}", accountNumber);
         long accountBalance = accountService.getAccountBalance(accountNumber);
@@ -49,6 +55,14 @@ public class AccountController {
         return ResponseEntity.ok(accountBalance);
     }
 
+    // 시점 잔액 조회 (asOf 가 있으면 이쪽으로 연결, 일별 잔액 + 그 이후 분개로 계산)
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping(value = "/{accountNumber}/balance", params = "asOf")
+    public ResponseEntity<Long> getBalanceAsOf(@PathVariable String accountNumber,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(balanceHistoryService.balanceAsOf(accountNumber, asOf));
+    }
+
     //accountNumber로 수정
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/exists/{accountNumber}")
@@ -64,7 +78,7 @@ public class AccountController {
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{accountNumber}")
-    @Cacheable(value = "accountsCache", key = "#accountNumber")
+    @Cacheable(value = "accountsCache", key = "#accountNumber", sync = true) // 동시 미스는 한 번만 조회
     public ResponseEntity<AccountDto> getAccountByAccountNumber(@PathVariable String accountNumber) {
         AccountDto accountDto = accountService.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new CustomError(ACCOUNT_NOT_FOUND));
@@ -131,7 +145,6 @@ public class AccountController {
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/total-balance")
-    @Cacheable(value = "accountsCache", key = "'totalBalance'")
     public ResponseEntity<Long> getTotalAccountBalance() {
         long totalAccountBalance = accountService.getTotalAccountBalance();
         return ResponseEntity.ok(totalAccountBalance);
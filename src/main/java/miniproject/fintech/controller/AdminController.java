@@ -4,8 +4,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import miniproject.fintech.dto.AdminDto;
 import miniproject.fintech.dto.BankMemberDto;
+import miniproject.fintech.dto.CacheStatisticsResponse;
+import miniproject.fintech.dto.JournalReconciliationResponse;
 import miniproject.fintech.dto.TransactionDto;
+import miniproject.fintech.service.AccountLockManager;
 import miniproject.fintech.service.AdminService;
+import miniproject.fintech.service.CacheStatisticsService;
+import miniproject.fintech.service.HotAccountService;
+import miniproject.fintech.service.JournalEntryService;
+import miniproject.fintech.service.OptimisticRetryExecutor;
+import miniproject.fintech.service.eventsource.AccountEventStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -14,6 +22,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -21,10 +30,25 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AccountLockManager accountLockManager;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final HotAccountService hotAccountService;
+    private final JournalEntryService journalEntryService;
+    private final AccountEventStore accountEventStore;
+    private final CacheStatisticsService cacheStatisticsService;
 
     @Autowired
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, AccountLockManager accountLockManager,
+                           OptimisticRetryExecutor optimisticRetryExecutor, HotAccountService hotAccountService,
+                           JournalEntryService journalEntryService, AccountEventStore accountEventStore,
+                           CacheStatisticsService cacheStatisticsService) {
         this.adminService = adminService;
+        this.accountLockManager = accountLockManager;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.hotAccountService = hotAccountService;
+        this.journalEntryService = journalEntryService;
+        this.accountEventStore = accountEventStore;
+        this.cacheStatisticsService = cacheStatisticsService;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -86,4 +110,104 @@ public class AdminController {
         adminService.changeAdminPassword(adminId, newPassword);
         return ResponseEntity.ok().build();
     }
+
+    // 계좌 락 대기 시간 분포 조회
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/lockContention")
+    public ResponseEntity<Map<String, Long>> getLockContention() {
+        log.info("계좌 락 경합 조회: 총 획득 = {}, 대기 발생 = {}",
+                accountLockManager.getAcquisitionCount(), accountLockManager.getContendedCount());
+        return ResponseEntity.ok(accountLockManager.getContentionHistogram());
+    }
+
+    // 낙관적 락 충돌이 많은 계좌 조회 (락 경합 조회와 같은 부하에서 비교용)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/optimisticConflicts")
+    public ResponseEntity<Map<String, Map<String, Number>>> getOptimisticConflicts(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(optimisticRetryExecutor.getConflictStats(limit));
+    }
+
+    // 핫 계좌 목록 (계좌 번호 -> 슬롯 수)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/hotAccounts")
+    public ResponseEntity<Map<String, Integer>> getHotAccounts() {
+        return ResponseEntity.ok(hotAccountService.getHotAccounts());
+    }
+
+    // 입금이 몰리는 계좌를 슬롯으로 나눠 처리하도록 지정
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/hotAccounts/{accountNumber}")
+    public ResponseEntity<Integer> enableHotAccount(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) Integer slotCount) {
+        return ResponseEntity.ok(hotAccountService.enable(accountNumber, slotCount));
+    }
+
+    // 핫 계좌 지정 해제 (슬롯 잔액은 본 잔액으로 합침)
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/hotAccounts/{accountNumber}")
+    public ResponseEntity<Long> disableHotAccount(@PathVariable String accountNumber) {
+        return ResponseEntity.ok(hotAccountService.disable(accountNumber));
+    }
+
+    // 복식 분개 대사 (DEBIT 합계 = CREDIT 합계, 계좌 잔액과 분개 잔액 비교)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/journal/reconcile")
+    public ResponseEntity<JournalReconciliationResponse> reconcileJournal() {
+        return ResponseEntity.ok(journalEntryService.reconcile());
+    }
+
+    // 분개 체크포인트를 주기를 기다리지 않고 갱신
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/journal/checkpoint")
+    public ResponseEntity<Void> checkpointJournal() {
+        journalEntryService.checkpoint();
+        return ResponseEntity.ok().build();
+    }
+
+    // 계좌 동결 / 해제 (account.concurrency-mode=EVENT_SOURCED, 동결된 계좌는 출금 불가)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/accounts/{accountNumber}/freeze")
+    public ResponseEntity<Void> freezeAccount(@PathVariable String accountNumber) {
+        accountEventStore.freeze(accountNumber);
+        return ResponseEntity.ok().build();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/accounts/{accountNumber}/freeze")
+    public ResponseEntity<Void> unfreezeAccount(@PathVariable String accountNumber) {
+        accountEventStore.unfreeze(accountNumber);
+        return ResponseEntity.ok().build();
+    }
+
+    // 캐시별 적중 / 미스 / 축출 수, 조회 시간, 항목 수, 추정 heap 크기
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatisticsResponse>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.statistics());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/caches/{name}")
+    public ResponseEntity<CacheStatisticsResponse> getCacheStatistics(@PathVariable String name) {
+        return ResponseEntity.ok(cacheStatisticsService.statistics(name));
+    }
+
+    // 캐시 전체 비우기
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/caches/{name}")
+    public ResponseEntity<Void> clearCache(@PathVariable String name) {
+        cacheStatisticsService.clear(name);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 키 하나 삭제 (없던 키면 404)
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/caches/{name}/keys/{key}")
+    public ResponseEntity<Void> evictCacheKey(@PathVariable String name, @PathVariable String key) {
+        return cacheStatisticsService.evict(name, key)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
 }
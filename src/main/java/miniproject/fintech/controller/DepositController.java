@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import miniproject.fintech.dto.DepositDto;
 import miniproject.fintech.service.DepositServiceImpl;
+import miniproject.fintech.service.IdempotencyService;
+import miniproject.fintech.service.OptimisticRetryExecutor;
+import miniproject.fintech.type.IdempotencyScope;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -12,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,19 +25,31 @@ import java.util.List;
 public class DepositController {
 
     private final DepositServiceImpl depositService;
+    private final IdempotencyService idempotencyService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
 
     @Autowired
-    public DepositController(DepositServiceImpl depositService) {
+    public DepositController(DepositServiceImpl depositService, IdempotencyService idempotencyService,
+                             OptimisticRetryExecutor optimisticRetryExecutor) {
         this.depositService = depositService;
+        this.idempotencyService = idempotencyService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
     }
 
     //TODO -> 비동기 처리 고려 @Async
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/process")
     @CacheEvict(value = "depositCache", allEntries = true) // 입금 처리 시 캐시 무효화
-    public ResponseEntity<DepositDto> processDeposit(@RequestBody DepositDto depositDto) {
+    public ResponseEntity<DepositDto> processDeposit(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody DepositDto depositDto,
+            Principal principal) {
         log.debug("Received processDeposit request: {}", depositDto);
-        DepositDto deposit = depositService.processDeposit(depositDto);
+        // 같은 Idempotency-Key 로 재시도하면 입금을 다시 실행하지 않고 처음 응답을 반환
+        DepositDto deposit = idempotencyService.execute(IdempotencyScope.DEPOSIT, principal.getName(), idempotencyKey,
+                depositDto, DepositDto.class,
+                () -> optimisticRetryExecutor.execute("deposit", () -> depositService.processDeposit(depositDto),
+                        depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber()));
         return ResponseEntity.status(HttpStatus.CREATED).body(deposit);
     }
 
@@ -67,7 +67,7 @@ public class MemberController {
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{userId}")
-    @Cacheable(value = "MemberCache", key = "#userId")
+    @Cacheable(value = "MemberCache", key = "#userId", sync = true) // 동시 미스는 한 번만 조회
     public ResponseEntity<Optional<BankMember>> getMemberById(@PathVariable String userId) {
         log.info("회원 정보 요청 수신: ID={}", userId);
 
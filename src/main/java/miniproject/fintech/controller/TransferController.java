@@ -4,10 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import miniproject.fintech.domain.Transfer;
 import miniproject.fintech.dto.DepositDto;
+import miniproject.fintech.dto.TransferBatchResponse;
 import miniproject.fintech.dto.TransferDto;
 import miniproject.fintech.error.CustomError;
+import miniproject.fintech.service.IdempotencyService;
+import miniproject.fintech.service.OptimisticRetryExecutor;
+import miniproject.fintech.service.TransferBatchService;
+import miniproject.fintech.service.TransferGroupCommitService;
 import miniproject.fintech.service.TransferServiceImpl;
+import miniproject.fintech.service.schedule.AsyncTransferService;
+import miniproject.fintech.service.schedule.ScheduledTransferService;
 import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.IdempotencyScope;
+import miniproject.fintech.type.TransferStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -16,7 +25,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -24,20 +35,91 @@ import java.util.List;
 public class TransferController {
 
     private final TransferServiceImpl transferService;
+    private final TransferBatchService transferBatchService;
+    private final TransferGroupCommitService transferGroupCommitService;
+    private final IdempotencyService idempotencyService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final ScheduledTransferService scheduledTransferService;
+    private final AsyncTransferService asyncTransferService;
 
     @Autowired
-    public TransferController(TransferServiceImpl transferService) {
+    public TransferController(TransferServiceImpl transferService, TransferBatchService transferBatchService,
+                              TransferGroupCommitService transferGroupCommitService, IdempotencyService idempotencyService,
+                              OptimisticRetryExecutor optimisticRetryExecutor, ScheduledTransferService scheduledTransferService,
+                              AsyncTransferService asyncTransferService) {
         this.transferService = transferService;
+        this.transferBatchService = transferBatchService;
+        this.transferGroupCommitService = transferGroupCommitService;
+        this.idempotencyService = idempotencyService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.scheduledTransferService = scheduledTransferService;
+        this.asyncTransferService = asyncTransferService;
     }
 
     @PreAuthorize("hasRole('USER')")
     @PostMapping("/process")
     @CacheEvict(value = "transfersCache", allEntries = true)
-    public ResponseEntity<TransferDto> processTransfer(@RequestBody TransferDto transferDto) {
+    public ResponseEntity<TransferDto> processTransfer(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody TransferDto transferDto,
+            Principal principal) {
         // 송금 요청 데이터 유효성 검사
         log.debug("Received processDeposit request: {}", transferDto);
-        TransferDto transfer = transferService.processTransfer(transferDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(transfer);
+        // 같은 Idempotency-Key 로 재시도하면 송금을 다시 실행하지 않고 처음 응답을 반환
+        // transferAt 이 미래면 WAITING 으로 등록만 하고 실행 시각에 스케줄러가 처리
+        TransferDto transfer = idempotencyService.execute(IdempotencyScope.TRANSFER, principal.getName(), idempotencyKey,
+                transferDto, TransferDto.class,
+                () -> scheduledTransferService.isFutureDated(transferDto)
+                        ? scheduledTransferService.schedule(transferDto)
+                        : optimisticRetryExecutor.execute("transfer", () -> transferGroupCommitService.processTransfer(transferDto),
+                        transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber()));
+        HttpStatus status = transfer.getTransferStatus() == TransferStatus.WAITING ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(transfer);
+    }
+
+    // 송금을 접수만 하고 202 와 송금 ID 를 바로 반환 (실행은 worker pool, 결과는 /transfer/{id}/status 로 확인)
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/submit")
+    @CacheEvict(value = "transfersCache", allEntries = true)
+    public ResponseEntity<TransferDto> submitTransfer(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody TransferDto transferDto,
+            Principal principal) {
+        log.debug("Received submitTransfer request: {}", transferDto);
+        TransferDto transfer = idempotencyService.execute(IdempotencyScope.TRANSFER, principal.getName(), idempotencyKey,
+                transferDto, TransferDto.class,
+                () -> scheduledTransferService.isFutureDated(transferDto)
+                        ? scheduledTransferService.schedule(transferDto)
+                        : asyncTransferService.submit(transferDto));
+        HttpStatus status = transfer.getTransferStatus() == TransferStatus.WAITING ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(transfer);
+    }
+
+    // waitMs 를 주면 완료될 때까지 최대 그 시간만큼 기다렸다가 응답 (long-poll, 요청 스레드는 바로 반환)
+    @PreAuthorize("hasRole('USER')")
+    @GetMapping("/{id}/status")
+    public CompletableFuture<ResponseEntity<TransferDto>> getTransferStatus(@PathVariable Long id,
+                                                                            @RequestParam(defaultValue = "0") long waitMs,
+                                                                            Principal principal) {
+        return asyncTransferService.awaitOutcome(id, principal.getName(), waitMs).thenApply(ResponseEntity::ok);
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/batch")
+    @CacheEvict(value = "transfersCache", allEntries = true)
+    public ResponseEntity<TransferBatchResponse> processTransferBatch(@RequestBody List<TransferDto> transferDtos) {
+        log.debug("Received processTransferBatch request: size = {}", transferDtos.size());
+        TransferBatchResponse response = transferBatchService.processBatch(transferDtos);
+        return ResponseEntity.ok().body(response);
+    }
+
+    // 실행 전인 예약 송금 취소
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping("/scheduled/{id}/cancel")
+    @CacheEvict(value = "transfersCache", allEntries = true)
+    public ResponseEntity<Void> cancelScheduledTransfer(@PathVariable Long id, Principal principal) {
+        scheduledTransferService.cancel(id, principal.getName());
+        return ResponseEntity.noContent().build();
     }
 
     @PreAuthorize("hasRole('USER')")
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
 import miniproject.fintech.type.AccountStatus;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -19,12 +20,23 @@ public class Account {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 여러 인스턴스가 같은 번호를 동시에 저장하지 못하도록 (존재 여부 필터는 참고용)
+    @Column(unique = true)
     private String accountNumber;
     private String name;
     private long amount;
     private LocalDateTime createdAt;
     private LocalDateTime deletedAt;
 
+    // 낙관적 락 (account.concurrency-mode=OPTIMISTIC 에서 동시 변경 감지)
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // account_event 중 amount / accountStatus 에 반영된 마지막 version (account.concurrency-mode=EVENT_SOURCED)
+    @ColumnDefault("0")
+    private long projectedVersion;
+
     @ManyToOne
     @JoinColumn(name = "bank_member_id")
     @JsonBackReference //역방향 쪽
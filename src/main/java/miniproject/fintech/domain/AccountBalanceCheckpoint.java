@@ -0,0 +1,24 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+//계좌별 분개 합계의 체크포인트 (잔액 = balance + lastEntryId 이후 분개 합계)
+public class AccountBalanceCheckpoint {
+
+    @Id
+    private String accountNumber;
+
+    private long balance;
+    private long lastEntryId;
+    private LocalDateTime checkpointedAt;
+}
@@ -0,0 +1,27 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_number", "slot_index"}))
+//핫 계좌의 잔액 일부를 나눠 담는 슬롯 (계좌 잔액 = Account.amount + 슬롯 합계)
+public class AccountBalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(name = "slot_index", nullable = false)
+    private int slotIndex;
+
+    private long amount;
+}
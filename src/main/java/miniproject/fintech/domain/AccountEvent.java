@@ -0,0 +1,38 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import miniproject.fintech.type.AccountEventType;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_account_event_version", columnNames = {"account_number", "version"}),
+        indexes = @Index(name = "idx_account_event_occurred", columnList = "account_number, occurred_at"))
+//계좌 잔액/상태 변경 이벤트 (추가만 함). 계좌별 version 이 1 부터 빈틈없이 증가하며, 같은 version 이 두 번 저장되면 동시 변경으로 본다
+public class AccountEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountEventType eventType;
+
+    // OPENED 는 개설 잔액, CREDITED / DEBITED 는 변화량, FROZEN / UNFROZEN 은 0
+    private long amount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
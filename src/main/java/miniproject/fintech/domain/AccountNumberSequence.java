@@ -0,0 +1,25 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+//계좌 번호 발급 시퀀스. nextValue: 아직 어느 노드에도 예약되지 않은 첫 값 (노드는 block-size 만큼씩 예약해 메모리에서 발급)
+public class AccountNumberSequence {
+
+    public static final long ACCOUNT_NUMBER_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long nextValue;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(indexes = @Index(name = "idx_account_snapshot_version", columnList = "account_number, version"))
+//version 까지의 이벤트를 적용한 계좌 상태 (snapshot-interval 이벤트마다 한 행씩 쌓임)
+public class AccountSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    private long version;
+    private long balance;
+    private boolean frozen;
+
+    // 스냅샷에 포함된 마지막 이벤트의 발생 시각 (시점 잔액 조회용)
+    private LocalDateTime takenAt;
+}
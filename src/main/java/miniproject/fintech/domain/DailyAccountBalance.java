@@ -0,0 +1,29 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_account_balance", columnNames = {"account_number", "cutoff"}))
+//cutoff 이전(미만)에 기록된 분개까지의 계좌 잔액. 그날 분개가 있었던 계좌만 한 행씩 추가된다
+public class DailyAccountBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    private long balance;
+    private LocalDateTime createdAt;
+}
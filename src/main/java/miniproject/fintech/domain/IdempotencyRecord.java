@@ -0,0 +1,49 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import miniproject.fintech.type.IdempotencyScope;
+import miniproject.fintech.type.IdempotencyStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "principal", "idempotency_key"}))
+//Idempotency-Key 로 처리한 요청의 응답 (재시도 시 그대로 반환)
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyScope scope;
+
+    // 요청한 사용자 (다른 사용자가 같은 key 를 보내도 서로의 응답을 돌려받지 않는다)
+    @Column(nullable = false, length = 100)
+    private String principal;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // 요청 본문의 SHA-256 (같은 key 로 다른 요청을 보냈는지 판단)
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,47 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import miniproject.fintech.type.JournalEntryType;
+import miniproject.fintech.type.JournalMovementType;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_journal_entry_account", columnList = "account_number, id"),
+        @Index(name = "idx_journal_entry_movement", columnList = "movement_id"),
+        @Index(name = "idx_journal_entry_created", columnList = "created_at"),
+        @Index(name = "idx_journal_entry_account_created", columnList = "account_number, created_at")
+})
+//복식 원장 분개 (추가만 하고 수정/삭제하지 않음). 잔액 이동 하나당 DEBIT 한 줄과 CREDIT 한 줄
+public class JournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 같은 이동의 DEBIT / CREDIT 을 묶는 ID
+    @Column(name = "movement_id", nullable = false, length = 36)
+    private String movementId;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private JournalEntryType entryType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JournalMovementType movementType;
+
+    private long amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,28 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+//원장 진행 위치. JOURNAL_ID: 원장 저널 중 account 테이블까지 반영된 마지막 sequence (write-behind 배치와 같은 트랜잭션에서 갱신)
+//JOURNAL_ENTRY_ID: 계좌별 체크포인트에 합산된 마지막 journal_entry ID, ACCOUNT_PROJECTION_ID: projection 이 마지막으로 읽은 account_event ID (다음 조회 시작점, 반영 여부는 account.projectedVersion)
+public class LedgerCheckpoint {
+
+    public static final long JOURNAL_ID = 1L;
+    public static final long JOURNAL_ENTRY_ID = 2L;
+    public static final long ACCOUNT_PROJECTION_ID = 3L;
+
+    @Id
+    private Long id;
+
+    private long journalSequence;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package miniproject.fintech.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import miniproject.fintech.type.OutboxEventType;
+import miniproject.fintech.type.OutboxStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+//송금/입금과 같은 트랜잭션에 저장되는 이벤트 (커밋 후 relay 가 알림으로 전달)
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OutboxEventType eventType;
+
+    // 송금 / 입금 ID
+    private Long aggregateId;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    private int attempts;
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime deliveredAt;
+}
@@ -36,4 +36,7 @@ public class Transfer {
 
     private String message;
 
+    // 예약 송금을 요청한 회원 ID (실행 시점에 거래 내역 기록용)
+    private String userId;
+
 }
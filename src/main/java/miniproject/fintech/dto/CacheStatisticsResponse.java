@@ -0,0 +1,30 @@
+package miniproject.fintech.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsResponse {
+
+    private String name;
+
+    // JCache 통계 (기동 후 누적)
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+
+    // 캐시 미스 조회 (SingleFlightCache)
+    private long loads;
+    private double meanLoadMillis;
+    private double maxLoadMillis;
+
+    // 크기 (size-refresh-ms 마다 다시 계산)
+    private long entries;
+    private long sampledEntries;
+    private long averageEntryBytes;
+    private long estimatedHeapBytes;
+}
@@ -0,0 +1,29 @@
+package miniproject.fintech.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalReconciliationResponse {
+
+    // 검사한 journal_entry ID 범위 (0, checkedThroughId]
+    private long checkedThroughId;
+    private int chunkCount;
+
+    private long totalDebits;
+    private long totalCredits;
+    private boolean balanced;
+
+    // DEBIT 과 CREDIT 합이 맞지 않는 이동 ID
+    private List<String> unbalancedMovementIds;
+    // 계좌 번호 -> (account 잔액 - 분개 잔액), 차이가 있는 계좌만
+    private Map<String, Long> accountDrift;
+
+    private long elapsedMillis;
+}
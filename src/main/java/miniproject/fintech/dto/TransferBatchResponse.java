@@ -0,0 +1,24 @@
+package miniproject.fintech.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferBatchResponse {
+
+    private int totalCount;
+    private int successCount;
+    private int failureCount;
+    // 상계 후 실제로 반영한 잔액 UPDATE 수 (인메모리 원장 엔진 사용 시 0)
+    private int balanceUpdateCount;
+
+    private long elapsedMillis;
+    private double transfersPerSecond;
+
+    private List<TransferBatchResult> results;
+}
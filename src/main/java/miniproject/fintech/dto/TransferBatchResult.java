@@ -0,0 +1,20 @@
+package miniproject.fintech.dto;
+
+import lombok.*;
+import miniproject.fintech.type.ErrorType;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferBatchResult {
+
+    private int index;              // 요청 목록에서의 위치
+    private boolean success;
+    private ErrorType errorType;    // 실패한 경우만
+    private String message;
+
+    private TransferDto transfer;
+    private String referenceNumber; // 성공한 경우 거래 내역 참조 번호
+}
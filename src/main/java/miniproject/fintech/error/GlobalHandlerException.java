@@ -32,6 +32,19 @@ public class GlobalHandlerException {
         return ResponseEntity.status(determineHttpStatus(ex.getErrorType())).body(errorResponse);
     }
 
+    // 요청이 나중에 반영될 수 있으므로 실패(5xx)가 아닌 202 로 알리고, 결과는 같은 Idempotency-Key 로 다시 요청해 확인한다
+    @ExceptionHandler(OutcomeUnknownException.class)
+    public ResponseEntity<ErrorResponse> handleOutcomeUnknown(OutcomeUnknownException ex, HttpServletRequest request) {
+        log.warn("처리 결과 확인 대기: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.ACCEPTED.value(),
+                "요청을 처리 중입니다. 결과는 같은 Idempotency-Key 로 다시 요청해 확인하세요.",
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(errorResponse);
+    }
+
     @ExceptionHandler(NullPointerException.class)
     public ResponseEntity<String> handleNullPointException(NullPointerException exception) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -84,14 +97,18 @@ public class GlobalHandlerException {
     private HttpStatus determineHttpStatus(ErrorType errorType) {
         return switch (errorType) {
             case ID_NULL -> HttpStatus.BAD_REQUEST;
-            case EMAIL_DUPLICATE, ACCOUNT_NUMBER_DUPLICATE -> HttpStatus.CONFLICT;
+            case EMAIL_DUPLICATE, ACCOUNT_NUMBER_DUPLICATE, IDEMPOTENCY_REQUEST_IN_PROGRESS, OPTIMISTIC_LOCK_RETRY_EXHAUSTED,
+                 SCHEDULED_TRANSFER_NOT_CANCELABLE, ACCOUNT_FROZEN -> HttpStatus.CONFLICT;
             case PASSWORD_INCORRECT -> HttpStatus.UNAUTHORIZED;
-            case MEMBER_NOT_FOUND, SOURCE_ID_NOT_FOUND, DESTINATION_ID_NOT_FOUND, ACCOUNT_ID_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case MEMBER_NOT_FOUND, SOURCE_ID_NOT_FOUND, DESTINATION_ID_NOT_FOUND, ACCOUNT_ID_NOT_FOUND,
+                 CACHE_NOT_FOUND -> HttpStatus.NOT_FOUND;
             case ACCOUNT_DELETE_FAILED, TRANSACTION_DELETE_FAILED -> HttpStatus.EXPECTATION_FAILED;
             case IN_CORRECT -> HttpStatus.BAD_REQUEST;
-            case MUST_NOT_NULL -> HttpStatus.BAD_REQUEST;
+            case MUST_NOT_NULL, BATCH_SIZE_EXCEEDED, IDEMPOTENCY_KEY_INVALID -> HttpStatus.BAD_REQUEST;
             case NOT_ALLOWED_ACCESS -> HttpStatus.FORBIDDEN;
             case GRADE_NOT_VIP -> HttpStatus.BAD_GATEWAY;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case TRANSFER_QUEUE_FULL -> HttpStatus.SERVICE_UNAVAILABLE;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
     }
@@ -0,0 +1,22 @@
+package miniproject.fintech.error;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청을 넘겼지만 대기 시간 안에 결과를 받지 못해 반영 여부를 알 수 없는 경우 (group commit / 원장 엔진 대기 시간 초과, 인터럽트).
+ * 요청은 여전히 큐에 남아 나중에 반영될 수 있으므로 실패로 보고 다시 실행하면 안 된다.
+ * outcome 이 있으면 실제 결과(응답 또는 실패)로 완료된다.
+ */
+public class OutcomeUnknownException extends RuntimeException {
+
+    private final CompletableFuture<?> outcome;
+
+    public OutcomeUnknownException(String message, CompletableFuture<?> outcome, Throwable cause) {
+        super(message, cause);
+        this.outcome = outcome;
+    }
+
+    public CompletableFuture<?> getOutcome() {
+        return outcome;
+    }
+}
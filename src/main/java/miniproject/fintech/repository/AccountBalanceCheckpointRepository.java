@@ -0,0 +1,9 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.AccountBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountBalanceCheckpointRepository extends JpaRepository<AccountBalanceCheckpoint, String> {
+}
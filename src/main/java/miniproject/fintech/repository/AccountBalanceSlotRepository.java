@@ -0,0 +1,50 @@
+package miniproject.fintech.repository;
+
+import jakarta.persistence.LockModeType;
+import miniproject.fintech.domain.AccountBalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    // [accountNumber, 슬롯 수]
+    @Query("select s.accountNumber, count(s) from AccountBalanceSlot s group by s.accountNumber")
+    List<Object[]> countSlotsByAccountNumber();
+
+    // [slotIndex, amount]
+    @Query("select s.slotIndex, s.amount from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+    List<Object[]> findSlotAmounts(@Param("accountNumber") String accountNumber);
+
+    @Query("select coalesce(sum(s.amount), 0) from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+    long sumAmount(@Param("accountNumber") String accountNumber);
+
+    @Query("select coalesce(sum(s.amount), 0) from AccountBalanceSlot s")
+    long sumAllAmounts();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.amount = s.amount + :amount " +
+            "where s.accountNumber = :accountNumber and s.slotIndex = :slotIndex")
+    int credit(@Param("accountNumber") String accountNumber, @Param("slotIndex") int slotIndex, @Param("amount") long amount);
+
+    // 슬롯에 남은 금액이 충분할 때만 차감 (동시에 쓸어 담는 쪽이 있으면 0 건)
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.amount = s.amount - :amount " +
+            "where s.accountNumber = :accountNumber and s.slotIndex = :slotIndex and s.amount >= :amount")
+    int take(@Param("accountNumber") String accountNumber, @Param("slotIndex") int slotIndex, @Param("amount") long amount);
+
+    // 핫 계좌 해제 시 최신 값을 읽으면서 슬롯 행을 잠근다 (대기하던 입금은 삭제 후 0 건이 되어 본 잔액으로 들어감)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+    List<AccountBalanceSlot> findAllForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+    int deleteByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,41 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.AccountEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    List<AccountEvent> findByAccountNumberAndVersionGreaterThanOrderByVersionAsc(String accountNumber, long version);
+
+    @Query("select e from AccountEvent e where e.accountNumber = :accountNumber and e.version > :afterVersion " +
+            "and e.occurredAt <= :asOf order by e.version")
+    List<AccountEvent> findEventsUntil(@Param("accountNumber") String accountNumber,
+                                       @Param("afterVersion") long afterVersion,
+                                       @Param("asOf") LocalDateTime asOf);
+
+    // projection 빠른 경로: 마지막으로 본 ID 이후 이벤트 (늦게 커밋된 작은 ID 는 findUnprojected 가 찾는다)
+    @Query("select e from AccountEvent e where e.id > :afterId order by e.id")
+    List<AccountEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // account 행에 아직 반영되지 않은 version 의 이벤트 ((account_number, version) 유니크 인덱스 범위 조회)
+    @Query("select e from AccountEvent e, Account a where a.accountNumber = e.accountNumber " +
+            "and e.version > a.projectedVersion order by e.accountNumber, e.version")
+    List<AccountEvent> findUnprojected(Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountEvent e set e.accountNumber = :newAccountNumber where e.accountNumber = :accountNumber")
+    int renameAccount(@Param("accountNumber") String accountNumber, @Param("newAccountNumber") String newAccountNumber);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from AccountEvent e where e.accountNumber = :accountNumber")
+    int deleteByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,23 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.AccountNumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AccountNumberSequenceRepository extends JpaRepository<AccountNumberSequence, Long> {
+
+    // 블록 예약: 행 락을 잡고 size 만큼 전진 (커밋 전까지 다른 노드는 대기하므로 이어서 읽은 값까지가 이 노드의 블록)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountNumberSequence s set s.nextValue = s.nextValue + :size, s.updatedAt = :now where s.id = :id")
+    int reserve(@Param("id") Long id, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    @Query("select s.nextValue from AccountNumberSequence s where s.id = :id")
+    Optional<Long> findNextValue(@Param("id") Long id);
+}
@@ -1,10 +1,20 @@
 package miniproject.fintech.repository;
 
+import jakarta.persistence.QueryHint;
 import miniproject.fintech.domain.Account;
+import miniproject.fintech.type.AccountStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -12,4 +22,52 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
 
     boolean existsByAccountNumber(String accountNumber);
+
+    @Query("select a.accountNumber from Account a where a.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") Long id);
+
+    // 존재 여부 필터용 스캔: [id, accountNumber] (afterId = 0 이면 전체, 트랜잭션 안에서 스트리밍)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.id, a.accountNumber from Account a where a.id > :afterId")
+    Stream<Object[]> streamAccountNumbersAfter(@Param("afterId") long afterId);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    @Query("select a.amount from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findAmountByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // 잔액이 충분할 때만 차감 (갱신된 행이 0 이면 잔액 부족 또는 계좌 없음)
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Account a set a.amount = a.amount - :amount " +
+            "where a.accountNumber = :accountNumber and a.amount >= :amount")
+    int debit(@Param("accountNumber") String accountNumber, @Param("amount") long amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Account a set a.amount = a.amount + :amount where a.accountNumber = :accountNumber")
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") long amount);
+
+    // 이미 검증이 끝난 변화량을 그대로 반영 (write-behind 용, 음수 가능)
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Account a set a.amount = a.amount + :delta where a.accountNumber = :accountNumber")
+    int applyDelta(@Param("accountNumber") String accountNumber, @Param("delta") long delta);
+
+    // 이벤트 projection 반영 (account.concurrency-mode=EVENT_SOURCED): 반영된 version 이 fromVersion 일 때만 toVersion 까지 반영
+    @Modifying(flushAutomatically = true)
+    @Query("update versioned Account a set a.amount = a.amount + :delta, a.accountStatus = coalesce(:status, a.accountStatus), " +
+            "a.projectedVersion = :toVersion where a.accountNumber = :accountNumber and a.projectedVersion = :fromVersion")
+    int project(@Param("accountNumber") String accountNumber, @Param("delta") long delta,
+                @Param("status") AccountStatus status, @Param("fromVersion") long fromVersion,
+                @Param("toVersion") long toVersion);
+
+    // [accountNumber, projectedVersion]
+    @Query("select a.accountNumber, a.projectedVersion from Account a where a.accountNumber in :accountNumbers")
+    List<Object[]> findProjectedVersions(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select coalesce(sum(a.amount), 0) from Account a")
+    long sumAmount();
+
+    // [id, accountNumber, amount] (핫 계좌는 슬롯 합계 포함)
+    @Query("select a.id, a.accountNumber, a.amount + coalesce((select sum(s.amount) from AccountBalanceSlot s " +
+            "where s.accountNumber = a.accountNumber), 0) from Account a")
+    List<Object[]> findAllAccountBalances();
 }
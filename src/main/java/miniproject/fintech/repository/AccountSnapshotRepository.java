@@ -0,0 +1,28 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.AccountSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AccountSnapshotRepository extends JpaRepository<AccountSnapshot, Long> {
+
+    Optional<AccountSnapshot> findFirstByAccountNumberOrderByVersionDesc(String accountNumber);
+
+    Optional<AccountSnapshot> findFirstByAccountNumberAndTakenAtLessThanEqualOrderByVersionDesc(String accountNumber,
+                                                                                               LocalDateTime asOf);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update AccountSnapshot s set s.accountNumber = :newAccountNumber where s.accountNumber = :accountNumber")
+    int renameAccount(@Param("accountNumber") String accountNumber, @Param("newAccountNumber") String newAccountNumber);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from AccountSnapshot s where s.accountNumber = :accountNumber")
+    int deleteByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,28 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.DailyAccountBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyAccountBalanceRepository extends JpaRepository<DailyAccountBalance, Long> {
+
+    Optional<DailyAccountBalance> findFirstByAccountNumberAndCutoffLessThanEqualOrderByCutoffDesc(String accountNumber,
+                                                                                                  LocalDateTime asOf);
+
+    @Query("select max(d.cutoff) from DailyAccountBalance d")
+    Optional<LocalDateTime> findLatestCutoff();
+
+    // [accountNumber, balance] cutoff 이전의 계좌별 마지막 잔액
+    @Query("select d.accountNumber, d.balance from DailyAccountBalance d where d.accountNumber in :accountNumbers " +
+            "and d.cutoff = (select max(p.cutoff) from DailyAccountBalance p where p.accountNumber = d.accountNumber and p.cutoff < :cutoff)")
+    List<Object[]> findLatestBalancesBefore(@Param("accountNumbers") Collection<String> accountNumbers,
+                                            @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,15 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.IdempotencyRecord;
+import miniproject.fintech.type.IdempotencyScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndPrincipalAndIdempotencyKey(IdempotencyScope scope, String principal,
+                                                                         String idempotencyKey);
+}
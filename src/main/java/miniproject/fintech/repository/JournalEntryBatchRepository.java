@@ -0,0 +1,37 @@
+package miniproject.fintech.repository;
+
+import lombok.RequiredArgsConstructor;
+import miniproject.fintech.domain.JournalEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * journal_entry JDBC 배치 INSERT (IDENTITY 전략이라 Hibernate 로는 INSERT 가 묶이지 않는다).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalEntryBatchRepository {
+
+    private static final String INSERT_JOURNAL_ENTRY = "insert into journal_entry " +
+            "(movement_id, account_number, entry_type, movement_type, amount, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    public void insert(List<JournalEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_JOURNAL_ENTRY, entries, batchSize, (ps, entry) -> {
+            ps.setString(1, entry.getMovementId());
+            ps.setString(2, entry.getAccountNumber());
+            ps.setString(3, entry.getEntryType().name());
+            ps.setString(4, entry.getMovementType().name());
+            ps.setLong(5, entry.getAmount());
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+}
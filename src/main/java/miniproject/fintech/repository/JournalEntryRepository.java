@@ -0,0 +1,53 @@
+package miniproject.fintech.repository;
+
+import miniproject.fintech.domain.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+
+    // 계좌의 afterId 이후 분개 합계 (CREDIT +, DEBIT -)
+    @Query("select coalesce(sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.CREDIT then e.amount else -e.amount end), 0) " +
+            "from JournalEntry e where e.accountNumber = :accountNumber and e.id > :afterId")
+    long sumSince(@Param("accountNumber") String accountNumber, @Param("afterId") long afterId);
+
+    // [accountNumber, 순합계] (afterId, uptoId] 구간
+    @Query("select e.accountNumber, sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.CREDIT then e.amount else -e.amount end) " +
+            "from JournalEntry e where e.id > :afterId and e.id <= :uptoId group by e.accountNumber")
+    List<Object[]> sumByAccountBetween(@Param("afterId") long afterId, @Param("uptoId") long uptoId);
+
+    // [entryType, 합계] (afterId, uptoId] 구간
+    @Query("select e.entryType, coalesce(sum(e.amount), 0) from JournalEntry e where e.id > :afterId and e.id <= :uptoId group by e.entryType")
+    List<Object[]> sumByEntryTypeBetween(@Param("afterId") long afterId, @Param("uptoId") long uptoId);
+
+    // [movementId, DEBIT - CREDIT] 구간 안에서 DEBIT 과 CREDIT 이 맞지 않는 이동 (구간 경계에 걸린 이동은 호출하는 쪽에서 합산)
+    @Query("select e.movementId, sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.DEBIT then e.amount else -e.amount end) " +
+            "from JournalEntry e where e.id > :afterId and e.id <= :uptoId group by e.movementId " +
+            "having sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.DEBIT then e.amount else -e.amount end) <> 0")
+    List<Object[]> findImbalancedMovementsBetween(@Param("afterId") long afterId, @Param("uptoId") long uptoId);
+
+    // [accountNumber, 순합계] from <= createdAt < to (일별 잔액 체크포인트용)
+    @Query("select e.accountNumber, sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.CREDIT then e.amount else -e.amount end) " +
+            "from JournalEntry e where e.createdAt >= :from and e.createdAt < :to group by e.accountNumber")
+    List<Object[]> sumByAccountCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 계좌의 from <= createdAt <= asOf 분개 합계 ((account_number, created_at) 인덱스 범위 조회)
+    @Query("select coalesce(sum(case when e.entryType = miniproject.fintech.type.JournalEntryType.CREDIT then e.amount else -e.amount end), 0) " +
+            "from JournalEntry e where e.accountNumber = :accountNumber and e.createdAt >= :from and e.createdAt <= :asOf")
+    long sumCreatedBetween(@Param("accountNumber") String accountNumber, @Param("from") LocalDateTime from,
+                           @Param("asOf") LocalDateTime asOf);
+
+    @Query("select coalesce(max(e.id), 0) from JournalEntry e")
+    long findMaxId();
+
+    @Query("select a.accountNumber from Account a where a.accountNumber is not null " +
+            "and not exists (select 1 from JournalEntry e where e.accountNumber = a.accountNumber) " +
+            "and not exists (select 1 from AccountBalanceCheckpoint c where c.accountNumber = a.accountNumber)")
+    List<String> findAccountNumbersWithoutEntries();
+}
@@ -0,0 +1,27 @@
+package miniproject.fintech.repository;
+
+import jakarta.persistence.LockModeType;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+
+    // 앞으로만 이동 (재반영 중 같은 배치를 다시 반영해도 되돌아가지 않음)
+    @Modifying(flushAutomatically = true)
+    @Query("update LedgerCheckpoint c set c.journalSequence = :sequence, c.updatedAt = :now where c.id = :id and c.journalSequence < :sequence")
+    int advance(@Param("id") Long id, @Param("sequence") long sequence, @Param("now") LocalDateTime now);
+
+    // 여러 인스턴스가 같은 구간을 두 번 합산하지 않도록 행 락
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from LedgerCheckpoint c where c.id = :id")
+    Optional<LedgerCheckpoint> findForUpdate(@Param("id") Long id);
+}
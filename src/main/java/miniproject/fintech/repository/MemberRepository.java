@@ -1,14 +1,20 @@
 package miniproject.fintech.repository;
 
+import jakarta.persistence.QueryHint;
 import miniproject.fintech.domain.BankMember;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 //JpaRepository는 두개의 제네릭 타입 필요
 //첫번째는 엔티티 ID 타입, 두번째는 엔티티 타입
@@ -27,8 +33,15 @@ public interface MemberRepository extends JpaRepository<BankMember, Long>{
 
     Optional<BankMember> findByUserId(String userId);
 
+    List<BankMember> findByUserIdIn(Collection<String> userIds);
+
     boolean existsByUserId(String userId);
 
+    // 존재 여부 필터용 스캔: [id, userId] (afterId = 0 이면 전체, 트랜잭션 안에서 스트리밍)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select m.id, m.userId from BankMember m where m.id > :afterId")
+    Stream<Object[]> streamUserIdsAfter(@Param("afterId") long afterId);
+
     void deleteByUserId(String userId);
 
 }
@@ -0,0 +1,36 @@
+package miniproject.fintech.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import miniproject.fintech.domain.OutboxEvent;
+import miniproject.fintech.type.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // 전달할 이벤트를 잠그며 조회 (다른 인스턴스의 relay 가 잡고 있는 행은 건너뜀: lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.status = :status and e.nextAttemptAt <= :now order by e.id")
+    List<OutboxEvent> findDeliverable(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    // gateway 발송이 끝난 이벤트를 한 번에 전달 완료로 표시 (이미 다른 상태로 바뀐 행은 건드리지 않음)
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :delivered, e.deliveredAt = :now where e.id in :ids and e.status = :pending")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("pending") OutboxStatus pending,
+                      @Param("delivered") OutboxStatus delivered, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = :status and e.deliveredAt < :before")
+    int deleteDeliveredBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
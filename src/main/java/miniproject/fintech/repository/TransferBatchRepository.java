@@ -0,0 +1,108 @@
+package miniproject.fintech.repository;
+
+import lombok.RequiredArgsConstructor;
+import miniproject.fintech.domain.Transaction;
+import miniproject.fintech.domain.Transfer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 송금 일괄 처리용 JDBC 배치 INSERT / 상계 잔액 UPDATE.
+ * Transfer / Transaction 은 IDENTITY 전략이라 Hibernate 가 INSERT 를 배치로 묶지 못하므로,
+ * 대량 저장은 JdbcTemplate.batchUpdate 로 처리한다. (rewriteBatchedStatements=true 이면 multi-row INSERT 로 전송)
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferBatchRepository {
+
+    private static final String INSERT_TRANSACTION = "insert into transaction " +
+            "(transaction_amount, transaction_type, transaction_status, transacted_at, cur_amount, reference_number, " +
+            "currency, bank_member_id, source_account_number, destination_account_number, account_id, fee, message, counterparty_info) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSFER = "insert into transfer " +
+            "(transfer_amount, transfer_at, source_account_number, destination_account_number, transfer_status, message) " +
+            "values (?, ?, ?, ?, ?, ?)";
+
+    // 잔액이 음수가 되지 않을 때만 반영 (@Version 을 쓰는 다른 경로가 변경을 감지하도록 version 도 올린다)
+    private static final String APPLY_NET_DELTA = "update account set amount = amount + ?, version = coalesce(version, 0) + 1 " +
+            "where account_number = ? and amount + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    public void insertTransactions(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions, batchSize, (ps, transaction) -> {
+            ps.setLong(1, transaction.getTransactionAmount());
+            ps.setString(2, transaction.getTransactionType().name());
+            ps.setString(3, transaction.getTransactionStatus().name());
+            ps.setTimestamp(4, Timestamp.valueOf(transaction.getTransactedAt()));
+            ps.setLong(5, transaction.getCurAmount());
+            ps.setString(6, transaction.getReferenceNumber());
+            ps.setString(7, transaction.getCurrency());
+            ps.setLong(8, transaction.getBankMember().getId());
+            ps.setString(9, transaction.getSourceAccountNumber());
+            ps.setString(10, transaction.getDestinationAccountNumber());
+            setNullableId(ps, 11, transaction.getAccount() == null ? null : transaction.getAccount().getId());
+            ps.setDouble(12, transaction.getFee());
+            ps.setString(13, transaction.getMessage());
+            ps.setString(14, transaction.getCounterpartyInfo());
+        });
+    }
+
+    public void insertTransfers(List<Transfer> transfers) {
+        jdbcTemplate.batchUpdate(INSERT_TRANSFER, transfers, batchSize, (ps, transfer) -> {
+            ps.setLong(1, transfer.getTransferAmount());
+            ps.setTimestamp(2, transfer.getTransferAt() == null ? null : Timestamp.valueOf(transfer.getTransferAt()));
+            ps.setString(3, transfer.getSourceAccountNumber());
+            ps.setString(4, transfer.getDestinationAccountNumber());
+            ps.setString(5, transfer.getTransferStatus().name());
+            ps.setString(6, transfer.getMessage());
+        });
+    }
+
+    /**
+     * 계좌별 순변화량을 JDBC 배치 UPDATE 로 반영한다. 반영되지 않았거나 반영 여부를 확인할 수 없는 계좌 번호
+     * (없는 계좌, 잔액 부족, 드라이버가 건수를 돌려주지 않은 경우)를 반환한다.
+     */
+    public List<String> applyNetDeltas(Map<String, Long> netDeltas) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(netDeltas.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(APPLY_NET_DELTA, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setString(2, entry.getKey());
+            ps.setLong(3, entry.getValue());
+        });
+
+        List<String> rejected = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 조건부 UPDATE 라 정확히 1 건일 때만 반영된 것으로 본다 (SUCCESS_NO_INFO(-2) 처럼 확인할 수 없으면 거절)
+                if (count != 1) {
+                    rejected.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    private static void setNullableId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, id);
+        }
+    }
+}
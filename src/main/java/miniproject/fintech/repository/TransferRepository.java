@@ -4,7 +4,11 @@ import miniproject.fintech.domain.Account;
 import miniproject.fintech.domain.Transfer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import miniproject.fintech.type.TransferStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -17,6 +21,30 @@ public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
     Page<Transfer> findAll(Pageable pageable);
 
+    // 요청한 사용자의 송금만 (다른 사용자의 송금 ID 는 없는 것과 같게 보인다)
+    Optional<Transfer> findByIdAndUserId(Long id, String userId);
+
     List<Transfer> findBySourceAccountNumberOrDestinationAccountNumber(String accountNumber1, String accountNumber2);
 
+    // 예약 송금 적재용 [id, transferAt] (id 기준 keyset 페이지)
+    @Query("select t.id, t.transferAt from Transfer t where t.transferStatus = :status and t.id > :afterId order by t.id")
+    List<Object[]> findScheduleAfter(@Param("status") TransferStatus status, @Param("afterId") long afterId, Pageable pageable);
+
+    // 현재 상태가 expected 일 때만 변경 (예약 송금 선점 / 실패 처리 / 취소)
+    @Modifying(flushAutomatically = true)
+    @Query("update Transfer t set t.transferStatus = :status, t.message = :message where t.id = :id and t.transferStatus = :expected")
+    int updateStatusIf(@Param("id") Long id, @Param("expected") TransferStatus expected,
+                       @Param("status") TransferStatus status, @Param("message") String message);
+
+    // updateStatusIf 와 같지만 요청한 사용자의 송금일 때만 변경 (사용자 취소)
+    @Modifying(flushAutomatically = true)
+    @Query("update Transfer t set t.transferStatus = :status, t.message = :message " +
+            "where t.id = :id and t.userId = :userId and t.transferStatus = :expected")
+    int updateStatusIfOwnedBy(@Param("id") Long id, @Param("userId") String userId, @Param("expected") TransferStatus expected,
+                              @Param("status") TransferStatus status, @Param("message") String message);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Transfer t where t.id = :id and t.transferStatus = :expected")
+    int deleteIf(@Param("id") Long id, @Param("expected") TransferStatus expected);
+
 }
@@ -0,0 +1,185 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.error.CustomError;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NUMBER_NULL;
+
+/**
+ * 계좌 번호 기준 스트라이프 락 매니저.
+ * 계좌 번호를 고정된 개수의 락(stripe)에 매핑하고, 항상 stripe 인덱스 오름차순으로 획득한다.
+ * A→B 송금과 B→A 송금이 동시에 들어와도 같은 순서로 락을 잡기 때문에 데드락이 생기지 않고,
+ * 서로 관련 없는 계좌 쌍은 다른 stripe 에 걸리므로 병렬로 처리된다.
+ */
+@Slf4j
+@Component
+public class AccountLockManager {
+
+    // 대기 시간 히스토그램 구간 수 (0: 대기 없음, 나머지: 대기 마이크로초의 2의 거듭제곱 구간)
+    private static final int HISTOGRAM_BUCKETS = 22;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder[] waitHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+
+    public AccountLockManager(@Value("${account.lock.stripes:1024}") int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            waitHistogram[i] = new LongAdder();
+        }
+        log.info("계좌 락 매니저 초기화: stripe 수 = {}", size);
+    }
+
+    /**
+     * 주어진 계좌들의 락을 고정된 순서로 획득한다. 반환된 핸들을 close 하면 역순으로 해제된다.
+     */
+    public AccountLocks lock(String... accountNumbers) {
+        int[] indexes = stripeIndexes(accountNumbers);
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                acquired++;
+            }
+        } catch (RuntimeException e) {
+            release(indexes, acquired);
+            throw e;
+        }
+        return new AccountLocks(indexes);
+    }
+
+    /**
+     * 현재 트랜잭션이 끝날 때(커밋/롤백 이후)까지 계좌 락을 유지한다.
+     * 커밋 전에 락을 풀면 다른 스레드가 커밋 전 잔액을 읽을 수 있으므로, 해제는 afterCompletion 에서 한다.
+     */
+    public void lockUntilCompletion(String... accountNumbers) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("활성화된 트랜잭션이 없습니다. lock() 을 사용하세요.");
+        }
+
+        AccountLocks locks = lock(accountNumbers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.close();
+            }
+        });
+    }
+
+    int stripeOf(String accountNumber) {
+        if (accountNumber == null) {
+            throw new CustomError(ACCOUNT_NUMBER_NULL);
+        }
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // 중복을 제거한 stripe 인덱스를 오름차순으로 정렬 (락 획득 순서 고정)
+    private int[] stripeIndexes(String... accountNumbers) {
+        int[] indexes = new int[accountNumbers.length];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            indexes[i] = stripeOf(accountNumbers[i]);
+        }
+        Arrays.sort(indexes);
+
+        int distinct = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        return distinct == indexes.length ? indexes : Arrays.copyOf(indexes, distinct);
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            waitHistogram[0].increment();
+            return;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        lock.lock();
+        long waitedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        waitHistogram[bucketOf(waitedMicros)].increment();
+    }
+
+    private void release(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private static int bucketOf(long waitedMicros) {
+        int bucket = 64 - Long.numberOfLeadingZeros(waitedMicros) + 1;
+        return Math.min(bucket, HISTOGRAM_BUCKETS - 1);
+    }
+
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    public long getContendedCount() {
+        return contended.sum();
+    }
+
+    /**
+     * 락 대기 시간 분포. key 는 구간의 상한(마이크로초), 값은 해당 구간에 속한 락 획득 횟수.
+     */
+    public Map<String, Long> getContentionHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        histogram.put("uncontended", waitHistogram[0].sum());
+        for (int i = 1; i < HISTOGRAM_BUCKETS - 1; i++) {
+            histogram.put("<" + (1L << (i - 1)) + "us", waitHistogram[i].sum());
+        }
+        histogram.put(">=" + (1L << (HISTOGRAM_BUCKETS - 3)) + "us", waitHistogram[HISTOGRAM_BUCKETS - 1].sum());
+        return histogram;
+    }
+
+    /**
+     * 획득한 stripe 락 묶음. 획득한 스레드에서 한 번만 close 해야 한다.
+     */
+    public final class AccountLocks implements AutoCloseable {
+
+        private final int[] indexes;
+        private boolean released;
+
+        private AccountLocks(int[] indexes) {
+            this.indexes = indexes;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            release(indexes, indexes.length);
+        }
+    }
+}
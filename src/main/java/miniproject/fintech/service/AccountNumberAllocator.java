@@ -0,0 +1,139 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.AccountNumberSequence;
+import miniproject.fintech.repository.AccountNumberSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 번호 발급기. account_number_sequence 에서 block-size 개의 값을 한 번에 예약하고, 예약한 블록 안에서는
+ * DB 를 거치지 않고 AtomicLong 으로 발급한다. 노드마다 서로 다른 블록을 예약하므로 발급한 번호끼리는 겹치지 않고,
+ * 중복 확인 조회가 필요 없다. 번호 형식은 prefix + 일련번호(9자리) + Luhn 검증 숫자이고,
+ * 이 형식의 번호는 발급기만 쓸 수 있다 (직접 지정한 번호는 isReserved 로 거절해 발급 번호와 겹치지 않게 한다).
+ * 재시작하면 쓰지 않은 블록의 나머지는 버려진다 (번호에 빈 곳이 생길 뿐 중복은 없음).
+ */
+@Slf4j
+@Service
+public class AccountNumberAllocator {
+
+    static final int SERIAL_DIGITS = 9;
+    private static final long MAX_SERIAL = 1_000_000_000L;
+
+    private final AccountNumberSequenceRepository sequenceRepository;
+    private final TransactionTemplate reserveTemplate;
+    private final String prefix;
+    private final long blockSize;
+    private volatile Block current = new Block(0, 0);
+
+    public AccountNumberAllocator(AccountNumberSequenceRepository sequenceRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${account.number.prefix:110}") String prefix,
+                                  @Value("${account.number.block-size:1000}") long blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        // 계좌 생성 트랜잭션과 별도로 바로 커밋해 시퀀스 행 락을 짧게 잡는다
+        this.reserveTemplate = new TransactionTemplate(transactionManager);
+        this.reserveTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.prefix = prefix;
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        while (true) {
+            Block block = current;
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return format(prefix, serial);
+            }
+            refill(block);
+        }
+    }
+
+    // 다 쓴 블록을 본 스레드 중 하나만 새 블록을 예약한다
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        try {
+            current = reserve();
+        } catch (DataIntegrityViolationException e) {
+            // 첫 예약에서 다른 노드가 시퀀스 행을 먼저 만든 경우: 다시 예약
+            log.debug("계좌 번호 시퀀스 행 생성 충돌, 다시 예약합니다.");
+        }
+    }
+
+    private Block reserve() {
+        Long end = reserveTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (sequenceRepository.reserve(AccountNumberSequence.ACCOUNT_NUMBER_ID, blockSize, now) == 0) {
+                sequenceRepository.saveAndFlush(AccountNumberSequence.builder()
+                        .id(AccountNumberSequence.ACCOUNT_NUMBER_ID)
+                        .nextValue(blockSize)
+                        .updatedAt(now)
+                        .build());
+            }
+            return sequenceRepository.findNextValue(AccountNumberSequence.ACCOUNT_NUMBER_ID)
+                    .orElseThrow(() -> new IllegalStateException("계좌 번호 시퀀스 행이 없습니다."));
+        });
+        if (end == null || end > MAX_SERIAL) {
+            throw new IllegalStateException("계좌 번호 일련번호를 모두 사용했습니다: " + end);
+        }
+        log.info("계좌 번호 블록 예약: [{}, {})", end - blockSize, end);
+        return new Block(end - blockSize, end);
+    }
+
+    static String format(String prefix, long serial) {
+        String digits = prefix + String.format("%0" + SERIAL_DIGITS + "d", serial);
+        return digits + checkDigit(digits);
+    }
+
+    // Luhn 검증 숫자: 오른쪽부터 한 자리 건너 두 배 (검증 숫자가 붙을 자리를 기준으로)
+    static int checkDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    // 발급기 번호 공간 (prefix 로 시작하는 발급 길이의 번호, 검증 숫자와 관계없이) 인지
+    public boolean isReserved(String accountNumber) {
+        return accountNumber != null && accountNumber.length() == prefix.length() + SERIAL_DIGITS + 1
+                && accountNumber.startsWith(prefix);
+    }
+
+    // 발급 형식의 번호인지 (검증 숫자 포함)
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2 || !accountNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = accountNumber.length() - 1;
+        return checkDigit(accountNumber.substring(0, last)) == accountNumber.charAt(last) - '0';
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
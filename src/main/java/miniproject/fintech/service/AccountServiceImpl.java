@@ -10,12 +10,18 @@ import miniproject.fintech.dto.DtoConverter;
 import miniproject.fintech.dto.EntityConverter;
 import miniproject.fintech.error.CustomError;
 import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.service.bloom.ExistenceFilters;
+import miniproject.fintech.service.eventsource.AccountEventStore;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
 import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.JournalMovementType;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static miniproject.fintech.type.ErrorType.*;
 
@@ -29,6 +35,14 @@ public class AccountServiceImpl {
     private final MemoryMemberService memberService;
     private final DtoConverter dtoConverter;
     private final EntityConverter entityConverter;
+    private final HotAccountService hotAccountService;
+    private final JournalEntryService journalEntryService;
+    private final AccountEventStore accountEventStore;
+    private final TotalBalanceTracker totalBalanceTracker;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final ExistenceFilters existenceFilters;
+    private final BalanceCache balanceCache;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
 
     @Transactional(readOnly = true)
     // ID로 계좌 조회 후 DTO 반환
@@ -71,7 +85,14 @@ public class AccountServiceImpl {
 
         log.debug("찾은 BankMember: {}", bankMember);
 
-        validationCheckMember(dtoConverter.convertToBankMemberDto(bankMember), accountDto);
+        // 새 계좌에 번호가 없으면 발급 (발급한 번호는 겹치지 않으므로 중복 조회를 하지 않음)
+        boolean allocated = accountDto != null && accountDto.getId() == null
+                && (accountDto.getAccountNumber() == null || accountDto.getAccountNumber().isBlank());
+        if (allocated) {
+            accountDto.setAccountNumber(accountNumberAllocator.next());
+        }
+
+        validationCheckMember(dtoConverter.convertToBankMemberDto(bankMember), accountDto, !allocated);
 
         if (accountDto.getId() == null) {
             log.debug("새로운 계좌 생성 시도. AccountDto: {}", accountDto);
@@ -84,22 +105,37 @@ public class AccountServiceImpl {
             }
 
             account.setBankMember(bankMember);
-            Account savedAccount = accountRepository.save(account);
+            Account savedAccount = saveAccount(account);
+            trackAccountNumber(null, savedAccount.getAccountNumber());
+            journalEntryService.recordAdjustment(JournalMovementType.OPENING, savedAccount.getAccountNumber(), savedAccount.getAmount());
+            if (accountEventStore.isEnabled()) {
+                accountEventStore.open(savedAccount.getAccountNumber(), savedAccount.getAmount());
+            }
+            totalBalanceTracker.recordChange(savedAccount.getAmount());
+            ledgerEngine.ifPresent(engine -> engine.registerAfterCommit(savedAccount));
             log.info("계좌 생성 성공: {}", savedAccount);
             return dtoConverter.convertToAccountDto(savedAccount);
         } else {
             log.debug("기존 계좌 업데이트 시도. 계좌 ID: {}", accountDto.getId());
 
+            OptionalLong detachedBalance = detachFromLedger(accountRepository.findAccountNumberById(accountDto.getId()).orElse(null));
             Account existingAccount = accountRepository.findById(accountDto.getId())
                     .orElseThrow(() -> {
                         log.error("계좌 ID {}가 존재하지 않습니다.", accountDto.getId());
                         return new CustomError(ErrorType.ACCOUNT_ID_NOT_FOUND);
                     });
 
+            String previousAccountNumber = existingAccount.getAccountNumber();
+            long previousAmount = detachedBalance.isPresent() ? detachedBalance.getAsLong() : currentBalance(existingAccount);
             existingAccount.setAccountNumber(accountDto.getAccountNumber());
             // 기타 필드 업데이트
 
-            Account savedAccount = accountRepository.save(existingAccount);
+            Account savedAccount = saveAccount(existingAccount);
+            trackAccountNumber(previousAccountNumber, savedAccount.getAccountNumber());
+            balanceCache.invalidate(previousAccountNumber, savedAccount.getAccountNumber());
+            renameEventStream(previousAccountNumber, savedAccount.getAccountNumber());
+            recordBalanceChange(previousAccountNumber, previousAmount, savedAccount.getAccountNumber(), previousAmount);
+            ledgerEngine.ifPresent(engine -> engine.registerAfterCommit(savedAccount));
             log.info("계좌 업데이트 성공: {}", savedAccount);
             return dtoConverter.convertToAccountDto(savedAccount);
         }
@@ -107,14 +143,20 @@ public class AccountServiceImpl {
 
 
 
-    private void validationCheckMember(BankMemberDto bankMemberDto, AccountDto accountDto) {
+    private void validationCheckMember(BankMemberDto bankMemberDto, AccountDto accountDto, boolean checkDuplicate) {
         if (accountDto == null || bankMemberDto == null) {
             log.error("회원 또는 계좌 DTO가 null입니다. 회원: {}, 계좌 DTO: {}", bankMemberDto, accountDto);
             throw new CustomError(ErrorType.MUST_NOT_NULL);
         }
 
-        // 계좌 번호 중복 검사
-        if (accountRepository.existsByAccountNumber(accountDto.getAccountNumber())) {
+        // 직접 지정한 번호는 발급기 번호 공간을 쓸 수 없다 (발급 번호는 중복 검사를 하지 않으므로)
+        if (checkDuplicate && accountNumberAllocator.isReserved(accountDto.getAccountNumber())) {
+            log.error("발급 번호 형식의 계좌 번호는 직접 지정할 수 없습니다: {}", accountDto.getAccountNumber());
+            throw new CustomError(ErrorType.INVALID_ACCOUNT_NUMBER);
+        }
+
+        // 계좌 번호 중복 검사 (직접 지정한 번호만)
+        if (checkDuplicate && existsByAccountNumber(accountDto.getAccountNumber())) {
             log.error("계좌 번호 중복: {}", accountDto.getAccountNumber());
             throw new CustomError(ErrorType.ACCOUNT_NUMBER_DUPLICATE);
         }
@@ -127,13 +169,24 @@ public class AccountServiceImpl {
     @Transactional
     public void delete(String accountNumber) {
         log.info("계좌 삭제 요청: ID = {}", accountNumber);
+        OptionalLong detachedBalance = detachFromLedger(accountNumber);
+        // 핫 계좌면 슬롯을 먼저 정리 (슬롯 행이 남지 않도록)
+        hotAccountService.disable(accountNumber);
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> {
                     log.error("계좌 조회 실패: ID = {}", accountNumber);
                     return new CustomError(ACCOUNT_NOT_FOUND);
                 });
 
+        long closingBalance = detachedBalance.isPresent() ? detachedBalance.getAsLong() : currentBalance(account);
+        journalEntryService.recordAdjustment(JournalMovementType.CLOSING, accountNumber, -closingBalance);
+        totalBalanceTracker.recordChange(-closingBalance);
+        if (accountEventStore.isEnabled()) {
+            accountEventStore.delete(accountNumber);
+        }
         accountRepository.delete(account);
+        balanceCache.invalidate(accountNumber);
+        existenceFilters.accountNumbers().remove(accountNumber);
 
         if (accountRepository.existsByAccountNumber(accountNumber)) {
             log.error("계좌 삭제 실패: ID = {}", accountNumber);
@@ -147,19 +200,81 @@ public class AccountServiceImpl {
     @Transactional
     public AccountDto updateAccount(String accountNumber, AccountDto updatedAccountDto) {
         log.info("계좌 업데이트 요청: ID = {}, 업데이트 내용: {}", accountNumber, updatedAccountDto);
+        OptionalLong detachedBalance = detachFromLedger(accountNumber);
         Account existingAccount = validationOfAccountNumber(accountNumber);
 
         // 업데이트된 정보를 사용하여 기존 계좌 업데이트
+        String previousAccountNumber = existingAccount.getAccountNumber();
+        long previousAmount = detachedBalance.isPresent() ? detachedBalance.getAsLong() : currentBalance(existingAccount);
+        if (!previousAccountNumber.equals(updatedAccountDto.getAccountNumber())
+                && accountNumberAllocator.isReserved(updatedAccountDto.getAccountNumber())) {
+            log.error("발급 번호 형식의 계좌 번호로 바꿀 수 없습니다: {}", updatedAccountDto.getAccountNumber());
+            throw new CustomError(ErrorType.INVALID_ACCOUNT_NUMBER);
+        }
         existingAccount.setAccountNumber(updatedAccountDto.getAccountNumber());
-        existingAccount.setAmount(updatedAccountDto.getAmount());
+        // 이벤트 소싱 모드는 잔액 차이를 이벤트로 남기고 account 행은 projection 이 맞춘다
+        if (!accountEventStore.isEnabled()) {
+            existingAccount.setAmount(updatedAccountDto.getAmount());
+        }
         existingAccount.setAccountStatus(updatedAccountDto.getAccountStatus());
         existingAccount.setName(updatedAccountDto.getName());
 
-        Account savedAccount = accountRepository.save(existingAccount);
+        Account savedAccount = saveAccount(existingAccount);
+        trackAccountNumber(previousAccountNumber, savedAccount.getAccountNumber());
+        balanceCache.invalidate(previousAccountNumber, savedAccount.getAccountNumber());
+        renameEventStream(previousAccountNumber, savedAccount.getAccountNumber());
+        if (accountEventStore.isEnabled()) {
+            accountEventStore.adjustTo(savedAccount.getAccountNumber(), updatedAccountDto.getAmount());
+        }
+        recordBalanceChange(previousAccountNumber, previousAmount, savedAccount.getAccountNumber(), updatedAccountDto.getAmount());
+        totalBalanceTracker.recordChange(updatedAccountDto.getAmount() - previousAmount);
+        ledgerEngine.ifPresent(engine -> engine.registerAfterCommit(savedAccount));
         log.info("계좌 업데이트 성공: {}", savedAccount);
         return dtoConverter.convertToAccountDto(savedAccount);
     }
 
+    // 분개는 계좌 번호 기준이므로 번호가 바뀌면 이전 번호를 해지하고 새 번호로 개설, 아니면 잔액 차이만 조정으로 기록
+    private void recordBalanceChange(String previousAccountNumber, long previousAmount, String accountNumber, long amount) {
+        if (previousAccountNumber != null && !previousAccountNumber.equals(accountNumber)) {
+            journalEntryService.recordAdjustment(JournalMovementType.CLOSING, previousAccountNumber, -previousAmount);
+            journalEntryService.recordAdjustment(JournalMovementType.OPENING, accountNumber, amount);
+            return;
+        }
+        journalEntryService.recordAdjustment(JournalMovementType.ADJUSTMENT, accountNumber, amount - previousAmount);
+    }
+
+    // 이벤트 소싱 모드의 account 행은 늦게 반영되는 projection 이므로 이벤트 기준 잔액을 쓴다
+    private long currentBalance(Account account) {
+        return accountEventStore.isEnabled() ? accountEventStore.balanceOf(account.getAccountNumber()) : account.getAmount();
+    }
+
+    private void renameEventStream(String previousAccountNumber, String accountNumber) {
+        if (accountEventStore.isEnabled() && previousAccountNumber != null && !previousAccountNumber.equals(accountNumber)) {
+            accountEventStore.rename(previousAccountNumber, accountNumber);
+        }
+    }
+
+    /**
+     * 인메모리 원장 엔진 사용 시 계좌를 읽기 전에 샤드에서 떼어 내고 write-behind 에 남은 변화가 반영되기를 기다린다.
+     * 이후 읽는 account 행은 엔진 잔액과 같고 변경 중에는 다른 이동이 붙지 않으며, 커밋되면 registerAfterCommit 으로 다시 붙인다.
+     */
+    private OptionalLong detachFromLedger(String accountNumber) {
+        if (ledgerEngine.isEmpty() || accountNumber == null) {
+            return OptionalLong.empty();
+        }
+        return ledgerEngine.get().detach(accountNumber);
+    }
+
+    // 중복 검사는 존재 여부 필터를 거치므로 다른 인스턴스가 방금 저장한 번호는 유니크 제약으로 걸러진다
+    private Account saveAccount(Account account) {
+        try {
+            return accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            log.error("계좌 번호 중복 (유니크 제약): {}", account.getAccountNumber());
+            throw new CustomError(ErrorType.ACCOUNT_NUMBER_DUPLICATE);
+        }
+    }
+
     private Account validationOfAccountNumber(String accountNumber) {
         if (accountNumber == null) {
             log.error("계좌 ID가 null입니다.");
@@ -175,32 +290,51 @@ public class AccountServiceImpl {
 
     // 계좌 잔액 조회
     public long getAccountBalance(String accountNumber) {
+        // 인메모리 원장 엔진 사용 시 DB 는 write-behind 로 늦게 반영되므로 엔진의 잔액을 우선 사용 (캐시를 거치지 않음)
+        if (ledgerEngine.isPresent()) {
+            OptionalLong ledgerBalance = ledgerEngine.get().balanceOf(accountNumber);
+            return ledgerBalance.isPresent() ? ledgerBalance.getAsLong() : loadBalance(accountNumber);
+        }
+
+        // 잔액 캐시 (잔액을 바꾸는 경로는 모두 커밋 후 무효화)
+        return balanceCache.get(accountNumber, this::loadBalance);
+    }
+
+    private long loadBalance(String accountNumber) {
         log.info("계좌 잔액 조회 요청: ID = {}", accountNumber);
+
+        // 이벤트 소싱 모드는 account 행이 projection 이므로 이벤트 기준 잔액
+        if (accountEventStore.isEnabled()) {
+            return accountEventStore.balanceOf(accountNumber);
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> {
                     log.error("계좌 조회 실패: ID = {}", accountNumber);
                     return new CustomError(ACCOUNT_ID_NOT_FOUND);
                 });
 
-        long balance = account.getAmount();
+        // 핫 계좌는 본 잔액 + 슬롯 합계
+        long balance = hotAccountService.balanceOf(account);
         log.info("계좌 잔액 조회 성공: ID = {}, 잔액 = {}", accountNumber, balance);
         return balance;
     }
 
-    // 모든 계좌의 총 잔액 조회
-    @Transactional(readOnly = true)
+    // 모든 계좌의 총 잔액 조회 (계좌를 읽지 않고 메모리 합계 반환)
     public long getTotalAccountBalance() {
-        log.info("총 계좌 잔액 조회 요청");
-        List<Account> allAccounts = accountRepository.findAll();
-        long totalBalance = allAccounts.stream()
-                .mapToLong(Account::getAmount)
-                .sum();
-        log.info("총 계좌 잔액 조회 성공: 총 잔액 = {}", totalBalance);
-        return totalBalance;
+        return totalBalanceTracker.total();
     }
 
-    // 계좌 존재 여부 확인
+    // 계좌 존재 여부 확인 (필터가 없다고 하면 DB 를 조회하지 않음)
     public boolean existsByAccountNumber(String accountNumber) {
-        return accountRepository.existsByAccountNumber(accountNumber);
+        return existenceFilters.accountNumbers().exists(accountNumber, accountRepository::existsByAccountNumber);
+    }
+
+    // 존재 여부 필터: 새 번호를 넣고, 바뀐 이전 번호는 삭제로 센다
+    private void trackAccountNumber(String previousAccountNumber, String accountNumber) {
+        existenceFilters.add(existenceFilters.accountNumbers(), accountNumber);
+        if (previousAccountNumber != null && !previousAccountNumber.equals(accountNumber)) {
+            existenceFilters.accountNumbers().remove(previousAccountNumber);
+        }
     }
 }
@@ -0,0 +1,135 @@
+package miniproject.fintech.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+
+/**
+ * 계좌 잔액 읽기 캐시 (read-through). 잔액을 바꾸는 모든 경로가 커밋 후 invalidate 를 호출한다.
+ * 계좌 번호 해시로 나눈 칸마다 세대 번호를 두고, invalidate 는 세대를 올린 뒤 항목을 지운다.
+ * 항목에는 DB 조회 전에 읽은 세대를 함께 넣고 적중 시 현재 세대와 같을 때만 쓰므로,
+ * 커밋 전에 읽은 잔액이 커밋 후 invalidate 보다 늦게 들어가더라도 그 값이 반환되는 일은 없다.
+ * 트랜잭션 안의 조회는 커밋 전 자기 변경이 보일 수 있으므로 캐시를 거치지 않는다.
+ * 적중 시에는 맵 조회만 하고 새 객체를 만들지 않는다.
+ *
+ * invalidate 는 이 JVM 안에서만 전달되므로, 다른 인스턴스가 바꾼 잔액은 항목이 ttl 로 만료될 때까지만 이전 값으로 보일 수 있다.
+ * 항목 수가 max-size 를 넘으면 먼저 들어온 항목부터 지운다 (새 계좌도 계속 캐시된다).
+ */
+@Service
+public class BalanceCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final ConcurrentHashMap<String, Entry> balances = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    // 들어온 순서 (만료/용량 초과 시 앞에서부터 제거)
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    public BalanceCache(@Value("${account.balance-cache.max-size:100000}") int maxSize,
+                        @Value("${account.balance-cache.ttl-ms:2000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public long get(String accountNumber, ToLongFunction<String> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.applyAsLong(accountNumber);
+        }
+        int stripe = stripe(accountNumber);
+        long generation = generations.get(stripe);
+        Entry cached = balances.get(accountNumber);
+        long now = System.nanoTime();
+        if (cached != null && cached.generation == generation && !cached.isExpired(now, ttlNanos)) {
+            return cached.balance;
+        }
+
+        long balance = loader.applyAsLong(accountNumber);
+        Entry entry = new Entry(accountNumber, balance, generation, now);
+        balances.put(accountNumber, entry);
+        insertionOrder.add(entry);
+        trim();
+        return balance;
+    }
+
+    // 트랜잭션 안이면 커밋 후에, 밖이면 바로 무효화 (롤백되면 잔액이 그대로이므로 무효화하지 않음)
+    public void invalidate(String... accountNumbers) {
+        invalidateAll(Arrays.asList(accountNumbers));
+    }
+
+    public void invalidateAll(Collection<String> accountNumbers) {
+        afterCommit(() -> evict(accountNumbers));
+    }
+
+    public void clear() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        balances.clear();
+        insertionOrder.clear();
+    }
+
+    public int size() {
+        return balances.size();
+    }
+
+    private void evict(Collection<String> accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber == null) {
+                continue;
+            }
+            generations.incrementAndGet(stripe(accountNumber));
+            balances.remove(accountNumber);
+        }
+    }
+
+    // 만료된 항목, 이미 바뀌거나 지워진 항목, 용량을 넘은 항목을 앞에서부터 제거
+    private void trim() {
+        // 한 번에 한 스레드만 정리 (다른 스레드는 기다리지 않고 건너뛴다)
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            Entry head;
+            while ((head = insertionOrder.peek()) != null) {
+                boolean replaced = balances.get(head.accountNumber) != head;
+                if (!replaced && !head.isExpired(now, ttlNanos) && balances.size() <= maxSize) {
+                    return;
+                }
+                insertionOrder.poll();
+                if (!replaced) {
+                    balances.remove(head.accountNumber, head);
+                }
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private record Entry(String accountNumber, long balance, long generation, long loadedAtNanos) {
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAtNanos >= ttlNanos;
+        }
+    }
+
+    private static int stripe(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+}
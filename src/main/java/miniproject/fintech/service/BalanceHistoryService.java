@@ -0,0 +1,143 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.DailyAccountBalance;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.DailyAccountBalanceRepository;
+import miniproject.fintech.repository.JournalEntryRepository;
+import miniproject.fintech.service.eventsource.AccountEventStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NOT_FOUND;
+
+/**
+ * 시점 잔액 조회 (asOf 시점의 계좌 잔액).
+ * 매일 자정 기준으로 그날 분개가 있었던 계좌의 잔액을 daily_account_balance 에 남기고,
+ * 조회는 asOf 이전의 가장 가까운 일별 잔액 + 그 cutoff 부터 asOf 까지의 분개만 (account_number, created_at) 인덱스로 합산한다.
+ * 활동이 있던 날마다 행이 생기므로 다시 합산하는 분개는 계좌 나이와 관계없이 하루치를 넘지 않는다.
+ * journal_entry 도입 전 기간은 OPENING 분개 시각 이전이므로 0 으로 보인다.
+ */
+@Slf4j
+@Service
+public class BalanceHistoryService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int ACCOUNT_CHUNK_SIZE = 1000;
+
+    private final DailyAccountBalanceRepository dailyAccountBalanceRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final AccountRepository accountRepository;
+    private final AccountEventStore accountEventStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean enabled;
+
+    public BalanceHistoryService(DailyAccountBalanceRepository dailyAccountBalanceRepository,
+                                 JournalEntryRepository journalEntryRepository,
+                                 AccountRepository accountRepository,
+                                 AccountEventStore accountEventStore,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${journal.enabled:true}") boolean enabled) {
+        this.dailyAccountBalanceRepository = dailyAccountBalanceRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.accountRepository = accountRepository;
+        this.accountEventStore = accountEventStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * asOf 시점의 잔액. 이벤트 소싱 모드는 계좌 이벤트 스냅샷으로, 아니면 일별 잔액 + 분개로 계산한다.
+     */
+    public long balanceAsOf(String accountNumber, LocalDateTime asOf) {
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+        if (accountEventStore.isEnabled()) {
+            OptionalLong eventBalance = accountEventStore.balanceAsOf(accountNumber, asOf);
+            if (eventBalance.isPresent()) {
+                return eventBalance.getAsLong();
+            }
+        }
+
+        Long balance = readOnlyTemplate.execute(status -> {
+            DailyAccountBalance daily = dailyAccountBalanceRepository
+                    .findFirstByAccountNumberAndCutoffLessThanEqualOrderByCutoffDesc(accountNumber, asOf)
+                    .orElse(null);
+            long base = daily == null ? 0 : daily.getBalance();
+            LocalDateTime from = daily == null ? BEGINNING : daily.getCutoff();
+            return base + journalEntryRepository.sumCreatedBetween(accountNumber, from, asOf);
+        });
+        log.info("시점 잔액 조회: 계좌 번호 = {}, 시점 = {}, 잔액 = {}", accountNumber, asOf, balance);
+        return balance == null ? 0 : balance;
+    }
+
+    /**
+     * 지난 실행 이후 자정마다 일별 잔액을 남긴다 (밀린 날이 있으면 하루씩 이어서 처리).
+     * 자정 직후에 커밋된 분개가 빠지지 않도록 자정보다 조금 늦게 실행한다.
+     */
+    @Scheduled(cron = "${journal.daily-balance.cron:0 10 0 * * *}")
+    public void writeDailyBalances() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime today = LocalDate.now().atStartOfDay();
+            LocalDateTime last = dailyAccountBalanceRepository.findLatestCutoff().orElse(null);
+            if (last == null) {
+                writeBalances(BEGINNING, today);
+                return;
+            }
+            for (LocalDateTime cutoff = last.plusDays(1); !cutoff.isAfter(today); cutoff = cutoff.plusDays(1)) {
+                writeBalances(cutoff.minusDays(1), cutoff);
+            }
+        } catch (RuntimeException e) {
+            log.error("일별 잔액 기록 실패", e);
+        }
+    }
+
+    // from <= createdAt < cutoff 분개가 있는 계좌의 cutoff 시점 잔액 기록
+    int writeBalances(LocalDateTime from, LocalDateTime cutoff) {
+        Integer written = transactionTemplate.execute(status -> {
+            List<Object[]> deltas = journalEntryRepository.sumByAccountCreatedBetween(from, cutoff);
+            LocalDateTime now = LocalDateTime.now();
+            List<DailyAccountBalance> balances = new ArrayList<>(deltas.size());
+            for (int start = 0; start < deltas.size(); start += ACCOUNT_CHUNK_SIZE) {
+                List<Object[]> chunk = deltas.subList(start, Math.min(start + ACCOUNT_CHUNK_SIZE, deltas.size()));
+                Map<String, Long> previous = new HashMap<>();
+                for (Object[] row : dailyAccountBalanceRepository.findLatestBalancesBefore(
+                        chunk.stream().map(delta -> (String) delta[0]).toList(), cutoff)) {
+                    previous.put((String) row[0], (Long) row[1]);
+                }
+                for (Object[] row : chunk) {
+                    String accountNumber = (String) row[0];
+                    balances.add(DailyAccountBalance.builder()
+                            .accountNumber(accountNumber)
+                            .cutoff(cutoff)
+                            .balance(previous.getOrDefault(accountNumber, 0L) + (Long) row[1])
+                            .createdAt(now)
+                            .build());
+                }
+            }
+            dailyAccountBalanceRepository.saveAll(balances);
+            return balances.size();
+        });
+        log.info("일별 잔액 기록: 기준 시각 = {}, 계좌 수 = {}", cutoff, written);
+        return written == null ? 0 : written;
+    }
+}
@@ -0,0 +1,177 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.service.eventsource.AccountEventStore;
+import miniproject.fintech.type.AccountConcurrencyMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static miniproject.fintech.type.ErrorType.*;
+
+/**
+ * 계좌 잔액 변경을 한 문장짜리 조건부 UPDATE 로 처리한다.
+ * 엔티티를 읽어 자바에서 계산한 뒤 save 하는 방식과 달리 읽기와 쓰기 사이의 lost update 구간이 없다.
+ * 호출하는 쪽의 트랜잭션 안에서 실행되어야 한다. @Transactional 을 두지 않아 예외가 나도 공유 트랜잭션을
+ * rollback-only 로 만들지 않으며, move 는 실패 시 이미 반영한 차감을 되돌린다.
+ * account.concurrency-mode=OPTIMISTIC 이면 계좌 락 없이 엔티티를 수정하고, 동시 변경은 @Version 충돌로 감지한다.
+ * 핫 계좌(HotAccountService)는 두 모드 모두 락 없이 슬롯 단위 조건부 UPDATE 로 처리한다.
+ * account.concurrency-mode=EVENT_SOURCED 이면 account 행 대신 AccountEventStore 에 이벤트를 추가한다 (핫 계좌 슬롯은 쓰지 않음).
+ * 잔액을 바꾼 계좌는 커밋 후 BalanceCache 에서 무효화한다.
+ */
+@Slf4j
+@Service
+public class BalanceUpdateService {
+
+    private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final HotAccountService hotAccountService;
+    private final AccountEventStore accountEventStore;
+    private final BalanceCache balanceCache;
+    private final AccountConcurrencyMode concurrencyMode;
+
+    public BalanceUpdateService(AccountRepository accountRepository,
+                                AccountLockManager accountLockManager,
+                                HotAccountService hotAccountService,
+                                AccountEventStore accountEventStore,
+                                BalanceCache balanceCache,
+                                @Value("${account.concurrency-mode:PESSIMISTIC}") AccountConcurrencyMode concurrencyMode) {
+        this.accountRepository = accountRepository;
+        this.accountLockManager = accountLockManager;
+        this.hotAccountService = hotAccountService;
+        this.accountEventStore = accountEventStore;
+        this.balanceCache = balanceCache;
+        this.concurrencyMode = concurrencyMode;
+        log.info("계좌 동시성 제어 방식: {}", concurrencyMode.getMessage());
+    }
+
+    /**
+     * 비관적 모드에서만 계좌 락을 트랜잭션이 끝날 때까지 잡는다.
+     * 낙관적 모드는 락 없이 진행하고 충돌 시 OptimisticRetryExecutor 가 트랜잭션 전체를 다시 실행한다.
+     * 핫 계좌는 락을 잡지 않는다 (입금이 한 락에 줄 서지 않도록).
+     */
+    public void lockUntilCompletion(String... accountNumbers) {
+        if (concurrencyMode == AccountConcurrencyMode.PESSIMISTIC) {
+            accountLockManager.lockUntilCompletion(hotAccountService.withoutHotAccounts(Arrays.asList(accountNumbers)));
+        } else if (concurrencyMode == AccountConcurrencyMode.EVENT_SOURCED) {
+            // 같은 인스턴스 안의 version 충돌을 줄이기 위한 락 (인스턴스 간 충돌은 이벤트 version 유니크 제약으로 감지)
+            accountLockManager.lockUntilCompletion(accountNumbers);
+        }
+    }
+
+    public void move(String sourceAccountNumber, String destinationAccountNumber, long amount) {
+        if (concurrencyMode == AccountConcurrencyMode.OPTIMISTIC
+                && !hotAccountService.isHot(sourceAccountNumber) && !hotAccountService.isHot(destinationAccountNumber)) {
+            moveWithVersionCheck(sourceAccountNumber, destinationAccountNumber, amount);
+            return;
+        }
+
+        debit(sourceAccountNumber, amount);
+        try {
+            credit(destinationAccountNumber, amount);
+        } catch (CustomError e) {
+            // 여러 송금이 한 트랜잭션을 공유하는 경우(group commit)에도 이 건의 차감만 되돌리도록 보상
+            credit(sourceAccountNumber, amount);
+            throw e;
+        }
+    }
+
+    public void debit(String accountNumber, long amount) {
+        validateAmount(amount);
+        applyDebit(accountNumber, amount);
+        balanceCache.invalidate(accountNumber);
+    }
+
+    public void credit(String accountNumber, long amount) {
+        validateAmount(amount);
+        applyCredit(accountNumber, amount);
+        balanceCache.invalidate(accountNumber);
+    }
+
+    private void applyDebit(String accountNumber, long amount) {
+        if (concurrencyMode == AccountConcurrencyMode.EVENT_SOURCED) {
+            accountEventStore.debit(accountNumber, amount);
+            return;
+        }
+
+        if (hotAccountService.isHot(accountNumber)) {
+            hotAccountService.debit(accountNumber, amount);
+            return;
+        }
+
+        if (accountRepository.debit(accountNumber, amount) == 0) {
+            // 실패한 경우에만 원인을 구분하기 위해 한 번 더 조회
+            if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                log.error("출금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", accountNumber);
+                throw new CustomError(ACCOUNT_NOT_FOUND);
+            }
+            log.error("출금 계좌 잔액 부족: 계좌 번호 = {}, 요청 금액 = {}", accountNumber, amount);
+            throw new CustomError(NOT_ENOUGH_MONEY);
+        }
+    }
+
+    private void applyCredit(String accountNumber, long amount) {
+        if (concurrencyMode == AccountConcurrencyMode.EVENT_SOURCED) {
+            accountEventStore.credit(accountNumber, amount);
+            return;
+        }
+
+        if (hotAccountService.isHot(accountNumber)) {
+            hotAccountService.credit(accountNumber, amount);
+            return;
+        }
+
+        if (accountRepository.credit(accountNumber, amount) == 0) {
+            log.error("입금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", accountNumber);
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    // 현재 잔액 (핫 계좌는 슬롯 합계 포함)
+    public long balanceOf(String accountNumber) {
+        if (concurrencyMode == AccountConcurrencyMode.EVENT_SOURCED) {
+            return accountEventStore.balanceOf(accountNumber);
+        }
+        long mainAmount = accountRepository.findAmountByAccountNumber(accountNumber)
+                .orElseThrow(() -> new CustomError(ACCOUNT_NOT_FOUND));
+        return hotAccountService.balanceOf(accountNumber, mainAmount);
+    }
+
+    // 조회한 엔티티를 수정 (flush 시 version 조건으로 UPDATE, 다른 트랜잭션이 먼저 바꿨으면 OptimisticLockException)
+    private void moveWithVersionCheck(String sourceAccountNumber, String destinationAccountNumber, long amount) {
+        validateAmount(amount);
+
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(List.of(sourceAccountNumber, destinationAccountNumber)).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity(), (first, second) -> first));
+        Account source = accounts.get(sourceAccountNumber);
+        Account destination = accounts.get(destinationAccountNumber);
+
+        if (source == null || destination == null) {
+            log.error("계좌를 찾을 수 없습니다: 출금 계좌 = {}, 입금 계좌 = {}", sourceAccountNumber, destinationAccountNumber);
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+        if (source.getAmount() < amount) {
+            log.error("출금 계좌 잔액 부족: 계좌 번호 = {}, 요청 금액 = {}", sourceAccountNumber, amount);
+            throw new CustomError(NOT_ENOUGH_MONEY);
+        }
+
+        source.setAmount(source.getAmount() - amount);
+        destination.setAmount(destination.getAmount() + amount);
+        balanceCache.invalidate(sourceAccountNumber, destinationAccountNumber);
+    }
+
+    private void validateAmount(long amount) {
+        if (amount <= 0) {
+            log.error("잘못된 금액입니다: {}", amount);
+            throw new CustomError(IN_CORRECT);
+        }
+    }
+}
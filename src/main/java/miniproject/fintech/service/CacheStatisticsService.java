@@ -0,0 +1,225 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.config.CacheConfig;
+import miniproject.fintech.config.SingleFlightCache;
+import miniproject.fintech.dto.CacheStatisticsResponse;
+import miniproject.fintech.error.CustomError;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.TierStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static miniproject.fintech.type.ErrorType.CACHE_NOT_FOUND;
+
+/**
+ * CacheConfig 의 캐시별 통계와 관리 (비우기 / 키 삭제).
+ * 적중 / 미스 / 축출 수는 JCache 통계 MBean, 조회 시간은 SingleFlightCache 의 Timer 에서 읽는다.
+ * 항목 수는 캐시를 순회하지 않고 Ehcache StatisticsService 의 계층별 mappings 로 읽는다
+ * (계층은 포함 관계라 가장 큰 값이 전체 항목 수, OnHeap 값이 heap 에 있는 항목 수).
+ * 항목 크기는 앞쪽 sample-size 개 값만 꺼내 JSON 크기 평균으로 추정하고 (off-heap / 디스크 값은 꺼낼 때 역직렬화됨),
+ * 추정 heap 크기 = heap 항목 수 * 평균 크기 * heap-overhead-factor (JSON 바이트 대비 객체 크기 보정).
+ * 평균 크기는 size-refresh-ms 동안 이전 표본을 쓴다.
+ */
+@Slf4j
+@Service
+public class CacheStatisticsService {
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final CacheManager cacheManager;
+    private final javax.cache.CacheManager jcacheManager;
+    private final StatisticsService statisticsService;
+    private final ObjectMapper objectMapper;
+    private final int sampleSize;
+    private final long sizeRefreshMillis;
+    private final double heapOverheadFactor;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+    public CacheStatisticsService(CacheManager cacheManager,
+                                  javax.cache.CacheManager jcacheManager,
+                                  StatisticsService statisticsService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${cache.stats.sample-size:32}") int sampleSize,
+                                  @Value("${cache.stats.size-refresh-ms:60000}") long sizeRefreshMillis,
+                                  @Value("${cache.stats.heap-overhead-factor:2.0}") double heapOverheadFactor) {
+        this.cacheManager = cacheManager;
+        this.jcacheManager = jcacheManager;
+        this.statisticsService = statisticsService;
+        this.objectMapper = objectMapper;
+        this.sampleSize = sampleSize;
+        this.sizeRefreshMillis = sizeRefreshMillis;
+        this.heapOverheadFactor = heapOverheadFactor;
+    }
+
+    public List<CacheStatisticsResponse> statistics() {
+        return CacheConfig.CACHE_NAMES.stream().map(this::statistics).toList();
+    }
+
+    public CacheStatisticsResponse statistics(String name) {
+        Cache cache = requireCache(name);
+        long[] counts = jcacheStatistics(name);
+        long hits = counts[0];
+        long misses = counts[1];
+        Sample sample = sampleOf(name);
+
+        CacheStatisticsResponse.CacheStatisticsResponseBuilder response = CacheStatisticsResponse.builder()
+                .name(name)
+                .hits(hits)
+                .misses(misses)
+                .hitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                .evictions(counts[2])
+                .entries(entries(name))
+                .sampledEntries(sample.sampled())
+                .averageEntryBytes(sample.averageBytes())
+                .estimatedHeapBytes(estimatedHeapBytes(name, sample));
+        if (cache instanceof SingleFlightCache singleFlightCache) {
+            response.loads(singleFlightCache.getLoadTimer().count())
+                    .meanLoadMillis(singleFlightCache.getLoadTimer().mean(TimeUnit.MILLISECONDS))
+                    .maxLoadMillis(singleFlightCache.getLoadTimer().max(TimeUnit.MILLISECONDS));
+        }
+        return response.build();
+    }
+
+    public void clear(String name) {
+        requireCache(name).clear();
+        samples.remove(name);
+        log.info("캐시 비우기: 이름 = {}", name);
+    }
+
+    /**
+     * 키 하나 삭제. 경로로 받은 키는 문자열이므로 Long 범위의 숫자면 Long 키(예: transfersCache 의 #id)도 함께 지운다.
+     */
+    public boolean evict(String name, String key) {
+        Cache cache = requireCache(name);
+        boolean evicted = cache.evictIfPresent(key);
+        Long numericKey = parseLong(key);
+        if (numericKey != null) {
+            evicted |= cache.evictIfPresent(numericKey);
+        }
+        log.info("캐시 키 삭제: 이름 = {}, 키 = {}, 삭제 여부 = {}", name, key, evicted);
+        return evicted;
+    }
+
+    public long estimatedHeapBytes(String name) {
+        return estimatedHeapBytes(name, sampleOf(name));
+    }
+
+    // 계층은 포함 관계 (heap 항목도 off-heap / 디스크에 있음) 이므로 가장 큰 계층의 항목 수가 전체
+    public long entries(String name) {
+        return tierStatistics(name).values().stream().mapToLong(TierStatistics::getMappings).max().orElse(0);
+    }
+
+    /**
+     * JCache 통계 MBean 의 [CacheHits, CacheMisses, CacheEvictions] (CacheConfig 에서 enableStatistics 로 등록).
+     * MBean 이 없으면 모두 0.
+     */
+    public long[] jcacheStatistics(String name) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + name + ",*"), null);
+            if (names.isEmpty()) {
+                return new long[3];
+            }
+            ObjectName objectName = names.iterator().next();
+            return new long[]{
+                    ((Number) mBeanServer.getAttribute(objectName, "CacheHits")).longValue(),
+                    ((Number) mBeanServer.getAttribute(objectName, "CacheMisses")).longValue(),
+                    ((Number) mBeanServer.getAttribute(objectName, "CacheEvictions")).longValue()};
+        } catch (JMException e) {
+            log.warn("캐시 통계 조회 실패: 이름 = {}", name, e);
+            return new long[3];
+        }
+    }
+
+    private long estimatedHeapBytes(String name, Sample sample) {
+        TierStatistics onHeap = tierStatistics(name).get("OnHeap");
+        return (long) ((onHeap == null ? 0 : onHeap.getMappings()) * sample.averageBytes() * heapOverheadFactor);
+    }
+
+    private Map<String, TierStatistics> tierStatistics(String name) {
+        try {
+            return statisticsService.getCacheStatistics(name).getTierStatistics();
+        } catch (IllegalArgumentException e) {
+            // StatisticsService 에 등록되지 않은 캐시
+            return Map.of();
+        }
+    }
+
+    private Sample sampleOf(String name) {
+        Sample sample = samples.get(name);
+        if (sample != null && System.currentTimeMillis() - sample.takenAtMillis() < sizeRefreshMillis) {
+            return sample;
+        }
+        sample = takeSample(name);
+        samples.put(name, sample);
+        return sample;
+    }
+
+    // 앞쪽 sampleSize 개만 꺼내 직렬화 (나머지 항목은 읽지 않는다)
+    private Sample takeSample(String name) {
+        javax.cache.Cache<Object, Object> cache = jcacheManager.getCache(name);
+        long sampled = 0;
+        long sampledBytes = 0;
+        if (cache != null) {
+            Iterator<javax.cache.Cache.Entry<Object, Object>> iterator = cache.iterator();
+            while (sampled < sampleSize && iterator.hasNext()) {
+                javax.cache.Cache.Entry<Object, Object> entry = iterator.next();
+                sampledBytes += serializedSize(entry.getKey()) + serializedSize(entry.getValue());
+                sampled++;
+            }
+        }
+        return new Sample(sampled, sampled == 0 ? 0 : sampledBytes / sampled, System.currentTimeMillis());
+    }
+
+    private long serializedSize(Object value) {
+        if (value instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        Object body = value instanceof ResponseEntity<?> response ? response.getBody() : value;
+        try {
+            return objectMapper.writeValueAsBytes(body).length;
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+
+    // 숫자로만 된 키라도 Long 범위를 넘으면 문자열 키로만 지운다
+    private static Long parseLong(String key) {
+        if (key.isEmpty() || !key.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Cache requireCache(String name) {
+        Cache cache = CacheConfig.CACHE_NAMES.contains(name) ? cacheManager.getCache(name) : null;
+        if (cache == null) {
+            throw new CustomError(CACHE_NOT_FOUND);
+        }
+        return cache;
+    }
+
+    private record Sample(long sampled, long averageBytes, long takenAtMillis) {
+    }
+}
@@ -0,0 +1,76 @@
+package miniproject.fintech.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 기동 후 캐시가 안정 적중률에 이르기까지 걸린 시간을 잰다 (디스크 계층 사용 여부에 따른 비교용).
+ * sample-interval 마다 JCache 통계(CacheHits / CacheMisses)의 증가분으로 구간 적중률을 구하고,
+ * 조회가 min-lookups 이상인 구간에서 처음 target-hit-ratio 에 도달하면 JVM 시작부터의 시간을 기록한다.
+ * 메트릭: cache.warmup.seconds (cache, persistent 태그), 도달 전에는 NaN.
+ */
+@Slf4j
+@Service
+public class CacheWarmupMonitor {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final long startedAtMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final double targetHitRatio;
+    private final long minLookups;
+    private final Map<String, long[]> previous = new ConcurrentHashMap<>();
+    private final Map<String, Double> warmupSeconds = new ConcurrentHashMap<>();
+
+    public CacheWarmupMonitor(CacheConfig cacheConfig,
+                              CacheStatisticsService cacheStatisticsService,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.warmup.target-hit-ratio:0.8}") double targetHitRatio,
+                              @Value("${cache.warmup.min-lookups:100}") long minLookups) {
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.targetHitRatio = targetHitRatio;
+        this.minLookups = minLookups;
+        for (String name : CacheConfig.CACHE_NAMES) {
+            boolean persistent = cacheConfig.isPersistenceEnabled() && CacheConfig.PERSISTENT_CACHE_NAMES.contains(name);
+            Gauge.builder("cache.warmup.seconds", warmupSeconds, seconds -> seconds.getOrDefault(name, Double.NaN))
+                    .tag("cache", name)
+                    .tag("persistent", String.valueOf(persistent))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.warmup.sample-interval-ms:5000}")
+    public void sample() {
+        if (warmupSeconds.size() == CacheConfig.CACHE_NAMES.size()) {
+            return;
+        }
+        for (String name : CacheConfig.CACHE_NAMES) {
+            if (warmupSeconds.containsKey(name)) {
+                continue;
+            }
+            long[] current = cacheStatisticsService.jcacheStatistics(name);
+            long[] last = previous.put(name, current);
+            if (last == null) {
+                continue;
+            }
+            long hits = current[0] - last[0];
+            long lookups = hits + current[1] - last[1];
+            if (lookups >= minLookups && (double) hits / lookups >= targetHitRatio) {
+                double seconds = (System.currentTimeMillis() - startedAtMillis) / 1000.0;
+                warmupSeconds.put(name, seconds);
+                log.info("캐시 안정 적중률 도달: 이름 = {}, 기동 후 {}초, 구간 적중률 = {}", name, seconds, (double) hits / lookups);
+            }
+        }
+    }
+
+    public Map<String, Double> getWarmupSeconds() {
+        return Map.copyOf(warmupSeconds);
+    }
+}
@@ -13,6 +13,9 @@ import miniproject.fintech.repository.AccountRepository;
 import miniproject.fintech.repository.DepositRepository;
 import miniproject.fintech.repository.MemberRepository;
 import miniproject.fintech.repository.TransactionRepository;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
+import miniproject.fintech.type.JournalMovementType;
+import miniproject.fintech.type.OutboxEventType;
 import miniproject.fintech.type.TransactionStatus;
 import miniproject.fintech.type.TransactionType;
 import org.springframework.data.domain.PageRequest;
@@ -23,7 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static miniproject.fintech.type.ErrorType.*;
@@ -40,46 +46,41 @@ public class DepositServiceImpl {
     private final AccountRepository accountRepository;
     private final DtoConverter dtoConverter;
     private final MemberRepository memberRepository;
+    private final BalanceUpdateService balanceUpdateService;
+    private final HotAccountService hotAccountService;
+    private final OutboxService outboxService;
+    private final JournalEntryService journalEntryService;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
 
     @Transactional
     public DepositDto processDeposit(DepositDto depositDto) {
         log.info("입금 처리 시작: 출금 계좌 = {}, 입금 계좌 = {}, 입금 금액 = {}",
                 depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber(), depositDto.getDepositAmount());
 
-        // 출금 계좌 확인
-        Account sourceAccount = accountRepository.findByAccountNumber(depositDto.getSourceAccountNumber())
-                .orElseThrow(() -> {
-                    log.error("출금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", depositDto.getSourceAccountNumber());
-                    return new CustomError(ACCOUNT_NOT_FOUND);
-                });
-
-        // 입금 계좌 확인
-        Account destinationAccount = accountRepository.findByAccountNumber(depositDto.getDestinationAccountNumber())
-                .orElseThrow(() -> {
-                    log.error("입금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", depositDto.getDestinationAccountNumber());
-                    return new CustomError(ACCOUNT_NOT_FOUND);
-                });
-
         // 회원 정보 조회
         BankMember bankMember = memberRepository.findByUserId(depositDto.getBankMemberDto().getUserId())
                 .orElseThrow(() -> new CustomError(MEMBER_NOT_FOUND));
 
-        // 출금 계좌 잔액 확인
-        if (sourceAccount.getAmount() < depositDto.getDepositAmount()) {
-            log.error("출금 계좌 잔액 부족: 출금 계좌 = {}, 잔액 = {}",
-                    depositDto.getSourceAccountNumber(), sourceAccount.getAmount());
-            throw new CustomError(NOT_ENOUGH_MONEY);
+        // 인메모리 원장 엔진 사용 시 잔액 변경과 기록은 엔진이 처리 (DB 반영은 write-behind)
+        if (ledgerEngine.isPresent()) {
+            return ledgerEngine.get().deposit(depositDto, bankMember.getId());
         }
 
-        // 출금 계좌 금액 차감
-        double previousSourceAmount = sourceAccount.getAmount();
-        sourceAccount.setAmount((long) (previousSourceAmount - depositDto.getDepositAmount()));
-        accountRepository.save(sourceAccount);
+        // 비관적 모드: 출금/입금 계좌 락을 고정된 순서로 획득 (트랜잭션이 끝날 때 해제)
+        balanceUpdateService.lockUntilCompletion(depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber());
+
+        // 출금 계좌 차감(잔액이 충분할 때만)과 입금 계좌 입금을 각각 조건부 UPDATE 한 번으로 처리
+        balanceUpdateService.move(depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber(),
+                depositDto.getDepositAmount());
+        journalEntryService.record(JournalMovementType.DEPOSIT, depositDto.getSourceAccountNumber(),
+                depositDto.getDestinationAccountNumber(), depositDto.getDepositAmount());
 
-        // 입금 계좌 금액 추가
-        double previousDestinationAmount = destinationAccount.getAmount();
-        destinationAccount.setAmount((long) (previousDestinationAmount + depositDto.getDepositAmount()));
-        accountRepository.save(destinationAccount);
+        // 갱신이 끝난 계좌를 한 번에 조회 (연관관계 설정과 현재 잔액 기록용)
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        List.of(depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber())).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity(), (first, second) -> first));
+        Account sourceAccount = accounts.get(depositDto.getSourceAccountNumber());
+        Account destinationAccount = accounts.get(depositDto.getDestinationAccountNumber());
 
         // 입금 엔티티 생성
         Deposit deposit = Deposit.builder()
@@ -95,21 +96,27 @@ public class DepositServiceImpl {
         // 입금 정보 저장
         Deposit savedDeposit = depositRepository.save(deposit);
 
+        // 핫 계좌는 슬롯 합계까지 더한 잔액 (이벤트 소싱 모드는 이벤트 기준 잔액)
+        long destinationBalance = balanceUpdateService.balanceOf(depositDto.getDestinationAccountNumber());
+
         // 거래 내역 기록 (이미 조회한 계좌와 회원 정보 전달)
-        Transaction transaction = recordTransaction(deposit, bankMember, sourceAccount, destinationAccount);
+        Transaction transaction = recordTransaction(deposit, bankMember, sourceAccount, destinationBalance);
 
-        log.info("입금 처리 완료: 출금 계좌 = {}, 입금 계좌 = {}, 입금 금액 = {}, 출금 계좌 이전 잔액 = {}, 새로운 잔액 = {}, 입금 계좌 이전 잔액 = {}, 새로운 잔액 = {}",
+        log.info("입금 처리 완료: 출금 계좌 = {}, 입금 계좌 = {}, 입금 금액 = {}, 출금 계좌 새로운 잔액 = {}, 입금 계좌 새로운 잔액 = {}",
                 depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber(), deposit.getDepositAmount(),
-                previousSourceAmount, sourceAccount.getAmount(), previousDestinationAmount, destinationAccount.getAmount());
+                hotAccountService.balanceOf(sourceAccount), destinationBalance);
 
         // DTO에 transactionId 추가 후 반환
         DepositDto resultDto = dtoConverter.convertToDepositDto(savedDeposit);
         resultDto.setTransactionId(transaction.getId());
 
+        // 입금 완료 알림은 outbox 이벤트로 기록 (커밋 후 OutboxRelay 가 전달)
+        outboxService.publish(OutboxEventType.DEPOSIT_COMPLETED, savedDeposit.getId(), resultDto);
+
         return resultDto;
     }
 
-    private Transaction recordTransaction(Deposit deposit, BankMember bankMember, Account sourceAccount, Account destinationAccount) {
+    private Transaction recordTransaction(Deposit deposit, BankMember bankMember, Account sourceAccount, long destinationBalance) {
         // 입금 후 잔액 정보 설정 (입금 계좌의 현재 잔액을 가져옴)
         Transaction transaction = Transaction.builder()
                 .transactionAmount(deposit.getDepositAmount())
@@ -120,7 +127,7 @@ public class DepositServiceImpl {
                 .bankMember(bankMember)
                 .sourceAccountNumber(deposit.getSourceAccountNumber())  // 출금 계좌 번호 설정
                 .destinationAccountNumber(deposit.getDestinationAccountNumber())  // 입금 계좌 번호 설정
-                .curAmount(destinationAccount.getAmount())  // 입금 계좌의 현재 잔액
+                .curAmount(destinationBalance)  // 입금 계좌의 현재 잔액
                 .referenceNumber(UUID.randomUUID().toString())  // 고유 참조 번호 생성
                 .currency("KRW")  // 통화 정보 설정
                 .message(deposit.getMessage())
@@ -0,0 +1,204 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 짧은 시간 창(window) 동안 들어온 요청을 최대 maxBatchSize 개까지 모아 한 번에 처리하는 group commit 단계.
+ * 첫 요청이 도착한 시점부터 window 가 지나거나 cap 에 도달하면 배치를 닫고 processor 에 넘긴다.
+ * 각 호출자의 future 는 processor 가 반환된 뒤(= 공유 커밋이 끝난 뒤)에 완료된다.
+ */
+@Slf4j
+public class GroupCommitter<T, R> {
+
+    /**
+     * 배치 하나를 처리하고 요청 순서대로 건별 결과를 반환한다. 예외를 던지면 배치 전체가 실패한다.
+     */
+    @FunctionalInterface
+    public interface BatchProcessor<T, R> {
+        List<Outcome<R>> process(List<T> batch);
+    }
+
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BatchProcessor<T, R> processor;
+    private final BlockingQueue<Pending<T, R>> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public GroupCommitter(String name, long windowMicros, int maxBatchSize, BatchProcessor<T, R> processor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize 는 1 이상이어야 합니다: " + maxBatchSize);
+        }
+        this.name = name;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.processor = processor;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, name + "-group-commit");
+        flusher.start();
+    }
+
+    // 대기 중인 요청을 모두 처리한 뒤 종료
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = flusher;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    public CompletableFuture<R> submit(T request) {
+        if (!running) {
+            throw new RejectedExecutionException(name + " group commit 이 실행 중이 아닙니다.");
+        }
+        Pending<T, R> pending = new Pending<>(request);
+        queue.add(pending);
+        return pending.future;
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getItemCount() {
+        return items.sum();
+    }
+
+    public double getAverageBatchSize() {
+        long batchCount = batches.sum();
+        return batchCount == 0 ? 0 : (double) items.sum() / batchCount;
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<T, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                        new RejectedExecutionException(name + " group commit 이 종료되었습니다.")));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 인터럽트로 빠져나온 경우 남은 요청은 실패 처리
+        Pending<T, R> left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new RejectedExecutionException(name + " group commit 이 종료되었습니다."));
+        }
+    }
+
+    // 첫 요청 도착 후 window 가 지나거나 cap 에 도달할 때까지 모은다
+    private void collect(List<Pending<T, R>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending<T, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending<T, R>> batch) {
+        List<T> requests = new ArrayList<>(batch.size());
+        for (Pending<T, R> pending : batch) {
+            requests.add(pending.request);
+        }
+
+        List<Outcome<R>> outcomes;
+        try {
+            outcomes = processor.process(requests);
+        } catch (RuntimeException e) {
+            log.error("group commit 배치 처리 실패: 이름 = {}, 배치 크기 = {}", name, batch.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        batches.increment();
+        items.add(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome<R> outcome = i < outcomes.size() ? outcomes.get(i) : null;
+            CompletableFuture<R> future = batch.get(i).future;
+            if (outcome == null) {
+                future.completeExceptionally(new IllegalStateException("처리 결과가 없습니다."));
+            } else if (outcome.error != null) {
+                future.completeExceptionally(outcome.error);
+            } else {
+                future.complete(outcome.value);
+            }
+        }
+    }
+
+    /**
+     * 배치 안의 요청 한 건의 결과.
+     */
+    public static final class Outcome<R> {
+
+        private final R value;
+        private final RuntimeException error;
+
+        private Outcome(R value, RuntimeException error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        public static <R> Outcome<R> success(R value) {
+            return new Outcome<>(value, null);
+        }
+
+        public static <R> Outcome<R> failure(RuntimeException error) {
+            return new Outcome<>(null, error);
+        }
+    }
+
+    private static final class Pending<T, R> {
+
+        private final T request;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Pending(T request) {
+            this.request = request;
+        }
+    }
+}
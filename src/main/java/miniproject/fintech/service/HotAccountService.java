@@ -0,0 +1,224 @@
+package miniproject.fintech.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.AccountBalanceSlot;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountBalanceSlotRepository;
+import miniproject.fintech.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+import static miniproject.fintech.service.TransactionCallbacks.afterRollback;
+import static miniproject.fintech.type.ErrorType.*;
+
+/**
+ * 입금이 몰리는 계좌(가맹점, 수수료 수취 계좌 등)의 잔액을 여러 슬롯 행으로 나눈다.
+ * 입금은 무작위 슬롯 하나에만 UPDATE 하므로 같은 Account 행을 두고 경쟁하지 않고, 슬롯 수만큼 병렬로 반영된다.
+ * 출금은 본 잔액(Account.amount)에서 먼저 차감하고, 부족하면 슬롯을 돌며 부족분이 채워질 때까지 본 잔액으로 옮긴 뒤 다시 차감한다.
+ * 계좌 잔액 = Account.amount + 슬롯 합계.
+ * 핫 계좌 목록은 시작 시 슬롯 테이블에서 읽으므로, 다른 인스턴스에서 지정/해제한 계좌는 재시작 후 반영된다.
+ */
+@Slf4j
+@Service
+public class HotAccountService {
+
+    // 잔액 부족으로 판단하기 전까지 슬롯을 쓸어 담는 최대 횟수 (동시에 다른 출금이 옮긴 금액을 가져간 경우 재시도)
+    private static final int MAX_SWEEP_ROUNDS = 8;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository accountBalanceSlotRepository;
+    private final int defaultSlotCount;
+    private final int maxSlotCount;
+
+    // 계좌 번호 -> 슬롯 수
+    private final Map<String, Integer> hotAccounts = new ConcurrentHashMap<>();
+
+    public HotAccountService(AccountRepository accountRepository,
+                             AccountBalanceSlotRepository accountBalanceSlotRepository,
+                             @Value("${account.hot.default-slot-count:16}") int defaultSlotCount,
+                             @Value("${account.hot.max-slot-count:256}") int maxSlotCount) {
+        this.accountRepository = accountRepository;
+        this.accountBalanceSlotRepository = accountBalanceSlotRepository;
+        this.defaultSlotCount = defaultSlotCount;
+        this.maxSlotCount = maxSlotCount;
+    }
+
+    @PostConstruct
+    public void loadHotAccounts() {
+        for (Object[] row : accountBalanceSlotRepository.countSlotsByAccountNumber()) {
+            hotAccounts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        log.info("핫 계좌 로딩 완료: {} 개", hotAccounts.size());
+    }
+
+    public boolean isHot(String accountNumber) {
+        return accountNumber != null && hotAccounts.containsKey(accountNumber);
+    }
+
+    // 핫 계좌를 제외한 계좌 번호 (핫 계좌는 조건부 UPDATE 만으로 처리하므로 계좌 락 대상에서 뺀다)
+    public String[] withoutHotAccounts(Collection<String> accountNumbers) {
+        List<String> result = new ArrayList<>(accountNumbers.size());
+        for (String accountNumber : accountNumbers) {
+            if (!isHot(accountNumber)) {
+                result.add(accountNumber);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    public Map<String, Integer> getHotAccounts() {
+        return new TreeMap<>(hotAccounts);
+    }
+
+    public void credit(String accountNumber, long amount) {
+        Integer slotCount = hotAccounts.get(accountNumber);
+        if (slotCount != null) {
+            int slotIndex = ThreadLocalRandom.current().nextInt(slotCount);
+            if (accountBalanceSlotRepository.credit(accountNumber, slotIndex, amount) == 1) {
+                return;
+            }
+        }
+
+        // 핫 계좌에서 해제되는 중이면 슬롯이 없으므로 본 잔액에 입금
+        if (accountRepository.credit(accountNumber, amount) == 0) {
+            log.error("입금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", accountNumber);
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+    }
+
+    public void debit(String accountNumber, long amount) {
+        for (int round = 0; round < MAX_SWEEP_ROUNDS; round++) {
+            if (accountRepository.debit(accountNumber, amount) == 1) {
+                return;
+            }
+
+            long mainAmount = accountRepository.findAmountByAccountNumber(accountNumber)
+                    .orElseThrow(() -> {
+                        log.error("출금 계좌를 찾을 수 없습니다: 계좌 번호 = {}", accountNumber);
+                        return new CustomError(ACCOUNT_NOT_FOUND);
+                    });
+            long shortage = amount - mainAmount;
+            if (shortage > 0 && sweep(accountNumber, shortage) == 0) {
+                break;
+            }
+        }
+
+        log.error("출금 계좌 잔액 부족: 계좌 번호 = {}, 요청 금액 = {}", accountNumber, amount);
+        throw new CustomError(NOT_ENOUGH_MONEY);
+    }
+
+    /**
+     * 슬롯을 무작위 위치부터 돌며 needed 이상 모일 때까지 본 잔액으로 옮긴다. 옮긴 금액을 반환한다.
+     * 슬롯 차감은 읽은 금액 이상 남아 있을 때만 성공하므로, 그 사이 다른 출금이 먼저 가져간 슬롯은 건너뛴다.
+     */
+    public long sweep(String accountNumber, long needed) {
+        List<Object[]> slots = accountBalanceSlotRepository.findSlotAmounts(accountNumber);
+        if (slots.isEmpty()) {
+            return 0;
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(slots.size());
+        long collected = 0;
+        for (int i = 0; i < slots.size() && collected < needed; i++) {
+            Object[] slot = slots.get((start + i) % slots.size());
+            int slotIndex = ((Number) slot[0]).intValue();
+            long slotAmount = ((Number) slot[1]).longValue();
+            if (slotAmount > 0 && accountBalanceSlotRepository.take(accountNumber, slotIndex, slotAmount) == 1) {
+                collected += slotAmount;
+            }
+        }
+
+        if (collected > 0) {
+            accountRepository.applyDelta(accountNumber, collected);
+            log.info("핫 계좌 슬롯 정리: 계좌 번호 = {}, 옮긴 금액 = {}", accountNumber, collected);
+        }
+        return collected;
+    }
+
+    // 본 잔액 + 슬롯 합계 (핫 계좌가 아니면 추가 조회 없음)
+    public long balanceOf(Account account) {
+        return balanceOf(account.getAccountNumber(), account.getAmount());
+    }
+
+    public long balanceOf(String accountNumber, long mainAmount) {
+        if (!isHot(accountNumber)) {
+            return mainAmount;
+        }
+        return mainAmount + accountBalanceSlotRepository.sumAmount(accountNumber);
+    }
+
+    public long totalSlotAmount() {
+        return accountBalanceSlotRepository.sumAllAmounts();
+    }
+
+    /**
+     * 계좌를 핫 계좌로 지정한다. 기존 잔액은 본 잔액에 그대로 두고 빈 슬롯을 만든다.
+     */
+    @Transactional
+    public int enable(String accountNumber, Integer requestedSlotCount) {
+        int slotCount = requestedSlotCount == null ? defaultSlotCount : requestedSlotCount;
+        if (slotCount <= 0 || slotCount > maxSlotCount) {
+            log.error("잘못된 슬롯 수입니다: {}", slotCount);
+            throw new CustomError(IN_CORRECT);
+        }
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            log.error("계좌를 찾을 수 없습니다: 계좌 번호 = {}", accountNumber);
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+        if (isHot(accountNumber)) {
+            return hotAccounts.get(accountNumber);
+        }
+
+        List<AccountBalanceSlot> slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(AccountBalanceSlot.builder()
+                    .accountNumber(accountNumber)
+                    .slotIndex(i)
+                    .amount(0)
+                    .build());
+        }
+        accountBalanceSlotRepository.saveAll(slots);
+
+        // 슬롯이 커밋된 뒤부터 입금을 슬롯으로 보낸다
+        afterCommit(() -> hotAccounts.put(accountNumber, slotCount));
+        log.info("핫 계좌 지정: 계좌 번호 = {}, 슬롯 수 = {}", accountNumber, slotCount);
+        return slotCount;
+    }
+
+    /**
+     * 핫 계좌 지정을 해제한다. 슬롯 잔액을 모두 본 잔액으로 옮기고 슬롯을 삭제한다.
+     */
+    @Transactional
+    public long disable(String accountNumber) {
+        Integer slotCount = hotAccounts.remove(accountNumber);
+        if (slotCount == null) {
+            return 0;
+        }
+        afterRollback(() -> hotAccounts.put(accountNumber, slotCount));
+
+        long folded = 0;
+        for (AccountBalanceSlot slot : accountBalanceSlotRepository.findAllForUpdate(accountNumber)) {
+            folded += slot.getAmount();
+        }
+        if (folded != 0) {
+            accountRepository.applyDelta(accountNumber, folded);
+        }
+        accountBalanceSlotRepository.deleteByAccountNumber(accountNumber);
+
+        log.info("핫 계좌 해제: 계좌 번호 = {}, 본 잔액으로 옮긴 금액 = {}", accountNumber, folded);
+        return folded;
+    }
+
+}
@@ -0,0 +1,269 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.IdempotencyRecord;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.error.OutcomeUnknownException;
+import miniproject.fintech.repository.IdempotencyRecordRepository;
+import miniproject.fintech.type.IdempotencyScope;
+import miniproject.fintech.type.IdempotencyStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static miniproject.fintech.type.ErrorType.IDEMPOTENCY_KEY_INVALID;
+import static miniproject.fintech.type.ErrorType.IDEMPOTENCY_KEY_REUSED;
+import static miniproject.fintech.type.ErrorType.IDEMPOTENCY_REQUEST_IN_PROGRESS;
+
+/**
+ * Idempotency-Key 헤더 처리. key 는 요청한 사용자별로 구분하고, 요청 본문의 해시를 함께 기록한다.
+ * 1) 메모리 저장소에 완료된 응답이 있으면 DB 조회 없이 그대로 반환
+ * 2) 같은 key 로 처리 중인 요청이 있으면 그 결과를 기다림
+ * 3) 처음 보는 key 면 idempotency_record 에 IN_PROGRESS 로 선점한 뒤 실행하고, 응답을 저장
+ * 같은 key 인데 본문 해시가 처음 요청과 다르면 실행하지 않고 422 로 거절한다.
+ * 실행 결과를 알 수 없으면(OutcomeUnknownException) 선점을 해제하지 않고, 나중에 나온 실제 결과로 응답을 저장하거나 선점을 해제한다.
+ * 다른 서버 인스턴스나 재시작 이후의 재시도는 idempotency_record 테이블로 판단한다.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore store;
+    private final long ttlSeconds;
+    private final long awaitTimeoutMillis;
+    // 결과를 알 수 없던 요청의 결과를 DB 에 기록하는 스레드 (group commit / 원장 스레드에서 JPA 를 호출하지 않도록)
+    private final ExecutorService settler = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-settle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency.await-timeout-ms:10000}") long awaitTimeoutMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.store = new IdempotencyStore(maxEntries, ttlSeconds, TimeUnit.SECONDS);
+        this.ttlSeconds = ttlSeconds;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+    }
+
+    public <T> T execute(IdempotencyScope scope, String principal, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new CustomError(IDEMPOTENCY_KEY_INVALID);
+        }
+
+        String requestHash = hash(request);
+        IdempotencyStore.Entry entry = store.get(scope, principal, idempotencyKey);
+        if (entry == null) {
+            entry = store.register(scope, principal, idempotencyKey, requestHash);
+            if (entry.isOwnedBy(Thread.currentThread())) {
+                return executeFirst(scope, principal, idempotencyKey, requestHash, responseType, action, entry);
+            }
+        }
+        if (!entry.matches(requestHash)) {
+            log.warn("Idempotency-Key 재사용 (본문 다름): 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+            throw new CustomError(IDEMPOTENCY_KEY_REUSED);
+        }
+
+        // 이미 처리했거나 처리 중인 key: 같은 응답을 반환
+        log.info("Idempotency-Key 재요청: 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+        return responseType.cast(await(entry));
+    }
+
+    @PreDestroy
+    public void stop() {
+        settler.shutdown();
+    }
+
+    public int cachedEntries() {
+        return store.size();
+    }
+
+    private <T> T executeFirst(IdempotencyScope scope, String principal, String idempotencyKey, String requestHash,
+                               Class<T> responseType, Supplier<T> action, IdempotencyStore.Entry entry) {
+        IdempotencyRecord record;
+        try {
+            Optional<T> stored = findStoredResponse(scope, principal, idempotencyKey, requestHash, responseType);
+            if (stored.isPresent()) {
+                store.complete(entry, stored.get());
+                return stored.get();
+            }
+            record = claim(scope, principal, idempotencyKey, requestHash);
+        } catch (Throwable e) {
+            store.fail(entry, e);
+            throw e;
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (OutcomeUnknownException e) {
+            // 나중에 반영될 수 있으므로 선점(IN_PROGRESS)을 유지해 같은 key 의 재시도가 다시 실행하지 않게 한다
+            log.warn("Idempotency-Key 요청 결과 확인 대기: 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+            settleLater(record, entry, e);
+            throw e;
+        } catch (RuntimeException e) {
+            // 실패한 요청은 같은 key 로 다시 시도할 수 있도록 선점을 해제
+            release(record);
+            store.fail(entry, e);
+            throw e;
+        } catch (Throwable e) {
+            // Error 처럼 예상하지 못한 실패는 결과를 알 수 없으므로 DB 선점은 남기고, 기다리는 요청이 멈추지 않게 메모리 항목만 정리
+            store.fail(entry, e);
+            throw e;
+        }
+
+        // 돈이 이미 이동했으므로 DB 기록이 실패해도 메모리 결과는 유지한다 (DB 에는 IN_PROGRESS 로 남아 중복 실행을 막는다)
+        store.complete(entry, response);
+        saveResponse(record, response);
+        return response;
+    }
+
+    /**
+     * 결과를 알 수 없는 요청은 실제 결과가 나오면 정리한다.
+     * 응답이면 메모리 항목을 완료하고 DB 에 저장, 업무 오류(CustomError)처럼 반영되지 않은 것이 확실하면 선점을 해제한다.
+     * 결과 future 가 없거나 그 밖의 오류면 DB 선점은 남겨 두고 (같은 key 의 재요청은 409) 메모리 항목만 정리한다.
+     */
+    private void settleLater(IdempotencyRecord record, IdempotencyStore.Entry entry, OutcomeUnknownException unknown) {
+        if (unknown.getOutcome() == null) {
+            store.fail(entry, unknown);
+            return;
+        }
+        unknown.getOutcome().whenCompleteAsync((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                store.complete(entry, response);
+                saveResponse(record, response);
+            } else if (cause instanceof CustomError) {
+                release(record);
+                store.fail(entry, cause);
+            } else {
+                store.fail(entry, unknown);
+            }
+        }, settler);
+    }
+
+    // DB 에 완료된 응답이 있으면 반환, 만료된 기록은 삭제
+    private <T> Optional<T> findStoredResponse(IdempotencyScope scope, String principal, String idempotencyKey,
+                                               String requestHash, Class<T> responseType) {
+        Optional<IdempotencyRecord> found =
+                idempotencyRecordRepository.findByScopeAndPrincipalAndIdempotencyKey(scope, principal, idempotencyKey);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = found.get();
+        if (record.getExpiresAt() != null && record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            idempotencyRecordRepository.delete(record);
+            return Optional.empty();
+        }
+        if (!requestHash.equals(record.getRequestHash())) {
+            log.warn("Idempotency-Key 재사용 (본문 다름): 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+            throw new CustomError(IDEMPOTENCY_KEY_REUSED);
+        }
+        if (record.getStatus() != IdempotencyStatus.COMPLETED) {
+            throw new CustomError(IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+
+        log.info("Idempotency-Key 저장된 응답 반환: 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+        return Optional.of(readResponse(record.getResponseBody(), responseType));
+    }
+
+    // unique (scope, principal, idempotency_key) 로 선점: 다른 인스턴스가 먼저 선점했으면 충돌
+    private IdempotencyRecord claim(IdempotencyScope scope, String principal, String idempotencyKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .scope(scope)
+                    .principal(principal)
+                    .idempotencyKey(idempotencyKey)
+                    .requestHash(requestHash)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .createdAt(now)
+                    .expiresAt(now.plusSeconds(ttlSeconds))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Idempotency-Key 선점 충돌: 구분 = {}, 사용자 = {}, key = {}", scope, principal, idempotencyKey);
+            throw new CustomError(IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+    }
+
+    private void release(IdempotencyRecord record) {
+        try {
+            idempotencyRecordRepository.delete(record);
+        } catch (RuntimeException e) {
+            log.error("Idempotency-Key 선점 해제 실패: key = {}", record.getIdempotencyKey(), e);
+        }
+    }
+
+    private void saveResponse(IdempotencyRecord record, Object response) {
+        try {
+            record.setStatus(IdempotencyStatus.COMPLETED);
+            record.setResponseBody(objectMapper.writeValueAsString(response));
+            idempotencyRecordRepository.save(record);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Idempotency-Key 응답 저장 실패: key = {}", record.getIdempotencyKey(), e);
+        }
+    }
+
+    // 요청 본문을 JSON 으로 직렬화한 SHA-256 (hex)
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("요청 본문 해시를 계산할 수 없습니다.", e);
+        }
+    }
+
+    private <T> T readResponse(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 응답을 읽을 수 없습니다.", e);
+        }
+    }
+
+    private Object await(IdempotencyStore.Entry entry) {
+        try {
+            return entry.future().get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CustomError(IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomError(IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.type.IdempotencyScope;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency-Key 별 처리 결과를 들고 있는 메모리 저장소.
+ * scope 별 ConcurrentHashMap 에 (요청한 사용자, 헤더 값) 을 key 로 두어 다른 사용자의 같은 헤더 값과 섞이지 않는다.
+ * 항목마다 요청 본문 해시를 들고 있어 같은 key 로 다른 요청이 왔는지 판단할 수 있다.
+ * 처리 중인 요청은 완료되지 않은 future 로 등록되어 같은 key 의 동시 요청이 그 결과를 기다린다.
+ * 완료된 항목은 ttl 이 지나면 만료되고, 전체 개수가 maxEntries 를 넘으면 먼저 등록된 항목부터 제거한다.
+ */
+public class IdempotencyStore {
+
+    private final Map<IdempotencyScope, ConcurrentHashMap<Key, Entry>> entries = new EnumMap<>(IdempotencyScope.class);
+    // 등록 순서 (만료/용량 초과 시 앞에서부터 제거)
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public IdempotencyStore(int maxEntries, long ttl, TimeUnit unit) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        for (IdempotencyScope scope : IdempotencyScope.values()) {
+            entries.put(scope, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 살아 있는 항목을 반환한다. 없거나 만료되었으면 null.
+     */
+    public Entry get(IdempotencyScope scope, String principal, String idempotencyKey) {
+        Entry entry = entries.get(scope).get(new Key(principal, idempotencyKey));
+        if (entry != null && entry.isExpired(System.nanoTime())) {
+            remove(entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 새 처리 중 항목 등록을 시도한다. 이미 살아 있는 항목이 있으면 그 항목을, 등록에 성공하면 새 항목을 반환한다.
+     * 반환값이 {@link Entry#isOwnedBy(Thread)} 로 현재 스레드 소유인 경우에만 요청을 실행해야 한다.
+     */
+    public Entry register(IdempotencyScope scope, String principal, String idempotencyKey, String requestHash) {
+        ConcurrentHashMap<Key, Entry> map = entries.get(scope);
+        Key key = new Key(principal, idempotencyKey);
+        Entry candidate = new Entry(scope, key, requestHash, Thread.currentThread());
+
+        while (true) {
+            Entry existing = map.putIfAbsent(key, candidate);
+            if (existing == null) {
+                size.incrementAndGet();
+                insertionOrder.add(candidate);
+                trim();
+                return candidate;
+            }
+            if (!existing.isExpired(System.nanoTime())) {
+                return existing;
+            }
+            remove(existing);
+        }
+    }
+
+    // 처리 완료: 결과를 기록하고 ttl 카운트 시작
+    public void complete(Entry entry, Object response) {
+        entry.expiresAtNanos = System.nanoTime() + ttlNanos;
+        entry.future.complete(response);
+    }
+
+    // 처리 실패: 같은 key 로 다시 시도할 수 있도록 제거하고 대기 중인 요청에 예외 전달
+    public void fail(Entry entry, Throwable error) {
+        remove(entry);
+        entry.future.completeExceptionally(error);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void remove(Entry entry) {
+        if (entries.get(entry.scope).remove(entry.key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    // 만료된 항목과 용량을 넘은 항목을 앞에서부터 제거 (처리 중인 항목은 제거하지 않고 건너뛴다)
+    private void trim() {
+        // 한 번에 한 스레드만 정리 (다른 스레드는 기다리지 않고 건너뛴다)
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            Iterator<Entry> iterator = insertionOrder.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entries.get(entry.scope).get(entry.key) != entry) {
+                    iterator.remove();
+                    continue;
+                }
+                if (!entry.future.isDone()) {
+                    continue;
+                }
+                // 가장 오래된 완료 항목이 아직 살아 있고 용량도 넘지 않았으면 더 볼 필요가 없다
+                if (!entry.isExpired(now) && size.get() <= maxEntries) {
+                    return;
+                }
+                iterator.remove();
+                remove(entry);
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private record Key(String principal, String idempotencyKey) {
+    }
+
+    public static final class Entry {
+
+        private final IdempotencyScope scope;
+        private final Key key;
+        private final String requestHash;
+        private final Thread owner;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        // 처리 중에는 만료되지 않는다
+        private volatile long expiresAtNanos = Long.MAX_VALUE;
+
+        private Entry(IdempotencyScope scope, Key key, String requestHash, Thread owner) {
+            this.scope = scope;
+            this.key = key;
+            this.requestHash = requestHash;
+            this.owner = owner;
+        }
+
+        // 처음 요청과 본문이 같은지
+        public boolean matches(String requestHash) {
+            return this.requestHash.equals(requestHash);
+        }
+
+        public boolean isOwnedBy(Thread thread) {
+            return owner == thread && !future.isDone();
+        }
+
+        public CompletableFuture<Object> future() {
+            return future;
+        }
+
+        private boolean isExpired(long now) {
+            return future.isDone() && now - expiresAtNanos > 0;
+        }
+    }
+}
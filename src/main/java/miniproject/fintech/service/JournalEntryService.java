@@ -0,0 +1,368 @@
+package miniproject.fintech.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.AccountBalanceCheckpoint;
+import miniproject.fintech.domain.JournalEntry;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.dto.JournalReconciliationResponse;
+import miniproject.fintech.repository.AccountBalanceCheckpointRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.JournalEntryBatchRepository;
+import miniproject.fintech.repository.JournalEntryRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.type.JournalEntryType;
+import miniproject.fintech.type.JournalMovementType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 복식 원장(journal_entry). 잔액 이동 하나를 출금 계좌 DEBIT 한 줄과 입금 계좌 CREDIT 한 줄로 추가만 한다 (UPDATE 없음).
+ * 잔액 변경과 같은 트랜잭션에서 JDBC 배치 INSERT 로 기록하므로 롤백되면 분개도 남지 않는다.
+ * 계좌 잔액 = 계좌별 체크포인트 + 체크포인트 이후 분개 합계이며, 체크포인트는 settle-lag 전에 이미 받은 ID 까지 주기적으로 앞으로 접는다.
+ * 개설/조정/해지처럼 상대 계좌가 없는 이동은 EXTERNAL 계좌를 상대로 기록해 DEBIT 합계 = CREDIT 합계를 유지한다.
+ * account.amount 는 잔액 부족 검사용 materialized 잔액으로 그대로 두고, reconcile 로 두 값이 같은지 확인한다.
+ */
+@Slf4j
+@Service
+public class JournalEntryService {
+
+    public static final String EXTERNAL_ACCOUNT = "EXTERNAL";
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalEntryBatchRepository journalEntryBatchRepository;
+    private final AccountBalanceCheckpointRepository balanceCheckpointRepository;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final boolean enabled;
+    private final long settleLagMillis;
+    private final int reconcileChunkSize;
+    private final ExecutorService reconcileWorkers;
+    // 관찰한 [시각(ms), 최대 ID] (오래된 순). settle-lag 가 지난 관찰의 최대 ID 까지가 접을 수 있는 구간
+    private final Deque<long[]> observedMaxIds = new ArrayDeque<>();
+    private long settledMaxId;
+
+    public JournalEntryService(JournalEntryRepository journalEntryRepository,
+                               JournalEntryBatchRepository journalEntryBatchRepository,
+                               AccountBalanceCheckpointRepository balanceCheckpointRepository,
+                               LedgerCheckpointRepository ledgerCheckpointRepository,
+                               AccountRepository accountRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${journal.enabled:true}") boolean enabled,
+                               @Value("${journal.settle-lag-ms:60000}") long settleLagMillis,
+                               @Value("${journal.reconcile.chunk-size:100000}") int reconcileChunkSize,
+                               @Value("${journal.reconcile.parallelism:4}") int reconcileParallelism) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.journalEntryBatchRepository = journalEntryBatchRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.settleLagMillis = settleLagMillis;
+        this.reconcileChunkSize = reconcileChunkSize;
+        AtomicInteger sequence = new AtomicInteger();
+        this.reconcileWorkers = Executors.newFixedThreadPool(reconcileParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "journal-reconcile-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 분개가 하나도 없는 기존 계좌의 현재 잔액을 OPENING 으로 기록한다 (journal_entry 도입 전 계좌).
+     * 인메모리 원장 엔진이 저널을 재반영하기 전에 실행되도록 엔진이 이 서비스를 주입받는다.
+     */
+    @PostConstruct
+    public void seedOpeningBalances() {
+        if (!enabled) {
+            return;
+        }
+        Integer seeded = transactionTemplate.execute(status -> {
+            ledgerCheckpointRepository.findById(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                    .orElseGet(() -> ledgerCheckpointRepository.save(LedgerCheckpoint.builder()
+                            .id(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                            .updatedAt(LocalDateTime.now())
+                            .build()));
+
+            Set<String> withoutEntries = new HashSet<>(journalEntryRepository.findAccountNumbersWithoutEntries());
+            if (withoutEntries.isEmpty()) {
+                return 0;
+            }
+            List<JournalEntry> entries = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (Object[] row : accountRepository.findAllAccountBalances()) {
+                String accountNumber = (String) row[1];
+                long balance = (Long) row[2];
+                if (withoutEntries.contains(accountNumber) && balance > 0) {
+                    addMovement(entries, JournalMovementType.OPENING, EXTERNAL_ACCOUNT, accountNumber, balance, now);
+                }
+            }
+            journalEntryBatchRepository.insert(entries);
+            return entries.size() / 2;
+        });
+        if (seeded != null && seeded > 0) {
+            log.info("기존 계좌 개설 잔액 분개 기록: 계좌 수 = {}", seeded);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconcileWorkers.shutdownNow();
+    }
+
+    /**
+     * 출금 계좌 DEBIT / 입금 계좌 CREDIT 한 쌍을 기록한다. 잔액을 바꾼 트랜잭션 안에서 호출해야 한다.
+     */
+    public void record(JournalMovementType movementType, String debitAccountNumber, String creditAccountNumber, long amount) {
+        recordAll(List.of(new Posting(movementType, debitAccountNumber, creditAccountNumber, amount)));
+    }
+
+    // 여러 이동을 JDBC 배치 한 번으로 기록 (송금 일괄 처리, write-behind)
+    public void recordAll(Collection<Posting> postings) {
+        if (!enabled || postings.isEmpty()) {
+            return;
+        }
+        List<JournalEntry> entries = new ArrayList<>(postings.size() * 2);
+        LocalDateTime now = LocalDateTime.now();
+        for (Posting posting : postings) {
+            if (posting.amount() > 0) {
+                addMovement(entries, posting.movementType(), posting.debitAccountNumber(), posting.creditAccountNumber(),
+                        posting.amount(), now);
+            }
+        }
+        if (!entries.isEmpty()) {
+            journalEntryBatchRepository.insert(entries);
+        }
+    }
+
+    // 상대 계좌 없이 잔액이 delta 만큼 바뀐 경우 (EXTERNAL 상대로 기록)
+    public void recordAdjustment(JournalMovementType movementType, String accountNumber, long delta) {
+        if (delta > 0) {
+            record(movementType, EXTERNAL_ACCOUNT, accountNumber, delta);
+        } else if (delta < 0) {
+            record(movementType, accountNumber, EXTERNAL_ACCOUNT, -delta);
+        }
+    }
+
+    // 분개 기준 잔액 = 계좌 체크포인트 + 그 이후 분개 합계
+    public long balanceOf(String accountNumber) {
+        Long balance = readOnlyTemplate.execute(status -> {
+            Optional<AccountBalanceCheckpoint> checkpoint = balanceCheckpointRepository.findById(accountNumber);
+            long base = checkpoint.map(AccountBalanceCheckpoint::getBalance).orElse(0L);
+            long afterId = checkpoint.map(AccountBalanceCheckpoint::getLastEntryId).orElse(0L);
+            return base + journalEntryRepository.sumSince(accountNumber, afterId);
+        });
+        return balance == null ? 0 : balance;
+    }
+
+    /**
+     * settle-lag 전에 받은 분개까지 계좌별로 합산해 체크포인트를 앞으로 옮긴다 ({@link #settledMaxId()}).
+     * 전역 체크포인트 행에 락을 잡고 진행하므로 여러 인스턴스가 같은 구간을 두 번 합산하지 않는다.
+     */
+    @Scheduled(fixedDelayString = "${journal.checkpoint.interval-ms:60000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer folded = transactionTemplate.execute(status -> foldCheckpoint());
+            if (folded != null && folded > 0) {
+                log.info("분개 체크포인트 갱신: 계좌 수 = {}", folded);
+            }
+        } catch (RuntimeException e) {
+            log.error("분개 체크포인트 갱신 실패", e);
+        }
+    }
+
+    /**
+     * settle-lag 전에 받은 분개 전체를 ID 구간으로 나눠 병렬로 검사한다.
+     * 구간마다 DEBIT / CREDIT 합계와 짝이 맞지 않는 이동을 구하고, 구간 경계에 걸친 이동은 합쳐서 다시 판단한다.
+     * 계좌별 차이(account 잔액 - 분개 잔액)는 한 읽기 트랜잭션에서 비교하며, 처리 중인 송금이 있으면 일시적으로 나타날 수 있다.
+     */
+    public JournalReconciliationResponse reconcile() {
+        long start = System.nanoTime();
+        long uptoId = Math.max(settledMaxId(), ledgerCheckpointRepository.findById(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                .map(LedgerCheckpoint::getJournalSequence)
+                .orElse(0L));
+
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        for (long from = 0; from < uptoId; from += reconcileChunkSize) {
+            long afterId = from;
+            long chunkUptoId = Math.min(from + reconcileChunkSize, uptoId);
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> readOnlyTemplate.execute(status -> checkChunk(afterId, chunkUptoId)), reconcileWorkers));
+        }
+
+        long totalDebits = 0;
+        long totalCredits = 0;
+        Map<String, Long> imbalances = new HashMap<>();
+        for (CompletableFuture<ChunkResult> chunk : chunks) {
+            ChunkResult result = chunk.join();
+            totalDebits += result.debits();
+            totalCredits += result.credits();
+            result.imbalances().forEach((movementId, imbalance) -> imbalances.merge(movementId, imbalance, Long::sum));
+        }
+        List<String> unbalanced = imbalances.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+
+        Map<String, Long> drift = readOnlyTemplate.execute(status -> accountDrift());
+
+        JournalReconciliationResponse response = JournalReconciliationResponse.builder()
+                .checkedThroughId(uptoId)
+                .chunkCount(chunks.size())
+                .totalDebits(totalDebits)
+                .totalCredits(totalCredits)
+                .balanced(totalDebits == totalCredits && unbalanced.isEmpty())
+                .unbalancedMovementIds(unbalanced)
+                .accountDrift(drift)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+
+        if (!response.isBalanced() || !drift.isEmpty()) {
+            log.error("분개 대사 불일치: DEBIT = {}, CREDIT = {}, 짝이 맞지 않는 이동 = {}, 잔액 차이 계좌 = {}",
+                    totalDebits, totalCredits, unbalanced.size(), drift.size());
+        } else {
+            log.info("분개 대사 완료: ID ~ {}, 구간 수 = {}, 합계 = {}, 소요 시간 = {}ms",
+                    uptoId, chunks.size(), totalDebits, response.getElapsedMillis());
+        }
+        return response;
+    }
+
+    private int foldCheckpoint() {
+        LedgerCheckpoint global = ledgerCheckpointRepository.findForUpdate(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                .orElseGet(() -> ledgerCheckpointRepository.save(LedgerCheckpoint.builder()
+                        .id(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                        .updatedAt(LocalDateTime.now())
+                        .build()));
+        long afterId = global.getJournalSequence();
+        long uptoId = settledMaxId();
+        if (uptoId <= afterId) {
+            return 0;
+        }
+
+        List<Object[]> deltas = journalEntryRepository.sumByAccountBetween(afterId, uptoId);
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : deltas) {
+            String accountNumber = (String) row[0];
+            long delta = (Long) row[1];
+            AccountBalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(accountNumber)
+                    .orElseGet(() -> AccountBalanceCheckpoint.builder().accountNumber(accountNumber).build());
+            checkpoint.setBalance(checkpoint.getBalance() + delta);
+            checkpoint.setLastEntryId(uptoId);
+            checkpoint.setCheckpointedAt(now);
+            balanceCheckpointRepository.save(checkpoint);
+        }
+
+        global.setJournalSequence(uptoId);
+        global.setUpdatedAt(now);
+        return deltas.size();
+    }
+
+    private ChunkResult checkChunk(long afterId, long uptoId) {
+        long debits = 0;
+        long credits = 0;
+        for (Object[] row : journalEntryRepository.sumByEntryTypeBetween(afterId, uptoId)) {
+            if (row[0] == JournalEntryType.DEBIT) {
+                debits = (Long) row[1];
+            } else {
+                credits = (Long) row[1];
+            }
+        }
+        Map<String, Long> imbalances = new HashMap<>();
+        for (Object[] row : journalEntryRepository.findImbalancedMovementsBetween(afterId, uptoId)) {
+            imbalances.put((String) row[0], (Long) row[1]);
+        }
+        return new ChunkResult(debits, credits, imbalances);
+    }
+
+    // 전역 체크포인트 시점의 계좌 체크포인트 + 그 이후 분개 합계를 account 잔액(슬롯 포함)과 비교
+    private Map<String, Long> accountDrift() {
+        long checkpointId = ledgerCheckpointRepository.findById(LedgerCheckpoint.JOURNAL_ENTRY_ID)
+                .map(LedgerCheckpoint::getJournalSequence)
+                .orElse(0L);
+        long maxId = journalEntryRepository.findMaxId();
+
+        Map<String, Long> journalBalances = new HashMap<>();
+        for (AccountBalanceCheckpoint checkpoint : balanceCheckpointRepository.findAll()) {
+            journalBalances.put(checkpoint.getAccountNumber(), checkpoint.getBalance());
+        }
+        for (Object[] row : journalEntryRepository.sumByAccountBetween(checkpointId, maxId)) {
+            journalBalances.merge((String) row[0], (Long) row[1], Long::sum);
+        }
+
+        Map<String, Long> drift = new TreeMap<>();
+        for (Object[] row : accountRepository.findAllAccountBalances()) {
+            String accountNumber = (String) row[1];
+            if (accountNumber == null) {
+                continue;
+            }
+            long difference = (Long) row[2] - journalBalances.getOrDefault(accountNumber, 0L);
+            if (difference != 0) {
+                drift.put(accountNumber, difference);
+            }
+        }
+        return drift;
+    }
+
+    /**
+     * 모든 분개 트랜잭션이 끝났다고 볼 수 있는 마지막 ID.
+     * IDENTITY ID 는 INSERT 순서로 받지만 커밋 순서는 다를 수 있어, 지금 보이는 최대 ID 아래에 아직 커밋되지 않은 ID 가 있을 수 있다.
+     * 호출할 때마다 보이는 최대 ID 를 기록하고, settle-lag 이상 지난 기록의 최대 ID 를 돌려준다 (그 ID 이하는 모두 settle-lag 전에 받은 ID).
+     * 빈 ID 에 행을 넣어 확인하지 않으므로 진행 중인 트랜잭션의 락을 기다리지 않는다.
+     * settle-lag 보다 오래 열려 있던 트랜잭션의 분개는 체크포인트에서 빠지며, reconcile 의 계좌별 차이로 드러난다.
+     */
+    private synchronized long settledMaxId() {
+        long now = System.currentTimeMillis();
+        observedMaxIds.addLast(new long[]{now, journalEntryRepository.findMaxId()});
+        while (!observedMaxIds.isEmpty() && now - observedMaxIds.peekFirst()[0] >= settleLagMillis) {
+            settledMaxId = Math.max(settledMaxId, observedMaxIds.pollFirst()[1]);
+        }
+        return settledMaxId;
+    }
+
+    private static void addMovement(List<JournalEntry> entries, JournalMovementType movementType,
+                                    String debitAccountNumber, String creditAccountNumber, long amount, LocalDateTime now) {
+        String movementId = UUID.randomUUID().toString();
+        entries.add(entry(movementId, debitAccountNumber, JournalEntryType.DEBIT, movementType, amount, now));
+        entries.add(entry(movementId, creditAccountNumber, JournalEntryType.CREDIT, movementType, amount, now));
+    }
+
+    private static JournalEntry entry(String movementId, String accountNumber, JournalEntryType entryType,
+                                      JournalMovementType movementType, long amount, LocalDateTime now) {
+        return JournalEntry.builder()
+                .movementId(movementId)
+                .accountNumber(accountNumber)
+                .entryType(entryType)
+                .movementType(movementType)
+                .amount(amount)
+                .createdAt(now)
+                .build();
+    }
+
+    // 출금 계좌(DEBIT) -> 입금 계좌(CREDIT) 이동 한 건
+    public record Posting(JournalMovementType movementType, String debitAccountNumber, String creditAccountNumber, long amount) {
+    }
+
+    private record ChunkResult(long debits, long credits, Map<String, Long> imbalances) {
+    }
+}
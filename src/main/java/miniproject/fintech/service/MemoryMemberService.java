@@ -9,6 +9,7 @@ import miniproject.fintech.dto.DtoConverter;
 import miniproject.fintech.dto.EntityConverter;
 import miniproject.fintech.error.CustomError;
 import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.service.bloom.ExistenceFilters;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,6 +30,7 @@ public class MemoryMemberService {
     private final PasswordEncoder passwordEncoder;
     private final DtoConverter dtoConverter;
     private final EntityConverter entityConverter;
+    private final ExistenceFilters existenceFilters;
 
     public Optional<BankMember> findByUserId(String userId) {
         log.info("Searching for BankMember with userId: {}", userId);
@@ -98,6 +100,7 @@ public class MemoryMemberService {
                 .build();
 
         BankMember savedMember = memberRepository.save(newBankMember);
+        existenceFilters.add(existenceFilters.memberUserIds(), savedMember.getUserId());
         log.info("새 은행 회원 생성 성공: {}", savedMember);
         return dtoConverter.convertToBankMemberDto(savedMember);
     }
@@ -122,7 +125,9 @@ public class MemoryMemberService {
         }
 
         // 데이터베이스에 엔티티 저장
-        return memberRepository.save(bankMember);
+        BankMember savedMember = memberRepository.save(bankMember);
+        existenceFilters.add(existenceFilters.memberUserIds(), savedMember.getUserId());
+        return savedMember;
     }
 
 
@@ -137,6 +142,7 @@ public class MemoryMemberService {
         entityConverter.updateBankMemberFromDto(updatedMemberDto, existingMember);
 
         BankMember savedMember = memberRepository.save(existingMember);
+        existenceFilters.add(existenceFilters.memberUserIds(), savedMember.getUserId());
         log.info("은행 회원 업데이트 성공: {}", savedMember);
 
         return dtoConverter.convertToBankMemberDto(savedMember);
@@ -197,13 +203,14 @@ public class MemoryMemberService {
         memberRepository.save(member); // 변경된 비밀번호를 저장합니다.
     }
 
+    // 필터가 없다고 하면 DB 를 조회하지 않음
     public boolean existsById(String userId) {
-        return memberRepository.existsByUserId(userId);
+        return existenceFilters.memberUserIds().exists(userId, memberRepository::existsByUserId);
     }
 
     private void validationCreateNewMember(BankMemberDto bankMember) {
         Optional<BankMember> byEmail = memberRepository.findByEmail(bankMember.getEmail());
-        Optional<BankMember> byUserId = memberRepository.findByUserId(bankMember.getUserId());
+        boolean userIdExists = existsById(bankMember.getUserId());
 
         log.info("새 은행 회원 검증 중: 이메일 - {}, 사용자 ID - {}", bankMember.getEmail(), bankMember.getUserId());
 
@@ -212,7 +219,7 @@ public class MemoryMemberService {
             throw new CustomError(EMAIL_DUPLICATE);
         }
 
-        if (byUserId.isPresent()) {
+        if (userIdExists) {
             log.error("이미 사용 중인 사용자 ID: {}", bankMember.getUserId());
             throw new CustomError(MEMBER_EXIST);
         }
@@ -231,5 +238,6 @@ public class MemoryMemberService {
 
         log.info("비밀번호 일치. 은행 회원 삭제: userId - {}", userId);
         memberRepository.deleteByUserId(userId);
+        existenceFilters.memberUserIds().remove(userId);
     }
 }
\ No newline at end of file
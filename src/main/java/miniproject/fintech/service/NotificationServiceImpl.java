@@ -1,30 +1,58 @@
 package miniproject.fintech.service;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import miniproject.fintech.domain.Deposit;
+import miniproject.fintech.dto.BankMemberDto;
 import miniproject.fintech.dto.DepositDto;
 import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.service.notification.DeliveryCallback;
+import miniproject.fintech.service.notification.NotificationDispatcher;
 import miniproject.fintech.type.TransferStatus;
 import org.springframework.stereotype.Service;
 
-@Slf4j
+/**
+ * 알림 내용을 만들어 NotificationDispatcher 큐에 넣는다. 발송은 dispatcher worker 가 하므로 호출 스레드를 막지 않는다.
+ * 큐가 가득 차 버려지면 예외를 던져 OutboxRelay 가 나중에 다시 시도하게 한다.
+ * 실제 발송 결과는 callback 으로 전달되므로, 큐에 들어간 것만으로 전달 완료로 보면 안 된다.
+ */
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl {
 
+    private final NotificationDispatcher notificationDispatcher;
 
-    public void sendNotification(TransferDto transfer) {
+    public void sendNotification(TransferDto transfer, DeliveryCallback callback) {
+        String text;
         if (transfer.getTransferStatus() == TransferStatus.COMPLETED) {
-            // Implement email or SMS notification logic here
-            log.info("송금 성공 알림: {}", transfer.getMessage());
+            text = String.format("송금 성공: %s → %s, %d 원 %s", transfer.getSourceAccountNumber(),
+                    transfer.getDestinationAccountNumber(), transfer.getTransferAmount(), messageOf(transfer.getMessage()));
         } else {
-            log.error("송금 실패 알림: {}", transfer.getMessage());
+            text = String.format("송금 실패: %s → %s, %d 원 %s", transfer.getSourceAccountNumber(),
+                    transfer.getDestinationAccountNumber(), transfer.getTransferAmount(), messageOf(transfer.getMessage()));
         }
+        enqueue(recipientOf(transfer.getBankMemberDto(), transfer.getSourceAccountNumber()), text, callback);
     }
 
-    public void sendNotification(DepositDto deposit) {
-        // Implement email or SMS notification logic here
-        log.info("입금 알림: {}", deposit.getMessage());
+    public void sendNotification(DepositDto deposit, DeliveryCallback callback) {
+        String text = String.format("입금: %s → %s, %d 원 %s", deposit.getSourceAccountNumber(),
+                deposit.getDestinationAccountNumber(), deposit.getDepositAmount(), messageOf(deposit.getMessage()));
+        enqueue(recipientOf(deposit.getBankMemberDto(), deposit.getDestinationAccountNumber()), text, callback);
+    }
+
+    private void enqueue(String recipient, String text, DeliveryCallback callback) {
+        if (!notificationDispatcher.submit(recipient, text, callback)) {
+            throw new IllegalStateException("알림 큐가 가득 차 알림을 보내지 못했습니다: 수신자 = " + recipient);
+        }
+    }
+
+    // 회원 정보가 있으면 회원 기준, 없으면 계좌 기준으로 묶는다
+    private static String recipientOf(BankMemberDto member, String accountNumber) {
+        if (member != null && member.getId() != null) {
+            return "member:" + member.getId();
+        }
+        return "account:" + accountNumber;
+    }
+
+    private static String messageOf(String message) {
+        return message == null ? "" : "(" + message + ")";
     }
 }
@@ -0,0 +1,184 @@
+package miniproject.fintech.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.error.CustomError;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static miniproject.fintech.type.ErrorType.OPTIMISTIC_LOCK_RETRY_EXHAUSTED;
+
+/**
+ * 낙관적 락 충돌(@Version) 시 트랜잭션 전체를 다시 실행하는 재시도 실행기.
+ * 대기 시간은 full jitter 지수 백오프 (0 ~ min(maxDelay, baseDelay * 2^(시도-1)) 사이 무작위).
+ * 트랜잭션 바깥(컨트롤러)에서 호출해야 매 시도가 새 트랜잭션이 된다.
+ *
+ * 메트릭
+ * - account.optimistic.retries (operation): 재시도 횟수
+ * - account.optimistic.backoff (attempt): 시도 차수별 대기 시간 (백오프 곡선)
+ * - account.optimistic.attempts / account.optimistic.conflicts (account): 계좌별 시도/충돌 수 (충돌률 = conflicts / attempts)
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final String OTHER_ACCOUNTS = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int maxTrackedAccounts;
+
+    // 계좌별 통계 (계좌 수가 많아져도 메트릭 태그가 무한히 늘지 않도록 maxTrackedAccounts 개까지만 개별 추적)
+    private final Map<String, AccountConflictStats> accountStats = new ConcurrentHashMap<>();
+
+    public OptimisticRetryExecutor(MeterRegistry meterRegistry,
+                                   @Value("${account.optimistic.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${account.optimistic.retry.base-delay-ms:5}") long baseDelayMillis,
+                                   @Value("${account.optimistic.retry.max-delay-ms:200}") long maxDelayMillis,
+                                   @Value("${account.optimistic.max-tracked-accounts:1000}") int maxTrackedAccounts) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxTrackedAccounts = maxTrackedAccounts;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action, String... accountNumbers) {
+        for (int attempt = 1; ; attempt++) {
+            recordAttempt(accountNumbers);
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (!isOptimisticConflict(e)) {
+                    throw e;
+                }
+                recordConflict(accountNumbers);
+
+                if (attempt >= maxAttempts) {
+                    log.error("낙관적 락 재시도 한도 초과: 작업 = {}, 시도 = {}, 계좌 = {}", operation, attempt, accountNumbers);
+                    meterRegistry.counter("account.optimistic.exhausted", "operation", operation).increment();
+                    throw new CustomError(OPTIMISTIC_LOCK_RETRY_EXHAUSTED);
+                }
+
+                long delayMillis = backoffMillis(attempt);
+                log.warn("낙관적 락 충돌, 재시도: 작업 = {}, 시도 = {}, 대기 = {}ms", operation, attempt, delayMillis);
+                meterRegistry.counter("account.optimistic.retries", "operation", operation).increment();
+                Timer.builder("account.optimistic.backoff")
+                        .tag("attempt", String.valueOf(attempt))
+                        .register(meterRegistry)
+                        .record(delayMillis, TimeUnit.MILLISECONDS);
+                sleep(delayMillis);
+            }
+        }
+    }
+
+    /**
+     * 충돌이 많은 순서로 계좌별 시도 수, 충돌 수, 충돌률.
+     */
+    public Map<String, Map<String, Number>> getConflictStats(int limit) {
+        Map<String, Map<String, Number>> result = new LinkedHashMap<>();
+        accountStats.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, AccountConflictStats> entry) -> entry.getValue().conflicts.sum()).reversed())
+                .limit(limit)
+                .forEach(entry -> {
+                    long attempts = entry.getValue().attempts.sum();
+                    long conflicts = entry.getValue().conflicts.sum();
+                    Map<String, Number> stats = new LinkedHashMap<>();
+                    stats.put("attempts", attempts);
+                    stats.put("conflicts", conflicts);
+                    stats.put("conflictRate", attempts == 0 ? 0.0 : (double) conflicts / attempts);
+                    result.put(entry.getKey(), stats);
+                });
+        return result;
+    }
+
+    long backoffMillis(int attempt) {
+        long exponential = baseDelayMillis << Math.min(attempt - 1, 30);
+        long cap = Math.min(maxDelayMillis, exponential < 0 ? maxDelayMillis : exponential);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void recordAttempt(String... accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            AccountConflictStats stats = statsOf(accountNumber);
+            stats.attempts.increment();
+            stats.attemptCounter.increment();
+        }
+    }
+
+    private void recordConflict(String... accountNumbers) {
+        // 어느 계좌에서 충돌했는지 예외로는 알 수 없으므로 관련 계좌 모두에 기록
+        for (String accountNumber : accountNumbers) {
+            AccountConflictStats stats = statsOf(accountNumber);
+            stats.conflicts.increment();
+            stats.conflictCounter.increment();
+        }
+    }
+
+    private AccountConflictStats statsOf(String accountNumber) {
+        String key = accountNumber == null ? OTHER_ACCOUNTS : accountNumber;
+        AccountConflictStats stats = accountStats.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (accountStats.size() >= maxTrackedAccounts) {
+            key = OTHER_ACCOUNTS;
+        }
+        return accountStats.computeIfAbsent(key, this::newStats);
+    }
+
+    private AccountConflictStats newStats(String account) {
+        return new AccountConflictStats(
+                meterRegistry.counter("account.optimistic.attempts", "account", account),
+                meterRegistry.counter("account.optimistic.conflicts", "account", account));
+    }
+
+    private static boolean isOptimisticConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long delayMillis) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomError(OPTIMISTIC_LOCK_RETRY_EXHAUSTED);
+        }
+    }
+
+    private static final class AccountConflictStats {
+
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final Counter attemptCounter;
+        private final Counter conflictCounter;
+
+        private AccountConflictStats(Counter attemptCounter, Counter conflictCounter) {
+            this.attemptCounter = attemptCounter;
+            this.conflictCounter = conflictCounter;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.OutboxEvent;
+import miniproject.fintech.dto.DepositDto;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.repository.OutboxEventRepository;
+import miniproject.fintech.service.notification.DeliveryCallback;
+import miniproject.fintech.type.OutboxStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * outbox 테이블을 batch-size 건씩 읽어 NotificationServiceImpl 로 넘기고, gateway 발송이 끝난 뒤에야 전달 완료로 표시한다.
+ * 넘긴 이벤트는 PENDING 그대로 next_attempt_at 을 ack-timeout 뒤로 미뤄 두고 (임대), 발송 결과는 worker 가 큐에 남긴다.
+ * 다음 relay 실행이 그 결과를 모아 DELIVERED 로 표시하거나 재시도 일정을 잡는다.
+ * 결과가 오기 전에 죽거나 알림이 유실되면 임대가 끝난 뒤 다시 전달된다 (at-least-once).
+ * 실패한 이벤트는 시도 횟수에 따라 지수적으로 늦춰 다시 시도하고, max-attempts 를 넘으면 FAILED 로 남긴다.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationServiceImpl notificationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final long retentionHours;
+    private final long ackTimeoutMillis;
+
+    // dispatcher worker 가 남긴 발송 결과 (relay 스레드가 트랜잭션 안에서 반영)
+    private final Queue<Long> acks = new ConcurrentLinkedQueue<>();
+    private final Queue<DeliveryFailure> failures = new ConcurrentLinkedQueue<>();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       NotificationServiceImpl notificationService,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.retry-delay-ms:1000}") long retryDelayMillis,
+                       @Value("${outbox.retention-hours:72}") long retentionHours,
+                       @Value("${outbox.relay.ack-timeout-ms:30000}") long ackTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.retentionHours = retentionHours;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyResults());
+            // 가득 찬 배치가 나오면 밀린 이벤트가 더 있으므로 바로 이어서 처리
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("outbox relay 실패", e);
+        }
+    }
+
+    // 전달 완료 후 보관 기간이 지난 이벤트 삭제
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deleteDeliveredBefore(
+                OutboxStatus.DELIVERED, LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("전달 완료된 outbox 이벤트 삭제: {} 건", deleted);
+        }
+    }
+
+    public long getPendingCount() {
+        return outboxEventRepository.countByStatus(OutboxStatus.PENDING);
+    }
+
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDeliverable(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+        for (OutboxEvent event : events) {
+            try {
+                dispatch(event);
+                // 발송 결과가 올 때까지 다시 집어 가지 않도록 임대
+                event.setNextAttemptAt(now.plusNanos(ackTimeoutMillis * 1_000_000));
+            } catch (RuntimeException e) {
+                retryLater(event, now, e);
+            }
+        }
+        // 상태 변경은 커밋 시 dirty checking + hibernate.jdbc.batch_size 로 묶어서 UPDATE
+        return events.size();
+    }
+
+    // worker 가 남긴 발송 결과 반영: 성공은 DELIVERED 로 한 번에 UPDATE, 실패는 재시도 일정
+    void applyResults() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> deliveredIds = new ArrayList<>();
+        Long id;
+        while ((id = acks.poll()) != null) {
+            deliveredIds.add(id);
+            if (deliveredIds.size() == batchSize) {
+                outboxEventRepository.markDelivered(deliveredIds, OutboxStatus.PENDING, OutboxStatus.DELIVERED, now);
+                deliveredIds.clear();
+            }
+        }
+        if (!deliveredIds.isEmpty()) {
+            outboxEventRepository.markDelivered(deliveredIds, OutboxStatus.PENDING, OutboxStatus.DELIVERED, now);
+        }
+
+        Map<Long, RuntimeException> failed = new HashMap<>();
+        DeliveryFailure failure;
+        while ((failure = failures.poll()) != null) {
+            failed.put(failure.eventId(), failure.cause());
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        for (OutboxEvent event : outboxEventRepository.findAllById(failed.keySet())) {
+            // 임대가 끝나 이미 다시 전달된 뒤 늦게 온 결과는 무시
+            if (event.getStatus() == OutboxStatus.PENDING) {
+                retryLater(event, now, failed.get(event.getId()));
+            }
+        }
+    }
+
+    private void retryLater(OutboxEvent event, LocalDateTime now, RuntimeException e) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            log.error("outbox 이벤트 전달 포기: ID = {}, 종류 = {}, 시도 = {}", event.getId(), event.getEventType(), event.getAttempts(), e);
+        } else {
+            long delayMillis = retryDelayMillis << Math.min(event.getAttempts() - 1, 16);
+            event.setNextAttemptAt(now.plusNanos(delayMillis * 1_000_000));
+            log.warn("outbox 이벤트 전달 실패, 재시도 예정: ID = {}, 시도 = {}, 원인 = {}", event.getId(), event.getAttempts(), e.getMessage());
+        }
+    }
+
+    private void dispatch(OutboxEvent event) {
+        DeliveryCallback callback = callbackOf(event.getId());
+        switch (event.getEventType()) {
+            case TRANSFER_COMPLETED -> notificationService.sendNotification(read(event, TransferDto.class), callback);
+            case DEPOSIT_COMPLETED -> notificationService.sendNotification(read(event, DepositDto.class), callback);
+        }
+    }
+
+    private DeliveryCallback callbackOf(Long eventId) {
+        return new DeliveryCallback() {
+            @Override
+            public void delivered() {
+                acks.add(eventId);
+            }
+
+            @Override
+            public void failed(RuntimeException cause) {
+                failures.add(new DeliveryFailure(eventId, cause));
+            }
+        };
+    }
+
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("outbox 이벤트를 읽을 수 없습니다: ID = " + event.getId(), e);
+        }
+    }
+
+    private record DeliveryFailure(Long eventId, RuntimeException cause) {
+    }
+}
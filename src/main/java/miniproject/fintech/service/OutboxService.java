@@ -0,0 +1,50 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.OutboxEvent;
+import miniproject.fintech.repository.OutboxEventRepository;
+import miniproject.fintech.type.OutboxEventType;
+import miniproject.fintech.type.OutboxStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 송금/입금 이벤트를 outbox 테이블에 기록한다.
+ * 호출하는 쪽의 트랜잭션에 함께 저장되므로, 송금이 커밋되면 이벤트도 반드시 남고 롤백되면 함께 사라진다.
+ * 실제 알림 전달은 OutboxRelay 가 커밋 이후 별도 스레드에서 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType eventType, Long aggregateId, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .payload(toJson(payload))
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("outbox 이벤트를 직렬화할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package miniproject.fintech.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.repository.AccountRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+
+/**
+ * 전체 계좌 잔액 합계를 메모리에 유지한다 (조회 시 계좌를 읽지 않음).
+ * 송금/입금/일괄 송금/핫 계좌 정리는 계좌 사이에서 옮기기만 하므로 합계가 바뀌지 않고,
+ * 합계를 바꾸는 계좌 개설 / 잔액 수정 / 해지만 커밋 후 recordChange 로 반영한다.
+ * 기동 시 SQL SUM 으로 시작 값을 잡고, 주기적으로 DB 합계와 비교해 다른 인스턴스의 변경 등으로 생긴 차이를 맞춘다.
+ */
+@Slf4j
+@Service
+public class TotalBalanceTracker {
+
+    private final AccountRepository accountRepository;
+    private final HotAccountService hotAccountService;
+    private final LongAdder total = new LongAdder();
+    // 커밋 직후 afterCommit 반영 전의 일시적 차이를 보정하지 않도록 같은 차이가 두 번 연속일 때만 맞춘다
+    private long previousDifference;
+
+    public TotalBalanceTracker(AccountRepository accountRepository, HotAccountService hotAccountService) {
+        this.accountRepository = accountRepository;
+        this.hotAccountService = hotAccountService;
+    }
+
+    @PostConstruct
+    public void seed() {
+        long databaseTotal = databaseTotal();
+        total.add(databaseTotal);
+        log.info("전체 잔액 합계 적재: {}", databaseTotal);
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    // 트랜잭션 안이면 커밋된 뒤에만 반영 (롤백되면 반영하지 않음)
+    public void recordChange(long delta) {
+        if (delta != 0) {
+            afterCommit(() -> total.add(delta));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.total-balance.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        try {
+            long before = total.sum();
+            long databaseTotal = databaseTotal();
+            long after = total.sum();
+            if (before != after) {
+                // 비교하는 동안 반영된 변경이 있으면 다음 주기에 다시 비교
+                previousDifference = 0;
+                return;
+            }
+            long difference = databaseTotal - after;
+            if (difference != 0 && difference == previousDifference) {
+                total.add(difference);
+                log.warn("전체 잔액 합계 보정: 메모리 = {}, DB = {}, 차이 = {}", after, databaseTotal, difference);
+                difference = 0;
+            }
+            previousDifference = difference;
+        } catch (RuntimeException e) {
+            log.error("전체 잔액 합계 비교 실패", e);
+        }
+    }
+
+    private long databaseTotal() {
+        return accountRepository.sumAmount() + hotAccountService.totalSlotAmount();
+    }
+
+}
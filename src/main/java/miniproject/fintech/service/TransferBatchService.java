@@ -0,0 +1,314 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.domain.Transaction;
+import miniproject.fintech.domain.Transfer;
+import miniproject.fintech.dto.TransferBatchResponse;
+import miniproject.fintech.dto.TransferBatchResult;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.repository.TransferBatchRepository;
+import miniproject.fintech.service.eventsource.AccountEventStore;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
+import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.JournalMovementType;
+import miniproject.fintech.type.TransactionStatus;
+import miniproject.fintech.type.TransactionType;
+import miniproject.fintech.type.TransferStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static miniproject.fintech.type.ErrorType.*;
+
+/**
+ * 급여 이체 / 정산용 송금 일괄 처리.
+ * 관련 계좌를 한 번의 IN 조회로 가져와 메모리에서 잔액을 검사하며 계좌 쌍별로 상계(TransferNetting)하고,
+ * 잔액에는 계좌별 순변화량만 JDBC 배치 UPDATE 로, Transfer / Transaction 은 원래 지시마다 한 건씩 JDBC 배치 INSERT 로
+ * 한 트랜잭션에 반영한다.
+ * 건별로 성공/실패를 판단하며, 실패한 건은 잔액에 반영하지 않고 결과에만 기록한다.
+ */
+@Slf4j
+@Service
+public class TransferBatchService {
+
+    private final AccountRepository accountRepository;
+    private final MemberRepository memberRepository;
+    private final TransferBatchRepository transferBatchRepository;
+    private final AccountLockManager accountLockManager;
+    private final HotAccountService hotAccountService;
+    private final JournalEntryService journalEntryService;
+    private final AccountEventStore accountEventStore;
+    private final BalanceCache balanceCache;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
+    private final int maxBatchSize;
+
+    public TransferBatchService(AccountRepository accountRepository,
+                                MemberRepository memberRepository,
+                                TransferBatchRepository transferBatchRepository,
+                                AccountLockManager accountLockManager,
+                                HotAccountService hotAccountService,
+                                JournalEntryService journalEntryService,
+                                AccountEventStore accountEventStore,
+                                BalanceCache balanceCache,
+                                Optional<ShardedLedgerEngine> ledgerEngine,
+                                @Value("${transfer.batch.max-size:10000}") int maxBatchSize) {
+        this.accountRepository = accountRepository;
+        this.memberRepository = memberRepository;
+        this.transferBatchRepository = transferBatchRepository;
+        this.accountLockManager = accountLockManager;
+        this.hotAccountService = hotAccountService;
+        this.journalEntryService = journalEntryService;
+        this.accountEventStore = accountEventStore;
+        this.balanceCache = balanceCache;
+        this.ledgerEngine = ledgerEngine;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Transactional
+    public TransferBatchResponse processBatch(List<TransferDto> transferDtos) {
+        if (transferDtos == null || transferDtos.isEmpty()) {
+            throw new CustomError(MUST_NOT_NULL);
+        }
+        if (transferDtos.size() > maxBatchSize) {
+            throw new CustomError(BATCH_SIZE_EXCEEDED);
+        }
+
+        log.info("송금 일괄 처리 시작: 요청 건수 = {}", transferDtos.size());
+        long start = System.nanoTime();
+
+        Map<String, BankMember> members = findMembers(transferDtos);
+        BatchOutcome outcome = ledgerEngine.isPresent()
+                ? new BatchOutcome(processWithLedgerEngine(transferDtos, members, ledgerEngine.get()), 0)
+                : processWithDatabase(transferDtos, members);
+        List<TransferBatchResult> results = outcome.results();
+
+        long elapsedNanos = System.nanoTime() - start;
+        int successCount = (int) results.stream().filter(TransferBatchResult::isSuccess).count();
+        double transfersPerSecond = successCount / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9);
+
+        log.info("송금 일괄 처리 완료: 요청 건수 = {}, 성공 = {}, 실패 = {}, 잔액 UPDATE = {}, 소요 시간 = {}ms, 초당 송금 = {}",
+                transferDtos.size(), successCount, transferDtos.size() - successCount, outcome.balanceUpdateCount(),
+                elapsedNanos / 1_000_000, String.format("%.1f", transfersPerSecond));
+
+        return TransferBatchResponse.builder()
+                .totalCount(transferDtos.size())
+                .successCount(successCount)
+                .failureCount(transferDtos.size() - successCount)
+                .balanceUpdateCount(outcome.balanceUpdateCount())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .transfersPerSecond(transfersPerSecond)
+                .results(results)
+                .build();
+    }
+
+    private BatchOutcome processWithDatabase(List<TransferDto> transferDtos, Map<String, BankMember> members) {
+        Set<String> accountNumbers = new HashSet<>();
+        for (TransferDto transferDto : transferDtos) {
+            if (transferDto.getSourceAccountNumber() != null) {
+                accountNumbers.add(transferDto.getSourceAccountNumber());
+            }
+            if (transferDto.getDestinationAccountNumber() != null) {
+                accountNumbers.add(transferDto.getDestinationAccountNumber());
+            }
+        }
+
+        // 관련 계좌 락을 모두 고정된 순서로 획득 (트랜잭션이 끝날 때 해제)
+        accountLockManager.lockUntilCompletion(accountNumbers.toArray(new String[0]));
+
+        // 핫 계좌는 슬롯 잔액을 본 잔액으로 모아 둔다 (아래 잔액 검사가 본 잔액만 보므로)
+        for (String accountNumber : accountNumbers) {
+            if (!accountEventStore.isEnabled() && hotAccountService.isHot(accountNumber)) {
+                hotAccountService.sweep(accountNumber, Long.MAX_VALUE);
+            }
+        }
+
+        // 관련 계좌를 한 번에 조회
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity(), (first, second) -> first));
+        Map<String, Long> openingBalances = new HashMap<>();
+        // 이벤트 소싱 모드의 account 행은 늦게 반영되는 projection 이므로 이벤트 기준 잔액을 쓴다
+        accounts.forEach((accountNumber, account) -> openingBalances.put(accountNumber,
+                accountEventStore.isEnabled() ? accountEventStore.balanceOf(accountNumber) : account.getAmount()));
+        TransferNetting netting = new TransferNetting(openingBalances);
+
+        List<TransferBatchResult> results = new ArrayList<>(transferDtos.size());
+        List<Transfer> transfers = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 0; i < transferDtos.size(); i++) {
+            TransferDto transferDto = transferDtos.get(i);
+            Account source = accounts.get(transferDto.getSourceAccountNumber());
+            Account destination = accounts.get(transferDto.getDestinationAccountNumber());
+            BankMember bankMember = memberOf(transferDto, members);
+
+            ErrorType error = validate(transferDto, bankMember, source, destination);
+            // 앞선 건의 결과가 다음 건의 잔액 검사에 반영된다
+            if (error == null && !netting.accept(transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber(),
+                    transferDto.getTransferAmount())) {
+                error = NOT_ENOUGH_MONEY;
+            }
+            if (error != null) {
+                results.add(failure(i, error));
+                continue;
+            }
+
+            Transfer transfer = Transfer.builder()
+                    .transferAmount(transferDto.getTransferAmount())
+                    .transferAt(transferDto.getTransferAt())
+                    .sourceAccountNumber(transferDto.getSourceAccountNumber())
+                    .destinationAccountNumber(transferDto.getDestinationAccountNumber())
+                    .transferStatus(TransferStatus.COMPLETED)
+                    .message("송금 완료")
+                    .build();
+            Transaction transaction = Transaction.builder()
+                    .bankMember(bankMember)
+                    .transactionAmount(transferDto.getTransferAmount())
+                    .transactionType(TransactionType.TRANSFER)
+                    .transactionStatus(TransactionStatus.SUCCESS)
+                    .transactedAt(LocalDateTime.now())
+                    .sourceAccountNumber(transferDto.getSourceAccountNumber())
+                    .destinationAccountNumber(transferDto.getDestinationAccountNumber())
+                    .curAmount(netting.balanceOf(transferDto.getDestinationAccountNumber()))
+                    .referenceNumber(UUID.randomUUID().toString())
+                    .currency("KRW")
+                    .fee(0.0)
+                    .message(transfer.getMessage())
+                    .counterpartyInfo(transferDto.getDestinationAccountNumber())
+                    .build();
+
+            transfers.add(transfer);
+            transactions.add(transaction);
+            results.add(success(i, toDto(transfer), transaction.getReferenceNumber()));
+        }
+
+        // 잔액은 계좌별 순변화량만 반영 (변화량이 0 인 계좌는 UPDATE 하지 않음)
+        SortedMap<String, Long> netDeltas = netting.netDeltas();
+        accountRepository.flush();
+        List<String> rejected;
+        if (accountEventStore.isEnabled()) {
+            // 이벤트 소싱 모드는 계좌별 이벤트로 반영 (잔액이 모자라면 NOT_ENOUGH_MONEY 로 배치 전체 롤백)
+            accountEventStore.applyNetDeltas(netDeltas);
+            rejected = List.of();
+        } else {
+            rejected = transferBatchRepository.applyNetDeltas(netDeltas);
+        }
+        if (!rejected.isEmpty()) {
+            // 락 밖의 경로(낙관적 모드 등)가 그 사이 잔액을 바꾼 경우: 배치 전체를 롤백
+            log.error("송금 일괄 처리 순변화량 반영 실패: 계좌 = {}", rejected);
+            throw new CustomError(NOT_ENOUGH_MONEY);
+        }
+        balanceCache.invalidateAll(netDeltas.keySet());
+        // 분개도 상계된 계좌 쌍별 순포지션으로 기록 (잔액 UPDATE 와 같은 단위)
+        journalEntryService.recordAll(netting.netPositions().stream()
+                .map(position -> new JournalEntryService.Posting(JournalMovementType.BATCH_TRANSFER,
+                        position.sourceAccountNumber(), position.destinationAccountNumber(), position.amount()))
+                .toList());
+        transferBatchRepository.insertTransactions(transactions);
+        transferBatchRepository.insertTransfers(transfers);
+
+        log.info("송금 일괄 처리 상계: 성공 건수 = {}, 순포지션 계좌 쌍 = {}, 잔액 UPDATE = {}",
+                netting.getAcceptedCount(), netting.netPositions().size(), netDeltas.size());
+        return new BatchOutcome(results, netDeltas.size());
+    }
+
+    // 인메모리 원장 엔진 사용 시 잔액 변경과 기록은 엔진이 처리
+    private List<TransferBatchResult> processWithLedgerEngine(List<TransferDto> transferDtos, Map<String, BankMember> members,
+                                                              ShardedLedgerEngine engine) {
+        List<TransferBatchResult> results = new ArrayList<>(transferDtos.size());
+        for (int i = 0; i < transferDtos.size(); i++) {
+            TransferDto transferDto = transferDtos.get(i);
+            BankMember bankMember = memberOf(transferDto, members);
+            if (bankMember == null) {
+                results.add(failure(i, MEMBER_NOT_FOUND));
+                continue;
+            }
+            try {
+                results.add(success(i, engine.transfer(transferDto, bankMember.getId()), null));
+            } catch (CustomError e) {
+                results.add(failure(i, e.getErrorType()));
+            }
+        }
+        return results;
+    }
+
+    private ErrorType validate(TransferDto transferDto, BankMember bankMember, Account source, Account destination) {
+        if (transferDto.getSourceAccountNumber() == null || transferDto.getDestinationAccountNumber() == null) {
+            return ACCOUNT_NUMBER_NULL;
+        }
+        if (transferDto.getSourceAccountNumber().equals(transferDto.getDestinationAccountNumber())) {
+            return SOURCE_ACCOUNT_DESTINATION_ACCOUNT_SHOULD_NOT_SAME;
+        }
+        if (transferDto.getTransferAmount() <= 0) {
+            return IN_CORRECT;
+        }
+        if (bankMember == null) {
+            return MEMBER_NOT_FOUND;
+        }
+        if (source == null || destination == null) {
+            return ACCOUNT_NOT_FOUND;
+        }
+        return null;
+    }
+
+    private Map<String, BankMember> findMembers(List<TransferDto> transferDtos) {
+        Set<String> userIds = transferDtos.stream()
+                .filter(transferDto -> transferDto.getBankMemberDto() != null && transferDto.getBankMemberDto().getUserId() != null)
+                .map(transferDto -> transferDto.getBankMemberDto().getUserId())
+                .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return memberRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(BankMember::getUserId, Function.identity(), (first, second) -> first));
+    }
+
+    private BankMember memberOf(TransferDto transferDto, Map<String, BankMember> members) {
+        if (transferDto.getBankMemberDto() == null || transferDto.getBankMemberDto().getUserId() == null) {
+            return null;
+        }
+        return members.get(transferDto.getBankMemberDto().getUserId());
+    }
+
+    private TransferDto toDto(Transfer transfer) {
+        return TransferDto.builder()
+                .transferAmount(transfer.getTransferAmount())
+                .transferAt(transfer.getTransferAt())
+                .sourceAccountNumber(transfer.getSourceAccountNumber())
+                .destinationAccountNumber(transfer.getDestinationAccountNumber())
+                .transferStatus(transfer.getTransferStatus())
+                .message(transfer.getMessage())
+                .build();
+    }
+
+    private record BatchOutcome(List<TransferBatchResult> results, int balanceUpdateCount) {
+    }
+
+    private static TransferBatchResult success(int index, TransferDto transferDto, String referenceNumber) {
+        return TransferBatchResult.builder()
+                .index(index)
+                .success(true)
+                .message(transferDto.getMessage())
+                .transfer(transferDto)
+                .referenceNumber(referenceNumber)
+                .build();
+    }
+
+    private static TransferBatchResult failure(int index, ErrorType errorType) {
+        return TransferBatchResult.builder()
+                .index(index)
+                .success(false)
+                .errorType(errorType)
+                .message(errorType.getMessage())
+                .build();
+    }
+}
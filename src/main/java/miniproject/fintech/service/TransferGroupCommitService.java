@@ -0,0 +1,150 @@
+package miniproject.fintech.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.error.OutcomeUnknownException;
+import miniproject.fintech.service.GroupCommitter.Outcome;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TransferServiceImpl 앞단의 group commit 단계 (transfer.group-commit.enabled=true).
+ * 짧은 시간 창 안에 들어온 송금을 모아 하나의 DB 트랜잭션으로 처리해 커밋(fsync) 횟수를 줄인다.
+ * 건별 업무 오류(잔액 부족 등)는 해당 건만 실패시키고, 트랜잭션 자체가 실패하면 건별 트랜잭션으로 다시 처리한다.
+ * 대기 시간이 지나면 송금이 나중에 커밋될 수 있으므로 실패가 아닌 OutcomeUnknownException 으로 알린다.
+ */
+@Slf4j
+@Service
+public class TransferGroupCommitService {
+
+    private final TransferServiceImpl transferService;
+    private final AccountLockManager accountLockManager;
+    private final HotAccountService hotAccountService;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long awaitTimeoutMillis;
+    private final GroupCommitter<TransferDto, TransferDto> committer;
+
+    public TransferGroupCommitService(TransferServiceImpl transferService,
+                                      AccountLockManager accountLockManager,
+                                      HotAccountService hotAccountService,
+                                      Optional<ShardedLedgerEngine> ledgerEngine,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${transfer.group-commit.enabled:false}") boolean enabled,
+                                      @Value("${transfer.group-commit.window-micros:2000}") long windowMicros,
+                                      @Value("${transfer.group-commit.max-batch-size:64}") int maxBatchSize,
+                                      @Value("${transfer.group-commit.await-timeout-ms:5000}") long awaitTimeoutMillis) {
+        this.transferService = transferService;
+        this.accountLockManager = accountLockManager;
+        this.hotAccountService = hotAccountService;
+        this.ledgerEngine = ledgerEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 인메모리 원장 엔진이 켜져 있으면 DB 커밋이 송금 경로에 없으므로 묶을 필요가 없다
+        this.enabled = enabled && ledgerEngine.isEmpty();
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.committer = new GroupCommitter<>("transfer", windowMicros, maxBatchSize, this::commitBatch);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            committer.start();
+            log.info("송금 group commit 시작");
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        committer.stop();
+    }
+
+    public TransferDto processTransfer(TransferDto transferDto) {
+        if (!enabled) {
+            return transferService.processTransfer(transferDto);
+        }
+
+        CompletableFuture<TransferDto> outcome = committer.submit(transferDto);
+        try {
+            return outcome.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // 송금은 아직 GroupCommitter 에 남아 있어 커밋될 수 있다
+            throw new OutcomeUnknownException("송금 group commit 대기 시간을 초과했습니다.", outcome, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutcomeUnknownException("송금 group commit 대기 중 인터럽트되었습니다.", outcome, e);
+        }
+    }
+
+    public long getBatchCount() {
+        return committer.getBatchCount();
+    }
+
+    public double getAverageBatchSize() {
+        return committer.getAverageBatchSize();
+    }
+
+    private List<Outcome<TransferDto>> commitBatch(List<TransferDto> batch) {
+        try {
+            return transactionTemplate.execute(status -> executeBatch(batch));
+        } catch (RuntimeException e) {
+            // 공유 트랜잭션이 실패하면 배치 전체가 롤백되었으므로 건별 트랜잭션으로 다시 처리
+            log.warn("송금 group commit 실패, 건별 처리로 전환: 배치 크기 = {}, 원인 = {}", batch.size(), e.getMessage());
+            List<Outcome<TransferDto>> outcomes = new ArrayList<>(batch.size());
+            for (TransferDto transferDto : batch) {
+                try {
+                    outcomes.add(Outcome.success(transferService.processTransfer(transferDto)));
+                } catch (RuntimeException individualError) {
+                    outcomes.add(Outcome.failure(individualError));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private List<Outcome<TransferDto>> executeBatch(List<TransferDto> batch) {
+        // 배치에 포함된 모든 계좌 락을 고정된 순서로 한 번에 획득 (트랜잭션이 끝날 때 해제, 핫 계좌 제외)
+        List<String> accountNumbers = new ArrayList<>(batch.size() * 2);
+        for (TransferDto transferDto : batch) {
+            if (transferDto.getSourceAccountNumber() != null) {
+                accountNumbers.add(transferDto.getSourceAccountNumber());
+            }
+            if (transferDto.getDestinationAccountNumber() != null) {
+                accountNumbers.add(transferDto.getDestinationAccountNumber());
+            }
+        }
+        accountLockManager.lockUntilCompletion(hotAccountService.withoutHotAccounts(accountNumbers));
+
+        List<Outcome<TransferDto>> outcomes = new ArrayList<>(batch.size());
+        for (TransferDto transferDto : batch) {
+            try {
+                BankMember bankMember = transferService.validateTransfer(transferDto);
+                outcomes.add(Outcome.success(transferService.executeTransfer(transferDto, bankMember)));
+            } catch (CustomError e) {
+                // 업무 오류는 이 건만 실패 (조건부 UPDATE 라 다른 건의 반영 내용에는 영향 없음)
+                outcomes.add(Outcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,100 @@
+package miniproject.fintech.service;
+
+import java.util.*;
+
+/**
+ * 송금 일괄 처리의 상계(netting) 단계.
+ * 송금 지시를 순서대로 받아 계좌 쌍별 순포지션을 누적하고, 잔액에는 계좌별 순변화량만 반영할 수 있게 한다.
+ * A→B 100 건과 B→A 100 건이 섞인 정산 파일은 계좌 쌍 하나, 잔액 UPDATE 두 건으로 줄어든다.
+ * 잔액 부족 판단은 지시 순서대로 누적한 잔액 기준이므로 건별로 처리했을 때와 같은 건이 성공/실패한다.
+ * 한 스레드에서만 사용한다.
+ */
+public class TransferNetting {
+
+    private final Map<String, Long> balances;
+    // 계좌 쌍별 순포지션 (양수: first → second, 음수: second → first)
+    private final Map<AccountPair, Long> pairPositions = new HashMap<>();
+    private int acceptedCount;
+    private long grossAmount;
+
+    /**
+     * @param openingBalances 관련 계좌의 시작 잔액 (없는 계좌로의 송금은 accept 에서 거절)
+     */
+    public TransferNetting(Map<String, Long> openingBalances) {
+        this.balances = new HashMap<>(openingBalances);
+    }
+
+    /**
+     * 출금 계좌의 누적 잔액이 충분하면 송금을 포지션에 더하고 true 를 반환한다.
+     */
+    public boolean accept(String sourceAccountNumber, String destinationAccountNumber, long amount) {
+        Long sourceBalance = balances.get(sourceAccountNumber);
+        Long destinationBalance = balances.get(destinationAccountNumber);
+        if (sourceBalance == null || destinationBalance == null || sourceBalance < amount) {
+            return false;
+        }
+
+        balances.put(sourceAccountNumber, sourceBalance - amount);
+        balances.put(destinationAccountNumber, destinationBalance + amount);
+
+        AccountPair pair = AccountPair.of(sourceAccountNumber, destinationAccountNumber);
+        long signedAmount = pair.first.equals(sourceAccountNumber) ? amount : -amount;
+        pairPositions.merge(pair, signedAmount, Long::sum);
+
+        acceptedCount++;
+        grossAmount += amount;
+        return true;
+    }
+
+    // 지금까지 받아들인 송금을 반영한 잔액
+    public long balanceOf(String accountNumber) {
+        Long balance = balances.get(accountNumber);
+        return balance == null ? 0 : balance;
+    }
+
+    // 순포지션이 0 이 아닌 계좌 쌍 (출금 계좌 → 입금 계좌, 순금액)
+    public List<NetPosition> netPositions() {
+        List<NetPosition> positions = new ArrayList<>();
+        pairPositions.forEach((pair, position) -> {
+            if (position > 0) {
+                positions.add(new NetPosition(pair.first, pair.second, position));
+            } else if (position < 0) {
+                positions.add(new NetPosition(pair.second, pair.first, -position));
+            }
+        });
+        return positions;
+    }
+
+    /**
+     * 계좌별 순변화량 (0 인 계좌 제외, 계좌 번호 순). 합계는 항상 0 이다.
+     */
+    public SortedMap<String, Long> netDeltas() {
+        SortedMap<String, Long> deltas = new TreeMap<>();
+        pairPositions.forEach((pair, position) -> {
+            if (position != 0) {
+                deltas.merge(pair.first, -position, Long::sum);
+                deltas.merge(pair.second, position, Long::sum);
+            }
+        });
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public long getGrossAmount() {
+        return grossAmount;
+    }
+
+    public record NetPosition(String sourceAccountNumber, String destinationAccountNumber, long amount) {
+    }
+
+    private record AccountPair(String first, String second) {
+
+        private static AccountPair of(String a, String b) {
+            return a.compareTo(b) <= 0 ? new AccountPair(a, b) : new AccountPair(b, a);
+        }
+    }
+}
@@ -2,17 +2,18 @@ package miniproject.fintech.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import miniproject.fintech.domain.Account;
 import miniproject.fintech.domain.BankMember;
 import miniproject.fintech.domain.Transaction;
 import miniproject.fintech.domain.Transfer;
 import miniproject.fintech.dto.*;
 import miniproject.fintech.error.CustomError;
-import miniproject.fintech.repository.AccountRepository;
 import miniproject.fintech.repository.MemberRepository;
 import miniproject.fintech.repository.TransactionRepository;
 import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
 import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.JournalMovementType;
+import miniproject.fintech.type.OutboxEventType;
 import miniproject.fintech.type.TransactionStatus;
 import miniproject.fintech.type.TransactionType;
 import miniproject.fintech.type.TransferStatus;
@@ -21,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,57 +34,49 @@ import static miniproject.fintech.type.ErrorType.*;
 public class TransferServiceImpl {
 
     private final TransferRepository transferRepository;
-    private final AccountRepository accountRepository;
-    private final NotificationServiceImpl notificationService;
+    private final OutboxService outboxService;
     private final DtoConverter dtoConverter;
     private final TransactionRepository transactionRepository;
     private final MemberRepository memberRepository;
+    private final BalanceUpdateService balanceUpdateService;
+    private final JournalEntryService journalEntryService;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
 
     @Transactional
     public TransferDto processTransfer(TransferDto transferDto) {
         log.info("송금 처리 시작: 송금액 = {}, 출발 계좌 = {}, 도착 계좌 = {}",
                 transferDto.getTransferAmount(), transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber());
 
-        // 소스 계좌 확인
-        Account sourceAccount = accountRepository.findByAccountNumber(transferDto.getSourceAccountNumber())
-                .orElseThrow(() -> {
-                    log.error("출발 계좌를 찾을 수 없습니다: 계좌 번호 = {}", transferDto.getSourceAccountNumber());
-                    return new CustomError(ACCOUNT_NOT_FOUND);
-                });
+        BankMember bankMember = validateTransfer(transferDto);
 
-        // 목적 계좌 확인
-        Account destinationAccount = accountRepository.findByAccountNumber(transferDto.getDestinationAccountNumber())
-                .orElseThrow(() -> {
-                    log.error("도착 계좌를 찾을 수 없습니다: 계좌 번호 = {}", transferDto.getDestinationAccountNumber());
-                    return new CustomError(ACCOUNT_NOT_FOUND);
-                });
+        // 인메모리 원장 엔진 사용 시 잔액 변경과 기록은 엔진이 처리 (DB 반영은 write-behind)
+        if (ledgerEngine.isPresent()) {
+            return ledgerEngine.get().transfer(transferDto, bankMember.getId());
+        }
 
-        // 회원 정보 조회
-        BankMember bankMember = memberRepository.findByUserId(transferDto.getBankMemberDto().getUserId())
-                .orElseThrow(() -> new CustomError(MEMBER_NOT_FOUND));
+        // 비관적 모드: 출발/도착 계좌 락을 고정된 순서로 획득 (트랜잭션이 끝날 때 해제)
+        balanceUpdateService.lockUntilCompletion(transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber());
+
+        return executeTransfer(transferDto, bankMember);
+    }
 
+    // 출발/도착 계좌 확인 후 송금 회원 반환
+    public BankMember validateTransfer(TransferDto transferDto) {
         // 소스와 목적 계좌가 동일한지 확인
-        if (sourceAccount.getId().equals(destinationAccount.getId())) {
+        if (transferDto.getSourceAccountNumber().equals(transferDto.getDestinationAccountNumber())) {
             throw new CustomError(ErrorType.SOURCE_ACCOUNT_DESTINATION_ACCOUNT_SHOULD_NOT_SAME);
         }
 
-        // 출발 계좌 잔액 확인
-        if (sourceAccount.getAmount() < transferDto.getTransferAmount()) {
-            log.error("출발 계좌 잔액 부족: 출발 계좌 = {}, 잔액 = {}",
-                    transferDto.getSourceAccountNumber(), sourceAccount.getAmount());
-            throw new CustomError(NOT_ENOUGH_MONEY);
-        }
-
-        // 출발 계좌에서 금액 차감
-        double previousSourceAmount = sourceAccount.getAmount();
-        sourceAccount.setAmount((long) (previousSourceAmount - transferDto.getTransferAmount()));
-        accountRepository.save(sourceAccount);
-
-        // 목적 계좌에 금액 추가
-        double previousDestinationAmount = destinationAccount.getAmount();
-        destinationAccount.setAmount((long) (previousDestinationAmount + transferDto.getTransferAmount()));
-        accountRepository.save(destinationAccount);
+        // 회원 정보 조회
+        return memberRepository.findByUserId(transferDto.getBankMemberDto().getUserId())
+                .orElseThrow(() -> new CustomError(MEMBER_NOT_FOUND));
+    }
 
+    /**
+     * 잔액 이동과 송금/거래 기록. 호출하는 쪽에서 트랜잭션을 열고 두 계좌의 락을 잡은 상태여야 한다.
+     * 여러 송금이 한 트랜잭션을 공유할 수 있도록 @Transactional 을 두지 않는다 (실패해도 rollback-only 로 표시되지 않음).
+     */
+    public TransferDto executeTransfer(TransferDto transferDto, BankMember bankMember) {
         // Transfer 엔티티 생성
         Transfer transfer = Transfer.builder()
                 .transferAmount(transferDto.getTransferAmount())
@@ -93,30 +87,47 @@ public class TransferServiceImpl {
                 .message("송금 완료")
                 .build();
 
-        // 거래 내역 기록 - 이미 조회한 계좌와 회원 정보 전달
-        Transaction transaction = recordTransaction(transfer, bankMember, sourceAccount, destinationAccount);
+        return completeTransfer(transferDto, bankMember, transfer);
+    }
+
+    /**
+     * 예약 송금 실행: WAITING 으로 저장해 둔 송금을 완료 처리한다. 선점과 트랜잭션, 락은 호출하는 쪽에서 처리한다.
+     */
+    public TransferDto executeScheduledTransfer(Transfer scheduled, BankMember bankMember) {
+        scheduled.setTransferStatus(TransferStatus.COMPLETED);
+        scheduled.setMessage("예약 송금 완료");
+
+        return completeTransfer(dtoConverter.convertToTransferDto(scheduled), bankMember, scheduled);
+    }
+
+    private TransferDto completeTransfer(TransferDto transferDto, BankMember bankMember, Transfer transfer) {
+        // 출발 계좌 차감(잔액이 충분할 때만)과 목적 계좌 입금을 각각 조건부 UPDATE 한 번으로 처리
+        balanceUpdateService.move(transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber(),
+                transferDto.getTransferAmount());
+        journalEntryService.record(JournalMovementType.TRANSFER, transferDto.getSourceAccountNumber(),
+                transferDto.getDestinationAccountNumber(), transferDto.getTransferAmount());
+
+        long destinationAmount = balanceUpdateService.balanceOf(transferDto.getDestinationAccountNumber());
+
+        // 거래 내역 기록 - 회원 정보와 도착 계좌 잔액 전달
+        Transaction transaction = recordTransaction(transfer, bankMember, destinationAmount);
         // Transfer 정보 저장
         Transfer savedTransfer = transferRepository.save(transfer);
         TransferDto resultDto = dtoConverter.convertToTransferDto(savedTransfer);
         resultDto.setTransactionId(transaction.getId());
 
-        log.info("송금 처리 완료: 출발 계좌 = {}, 도착 계좌 = {}, 송금액 = {}, 출발 계좌 이전 잔액 = {}, 새로운 잔액 = {}, 도착 계좌 이전 잔액 = {}, 새로운 잔액 = {}",
+        log.info("송금 처리 완료: 출발 계좌 = {}, 도착 계좌 = {}, 송금액 = {}, 도착 계좌 새로운 잔액 = {}",
                 transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber(), transfer.getTransferAmount(),
-                previousSourceAmount, sourceAccount.getAmount(), previousDestinationAmount, destinationAccount.getAmount());
-
-        // 알림 전송
-        try {
-            notificationService.sendNotification(dtoConverter.convertToTransferDto(savedTransfer));
-        } catch (Exception e) {
-            log.error("알림 전송 실패: {}", e.getMessage());
-            // 알림 전송 실패 시 추가 처리 로직 (필요하다면)
-        }
+                destinationAmount);
+
+        // 알림은 같은 트랜잭션에 outbox 이벤트로 기록하고 커밋 후 OutboxRelay 가 전달
+        outboxService.publish(OutboxEventType.TRANSFER_COMPLETED, savedTransfer.getId(), resultDto);
 
         return  resultDto;
     }
 
 
-    private Transaction recordTransaction(Transfer transfer, BankMember bankMember, Account sourceAccount, Account destinationAccount) {
+    private Transaction recordTransaction(Transfer transfer, BankMember bankMember, long destinationAmount) {
         Transaction transaction = Transaction.builder()
                 .bankMember(bankMember)
                 .transactionAmount(transfer.getTransferAmount())
@@ -124,7 +135,7 @@ public class TransferServiceImpl {
                 .transactionStatus(TransactionStatus.SUCCESS)
                 .transactedAt(LocalDateTime.now())
                 .sourceAccountNumber(transfer.getSourceAccountNumber())  // 출발 계좌 번호
-                .curAmount(destinationAccount.getAmount())  // 도착 계좌의 현재 잔액
+                .curAmount(destinationAmount)  // 도착 계좌의 현재 잔액
                 .referenceNumber(UUID.randomUUID().toString())  // 고유 참조 번호 생성
                 .currency("KRW")  // 통화 정보
                 .fee(0.0)  // 수수료 정보 필요 시 추가
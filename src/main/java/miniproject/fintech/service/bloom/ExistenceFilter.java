@@ -0,0 +1,201 @@
+package miniproject.fintech.service.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 한 키 공간(계좌 번호, 회원 ID ...)의 존재 여부 필터.
+ * 필터가 "없음" 이라고 하면 DB 를 거치지 않고 false, "있을 수도 있음" 이면 DB 조회로 확인한다.
+ * 단계 수가 max-stages 에 이르거나 삭제된 키가 넣은 키의 절반을 넘으면(포화) 새 필터를 전체 스캔으로 다시 만들어 교체한다.
+ * 다시 만드는 동안 들어온 키는 기존 필터와 새 필터 모두에 넣으므로 교체 시점에 빠지는 키가 없다.
+ *
+ * 필터는 이 노드가 넣은 키와 스캔한 키만 안다. 다른 인스턴스도 키를 쓰는 경우(singleWriter = false)
+ * refresh 로 id 가 늘어난 키를 주기적으로 가져오고, "없음" 은 마지막 refresh 와 전체 재구성이 충분히 최근일 때만 믿는다
+ * (refresh 가 늦어지거나 negative-ttl 이 지나면 모두 DB 로 확인). 그래도 다른 노드의 새 키는 refresh 주기만큼,
+ * 번호 변경처럼 id 가 그대로인 키는 전체 재구성 주기만큼 늦게 보일 수 있으므로 중복을 막아야 하는 곳은 유니크 제약으로 확인한다.
+ *
+ * 메트릭 (keyspace 태그)
+ * - existence.filter.false-positive-rate: 비트 채움 비율로 추정한 오탐률
+ * - existence.filter.lookups (result = negative / positive / false-positive / unverified): 조회 결과별 수
+ */
+@Slf4j
+public class ExistenceFilter {
+
+    /**
+     * afterId 보다 id 가 큰 키를 sink 로 넘기고, 본 가장 큰 id 를 반환한다 (없으면 afterId).
+     */
+    @FunctionalInterface
+    public interface KeyScan {
+        long scan(long afterId, Consumer<String> sink);
+    }
+
+    private final String keySpace;
+    private final long initialCapacity;
+    private final double targetFalsePositiveRate;
+    private final int maxStages;
+    private final KeyScan scan;
+    private final boolean singleWriter;
+    private final long refreshTimeoutMillis;
+    private final long negativeTtlMillis;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private final Counter unverified;
+    private final AtomicLong removed = new AtomicLong();
+
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter rebuilding;
+    // 첫 스캔이 끝나기 전에는 필터를 믿지 않고 모두 DB 로 확인
+    private volatile boolean seeded;
+    private volatile long rebuiltAtMillis;
+    private volatile long refreshedAtMillis;
+    // refresh 는 바로 전 refresh 가 본 id 부터 다시 읽는다 (IDENTITY 순서와 커밋 순서가 달라 늦게 커밋된 작은 id 를 한 주기 더 기다림)
+    private long previousMaxId;
+    private long lastMaxId;
+
+    /**
+     * @param scan                 키 공간을 id 순서 조건으로 스트리밍해 넘겨주는 함수 (시드 / 재구성 / refresh 에 사용)
+     * @param singleWriter         이 노드만 키를 쓰는 경우 true ("없음" 을 항상 믿는다)
+     * @param refreshTimeoutMillis 마지막 refresh 가 이보다 오래되면 "없음" 을 믿지 않는다 (singleWriter 면 무시)
+     * @param negativeTtlMillis    마지막 전체 재구성이 이보다 오래되면 "없음" 을 믿지 않는다 (singleWriter 면 무시)
+     */
+    public ExistenceFilter(String keySpace, long initialCapacity, double targetFalsePositiveRate, int maxStages,
+                           KeyScan scan, boolean singleWriter, long refreshTimeoutMillis, long negativeTtlMillis,
+                           MeterRegistry meterRegistry) {
+        this.keySpace = keySpace;
+        this.initialCapacity = initialCapacity;
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+        this.maxStages = maxStages;
+        this.scan = scan;
+        this.singleWriter = singleWriter;
+        this.refreshTimeoutMillis = refreshTimeoutMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.filter = new ScalableBloomFilter(initialCapacity, targetFalsePositiveRate);
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.positives = lookupCounter(meterRegistry, "positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false-positive");
+        this.unverified = lookupCounter(meterRegistry, "unverified");
+        Gauge.builder("existence.filter.false-positive-rate", this, ExistenceFilter::estimatedFalsePositiveRate)
+                .tag("keyspace", keySpace)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 필터가 "없음" 이면 바로 false, 아니면 query 결과. query 가 false 면 오탐으로 센다.
+     * "없음" 을 믿을 수 없는 상태(시드 전, refresh / 재구성이 오래됨)면 query 결과를 그대로 쓴다.
+     */
+    public boolean exists(String key, Predicate<String> query) {
+        if (!negativesTrusted()) {
+            unverified.increment();
+            return query.test(key);
+        }
+        if (key == null || !filter.mightContain(key)) {
+            negatives.increment();
+            return false;
+        }
+        boolean exists = query.test(key);
+        (exists ? positives : falsePositives).increment();
+        return exists;
+    }
+
+    // 새 키 저장 시 호출 (롤백되어도 "있을 수도 있음" 으로 남을 뿐이므로 커밋 전에 넣어도 된다)
+    public void put(String key) {
+        if (key == null) {
+            return;
+        }
+        filter.put(key);
+        ScalableBloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    // 키 삭제 시 호출 (필터에서 지울 수는 없고, 포화 판단에만 쓴다)
+    public void remove(String key) {
+        removed.incrementAndGet();
+    }
+
+    public boolean isSaturated() {
+        ScalableBloomFilter current = filter;
+        return current.stageCount() >= maxStages || removed.get() * 2 > Math.max(current.approximateCount(), initialCapacity);
+    }
+
+    // 다른 인스턴스가 키를 쓰는 경우 negative-ttl 이 끝나기 전에 다시 만들어야 한다
+    public boolean needsRebuild() {
+        return isSaturated() || (!singleWriter && System.currentTimeMillis() - rebuiltAtMillis > negativeTtlMillis / 2);
+    }
+
+    public boolean isSingleWriter() {
+        return singleWriter;
+    }
+
+    /**
+     * 전체 스캔으로 새 필터를 만들어 교체한다. 스캔이 실패하면 기존 필터를 그대로 쓴다.
+     */
+    public synchronized void rebuild() {
+        long removedBefore = removed.get();
+        long startedAt = System.currentTimeMillis();
+        ScalableBloomFilter next = new ScalableBloomFilter(
+                Math.max(initialCapacity, filter.approximateCount() - removedBefore), targetFalsePositiveRate);
+        rebuilding = next;
+        try {
+            long[] scanned = new long[1];
+            long maxId = scan.scan(0, key -> {
+                next.put(key);
+                scanned[0]++;
+            });
+            filter = next;
+            previousMaxId = maxId;
+            lastMaxId = maxId;
+            rebuiltAtMillis = startedAt;
+            refreshedAtMillis = startedAt;
+            seeded = true;
+            removed.addAndGet(-removedBefore);
+            log.info("존재 여부 필터 재구성: 키 공간 = {}, 키 수 = {}, 단계 수 = {}", keySpace, scanned[0], next.stageCount());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * 다른 인스턴스가 추가한 키를 가져온다: 바로 전 refresh 가 시작한 id 이후의 키를 다시 읽어 넣는다.
+     */
+    public synchronized void refresh() {
+        if (!seeded) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        long maxId = scan.scan(previousMaxId, this::put);
+        previousMaxId = lastMaxId;
+        lastMaxId = Math.max(lastMaxId, maxId);
+        refreshedAtMillis = startedAt;
+    }
+
+    public double estimatedFalsePositiveRate() {
+        return filter.estimatedFalsePositiveRate();
+    }
+
+    private boolean negativesTrusted() {
+        if (!seeded) {
+            return false;
+        }
+        if (singleWriter) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        return now - refreshedAtMillis <= refreshTimeoutMillis && now - rebuiltAtMillis <= negativeTtlMillis;
+    }
+
+    private Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("existence.filter.lookups")
+                .tag("keyspace", keySpace)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package miniproject.fintech.service.bloom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+
+/**
+ * 계좌 번호 / 회원 ID 존재 여부 필터. 기동 시 전체 키를 스트리밍으로 읽어 채우고, 저장할 때 add 로 넣는다.
+ * add 는 바로 넣고 커밋 후 한 번 더 넣는다: 재구성 스캔이 시작된 뒤 커밋된 키도 새 필터에 들어가도록.
+ * 여러 인스턴스가 키를 쓰면(existence-filter.single-writer=false) refresh-interval 마다 다른 노드가 추가한 키를 가져오고
+ * negative-ttl 안에 전체 재구성을 다시 한다 (ExistenceFilter 참고).
+ */
+@Slf4j
+@Service
+public class ExistenceFilters {
+
+    private final ExistenceFilter accountNumbers;
+    private final ExistenceFilter memberUserIds;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public ExistenceFilters(AccountRepository accountRepository,
+                            MemberRepository memberRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${existence-filter.initial-capacity:100000}") long initialCapacity,
+                            @Value("${existence-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${existence-filter.max-stages:6}") int maxStages,
+                            @Value("${existence-filter.single-writer:false}") boolean singleWriter,
+                            @Value("${existence-filter.refresh-interval-ms:2000}") long refreshIntervalMillis,
+                            @Value("${existence-filter.negative-ttl-ms:60000}") long negativeTtlMillis) {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        // refresh 한두 번이 늦는 것은 허용하고 그보다 늦으면 "없음" 을 DB 로 확인
+        long refreshTimeoutMillis = refreshIntervalMillis * 3;
+        this.accountNumbers = new ExistenceFilter("account-number", initialCapacity, falsePositiveRate, maxStages,
+                scanOf(accountRepository::streamAccountNumbersAfter), singleWriter, refreshTimeoutMillis, negativeTtlMillis,
+                meterRegistry);
+        this.memberUserIds = new ExistenceFilter("member-user-id", initialCapacity, falsePositiveRate, maxStages,
+                scanOf(memberRepository::streamUserIdsAfter), singleWriter, refreshTimeoutMillis, negativeTtlMillis,
+                meterRegistry);
+    }
+
+    public ExistenceFilter accountNumbers() {
+        return accountNumbers;
+    }
+
+    public ExistenceFilter memberUserIds() {
+        return memberUserIds;
+    }
+
+    public void add(ExistenceFilter filter, String key) {
+        filter.put(key);
+        afterCommit(() -> filter.put(key));
+    }
+
+    @PostConstruct
+    public void seed() {
+        all().forEach(this::rebuildQuietly);
+    }
+
+    // 포화되었거나 negative-ttl 의 절반이 지난 필터는 다시 만든다 (재구성 중에도 기존 필터로 계속 응답)
+    @Scheduled(fixedDelayString = "${existence-filter.check-interval-ms:10000}")
+    public void rebuildSaturated() {
+        all().stream().filter(ExistenceFilter::needsRebuild).forEach(this::rebuildQuietly);
+    }
+
+    // 다른 인스턴스가 추가한 키 가져오기 (실패하면 refresh 가 오래되어 "없음" 을 DB 로 확인하게 된다)
+    @Scheduled(fixedDelayString = "${existence-filter.refresh-interval-ms:2000}")
+    public void refresh() {
+        for (ExistenceFilter filter : all()) {
+            if (filter.isSingleWriter()) {
+                continue;
+            }
+            try {
+                filter.refresh();
+            } catch (RuntimeException e) {
+                log.warn("존재 여부 필터 갱신 실패", e);
+            }
+        }
+    }
+
+    private List<ExistenceFilter> all() {
+        return List.of(accountNumbers, memberUserIds);
+    }
+
+    private void rebuildQuietly(ExistenceFilter filter) {
+        try {
+            filter.rebuild();
+        } catch (RuntimeException e) {
+            log.error("존재 여부 필터 재구성 실패 (기존 필터 유지)", e);
+        }
+    }
+
+    private ExistenceFilter.KeyScan scanOf(LongFunction<Stream<Object[]>> query) {
+        return (afterId, sink) -> {
+            Long maxId = readOnlyTemplate.execute(status -> {
+                long max = afterId;
+                try (Stream<Object[]> rows = query.apply(afterId)) {
+                    for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                        max = Math.max(max, (Long) row[0]);
+                        sink.accept((String) row[1]);
+                    }
+                }
+                return max;
+            });
+            return maxId == null ? afterId : maxId;
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package miniproject.fintech.service.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 크기가 늘어나는 블룸 필터 (Scalable Bloom Filter).
+ * 단계마다 용량을 growth 배로 늘리고 오탐률을 tightening 배로 줄여, 단계가 몇 개든 전체 오탐률이 목표를 넘지 않는다.
+ * 비트는 AtomicLongArray 에 CAS 로 세우므로 조회 / 추가는 락이 없고, 새 단계를 붙일 때만 잠깐 동기화한다.
+ * 삭제는 지원하지 않는다 (지운 키는 "있을 수도 있음" 으로 남고 다시 만들 때 사라짐).
+ */
+public final class ScalableBloomFilter {
+
+    private static final double GROWTH = 2.0;
+    private static final double TIGHTENING = 0.5;
+
+    private final double targetFalsePositiveRate;
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double targetFalsePositiveRate) {
+        if (initialCapacity <= 0 || targetFalsePositiveRate <= 0 || targetFalsePositiveRate >= 1) {
+            throw new IllegalArgumentException("용량은 양수, 오탐률은 0 과 1 사이여야 합니다.");
+        }
+        this.targetFalsePositiveRate = targetFalsePositiveRate;
+        // 단계별 오탐률 p0 * r^i 의 합이 목표 이하가 되도록 첫 단계는 p * (1 - r)
+        this.stages = new Stage[]{new Stage(initialCapacity, targetFalsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash)) {
+                return;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.put(hash);
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    public long approximateCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count.get();
+        }
+        return count;
+    }
+
+    /**
+     * 채워진 비트 비율로 추정한 현재 오탐률: 1 - Π(1 - (채운 비트 / 전체 비트)^k).
+     */
+    public double estimatedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1 - Math.pow((double) stage.bitsSet.get() / stage.bitCount, stage.hashCount);
+        }
+        return 1 - allNegative;
+    }
+
+    public double getTargetFalsePositiveRate() {
+        return targetFalsePositiveRate;
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Stage next = new Stage((long) Math.ceil(full.capacity * GROWTH), full.falsePositiveRate * TIGHTENING);
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+
+    // 64비트 FNV-1a 를 splitmix64 로 섞는다 (상위 / 하위 32비트를 이중 해싱의 두 해시로 사용)
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class Stage {
+        private static final long MAX_WORDS = 1L << 25;
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong bitsSet = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // m = -n ln p / (ln 2)^2, k = m / n * ln 2
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            // 인덱스가 int 범위(2^31 비트)이므로 그 이상은 할당하지 않는다
+            int wordCount = (int) Math.max(1, Math.min(MAX_WORDS, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate(word, mask, (value, m) -> value | m);
+                if ((previous & mask) == 0) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        private long index(int combined) {
+            return (combined & Integer.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package miniproject.fintech.service.eventsource;
+
+import miniproject.fintech.domain.AccountEvent;
+import miniproject.fintech.domain.AccountSnapshot;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.type.AccountEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static miniproject.fintech.type.ErrorType.*;
+
+/**
+ * 이벤트를 차례로 적용해 만든 계좌 상태. 명령(debit / credit / freeze ...)은 상태를 검사한 뒤 다음 version 의 이벤트를 만들어
+ * 적용하고 반환하며, 저장은 AccountEventStore 가 한다. 스냅샷 + 그 이후 이벤트로 다시 만든 상태는 처음부터 적용한 상태와 같다.
+ */
+public final class AccountAggregate {
+
+    private final String accountNumber;
+    private long version;
+    private long balance;
+    private boolean frozen;
+    private LocalDateTime lastOccurredAt;
+
+    private AccountAggregate(String accountNumber, long version, long balance, boolean frozen, LocalDateTime lastOccurredAt) {
+        this.accountNumber = accountNumber;
+        this.version = version;
+        this.balance = balance;
+        this.frozen = frozen;
+        this.lastOccurredAt = lastOccurredAt;
+    }
+
+    public static AccountAggregate empty(String accountNumber) {
+        return new AccountAggregate(accountNumber, 0, 0, false, null);
+    }
+
+    public static AccountAggregate rehydrate(String accountNumber, AccountSnapshot snapshot, List<AccountEvent> events) {
+        AccountAggregate aggregate = snapshot == null
+                ? empty(accountNumber)
+                : new AccountAggregate(accountNumber, snapshot.getVersion(), snapshot.getBalance(), snapshot.isFrozen(),
+                snapshot.getTakenAt());
+        events.forEach(aggregate::apply);
+        return aggregate;
+    }
+
+    public AccountEvent open(long openingBalance, LocalDateTime now) {
+        if (version != 0 || openingBalance < 0) {
+            throw new CustomError(IN_CORRECT);
+        }
+        return next(AccountEventType.OPENED, openingBalance, now);
+    }
+
+    public AccountEvent credit(long amount, LocalDateTime now) {
+        requirePositive(amount);
+        return next(AccountEventType.CREDITED, amount, now);
+    }
+
+    public AccountEvent debit(long amount, LocalDateTime now) {
+        requirePositive(amount);
+        if (frozen) {
+            throw new CustomError(ACCOUNT_FROZEN);
+        }
+        if (balance < amount) {
+            throw new CustomError(NOT_ENOUGH_MONEY);
+        }
+        return next(AccountEventType.DEBITED, amount, now);
+    }
+
+    public AccountEvent freeze(LocalDateTime now) {
+        return next(AccountEventType.FROZEN, 0, now);
+    }
+
+    public AccountEvent unfreeze(LocalDateTime now) {
+        return next(AccountEventType.UNFROZEN, 0, now);
+    }
+
+    public void apply(AccountEvent event) {
+        if (event.getVersion() != version + 1) {
+            throw new IllegalStateException("계좌 이벤트 version 이 이어지지 않습니다: 계좌 = " + accountNumber
+                    + ", 현재 = " + version + ", 이벤트 = " + event.getVersion());
+        }
+        switch (event.getEventType()) {
+            case OPENED -> balance = event.getAmount();
+            case CREDITED -> balance += event.getAmount();
+            case DEBITED -> balance -= event.getAmount();
+            case FROZEN -> frozen = true;
+            case UNFROZEN -> frozen = false;
+        }
+        version = event.getVersion();
+        lastOccurredAt = event.getOccurredAt();
+    }
+
+    public AccountSnapshot toSnapshot() {
+        return AccountSnapshot.builder()
+                .accountNumber(accountNumber)
+                .version(version)
+                .balance(balance)
+                .frozen(frozen)
+                .takenAt(lastOccurredAt)
+                .build();
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private AccountEvent next(AccountEventType eventType, long amount, LocalDateTime now) {
+        AccountEvent event = AccountEvent.builder()
+                .accountNumber(accountNumber)
+                .version(version + 1)
+                .eventType(eventType)
+                .amount(amount)
+                .occurredAt(now)
+                .build();
+        apply(event);
+        return event;
+    }
+
+    private static void requirePositive(long amount) {
+        if (amount <= 0) {
+            throw new CustomError(IN_CORRECT);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package miniproject.fintech.service.eventsource;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.AccountEvent;
+import miniproject.fintech.domain.AccountSnapshot;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountEventRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.AccountSnapshotRepository;
+import miniproject.fintech.type.AccountConcurrencyMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.Function;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NOT_FOUND;
+
+/**
+ * 이벤트 소싱 계좌 저장소 (account.concurrency-mode=EVENT_SOURCED).
+ * 잔액 변경은 account 행을 UPDATE 하지 않고 account_event 에 다음 version 의 이벤트를 추가하며,
+ * (account_number, version) 유니크 제약으로 다른 인스턴스와의 동시 변경을 감지해 OptimisticLockingFailureException 으로 알린다.
+ * 계좌 상태는 가장 최근 스냅샷 + 그 이후 이벤트로 다시 만들고, snapshot-interval 이벤트마다 스냅샷을 남기므로 읽는 이벤트 수가 제한된다.
+ * account 행의 amount / accountStatus 는 AccountProjector 가 비동기로 맞추는 조회용 projection 이다.
+ * ledger.engine=memory 와는 함께 쓰지 않는다 (원장 엔진이 account 행을 잔액 원본으로 쓰므로).
+ */
+@Slf4j
+@Service
+public class AccountEventStore {
+
+    private final AccountEventRepository eventRepository;
+    private final AccountSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final boolean enabled;
+    private final long snapshotInterval;
+
+    public AccountEventStore(AccountEventRepository eventRepository,
+                             AccountSnapshotRepository snapshotRepository,
+                             AccountRepository accountRepository,
+                             @Value("${account.concurrency-mode:PESSIMISTIC}") AccountConcurrencyMode concurrencyMode,
+                             @Value("${account.event-sourcing.snapshot-interval:100}") long snapshotInterval) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.accountRepository = accountRepository;
+        this.enabled = concurrencyMode == AccountConcurrencyMode.EVENT_SOURCED;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 최근 스냅샷 + 그 이후 이벤트로 계좌 상태를 만든다.
+     * 이벤트가 하나도 없는 계좌(이벤트 소싱 전환 전 계좌)는 account 행의 현재 잔액으로 OPENED 이벤트를 먼저 남긴다.
+     */
+    @Transactional
+    public AccountAggregate load(String accountNumber) {
+        AccountSnapshot snapshot = snapshotRepository.findFirstByAccountNumberOrderByVersionDesc(accountNumber).orElse(null);
+        List<AccountEvent> events = eventRepository.findByAccountNumberAndVersionGreaterThanOrderByVersionAsc(
+                accountNumber, snapshot == null ? 0 : snapshot.getVersion());
+        AccountAggregate aggregate = AccountAggregate.rehydrate(accountNumber, snapshot, events);
+
+        if (aggregate.getVersion() == 0) {
+            long openingBalance = accountRepository.findAmountByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new CustomError(ACCOUNT_NOT_FOUND));
+            append(aggregate, aggregate.open(openingBalance, LocalDateTime.now()));
+        }
+        return aggregate;
+    }
+
+    // 새로 만든 계좌의 개설 이벤트
+    @Transactional
+    public void open(String accountNumber, long openingBalance) {
+        AccountAggregate aggregate = AccountAggregate.empty(accountNumber);
+        append(aggregate, aggregate.open(openingBalance, LocalDateTime.now()));
+    }
+
+    /**
+     * 잔액 변경은 BalanceUpdateService 처럼 호출하는 쪽의 트랜잭션 안에서 실행되어야 한다.
+     * @Transactional 을 두지 않아 잔액 부족 등으로 실패해도 공유 트랜잭션(group commit 배치 등)을 rollback-only 로 만들지 않는다.
+     */
+    public long debit(String accountNumber, long amount) {
+        return execute(accountNumber, aggregate -> aggregate.debit(amount, LocalDateTime.now()));
+    }
+
+    public long credit(String accountNumber, long amount) {
+        return execute(accountNumber, aggregate -> aggregate.credit(amount, LocalDateTime.now()));
+    }
+
+    @Transactional
+    public void freeze(String accountNumber) {
+        requireEnabled();
+        execute(accountNumber, aggregate -> aggregate.freeze(LocalDateTime.now()));
+        log.info("계좌 동결: 계좌 번호 = {}", accountNumber);
+    }
+
+    @Transactional
+    public void unfreeze(String accountNumber) {
+        requireEnabled();
+        execute(accountNumber, aggregate -> aggregate.unfreeze(LocalDateTime.now()));
+        log.info("계좌 동결 해제: 계좌 번호 = {}", accountNumber);
+    }
+
+    @Transactional
+    public long balanceOf(String accountNumber) {
+        return load(accountNumber).getBalance();
+    }
+
+    // 관리자 잔액 수정: 현재 잔액과의 차이를 입금/출금 이벤트로 남긴다
+    @Transactional
+    public void adjustTo(String accountNumber, long targetBalance) {
+        AccountAggregate aggregate = load(accountNumber);
+        long delta = targetBalance - aggregate.getBalance();
+        if (delta > 0) {
+            append(aggregate, aggregate.credit(delta, LocalDateTime.now()));
+        } else if (delta < 0) {
+            append(aggregate, aggregate.debit(-delta, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * 계좌별 순변화량을 이벤트로 남긴다 (송금 일괄 처리). 출금 쪽을 먼저 처리하며, 잔액이 모자라면 NOT_ENOUGH_MONEY.
+     */
+    @Transactional
+    public void applyNetDeltas(Map<String, Long> netDeltas) {
+        List<Map.Entry<String, Long>> credits = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : netDeltas.entrySet()) {
+            if (entry.getValue() < 0) {
+                debit(entry.getKey(), -entry.getValue());
+            } else if (entry.getValue() > 0) {
+                credits.add(entry);
+            }
+        }
+        credits.forEach(entry -> credit(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * asOf 시점의 잔액 = asOf 이전의 가장 최근 스냅샷 + 그 이후 asOf 까지의 이벤트.
+     * 그 시점에 이벤트가 하나도 없으면 empty (이벤트 소싱 전 기간은 다른 기록으로 조회해야 한다).
+     */
+    @Transactional(readOnly = true)
+    public OptionalLong balanceAsOf(String accountNumber, LocalDateTime asOf) {
+        AccountSnapshot snapshot = snapshotRepository
+                .findFirstByAccountNumberAndTakenAtLessThanEqualOrderByVersionDesc(accountNumber, asOf).orElse(null);
+        List<AccountEvent> events = eventRepository.findEventsUntil(accountNumber, snapshot == null ? 0 : snapshot.getVersion(), asOf);
+        AccountAggregate aggregate = AccountAggregate.rehydrate(accountNumber, snapshot, events);
+        return aggregate.getVersion() == 0 ? OptionalLong.empty() : OptionalLong.of(aggregate.getBalance());
+    }
+
+    // 계좌 번호 변경 시 이벤트 스트림도 새 번호로 옮긴다
+    @Transactional
+    public void rename(String accountNumber, String newAccountNumber) {
+        int events = eventRepository.renameAccount(accountNumber, newAccountNumber);
+        snapshotRepository.renameAccount(accountNumber, newAccountNumber);
+        log.info("계좌 이벤트 스트림 번호 변경: {} -> {}, 이벤트 수 = {}", accountNumber, newAccountNumber, events);
+    }
+
+    // 계좌 삭제 시 스트림 삭제 (금액 이동 이력은 journal_entry 에 남는다)
+    @Transactional
+    public void delete(String accountNumber) {
+        eventRepository.deleteByAccountNumber(accountNumber);
+        snapshotRepository.deleteByAccountNumber(accountNumber);
+    }
+
+    private long execute(String accountNumber, Function<AccountAggregate, AccountEvent> command) {
+        AccountAggregate aggregate = load(accountNumber);
+        append(aggregate, command.apply(aggregate));
+        return aggregate.getBalance();
+    }
+
+    private void append(AccountAggregate aggregate, AccountEvent event) {
+        try {
+            eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            // 같은 version 을 다른 트랜잭션이 먼저 저장: 트랜잭션 전체를 다시 실행하도록 낙관적 락 충돌로 알린다
+            throw new OptimisticLockingFailureException("계좌 이벤트 동시 변경: 계좌 = " + event.getAccountNumber()
+                    + ", version = " + event.getVersion(), e);
+        }
+        if (event.getVersion() % snapshotInterval == 0) {
+            snapshotRepository.save(aggregate.toSnapshot());
+            log.debug("계좌 스냅샷 저장: 계좌 = {}, version = {}", aggregate.getAccountNumber(), aggregate.getVersion());
+        }
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("account.concurrency-mode=EVENT_SOURCED 에서만 사용할 수 있습니다.");
+        }
+    }
+}
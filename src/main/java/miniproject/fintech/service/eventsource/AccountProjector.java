@@ -0,0 +1,192 @@
+package miniproject.fintech.service.eventsource;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.AccountEvent;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.repository.AccountEventRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.type.AccountStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * account_event 를 읽어 account 행의 amount / accountStatus 를 맞추는 projection (AccountDto 조회용).
+ * 계좌마다 반영한 마지막 version 을 account.projectedVersion 에 두고, 그 다음 version 부터 빈틈없이 이어지는 이벤트만
+ * 합산해 계좌당 UPDATE 한 번으로 반영한다. UPDATE 는 projectedVersion 이 읽은 값 그대로일 때만 적용되므로 두 번 더해지지 않는다.
+ * 새 이벤트는 마지막으로 읽은 ID 이후를 조회해 바로 찾는다. IDENTITY ID 는 커밋 순서와 다를 수 있으므로
+ * 그 조회가 건너뛴 이벤트는 sweep-interval 마다 projectedVersion 보다 큰 version 을 찾아 반영한다 (시간 지연에 기대지 않음).
+ * OPENED 는 account 행을 만들 때 이미 잔액이 들어 있으므로 version 만 넘긴다.
+ */
+@Slf4j
+@Component
+public class AccountProjector {
+
+    private final AccountEventStore accountEventStore;
+    private final AccountEventRepository eventRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public AccountProjector(AccountEventStore accountEventStore,
+                            AccountEventRepository eventRepository,
+                            AccountRepository accountRepository,
+                            LedgerCheckpointRepository checkpointRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${account.event-sourcing.projection.batch-size:1000}") int batchSize) {
+        this.accountEventStore = accountEventStore;
+        this.eventRepository = eventRepository;
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${account.event-sourcing.projection.interval-ms:200}")
+    public void project() {
+        if (!accountEventStore.isEnabled()) {
+            return;
+        }
+        try {
+            // 가득 찬 배치가 나오면 밀린 이벤트가 더 있으므로 바로 이어서 처리
+            Integer projected;
+            do {
+                projected = transactionTemplate.execute(status -> projectBatch());
+            } while (projected != null && projected == batchSize);
+        } catch (RuntimeException e) {
+            log.error("계좌 이벤트 projection 실패", e);
+        }
+    }
+
+    // 빠른 경로가 건너뛴 (늦게 커밋된) 이벤트를 version 기준으로 찾아 반영
+    @Scheduled(fixedDelayString = "${account.event-sourcing.projection.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!accountEventStore.isEnabled()) {
+            return;
+        }
+        try {
+            Integer applied;
+            do {
+                applied = transactionTemplate.execute(status -> sweepBatch());
+            } while (applied != null && applied > 0);
+        } catch (RuntimeException e) {
+            log.error("계좌 이벤트 projection sweep 실패", e);
+        }
+    }
+
+    private int projectBatch() {
+        LedgerCheckpoint checkpoint = lockCheckpoint();
+        List<AccountEvent> events = eventRepository.findAfter(checkpoint.getJournalSequence(), PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int applied = apply(groupByAccount(events), true);
+        checkpoint.setJournalSequence(events.get(events.size() - 1).getId());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        log.debug("계좌 이벤트 projection: 이벤트 = {}, 반영 = {}", events.size(), applied);
+        return events.size();
+    }
+
+    private int sweepBatch() {
+        // 빠른 경로와 같은 체크포인트 행을 잠가 다른 projection 과 겹치지 않게 한다
+        lockCheckpoint();
+        List<AccountEvent> events = eventRepository.findUnprojected(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        int applied = apply(groupByAccount(events), false);
+        if (applied > 0) {
+            log.info("늦게 커밋된 계좌 이벤트 반영: 이벤트 = {}", applied);
+        }
+        return applied;
+    }
+
+    private LedgerCheckpoint lockCheckpoint() {
+        return checkpointRepository.findForUpdate(LedgerCheckpoint.ACCOUNT_PROJECTION_ID)
+                .orElseGet(() -> checkpointRepository.save(LedgerCheckpoint.builder()
+                        .id(LedgerCheckpoint.ACCOUNT_PROJECTION_ID)
+                        .updatedAt(LocalDateTime.now())
+                        .build()));
+    }
+
+    /**
+     * 계좌마다 projectedVersion 다음부터 이어지는 이벤트를 합산해 반영하고, 반영한 이벤트 수를 반환한다.
+     * fillGaps 면 배치 첫 이벤트가 다음 version 이 아닐 때 (앞 version 을 건너뛴 경우) 그 계좌의 남은 이벤트를 직접 읽는다.
+     */
+    private int apply(Map<String, List<AccountEvent>> eventsByAccount, boolean fillGaps) {
+        Map<String, Long> projectedVersions = new HashMap<>();
+        for (Object[] row : accountRepository.findProjectedVersions(eventsByAccount.keySet())) {
+            projectedVersions.put((String) row[0], (Long) row[1]);
+        }
+
+        int applied = 0;
+        for (Map.Entry<String, List<AccountEvent>> entry : eventsByAccount.entrySet()) {
+            String accountNumber = entry.getKey();
+            Long fromVersion = projectedVersions.get(accountNumber);
+            if (fromVersion == null) {
+                log.warn("projection 대상 계좌가 없습니다: 계좌 번호 = {}", accountNumber);
+                continue;
+            }
+            List<AccountEvent> events = entry.getValue();
+            if (fillGaps && events.get(events.size() - 1).getVersion() > fromVersion
+                    && events.get(0).getVersion() > fromVersion + 1) {
+                events = eventRepository.findByAccountNumberAndVersionGreaterThanOrderByVersionAsc(accountNumber, fromVersion);
+            }
+
+            long toVersion = fromVersion;
+            long delta = 0;
+            AccountStatus status = null;
+            for (AccountEvent event : events) {
+                if (event.getVersion() <= toVersion) {
+                    continue;
+                }
+                if (event.getVersion() != toVersion + 1) {
+                    // 앞 version 이 아직 커밋 전: 여기서 멈추고 다음 실행에서 이어서 반영
+                    break;
+                }
+                switch (event.getEventType()) {
+                    case CREDITED -> delta += event.getAmount();
+                    case DEBITED -> delta -= event.getAmount();
+                    case FROZEN -> status = AccountStatus.UN_ACTIVE;
+                    case UNFROZEN -> status = AccountStatus.ACTIVE;
+                    case OPENED -> {
+                    }
+                }
+                toVersion = event.getVersion();
+            }
+            if (toVersion == fromVersion) {
+                continue;
+            }
+            if (accountRepository.project(accountNumber, delta, status, fromVersion, toVersion) == 0) {
+                log.warn("projection 반영 충돌: 계좌 번호 = {}, version = {} -> {}", accountNumber, fromVersion, toVersion);
+                continue;
+            }
+            applied += (int) (toVersion - fromVersion);
+        }
+        return applied;
+    }
+
+    // 계좌별 version 오름차순
+    private static Map<String, List<AccountEvent>> groupByAccount(List<AccountEvent> events) {
+        Map<String, List<AccountEvent>> eventsByAccount = new LinkedHashMap<>();
+        for (AccountEvent event : events) {
+            eventsByAccount.computeIfAbsent(event.getAccountNumber(), key -> new ArrayList<>()).add(event);
+        }
+        eventsByAccount.values().forEach(list -> list.sort(Comparator.comparingLong(AccountEvent::getVersion)));
+        return eventsByAccount;
+    }
+}
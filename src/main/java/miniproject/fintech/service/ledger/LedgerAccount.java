@@ -0,0 +1,21 @@
+package miniproject.fintech.service.ledger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 샤드가 메모리에 들고 있는 계좌 잔액. balance 는 해당 샤드의 writer 스레드만 변경한다.
+ */
+final class LedgerAccount {
+
+    final Long id;
+    final String accountNumber;
+    volatile long balance;
+    // 이 계좌의 잔액을 바꿨지만 write-behind 가 아직 DB 에 반영하지 않은 이동 수 (detach 가 0 이 될 때까지 기다린다)
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    LedgerAccount(Long id, String accountNumber, long balance) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,54 @@
+package miniproject.fintech.service.ledger;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 샤드 writer 스레드에 전달되는 명령.
+ */
+final class LedgerCommand {
+
+    enum Type {
+        DEBIT,      // 출금 샤드: 잔액 확인 후 차감
+        CREDIT,     // 입금 샤드: 입금 후 write-behind 등록
+        REFUND,     // 입금 계좌가 사라진 경우 출금 샤드로 되돌림
+        REGISTER,   // 계좌 추가 (이미 있는 계좌는 그대로 둔다)
+        REMOVE      // 계좌를 샤드에서 떼어 냄 (removed 로 떼어 낸 계좌 전달, 없으면 null)
+    }
+
+    final Type type;
+    final LedgerMovement movement;
+    final Long accountId;
+    final String accountNumber;
+    final long amount;
+    final CompletableFuture<LedgerAccount> removed;
+
+    private LedgerCommand(Type type, LedgerMovement movement, Long accountId, String accountNumber, long amount,
+                          CompletableFuture<LedgerAccount> removed) {
+        this.type = type;
+        this.movement = movement;
+        this.accountId = accountId;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.removed = removed;
+    }
+
+    static LedgerCommand debit(LedgerMovement movement) {
+        return new LedgerCommand(Type.DEBIT, movement, null, movement.sourceAccountNumber, movement.amount, null);
+    }
+
+    static LedgerCommand credit(LedgerMovement movement) {
+        return new LedgerCommand(Type.CREDIT, movement, null, movement.destinationAccountNumber, movement.amount, null);
+    }
+
+    static LedgerCommand refund(LedgerMovement movement) {
+        return new LedgerCommand(Type.REFUND, movement, null, movement.sourceAccountNumber, movement.amount, null);
+    }
+
+    static LedgerCommand register(Long accountId, String accountNumber, long amount) {
+        return new LedgerCommand(Type.REGISTER, null, accountId, accountNumber, amount, null);
+    }
+
+    static LedgerCommand remove(String accountNumber, CompletableFuture<LedgerAccount> removed) {
+        return new LedgerCommand(Type.REMOVE, null, null, accountNumber, 0, removed);
+    }
+}
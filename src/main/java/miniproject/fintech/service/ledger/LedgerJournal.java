@@ -0,0 +1,56 @@
+package miniproject.fintech.service.ledger;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 원장 엔진이 받아들인 송금/입금을 응답 전에 내구성 있게 남기는 저널.
+ * append 한 순서대로 sequence 가 붙고, 디스크에 내려간 뒤 같은 순서로 onDurable 이 호출된다.
+ * write-behind 가 DB 에 반영한 sequence (checkpoint) 이후의 기록은 기동 시 recover 로 다시 읽어 반영한다.
+ */
+interface LedgerJournal {
+
+    /**
+     * checkpoint 이후의 기록을 반환하고 이어서 쓸 위치를 정한다. start 전에 한 번 호출한다.
+     */
+    List<LedgerMovement> recover(long checkpointSequence);
+
+    void start();
+
+    void append(LedgerMovement movement, Consumer<LedgerMovement> onDurable);
+
+    // checkpoint 까지 DB 에 반영된 세그먼트 삭제
+    void truncateThrough(long checkpointSequence);
+
+    // 대기 중인 기록을 디스크에 내린 뒤 종료
+    void stop() throws InterruptedException;
+
+    /**
+     * 저널을 끈 경우 (ledger.journal.enabled=false): 기록 없이 바로 완료 처리한다.
+     */
+    static LedgerJournal disabled() {
+        return new LedgerJournal() {
+            @Override
+            public List<LedgerMovement> recover(long checkpointSequence) {
+                return List.of();
+            }
+
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void append(LedgerMovement movement, Consumer<LedgerMovement> onDurable) {
+                onDurable.accept(movement);
+            }
+
+            @Override
+            public void truncateThrough(long checkpointSequence) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+    }
+}
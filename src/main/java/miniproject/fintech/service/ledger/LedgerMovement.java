@@ -0,0 +1,59 @@
+package miniproject.fintech.service.ledger;
+
+import miniproject.fintech.type.DepositStatus;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 원장 엔진이 처리하는 송금/입금 한 건.
+ * 출금 샤드에서 차감, 입금 샤드에서 입금된 뒤 write-behind 로 DB 에 기록된다.
+ */
+final class LedgerMovement {
+
+    enum Kind {
+        TRANSFER, DEPOSIT
+    }
+
+    final Kind kind;
+    final String sourceAccountNumber;
+    final String destinationAccountNumber;
+    final long amount;
+    final Long bankMemberId;
+    final LocalDateTime requestedAt;
+    final DepositStatus depositStatus;
+    final CompletableFuture<LedgerMovement> completion = new CompletableFuture<>();
+
+    // writer 스레드가 채우는 값 (completion 완료 이후 다른 스레드에서 읽는다)
+    Long sourceAccountId;
+    Long destinationAccountId;
+    long sourceBalanceAfter;
+    long destinationBalanceAfter;
+    LocalDateTime appliedAt;
+    // 잔액을 바꾼 샤드 계좌 (write-behind 반영 후 inFlight 를 줄인다, 저널에서 다시 읽은 기록은 null)
+    LedgerAccount sourceAccount;
+    LedgerAccount destinationAccount;
+    // 저널에 기록된 순번 (저널을 쓰지 않으면 0)
+    long journalSequence;
+
+    LedgerMovement(Kind kind, String sourceAccountNumber, String destinationAccountNumber, long amount,
+                   Long bankMemberId, LocalDateTime requestedAt, DepositStatus depositStatus) {
+        this.kind = kind;
+        this.sourceAccountNumber = sourceAccountNumber;
+        this.destinationAccountNumber = destinationAccountNumber;
+        this.amount = amount;
+        this.bankMemberId = bankMemberId;
+        this.requestedAt = requestedAt;
+        this.depositStatus = depositStatus;
+    }
+
+    // write-behind 가 DB 에 반영한 뒤 호출
+    void persisted() {
+        if (sourceAccount != null) {
+            sourceAccount.inFlight.decrementAndGet();
+        }
+        if (destinationAccount != null) {
+            destinationAccount.inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package miniproject.fintech.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.error.CustomError;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NOT_FOUND;
+import static miniproject.fintech.type.ErrorType.NOT_ENOUGH_MONEY;
+
+/**
+ * 계좌 번호로 나뉜 원장 샤드. 전용 writer 스레드 하나만 잔액을 변경하므로 락이 필요 없다.
+ */
+@Slf4j
+final class LedgerShard implements Runnable {
+
+    private static final int DRAIN_LIMIT = 256;
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private final int index;
+    private final ShardedLedgerEngine engine;
+    private final MpscRingBuffer<LedgerCommand> ring;
+    // 다른 샤드에서 넘어온 입금/환불 명령. 링 버퍼가 가득 차도 샤드끼리 서로 막히지 않도록 분리한다.
+    private final Queue<LedgerCommand> inbox = new ConcurrentLinkedQueue<>();
+    private final Map<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final long idleParkNanos;
+
+    private volatile boolean running = true;
+    private volatile boolean parked;
+    private Thread writer;
+
+    LedgerShard(int index, ShardedLedgerEngine engine, int ringSize, long idleParkNanos) {
+        this.index = index;
+        this.engine = engine;
+        this.ring = new MpscRingBuffer<>(ringSize);
+        this.idleParkNanos = idleParkNanos;
+    }
+
+    // writer 시작 전에만 호출 (기동 시 적재)
+    void load(Long accountId, String accountNumber, long amount) {
+        accounts.put(accountNumber, new LedgerAccount(accountId, accountNumber, amount));
+    }
+
+    void start() {
+        writer = new Thread(this, "ledger-shard-" + index);
+        writer.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+
+    boolean submit(LedgerCommand command) {
+        if (!ring.offer(command)) {
+            return false;
+        }
+        wakeUp();
+        return true;
+    }
+
+    void forward(LedgerCommand command) {
+        inbox.offer(command);
+        wakeUp();
+    }
+
+    LedgerAccount account(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    private void wakeUp() {
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (running || !ring.isEmpty() || !inbox.isEmpty()) {
+            int processed = drainInbox() + ring.drain(this::apply, DRAIN_LIMIT);
+            if (processed > 0) {
+                idle = 0;
+                continue;
+            }
+
+            if (++idle < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            parked = true;
+            if (running && ring.isEmpty() && inbox.isEmpty()) {
+                LockSupport.parkNanos(this, idleParkNanos);
+            }
+            parked = false;
+        }
+        log.info("원장 샤드 종료: 샤드 = {}, 계좌 수 = {}", index, accounts.size());
+    }
+
+    private int drainInbox() {
+        int drained = 0;
+        LedgerCommand command;
+        while (drained < DRAIN_LIMIT && (command = inbox.poll()) != null) {
+            apply(command);
+            drained++;
+        }
+        return drained;
+    }
+
+    private void apply(LedgerCommand command) {
+        try {
+            switch (command.type) {
+                case DEBIT -> debit(command.movement);
+                case CREDIT -> credit(command.movement);
+                case REFUND -> refund(command.movement);
+                case REGISTER -> register(command);
+                case REMOVE -> command.removed.complete(accounts.remove(command.accountNumber));
+            }
+        } catch (RuntimeException e) {
+            log.error("원장 명령 처리 실패: 샤드 = {}, 명령 = {}, 계좌 = {}", index, command.type, command.accountNumber, e);
+            if (command.movement != null) {
+                command.movement.completion.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void debit(LedgerMovement movement) {
+        LedgerAccount source = accounts.get(movement.sourceAccountNumber);
+        if (source == null) {
+            movement.completion.completeExceptionally(new CustomError(ACCOUNT_NOT_FOUND));
+            return;
+        }
+        if (source.balance < movement.amount) {
+            movement.completion.completeExceptionally(new CustomError(NOT_ENOUGH_MONEY));
+            return;
+        }
+
+        source.balance = source.balance - movement.amount;
+        source.inFlight.incrementAndGet();
+        movement.sourceAccount = source;
+        movement.sourceAccountId = source.id;
+        movement.sourceBalanceAfter = source.balance;
+        engine.route(LedgerCommand.credit(movement));
+    }
+
+    private void credit(LedgerMovement movement) {
+        LedgerAccount destination = accounts.get(movement.destinationAccountNumber);
+        if (destination == null) {
+            // 검증 이후 입금 계좌가 삭제된 경우 출금 샤드로 되돌린다
+            engine.route(LedgerCommand.refund(movement));
+            return;
+        }
+
+        destination.balance = destination.balance + movement.amount;
+        destination.inFlight.incrementAndGet();
+        movement.destinationAccount = destination;
+        movement.destinationAccountId = destination.id;
+        movement.destinationBalanceAfter = destination.balance;
+        movement.appliedAt = LocalDateTime.now();
+        engine.accepted(movement);
+    }
+
+    // 차감했던 계좌 객체에 되돌린다 (그 사이 detach 된 계좌도 떼어 낸 잔액에 포함되도록)
+    private void refund(LedgerMovement movement) {
+        LedgerAccount source = movement.sourceAccount;
+        source.balance = source.balance + movement.amount;
+        source.inFlight.decrementAndGet();
+        movement.completion.completeExceptionally(new CustomError(ACCOUNT_NOT_FOUND));
+    }
+
+    // 이미 있는 계좌의 잔액은 DB 값으로 덮어쓰지 않는다 (write-behind 가 아직 반영하지 않은 이동이 있을 수 있음)
+    private void register(LedgerCommand command) {
+        LedgerAccount existing = accounts.putIfAbsent(command.accountNumber,
+                new LedgerAccount(command.accountId, command.accountNumber, command.amount));
+        if (existing != null) {
+            log.warn("이미 등록된 계좌는 잔액을 바꾸지 않습니다: 샤드 = {}, 계좌 = {}", index, command.accountNumber);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package miniproject.fintech.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.domain.Deposit;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.domain.Transaction;
+import miniproject.fintech.domain.Transfer;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.DepositRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.repository.TransactionRepository;
+import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.JournalEntryService;
+import miniproject.fintech.type.JournalMovementType;
+import miniproject.fintech.type.TransactionStatus;
+import miniproject.fintech.type.TransactionType;
+import miniproject.fintech.type.TransferStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메모리에서 처리된 송금/입금을 모아서 DB 에 반영하는 write-behind 스레드.
+ * 한 배치 안의 잔액 변화는 계좌별로 합산해 계좌당 UPDATE 한 번으로 반영하고,
+ * Transfer / Deposit / Transaction 기록은 건별로 저장한다. 실패한 배치는 버리지 않고 다시 시도한다.
+ * 복식 분개(journal_entry)도 같은 트랜잭션에 기록하므로 재반영 시 두 번 남지 않는다.
+ * 같은 트랜잭션에서 저널 checkpoint 를 배치의 마지막 sequence 로 옮기고, 커밋 후 그 앞의 저널 세그먼트를 지운다.
+ */
+@Slf4j
+final class LedgerWriteBehind implements Runnable {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1_000;
+
+    private final BlockingQueue<LedgerMovement> queue = new LinkedBlockingQueue<>();
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final DepositRepository depositRepository;
+    private final TransactionRepository transactionRepository;
+    private final MemberRepository memberRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final LedgerJournal journal;
+    private final JournalEntryService journalEntryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long intervalMillis;
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    LedgerWriteBehind(AccountRepository accountRepository, TransferRepository transferRepository,
+                      DepositRepository depositRepository, TransactionRepository transactionRepository,
+                      MemberRepository memberRepository, LedgerCheckpointRepository checkpointRepository,
+                      LedgerJournal journal, JournalEntryService journalEntryService,
+                      TransactionTemplate transactionTemplate,
+                      int batchSize, long intervalMillis) {
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.depositRepository = depositRepository;
+        this.transactionRepository = transactionRepository;
+        this.memberRepository = memberRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.journal = journal;
+        this.journalEntryService = journalEntryService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+    }
+
+    void start() {
+        flusher = new Thread(this, "ledger-write-behind");
+        flusher.start();
+    }
+
+    // 남은 기록을 모두 반영한 뒤 종료
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join();
+    }
+
+    void enqueue(LedgerMovement movement) {
+        queue.add(movement);
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    // 기동 시 저널에서 읽은 미반영 기록을 호출 스레드에서 바로 반영 (flusher 시작 전)
+    void replay(List<LedgerMovement> movements) {
+        for (int from = 0; from < movements.size(); from += batchSize) {
+            persist(movements.subList(from, Math.min(from + batchSize, movements.size())));
+        }
+    }
+
+    @Override
+    public void run() {
+        List<LedgerMovement> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    LedgerMovement first = queue.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+
+                persist(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("write-behind 스레드 인터럽트: 남은 기록 = {}", batch.size() + queue.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("write-behind 반영 실패, 재시도 예정: 배치 크기 = {}", batch.size(), e);
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private void persist(List<LedgerMovement> batch) {
+        long checkpoint = batch.stream().mapToLong(movement -> movement.journalSequence).max().orElse(0);
+        transactionTemplate.executeWithoutResult(status -> {
+            // 계좌별 잔액 변화 합산 후 계좌당 한 번만 UPDATE
+            Map<String, Long> deltas = new LinkedHashMap<>();
+            for (LedgerMovement movement : batch) {
+                deltas.merge(movement.sourceAccountNumber, -movement.amount, Long::sum);
+                deltas.merge(movement.destinationAccountNumber, movement.amount, Long::sum);
+            }
+            deltas.forEach((accountNumber, delta) -> {
+                if (delta != 0 && accountRepository.applyDelta(accountNumber, delta) == 0) {
+                    log.error("write-behind 대상 계좌가 없습니다: 계좌 번호 = {}, 변화량 = {}", accountNumber, delta);
+                }
+            });
+
+            List<JournalEntryService.Posting> postings = new ArrayList<>(batch.size());
+            for (LedgerMovement movement : batch) {
+                postings.add(new JournalEntryService.Posting(
+                        movement.kind == LedgerMovement.Kind.TRANSFER ? JournalMovementType.TRANSFER : JournalMovementType.DEPOSIT,
+                        movement.sourceAccountNumber, movement.destinationAccountNumber, movement.amount));
+            }
+            journalEntryService.recordAll(postings);
+
+            for (LedgerMovement movement : batch) {
+                if (movement.kind == LedgerMovement.Kind.TRANSFER) {
+                    saveTransfer(movement);
+                } else {
+                    saveDeposit(movement);
+                }
+            }
+
+            if (checkpoint > 0) {
+                checkpointRepository.advance(LedgerCheckpoint.JOURNAL_ID, checkpoint, LocalDateTime.now());
+            }
+        });
+        batch.forEach(LedgerMovement::persisted);
+        if (checkpoint > 0) {
+            journal.truncateThrough(checkpoint);
+        }
+        log.debug("write-behind 반영 완료: 건수 = {}", batch.size());
+    }
+
+    private void saveTransfer(LedgerMovement movement) {
+        BankMember bankMember = memberRepository.getReferenceById(movement.bankMemberId);
+
+        transactionRepository.save(Transaction.builder()
+                .bankMember(bankMember)
+                .transactionAmount(movement.amount)
+                .transactionType(TransactionType.TRANSFER)
+                .transactionStatus(TransactionStatus.SUCCESS)
+                .transactedAt(movement.appliedAt)
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .curAmount(movement.destinationBalanceAfter)
+                .referenceNumber(UUID.randomUUID().toString())
+                .currency("KRW")
+                .fee(0.0)
+                .message("송금 완료")
+                .counterpartyInfo(movement.destinationAccountNumber)
+                .build());
+
+        transferRepository.save(Transfer.builder()
+                .transferAmount(movement.amount)
+                .transferAt(movement.requestedAt)
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .destinationAccountNumber(movement.destinationAccountNumber)
+                .transferStatus(TransferStatus.COMPLETED)
+                .message("송금 완료")
+                .build());
+    }
+
+    private void saveDeposit(LedgerMovement movement) {
+        BankMember bankMember = memberRepository.getReferenceById(movement.bankMemberId);
+        Account sourceAccount = accountRepository.getReferenceById(movement.sourceAccountId);
+        Account destinationAccount = accountRepository.getReferenceById(movement.destinationAccountId);
+
+        depositRepository.save(Deposit.builder()
+                .depositAmount(movement.amount)
+                .depositAt(movement.requestedAt)
+                .depositStatus(movement.depositStatus)
+                .message("입금 확인")
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .destinationAccountNumber(movement.destinationAccountNumber)
+                .account(destinationAccount)
+                .build());
+
+        transactionRepository.save(Transaction.builder()
+                .transactionAmount(movement.amount)
+                .transactionType(TransactionType.DEPOSIT)
+                .transactionStatus(TransactionStatus.SUCCESS)
+                .transactedAt(movement.appliedAt)
+                .account(sourceAccount)
+                .bankMember(bankMember)
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .destinationAccountNumber(movement.destinationAccountNumber)
+                .curAmount(movement.destinationBalanceAfter)
+                .referenceNumber(UUID.randomUUID().toString())
+                .currency("KRW")
+                .message("입금 확인")
+                .counterpartyInfo(movement.sourceAccountNumber)
+                .build());
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
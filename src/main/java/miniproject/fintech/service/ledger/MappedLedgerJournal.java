@@ -0,0 +1,454 @@
+package miniproject.fintech.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.type.DepositStatus;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑한 고정 크기 세그먼트 파일에 이어 쓰는 저널.
+ * 레코드는 [길이 int][CRC32 int][본문] 이고, 길이 0 (새 파일의 0 으로 채워진 영역) 또는 CRC 불일치에서 끝난다.
+ * append 는 매핑된 버퍼에 쓰기만 하고, sync 스레드 하나가 그동안 쌓인 레코드를 force 한 번으로 내린 뒤
+ * 한꺼번에 onDurable 을 호출한다 (group fsync). force 가 도는 동안 들어온 레코드가 다음 묶음이 된다.
+ * 세그먼트가 가득 차면 남은 구간을 force 하고 다음 sequence 이름으로 새 세그먼트를 만든다.
+ */
+@Slf4j
+final class MappedLedgerJournal implements LedgerJournal, Runnable {
+
+    private static final String PREFIX = "ledger-journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final long IDLE_WAIT_MILLIS = 10;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final Object lock = new Object();
+
+    // 아래 필드는 lock 으로 보호 (segments: 첫 sequence → 파일)
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSequence = 1;
+    private int syncedPosition;
+    private List<Pending> pending = new ArrayList<>();
+
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder syncedRecords = new LongAdder();
+
+    private volatile boolean running;
+    private Thread syncer;
+
+    MappedLedgerJournal(Path directory, int segmentBytes, boolean fsync) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("세그먼트 크기는 4KB 이상이어야 합니다: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    @Override
+    public List<LedgerMovement> recover(long checkpointSequence) {
+        synchronized (lock) {
+            try {
+                Files.createDirectories(directory);
+                try (Stream<Path> files = Files.list(directory)) {
+                    files.filter(file -> file.getFileName().toString().startsWith(PREFIX)
+                                    && file.getFileName().toString().endsWith(SUFFIX))
+                            .forEach(file -> segments.put(firstSequenceOf(file), file));
+                }
+
+                List<LedgerMovement> unapplied = new ArrayList<>();
+                long lastSequence = 0;
+                for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+                    Long next = segments.higherKey(entry.getKey());
+                    if (next != null && next - 1 <= checkpointSequence) {
+                        // 전부 DB 에 반영된 세그먼트는 읽지 않는다
+                        lastSequence = next - 1;
+                        continue;
+                    }
+                    Segment segment = Segment.open(entry.getValue(), entry.getKey(), segmentBytes);
+                    lastSequence = segment.scan(entry.getKey() - 1, movement -> {
+                        if (movement.journalSequence > checkpointSequence) {
+                            unapplied.add(movement);
+                        }
+                    });
+                    if (next == null) {
+                        active = segment;
+                    } else {
+                        segment.close();
+                    }
+                }
+
+                nextSequence = Math.max(lastSequence, checkpointSequence) + 1;
+                if (active == null || lastSequence < checkpointSequence) {
+                    // 저널 끝이 checkpoint 보다 앞이면 (저널 유실) 번호가 이어지도록 새 세그먼트에서 시작
+                    if (active != null) {
+                        active.close();
+                    }
+                    active = createSegment(nextSequence);
+                }
+                syncedPosition = active.buffer.position();
+                log.info("원장 저널 복구: 디렉터리 = {}, 세그먼트 수 = {}, 미반영 기록 = {} 건, 다음 sequence = {}",
+                        directory, segments.size(), unapplied.size(), nextSequence);
+                return unapplied;
+            } catch (IOException e) {
+                throw new UncheckedIOException("원장 저널을 읽을 수 없습니다: " + directory, e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (active == null) {
+                throw new IllegalStateException("recover 를 먼저 호출해야 합니다.");
+            }
+            running = true;
+        }
+        syncer = new Thread(this, "ledger-journal-sync");
+        syncer.start();
+    }
+
+    @Override
+    public void append(LedgerMovement movement, Consumer<LedgerMovement> onDurable) {
+        synchronized (lock) {
+            if (!running) {
+                throw new IllegalStateException("원장 저널이 실행 중이 아닙니다.");
+            }
+            long sequence = nextSequence;
+            movement.journalSequence = sequence;
+            byte[] payload = encode(movement);
+            int size = HEADER_BYTES + payload.length;
+            if (size > segmentBytes) {
+                throw new IllegalStateException("저널 레코드가 세그먼트보다 큽니다: " + size);
+            }
+            if (active.buffer.remaining() < size) {
+                rollover(sequence);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            active.buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            nextSequence = sequence + 1;
+
+            pending.add(new Pending(movement, onDurable));
+            if (pending.size() == 1) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void truncateThrough(long checkpointSequence) {
+        synchronized (lock) {
+            Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Path> entry = iterator.next();
+                Long next = segments.higherKey(entry.getKey());
+                if (next == null || next - 1 > checkpointSequence || entry.getKey() == active.firstSequence) {
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(entry.getValue());
+                    iterator.remove();
+                    log.info("DB 에 반영된 저널 세그먼트 삭제: {}", entry.getValue().getFileName());
+                } catch (IOException e) {
+                    log.warn("저널 세그먼트 삭제 실패: {}", entry.getValue(), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        if (syncer != null) {
+            syncer.join();
+        }
+        synchronized (lock) {
+            if (active != null) {
+                active.buffer.force();
+                active.close();
+            }
+        }
+        log.info("원장 저널 종료: fsync {} 회, 기록 {} 건", syncs.sum(), syncedRecords.sum());
+    }
+
+    long getSyncCount() {
+        return syncs.sum();
+    }
+
+    long getSyncedRecords() {
+        return syncedRecords.sum();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            List<Pending> batch;
+            Segment segment;
+            int from;
+            int to;
+            synchronized (lock) {
+                while (pending.isEmpty()) {
+                    if (!running) {
+                        return;
+                    }
+                    try {
+                        lock.wait(IDLE_WAIT_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.warn("원장 저널 sync 스레드 인터럽트: 대기 기록 = {}", pending.size());
+                        return;
+                    }
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                segment = active;
+                from = syncedPosition;
+                to = segment.buffer.position();
+            }
+
+            try {
+                if (fsync && to > from) {
+                    segment.buffer.force(from, to - from);
+                }
+            } catch (RuntimeException e) {
+                // 내려갔는지 알 수 없으므로 완료 처리하지 않고 다시 시도
+                log.error("원장 저널 fsync 실패, 재시도 예정: 대기 기록 = {}", batch.size(), e);
+                synchronized (lock) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                sleepBeforeRetry();
+                continue;
+            }
+
+            synchronized (lock) {
+                if (active == segment && to > syncedPosition) {
+                    syncedPosition = to;
+                }
+            }
+            syncs.increment();
+            syncedRecords.add(batch.size());
+            for (Pending entry : batch) {
+                try {
+                    entry.onDurable.accept(entry.movement);
+                } catch (RuntimeException e) {
+                    log.error("저널 완료 처리 실패: sequence = {}", entry.movement.journalSequence, e);
+                }
+            }
+        }
+    }
+
+    // lock 안에서 호출: 현재 세그먼트의 남은 구간을 내리고 새 세그먼트로 교체
+    private void rollover(long firstSequence) {
+        if (fsync && active.buffer.position() > syncedPosition) {
+            active.buffer.force(syncedPosition, active.buffer.position() - syncedPosition);
+        }
+        active.close();
+        try {
+            active = createSegment(firstSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("새 저널 세그먼트를 만들 수 없습니다.", e);
+        }
+        syncedPosition = 0;
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        Segment segment = Segment.open(file, firstSequence, segmentBytes);
+        segments.put(firstSequence, file);
+        if (fsync) {
+            // 새 파일의 디렉터리 항목도 내려야 장애 후에 세그먼트가 보인다
+            try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException e) {
+                log.debug("저널 디렉터리 fsync 를 지원하지 않는 환경입니다: {}", e.getMessage());
+            }
+        }
+        return segment;
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static byte[] encode(LedgerMovement movement) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(movement.journalSequence);
+            out.writeByte(movement.kind.ordinal());
+            out.writeUTF(movement.sourceAccountNumber);
+            out.writeUTF(movement.destinationAccountNumber);
+            out.writeLong(movement.amount);
+            writeNullableLong(out, movement.bankMemberId);
+            writeDateTime(out, movement.requestedAt);
+            out.writeByte(movement.depositStatus == null ? -1 : movement.depositStatus.ordinal());
+            writeNullableLong(out, movement.sourceAccountId);
+            writeNullableLong(out, movement.destinationAccountId);
+            out.writeLong(movement.sourceBalanceAfter);
+            out.writeLong(movement.destinationBalanceAfter);
+            writeDateTime(out, movement.appliedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static LedgerMovement decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        LedgerMovement.Kind kind = LedgerMovement.Kind.values()[in.readByte()];
+        String sourceAccountNumber = in.readUTF();
+        String destinationAccountNumber = in.readUTF();
+        long amount = in.readLong();
+        Long bankMemberId = readNullableLong(in);
+        LocalDateTime requestedAt = readDateTime(in);
+        byte depositStatus = in.readByte();
+
+        LedgerMovement movement = new LedgerMovement(kind, sourceAccountNumber, destinationAccountNumber, amount,
+                bankMemberId, requestedAt, depositStatus < 0 ? null : DepositStatus.values()[depositStatus]);
+        movement.journalSequence = sequence;
+        movement.sourceAccountId = readNullableLong(in);
+        movement.destinationAccountId = readNullableLong(in);
+        movement.sourceBalanceAfter = in.readLong();
+        movement.destinationBalanceAfter = in.readLong();
+        movement.appliedAt = readDateTime(in);
+        return movement;
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value == null ? 0 : value);
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        boolean present = in.readBoolean();
+        long value = in.readLong();
+        return present ? value : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value == null ? 0 : value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value == null ? 0 : value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        boolean present = in.readBoolean();
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        return present ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+    }
+
+    private record Pending(LedgerMovement movement, Consumer<LedgerMovement> onDurable) {
+    }
+
+    private static final class Segment {
+
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path file, long firstSequence, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int size = (int) Math.max(channel.size(), segmentBytes);
+            return new Segment(firstSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        /**
+         * 처음부터 유효한 레코드를 읽고 위치를 마지막 레코드 뒤로 옮긴다. 마지막 sequence 를 반환한다.
+         * 잘린 꼬리(쓰다 만 레코드)는 0 으로 지워 다음 기록과 섞이지 않게 한다.
+         */
+        private long scan(long previousSequence, Consumer<LedgerMovement> consumer) throws IOException {
+            int position = 0;
+            long lastSequence = previousSequence;
+            while (buffer.limit() - position >= HEADER_BYTES) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || length > buffer.limit() - position - HEADER_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(position + HEADER_BYTES, payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    log.warn("저널 레코드 CRC 불일치, 이후는 버림: 세그먼트 = {}, 위치 = {}", firstSequence, position);
+                    break;
+                }
+                LedgerMovement movement = decode(payload);
+                if (movement.journalSequence != lastSequence + 1) {
+                    log.warn("저널 sequence 불연속, 이후는 버림: 기대 = {}, 실제 = {}", lastSequence + 1, movement.journalSequence);
+                    break;
+                }
+                consumer.accept(movement);
+                lastSequence = movement.journalSequence;
+                position += HEADER_BYTES + length;
+            }
+
+            // mmap 페이지는 순서 없이 내려가므로 꼬리 뒤쪽에도 쓰레기가 남을 수 있다 (0 이 아닌 곳만 지움)
+            int i = position;
+            while (i < buffer.limit() && (i & 7) != 0) {
+                zeroByte(i++);
+            }
+            for (; i + 8 <= buffer.limit(); i += 8) {
+                if (buffer.getLong(i) != 0) {
+                    buffer.putLong(i, 0);
+                }
+            }
+            while (i < buffer.limit()) {
+                zeroByte(i++);
+            }
+            buffer.position(position);
+            return lastSequence;
+        }
+
+        private void zeroByte(int index) {
+            if (buffer.get(index) != 0) {
+                buffer.put(index, (byte) 0);
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("저널 세그먼트 닫기 실패: {}", firstSequence, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package miniproject.fintech.service.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 여러 생산자 / 단일 소비자용 고정 크기 lock-free 링 버퍼.
+ * 슬롯마다 시퀀스를 두어 생산자는 CAS 로 자리를 예약하고, 소비자는 시퀀스를 확인한 뒤 꺼낸다.
+ * poll / drain 은 반드시 한 스레드(샤드 writer)에서만 호출해야 한다.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        int size = 2;
+        while (size < requestedCapacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 버퍼가 가득 차 있으면 false 를 반환한다.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+
+        while (true) {
+            long current = tail.get();
+            int index = (int) (current & mask);
+            long difference = sequences.get(index) - current;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(current, current + 1)) {
+                    buffer.lazySet(index, element);
+                    sequences.lazySet(index, current + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // difference > 0: 다른 생산자가 먼저 예약함, 다시 시도
+        }
+    }
+
+    public E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        E element = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.lazySet(index, head + capacity);
+        head++;
+        return element;
+    }
+
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    // 소비자 스레드에서만 정확한 값을 보장한다
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
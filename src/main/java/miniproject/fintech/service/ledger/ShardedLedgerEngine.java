@@ -0,0 +1,300 @@
+package miniproject.fintech.service.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.dto.DepositDto;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.error.OutcomeUnknownException;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.DepositRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.repository.TransactionRepository;
+import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.JournalEntryService;
+import miniproject.fintech.type.TransferStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+import static miniproject.fintech.service.TransactionCallbacks.afterRollback;
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NOT_FOUND;
+import static miniproject.fintech.type.ErrorType.IN_CORRECT;
+
+/**
+ * 계좌 잔액을 메모리에 두고 계좌 번호 기준 N 개 샤드로 나누어 처리하는 원장 엔진 (ledger.engine=memory).
+ * 샤드마다 writer 스레드 하나가 lock-free 링 버퍼에서 명령을 꺼내 처리하고,
+ * Transfer / Deposit / Transaction 기록과 잔액 변화는 write-behind 로 묶어서 DB 에 반영한다.
+ * 받아들인 송금/입금은 저널(ledger.journal.*)에 기록되어 디스크에 내려간 뒤에야 호출자에게 완료를 돌려준다.
+ * 대기 시간 안에 완료되지 않으면 나중에 반영될 수 있으므로 결과 future 를 담은 OutcomeUnknownException 을 던진다.
+ * 기동 시 저널에서 checkpoint 이후 기록을 DB 에 다시 반영한 다음 account 테이블에서 샤드 상태를 다시 만든다.
+ * 계좌 번호 변경 / 관리자 잔액 수정 / 삭제는 detach 로 계좌를 샤드에서 떼어 내고 남은 write-behind 반영을 기다린 뒤
+ * DB 를 바꾸고, 커밋되면 registerAfterCommit 으로 다시 붙인다 (롤백되면 떼어 낸 잔액 그대로 되돌린다).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ledger.engine", havingValue = "memory")
+public class ShardedLedgerEngine {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DRAIN_POLL_MILLIS = 1;
+
+    private final AccountRepository accountRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerShard[] shards;
+    private final LedgerWriteBehind writeBehind;
+    private final LedgerJournal journal;
+    private final long offerTimeoutNanos;
+    private final long awaitTimeoutMillis;
+
+    public ShardedLedgerEngine(AccountRepository accountRepository,
+                               TransferRepository transferRepository,
+                               DepositRepository depositRepository,
+                               TransactionRepository transactionRepository,
+                               MemberRepository memberRepository,
+                               LedgerCheckpointRepository checkpointRepository,
+                               JournalEntryService journalEntryService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${ledger.shards:4}") int shardCount,
+                               @Value("${ledger.ring-size:65536}") int ringSize,
+                               @Value("${ledger.write-behind.batch-size:500}") int batchSize,
+                               @Value("${ledger.write-behind.interval-ms:50}") long intervalMillis,
+                               @Value("${ledger.await-timeout-ms:5000}") long awaitTimeoutMillis,
+                               @Value("${ledger.journal.enabled:true}") boolean journalEnabled,
+                               @Value("${ledger.journal.dir:./data/ledger-journal}") String journalDirectory,
+                               @Value("${ledger.journal.segment-size-mb:64}") int segmentSizeMb,
+                               @Value("${ledger.journal.fsync:true}") boolean fsync) {
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(awaitTimeoutMillis);
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+
+        this.shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, this, ringSize, IDLE_PARK_NANOS);
+        }
+        this.journal = journalEnabled
+                ? new MappedLedgerJournal(Path.of(journalDirectory), segmentSizeMb * 1024 * 1024, fsync)
+                : LedgerJournal.disabled();
+        this.writeBehind = new LedgerWriteBehind(accountRepository, transferRepository, depositRepository,
+                transactionRepository, memberRepository, checkpointRepository, journal, journalEntryService, transactionTemplate,
+                batchSize, intervalMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 저널에서 DB 에 반영되지 못한 기록을 먼저 반영해야 account 테이블이 마지막 응답 시점과 같아진다
+        long checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(LedgerCheckpoint.JOURNAL_ID)
+                .orElseGet(() -> checkpointRepository.save(LedgerCheckpoint.builder()
+                        .id(LedgerCheckpoint.JOURNAL_ID)
+                        .updatedAt(LocalDateTime.now())
+                        .build()))
+                .getJournalSequence());
+        List<LedgerMovement> unapplied = journal.recover(checkpoint);
+        if (!unapplied.isEmpty()) {
+            writeBehind.replay(unapplied);
+            log.info("원장 저널 재반영 완료: checkpoint = {}, 반영 건수 = {}", checkpoint, unapplied.size());
+        }
+        journal.start();
+
+        // account 테이블에서 샤드 상태 재구성 (writer 시작 전이므로 직접 적재)
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        List<Object[]> balances = readOnly.execute(status -> accountRepository.findAllAccountBalances());
+
+        for (Object[] row : balances) {
+            String accountNumber = (String) row[1];
+            if (accountNumber != null) {
+                shardFor(accountNumber).load((Long) row[0], accountNumber, (Long) row[2]);
+            }
+        }
+
+        for (LedgerShard shard : shards) {
+            shard.start();
+        }
+        writeBehind.start();
+        log.info("인메모리 원장 엔진 시작: 샤드 수 = {}, 적재된 계좌 수 = {}", shards.length, balances.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.stop();
+        }
+        journal.stop();
+        writeBehind.stop();
+        log.info("인메모리 원장 엔진 종료");
+    }
+
+    public TransferDto transfer(TransferDto transferDto, Long bankMemberId) {
+        return submit(new LedgerMovement(LedgerMovement.Kind.TRANSFER,
+                transferDto.getSourceAccountNumber(), transferDto.getDestinationAccountNumber(),
+                transferDto.getTransferAmount(), bankMemberId, transferDto.getTransferAt(), null), this::transferResult);
+    }
+
+    public DepositDto deposit(DepositDto depositDto, Long bankMemberId) {
+        return submit(new LedgerMovement(LedgerMovement.Kind.DEPOSIT,
+                depositDto.getSourceAccountNumber(), depositDto.getDestinationAccountNumber(),
+                depositDto.getDepositAmount(), bankMemberId, depositDto.getDepositAt(), depositDto.getDepositStatus()),
+                this::depositResult);
+    }
+
+    public OptionalLong balanceOf(String accountNumber) {
+        LedgerAccount account = shardFor(accountNumber).account(accountNumber);
+        return account == null ? OptionalLong.empty() : OptionalLong.of(account.balance);
+    }
+
+    // 새 계좌 또는 detach 했던 계좌를 커밋 후 샤드에 붙인다 (이미 붙어 있는 계좌의 잔액은 바꾸지 않음)
+    public void registerAfterCommit(Account account) {
+        afterCommit(() -> route(LedgerCommand.register(account.getId(), account.getAccountNumber(), account.getAmount())));
+    }
+
+    /**
+     * 계좌를 샤드에서 떼어 내고, 그 전에 받아들인 이동이 모두 DB 에 반영될 때까지 기다린 뒤 잔액을 돌려준다.
+     * 떼어 낸 뒤의 송금/입금은 ACCOUNT_NOT_FOUND 이고, 반환 시점에는 account 행의 잔액이 이 값과 같다.
+     * 트랜잭션이 롤백되면 같은 번호와 잔액으로 다시 붙인다. 메모리에 없는 계좌면 empty.
+     */
+    public OptionalLong detach(String accountNumber) {
+        CompletableFuture<LedgerAccount> removed = new CompletableFuture<>();
+        route(LedgerCommand.remove(accountNumber, removed));
+        LedgerAccount account;
+        try {
+            account = await(removed);
+        } catch (OutcomeUnknownException e) {
+            // 계좌 분리는 Idempotency-Key 로 다시 확인하는 요청이 아니므로 서버 오류로 알린다
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if (account == null) {
+            return OptionalLong.empty();
+        }
+        afterRollback(() -> route(LedgerCommand.register(account.id, accountNumber, account.balance)));
+
+        long deadline = System.currentTimeMillis() + awaitTimeoutMillis;
+        while (account.inFlight.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("원장 반영 대기 시간을 초과했습니다: " + accountNumber);
+            }
+            try {
+                Thread.sleep(DRAIN_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("원장 반영 대기 중 인터럽트되었습니다.", e);
+            }
+        }
+        log.info("원장 계좌 분리: 계좌 번호 = {}, 잔액 = {}", accountNumber, account.balance);
+        return OptionalLong.of(account.balance);
+    }
+
+    public int pendingWrites() {
+        return writeBehind.pending();
+    }
+
+    // 샤드 writer 스레드에서 호출: 다른 샤드(또는 자기 자신)의 inbox 로 전달
+    void route(LedgerCommand command) {
+        shardFor(command.accountNumber).forward(command);
+    }
+
+    // 입금 샤드 writer 스레드에서 호출: 저널에 기록하고, 디스크에 내려간 뒤 write-behind 등록과 완료 통지
+    void accepted(LedgerMovement movement) {
+        journal.append(movement, this::durable);
+    }
+
+    // 저널 sync 스레드에서 sequence 순서대로 호출
+    private void durable(LedgerMovement movement) {
+        writeBehind.enqueue(movement);
+        movement.completion.complete(movement);
+    }
+
+    private <T> T submit(LedgerMovement movement, Function<LedgerMovement, T> result) {
+        if (movement.amount <= 0) {
+            throw new CustomError(IN_CORRECT);
+        }
+
+        LedgerShard sourceShard = shardFor(movement.sourceAccountNumber);
+        if (sourceShard.account(movement.sourceAccountNumber) == null
+                || shardFor(movement.destinationAccountNumber).account(movement.destinationAccountNumber) == null) {
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+
+        LedgerCommand command = LedgerCommand.debit(movement);
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!sourceShard.submit(command)) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new RejectedExecutionException("원장 샤드 큐가 가득 찼습니다: " + movement.sourceAccountNumber);
+            }
+            Thread.yield();
+        }
+
+        return await(movement.completion.thenApply(result));
+    }
+
+    // id 와 transactionId 는 write-behind 반영 시 생성된다
+    private TransferDto transferResult(LedgerMovement movement) {
+        return TransferDto.builder()
+                .transferAmount(movement.amount)
+                .transferAt(movement.requestedAt)
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .destinationAccountNumber(movement.destinationAccountNumber)
+                .transferStatus(TransferStatus.COMPLETED)
+                .message("송금 완료")
+                .build();
+    }
+
+    private DepositDto depositResult(LedgerMovement movement) {
+        return DepositDto.builder()
+                .depositAmount(movement.amount)
+                .depositAt(movement.requestedAt)
+                .sourceAccountNumber(movement.sourceAccountNumber)
+                .destinationAccountNumber(movement.destinationAccountNumber)
+                .depositStatus(movement.depositStatus)
+                .message("입금 확인")
+                .build();
+    }
+
+    // 대기 시간이 지나도 명령은 샤드에 남아 나중에 반영될 수 있으므로 실패가 아닌 결과 미확인으로 알린다
+    private <T> T await(CompletableFuture<T> completion) {
+        try {
+            return completion.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new OutcomeUnknownException("원장 처리 대기 시간을 초과했습니다.", completion, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OutcomeUnknownException("원장 처리 대기 중 인터럽트되었습니다.", completion, e);
+        }
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        if (accountNumber == null) {
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+        int h = accountNumber.hashCode();
+        return shards[Math.floorMod(h ^ (h >>> 16), shards.length)];
+    }
+
+
+}
@@ -0,0 +1,21 @@
+package miniproject.fintech.service.notification;
+
+/**
+ * 큐에 넣은 알림이 실제로 gateway 에서 발송되었는지 알려 주는 콜백. dispatcher worker 스레드에서 호출되므로 가볍게 끝내야 한다.
+ */
+public interface DeliveryCallback {
+
+    DeliveryCallback NONE = new DeliveryCallback() {
+        @Override
+        public void delivered() {
+        }
+
+        @Override
+        public void failed(RuntimeException cause) {
+        }
+    };
+
+    void delivered();
+
+    void failed(RuntimeException cause);
+}
@@ -0,0 +1,13 @@
+package miniproject.fintech.service.notification;
+
+import java.util.List;
+
+/**
+ * 같은 수신자에게 짧은 시간 안에 몰린 알림을 하나로 묶은 메시지 (도착 순서 유지).
+ */
+public record NotificationDigest(String recipient, List<String> messages) {
+
+    public int size() {
+        return messages.size();
+    }
+}
@@ -0,0 +1,248 @@
+package miniproject.fintech.service.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.service.ledger.MpscRingBuffer;
+import miniproject.fintech.type.NotificationDropPolicy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 알림 발송을 호출 스레드에서 떼어 내는 비동기 dispatcher.
+ * 호출자는 고정 크기 MPSC 링 버퍼에 넣기만 하고 바로 돌아가며, 가득 차면 drop policy 에 따라 버린다 (submit 이 false).
+ * dispatcher 스레드 하나가 버퍼를 비우면서 수신자별로 digest window 동안 알림을 모으고,
+ * window 가 지나거나 maxDigestSize 에 닿으면 digest 하나로 묶어 worker pool 에서 gateway 로 보낸다.
+ * 알림마다 {@link DeliveryCallback} 을 붙일 수 있고, gateway 발송이 끝난 뒤 (성공/실패) worker 스레드에서 호출된다.
+ * worker pool 이 밀리면 dispatcher 가 직접 보내며 느려지므로, 결국 버퍼가 차서 호출자 쪽 drop policy 로 압력이 전달된다.
+ */
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final int DRAIN_LIMIT = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final NotificationGateway gateway;
+    private final ThreadFactory workerThreadFactory;
+    private final MpscRingBuffer<NotificationMessage> queue;
+    private final int workerCount;
+    private final NotificationDropPolicy dropPolicy;
+    private final long offerTimeoutNanos;
+    private final long digestWindowNanos;
+    private final int maxDigestSize;
+
+    // dispatcher 스레드에서만 접근 (먼저 들어온 수신자가 앞에 오도록 삽입 순서 유지)
+    private final Map<String, PendingDigest> pending = new LinkedHashMap<>();
+    private int pendingCount;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean parked;
+    private Thread dispatcher;
+    private ThreadPoolExecutor workers;
+
+    public NotificationDispatcher(NotificationGateway gateway, ThreadFactory workerThreadFactory,
+                                  int queueCapacity, int workerCount, NotificationDropPolicy dropPolicy,
+                                  long offerTimeoutMillis, long digestWindowMillis, int maxDigestSize) {
+        if (workerCount < 1 || maxDigestSize < 1) {
+            throw new IllegalArgumentException("workerCount, maxDigestSize 는 1 이상이어야 합니다.");
+        }
+        this.gateway = gateway;
+        this.workerThreadFactory = workerThreadFactory;
+        this.queue = new MpscRingBuffer<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.dropPolicy = dropPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.digestWindowNanos = TimeUnit.MILLISECONDS.toNanos(digestWindowMillis);
+        this.maxDigestSize = maxDigestSize;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount * 4), workerThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        dispatcher = new Thread(this::run, "notification-dispatcher");
+        dispatcher.setDaemon(true);
+        running = true;
+        dispatcher.start();
+        log.info("알림 dispatcher 시작: 큐 = {}, worker = {}, drop policy = {}", queue.capacity(), workerCount, dropPolicy);
+    }
+
+    // 큐와 digest 에 남은 알림을 모두 보낸 뒤 종료
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = dispatcher;
+        }
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        thread.join();
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 알림을 큐에 넣는다. 호출 스레드에서 발송하지 않으며, 버려지면 false 를 반환한다.
+     */
+    public boolean submit(String recipient, String text) {
+        return submit(recipient, text, DeliveryCallback.NONE);
+    }
+
+    /**
+     * 알림을 큐에 넣고, 받아들여진 경우 gateway 발송 결과를 callback 으로 알린다. 버려지면 false 를 반환하고 callback 은 호출되지 않는다.
+     */
+    public boolean submit(String recipient, String text, DeliveryCallback callback) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        NotificationMessage message = new NotificationMessage(recipient, text, callback);
+        if (offer(message)) {
+            return true;
+        }
+        if (dropPolicy == NotificationDropPolicy.BLOCK) {
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            while (running && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(BLOCK_RETRY_NANOS);
+                if (offer(message)) {
+                    return true;
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getDigestsSent() {
+        return digestsSent.sum();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private boolean offer(NotificationMessage message) {
+        if (!queue.offer(message)) {
+            return false;
+        }
+        accepted.increment();
+        if (parked) {
+            LockSupport.unpark(dispatcher);
+        }
+        return true;
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty() || pendingCount > 0) {
+            // 모아 둔 알림이 큐 크기만큼 쌓이면 더 꺼내지 않고 먼저 보낸다 (dispatcher 메모리 상한)
+            int room = Math.min(DRAIN_LIMIT, queue.capacity() - pendingCount);
+            int drained = room > 0 ? queue.drain(this::collect, room) : 0;
+            long waitNanos = flushDue(!running || room == 0);
+
+            if (drained == 0) {
+                parked = true;
+                if (running && queue.isEmpty()) {
+                    LockSupport.parkNanos(this, Math.min(waitNanos, IDLE_PARK_NANOS));
+                }
+                parked = false;
+            }
+        }
+    }
+
+    private void collect(NotificationMessage message) {
+        PendingDigest digest = pending.get(message.recipient());
+        if (digest == null) {
+            digest = new PendingDigest(System.nanoTime() + digestWindowNanos);
+            pending.put(message.recipient(), digest);
+        }
+        digest.messages.add(message.text());
+        digest.callbacks.add(message.callback());
+        pendingCount++;
+        if (digest.messages.size() >= maxDigestSize) {
+            pending.remove(message.recipient());
+            dispatch(message.recipient(), digest);
+        }
+    }
+
+    // window 가 지난 digest 를 보내고 다음 digest 만료까지 남은 시간을 반환 (force 면 전부 보냄)
+    private long flushDue(boolean force) {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, PendingDigest>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingDigest> entry = iterator.next();
+            if (!force && entry.getValue().dueAt - now > 0) {
+                // 삽입 순서 = 만료 순서이므로 뒤는 볼 필요 없음
+                return entry.getValue().dueAt - now;
+            }
+            iterator.remove();
+            dispatch(entry.getKey(), entry.getValue());
+        }
+        return IDLE_PARK_NANOS;
+    }
+
+    private void dispatch(String recipient, PendingDigest pendingDigest) {
+        pendingCount -= pendingDigest.messages.size();
+        NotificationDigest digest = new NotificationDigest(recipient, List.copyOf(pendingDigest.messages));
+        List<DeliveryCallback> callbacks = pendingDigest.callbacks;
+        workers.execute(() -> send(digest, callbacks));
+    }
+
+    private void send(NotificationDigest digest, List<DeliveryCallback> callbacks) {
+        try {
+            gateway.send(digest);
+        } catch (RuntimeException e) {
+            failed.add(digest.size());
+            log.warn("알림 발송 실패: 수신자 = {}, {} 건, 원인 = {}", digest.recipient(), digest.size(), e.getMessage());
+            callbacks.forEach(callback -> callback.failed(e));
+            return;
+        }
+        digestsSent.increment();
+        messagesSent.add(digest.size());
+        callbacks.forEach(DeliveryCallback::delivered);
+    }
+
+    private record NotificationMessage(String recipient, String text, DeliveryCallback callback) {
+    }
+
+    private static final class PendingDigest {
+
+        private final long dueAt;
+        private final List<String> messages = new ArrayList<>();
+        private final List<DeliveryCallback> callbacks = new ArrayList<>();
+
+        private PendingDigest(long dueAt) {
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package miniproject.fintech.service.notification;
+
+/**
+ * 이메일 / SMS 등 실제 발송 채널. NotificationDispatcher 의 worker 스레드에서 호출되므로 블로킹해도 된다.
+ */
+public interface NotificationGateway {
+
+    void send(NotificationDigest digest);
+}
@@ -0,0 +1,46 @@
+package miniproject.fintech.service.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 외부 발송 채널을 붙이기 전까지 쓰는 로컬 gateway. latency-ms 전후의 지연을 흉내 낸 뒤 로그만 남긴다.
+ */
+@Slf4j
+@Component
+public class StubNotificationGateway implements NotificationGateway {
+
+    private final long latencyMillis;
+    private final LongAdder sent = new LongAdder();
+
+    public StubNotificationGateway(@Value("${notification.gateway.stub.latency-ms:50}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public void send(NotificationDigest digest) {
+        if (latencyMillis > 0) {
+            try {
+                // 지연의 50% ~ 150% 사이에서 흔들기
+                Thread.sleep(latencyMillis / 2 + ThreadLocalRandom.current().nextLong(latencyMillis + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("알림 발송이 중단되었습니다.", e);
+            }
+        }
+        sent.increment();
+        if (digest.size() == 1) {
+            log.info("알림 발송: 수신자 = {}, 내용 = {}", digest.recipient(), digest.messages().get(0));
+        } else {
+            log.info("알림 묶음 발송: 수신자 = {}, {} 건, 내용 = {}", digest.recipient(), digest.size(), digest.messages());
+        }
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+}
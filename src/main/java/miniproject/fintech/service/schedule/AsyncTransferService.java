@@ -0,0 +1,193 @@
+package miniproject.fintech.service.schedule;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Transfer;
+import miniproject.fintech.dto.DtoConverter;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.TransferServiceImpl;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
+import miniproject.fintech.type.TransferStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+import static miniproject.fintech.type.ErrorType.TRANSFER_NOT_FOUND;
+import static miniproject.fintech.type.ErrorType.TRANSFER_QUEUE_FULL;
+
+/**
+ * 송금 접수 후 바로 응답하고 실행은 worker pool 에서 하는 비동기 송금.
+ * 접수는 WAITING 행 저장만 하므로 요청 스레드는 잔액 변경 트랜잭션을 기다리지 않는다.
+ * 실행은 예약 송금과 같은 경로(ScheduledTransferService.fire)를 쓰므로 선점/실패/재시도 규칙이 같고,
+ * worker 큐가 가득 차거나 서버가 재시작되면 남은 WAITING 행은 예약 송금 휠이 이어서 실행한다.
+ * 예약 송금 스케줄러가 꺼져 있으면 이어서 실행할 곳이 없으므로 큐가 가득 찬 접수는 FAILED 로 남기고 503 으로 거절한다.
+ */
+@Slf4j
+@Service
+public class AsyncTransferService {
+
+    private final ScheduledTransferService scheduledTransferService;
+    private final TransferServiceImpl transferService;
+    private final TransferRepository transferRepository;
+    private final DtoConverter dtoConverter;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
+    // 접수 트랜잭션의 afterCommit 에서 쓰므로 새 트랜잭션으로 실행
+    private final TransactionTemplate rejectTemplate;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor workers;
+    // long-poll 대기가 끝난 뒤의 상태 조회 (송금 worker 큐 자리를 차지하지 않도록 따로 둔다)
+    private final ExecutorService statusReaders;
+    // 이 인스턴스에서 실행 중인 송금의 완료 신호 (long-poll 대기용)
+    private final Map<Long, CompletableFuture<Void>> completions = new ConcurrentHashMap<>();
+
+    public AsyncTransferService(ScheduledTransferService scheduledTransferService,
+                                TransferServiceImpl transferService,
+                                TransferRepository transferRepository,
+                                DtoConverter dtoConverter,
+                                Optional<ShardedLedgerEngine> ledgerEngine,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${transfer.async.workers:8}") int workerCount,
+                                @Value("${transfer.async.queue-capacity:10000}") int queueCapacity,
+                                @Value("${transfer.async.max-wait-ms:30000}") long maxWaitMillis,
+                                @Value("${transfer.async.status-readers:2}") int statusReaderCount) {
+        this.scheduledTransferService = scheduledTransferService;
+        this.transferService = transferService;
+        this.transferRepository = transferRepository;
+        this.dtoConverter = dtoConverter;
+        this.ledgerEngine = ledgerEngine;
+        this.rejectTemplate = new TransactionTemplate(transactionManager);
+        this.rejectTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxWaitMillis = maxWaitMillis;
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "async-transfer-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger readerSequence = new AtomicInteger();
+        this.statusReaders = Executors.newFixedThreadPool(statusReaderCount, runnable -> {
+            Thread thread = new Thread(runnable, "async-transfer-status-" + readerSequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 실행하지 못한 WAITING 행은 다음 기동 때 예약 송금 휠이 적재한다
+        workers.shutdownNow();
+        statusReaders.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 송금을 WAITING 으로 접수하고 바로 반환한다. 결과는 getStatus / awaitOutcome 으로 확인한다.
+     * 인메모리 원장 엔진은 DB 트랜잭션 없이 바로 처리되므로 접수 단계 없이 실행 결과를 반환한다.
+     */
+    @Transactional
+    public TransferDto submit(TransferDto transferDto) {
+        if (ledgerEngine.isPresent()) {
+            return transferService.processTransfer(transferDto);
+        }
+
+        if (transferDto.getTransferAt() == null) {
+            transferDto.setTransferAt(LocalDateTime.now());
+        }
+        Transfer saved = scheduledTransferService.saveWaiting(transferDto, "송금 접수");
+
+        afterCommit(() -> dispatch(saved));
+        log.info("송금 접수: ID = {}, 송금액 = {}", saved.getId(), saved.getTransferAmount());
+        return dtoConverter.convertToTransferDto(saved);
+    }
+
+    // 요청한 사용자의 송금만 조회 (다른 사용자의 송금은 TRANSFER_NOT_FOUND)
+    @Transactional(readOnly = true)
+    public TransferDto getStatus(Long transferId, String userId) {
+        return transferRepository.findByIdAndUserId(transferId, userId)
+                .map(dtoConverter::convertToTransferDto)
+                .orElseThrow(() -> new CustomError(TRANSFER_NOT_FOUND));
+    }
+
+    /**
+     * 송금이 끝날 때까지 최대 waitMillis 동안 기다린 뒤 상태를 반환한다 (요청 스레드를 점유하지 않는 future).
+     * 대기가 끝난 뒤의 상태 조회는 JPA 호출이므로 타이머 스레드가 아닌 상태 조회 전용 스레드에서 한다.
+     * 완료 신호는 같은 송금을 기다리는 요청끼리 공유하고, 신호가 완료될 때만 맵에서 빠진다.
+     * 다른 인스턴스나 예약 송금 휠에서 끝난 송금은 대기 시간이 지난 뒤 끝난 상태를 확인한 요청이 대신 신호를 완료한다.
+     */
+    public CompletableFuture<TransferDto> awaitOutcome(Long transferId, String userId, long waitMillis) {
+        TransferDto current = getStatus(transferId, userId);
+        if (!isPending(current) || waitMillis <= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        CompletableFuture<Void> completion = completions.computeIfAbsent(transferId, id -> {
+            CompletableFuture<Void> created = new CompletableFuture<>();
+            created.whenComplete((ignored, error) -> completions.remove(id, created));
+            return created;
+        });
+        // 등록 직전에 끝났으면 신호를 놓쳤을 수 있으므로 한 번 더 확인
+        current = getStatus(transferId, userId);
+        if (!isPending(current)) {
+            completion.complete(null);
+            return CompletableFuture.completedFuture(current);
+        }
+
+        return completion.copy()
+                .completeOnTimeout(null, Math.min(waitMillis, maxWaitMillis), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> {
+                    TransferDto outcome = getStatus(transferId, userId);
+                    if (!isPending(outcome)) {
+                        completion.complete(null);
+                    }
+                    return outcome;
+                }, statusReaders);
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    private void dispatch(Transfer transfer) {
+        try {
+            workers.execute(() -> {
+                try {
+                    scheduledTransferService.fire(transfer);
+                } finally {
+                    CompletableFuture<Void> completion = completions.get(transfer.getId());
+                    if (completion != null) {
+                        completion.complete(null);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (scheduledTransferService.isEnabled()) {
+                log.warn("송금 worker 큐가 가득 차 예약 송금 스케줄러로 넘깁니다: ID = {}", transfer.getId());
+                scheduledTransferService.enqueue(transfer.getId(), transfer.getTransferAt());
+                return;
+            }
+            // 휠이 돌지 않으면 WAITING 으로 영영 남으므로 실행되지 않게 FAILED 로 바꾸고 접수를 거절한다
+            log.warn("송금 worker 큐가 가득 차 접수를 거절합니다: ID = {}", transfer.getId());
+            rejectTemplate.executeWithoutResult(status -> transferRepository.updateStatusIf(transfer.getId(),
+                    TransferStatus.WAITING, TransferStatus.FAILED, "송금 접수 거절: " + TRANSFER_QUEUE_FULL.getMessage()));
+            throw new CustomError(TRANSFER_QUEUE_FULL);
+        }
+    }
+
+    private static boolean isPending(TransferDto transfer) {
+        return transfer.getTransferStatus() == TransferStatus.WAITING || transfer.getTransferStatus() == TransferStatus.PROCESSING;
+    }
+
+}
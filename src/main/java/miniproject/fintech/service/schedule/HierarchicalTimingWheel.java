@@ -0,0 +1,159 @@
+package miniproject.fintech.service.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠.
+ * level 0 은 tickMillis 간격의 bucket wheelSize 개, level n 은 bucket 하나가 level n-1 한 바퀴를 덮는다.
+ * 추가는 만료 시각이 들어갈 level 과 bucket 을 계산해 리스트 앞에 붙이는 O(1) 이고,
+ * 시계를 한 tick 진행할 때마다 경계에 닿은 bucket 을 통째로 떼어 만료시키거나 한 단계 아래 level 로 재배치한다.
+ * 항목마다 재배치는 최대 level 수만큼만 일어나므로 만료도 항목당 O(1) 이다.
+ * 만료 시각은 tick 단위로 올림하므로 항목은 deadline 이전에 만료되지 않는다.
+ * 스레드 안전하지 않다. 여러 스레드에서 쓰면 호출하는 쪽에서 동기화해야 한다.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    // 마지막으로 처리한 tick 의 시각 (tickMillis 의 배수)
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis > 0, wheelSize >= 2 이어야 합니다.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * 항목을 추가한다. 이미 만료 시각이 지났으면 추가하지 않고 false 를 반환한다 (호출하는 쪽에서 바로 실행).
+     */
+    public boolean add(T item, long deadlineMillis) {
+        long expiration = ceilToTick(deadlineMillis);
+        if (expiration <= currentTime) {
+            return false;
+        }
+        insert(new Entry<>(item, expiration));
+        size++;
+        return true;
+    }
+
+    /**
+     * 시계를 nowMillis 까지 tick 단위로 진행하며 만료된 항목을 expired 에 넘긴다. 만료된 항목 수를 반환한다.
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        int fired = 0;
+        while (currentTime + tickMillis <= nowMillis) {
+            if (size == 0) {
+                // 비어 있으면 tick 을 하나씩 돌 필요 없이 바로 이동
+                currentTime = nowMillis - Math.floorMod(nowMillis, tickMillis);
+                break;
+            }
+            currentTime += tickMillis;
+
+            // 상위 level 부터 비워야 재배치된 항목이 같은 시각의 하위 bucket 에서 함께 만료된다
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level<T> level = levels.get(i);
+                if (currentTime % level.tickMillis != 0) {
+                    continue;
+                }
+                Entry<T> entry = level.detach(level.indexOf(currentTime));
+                while (entry != null) {
+                    Entry<T> next = entry.next;
+                    entry.next = null;
+                    if (entry.expiration <= currentTime) {
+                        size--;
+                        fired++;
+                        expired.accept(entry.item);
+                    } else {
+                        insert(entry);
+                    }
+                    entry = next;
+                }
+            }
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int levelCount() {
+        return levels.size();
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    private void insert(Entry<T> entry) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level<T> top = levels.get(i - 1);
+                levels.add(new Level<>(top.interval, wheelSize));
+            }
+            Level<T> level = levels.get(i);
+            long levelTime = currentTime - Math.floorMod(currentTime, level.tickMillis);
+            if (entry.expiration - levelTime < level.interval) {
+                level.push(level.indexOf(entry.expiration), entry);
+                return;
+            }
+        }
+    }
+
+    private long ceilToTick(long millis) {
+        long remainder = Math.floorMod(millis, tickMillis);
+        return remainder == 0 ? millis : millis - remainder + tickMillis;
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMillis;
+        // bucket wheelSize 개가 덮는 시간 (long 범위를 넘으면 최댓값으로 고정되어 마지막 level 이 된다)
+        private final long interval;
+        private final Entry<T>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            long span = tickMillis * wheelSize;
+            this.interval = span / wheelSize == tickMillis ? span : Long.MAX_VALUE;
+            this.buckets = (Entry<T>[]) new Entry[wheelSize];
+        }
+
+        private int indexOf(long time) {
+            return (int) ((time / tickMillis) % buckets.length);
+        }
+
+        private void push(int index, Entry<T> entry) {
+            entry.next = buckets[index];
+            buckets[index] = entry;
+        }
+
+        private Entry<T> detach(int index) {
+            Entry<T> head = buckets[index];
+            buckets[index] = null;
+            return head;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private final long expiration;
+        private Entry<T> next;
+
+        private Entry(T item, long expiration) {
+            this.item = item;
+            this.expiration = expiration;
+        }
+    }
+}
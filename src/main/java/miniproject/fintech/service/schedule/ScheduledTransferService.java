@@ -0,0 +1,364 @@
+package miniproject.fintech.service.schedule;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.domain.Transfer;
+import miniproject.fintech.dto.DtoConverter;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.error.OutcomeUnknownException;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.BalanceUpdateService;
+import miniproject.fintech.service.OptimisticRetryExecutor;
+import miniproject.fintech.service.TransferServiceImpl;
+import miniproject.fintech.service.ledger.ShardedLedgerEngine;
+import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.TransferStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static miniproject.fintech.service.TransactionCallbacks.afterCommit;
+import static miniproject.fintech.type.ErrorType.*;
+
+/**
+ * 예약 송금.
+ * transferAt 이 미래인 송금은 WAITING 으로 저장하고 id 만 계층형 타이밍 휠에 넣는다 (테이블을 주기적으로 조회하지 않음).
+ * 전용 스레드가 tick 마다 휠을 진행시켜 만료된 송금을 fire-batch-size 건씩 한 번에 조회해 실행한다.
+ * 실행은 WAITING 일 때만 상태를 바꾸는 조건부 UPDATE 로 선점하므로, 여러 인스턴스가 같은 송금을 적재해도 한 번만 실행되고
+ * 그 사이 취소된 송금은 건너뛴다. 재시작하면 WAITING 송금을 id 순으로 나눠 읽어 휠을 다시 채운다.
+ * 인메모리 원장 엔진을 쓰면 PROCESSING 으로 선점하고 엔진이 처리를 확인한 뒤에 대기 행을 지운다.
+ */
+@Slf4j
+@Service
+public class ScheduledTransferService {
+
+    private final TransferRepository transferRepository;
+    private final MemberRepository memberRepository;
+    private final AccountRepository accountRepository;
+    private final TransferServiceImpl transferService;
+    private final BalanceUpdateService balanceUpdateService;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final DtoConverter dtoConverter;
+    private final Optional<ShardedLedgerEngine> ledgerEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final int fireBatchSize;
+    private final long retryDelayMillis;
+    private final int loadPageSize;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+    // 등록 시점에 이미 실행 시각이 지난 송금 (다음 tick 에 실행)
+    private final Queue<Long> overdue = new ConcurrentLinkedQueue<>();
+    private final LongAdder fired = new LongAdder();
+    private ScheduledExecutorService ticker;
+
+    public ScheduledTransferService(TransferRepository transferRepository,
+                                    MemberRepository memberRepository,
+                                    AccountRepository accountRepository,
+                                    TransferServiceImpl transferService,
+                                    BalanceUpdateService balanceUpdateService,
+                                    OptimisticRetryExecutor optimisticRetryExecutor,
+                                    DtoConverter dtoConverter,
+                                    Optional<ShardedLedgerEngine> ledgerEngine,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${transfer.schedule.enabled:true}") boolean enabled,
+                                    @Value("${transfer.schedule.tick-ms:100}") long tickMillis,
+                                    @Value("${transfer.schedule.wheel-size:512}") int wheelSize,
+                                    @Value("${transfer.schedule.fire-batch-size:200}") int fireBatchSize,
+                                    @Value("${transfer.schedule.retry-delay-ms:5000}") long retryDelayMillis,
+                                    @Value("${transfer.schedule.load-page-size:10000}") int loadPageSize) {
+        this.transferRepository = transferRepository;
+        this.memberRepository = memberRepository;
+        this.accountRepository = accountRepository;
+        this.transferService = transferService;
+        this.balanceUpdateService = balanceUpdateService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.dtoConverter = dtoConverter;
+        this.ledgerEngine = ledgerEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.fireBatchSize = fireBatchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.loadPageSize = loadPageSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 같은 스레드에서 적재를 먼저 끝낸 뒤 tick 시작
+        ticker.execute(this::loadWaitingTransfers);
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("예약 송금 스케줄러 시작: tick = {}ms", tickMillis);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // 남은 WAITING 행을 휠이 이어서 실행하는지
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 예약 송금 대상인지 (스케줄러가 꺼져 있으면 기존처럼 바로 실행)
+    public boolean isFutureDated(TransferDto transferDto) {
+        return enabled && transferDto.getTransferAt() != null && transferDto.getTransferAt().isAfter(LocalDateTime.now());
+    }
+
+    @Transactional
+    public TransferDto schedule(TransferDto transferDto) {
+        Transfer saved = saveWaiting(transferDto, "예약 송금 대기");
+
+        afterCommit(() -> enqueue(saved.getId(), saved.getTransferAt()));
+        log.info("예약 송금 등록: ID = {}, 실행 시각 = {}, 송금액 = {}", saved.getId(), saved.getTransferAt(), saved.getTransferAmount());
+        return dtoConverter.convertToTransferDto(saved);
+    }
+
+    // 송금 지시를 검증해 WAITING 으로 저장 (실행은 휠 또는 AsyncTransferService worker 가 담당)
+    Transfer saveWaiting(TransferDto transferDto, String message) {
+        BankMember bankMember = transferService.validateTransfer(transferDto);
+        if (transferDto.getTransferAmount() <= 0) {
+            throw new CustomError(IN_CORRECT);
+        }
+        if (!accountRepository.existsByAccountNumber(transferDto.getSourceAccountNumber())
+                || !accountRepository.existsByAccountNumber(transferDto.getDestinationAccountNumber())) {
+            throw new CustomError(ACCOUNT_NOT_FOUND);
+        }
+
+        return transferRepository.save(Transfer.builder()
+                .transferAmount(transferDto.getTransferAmount())
+                .transferAt(transferDto.getTransferAt())
+                .sourceAccountNumber(transferDto.getSourceAccountNumber())
+                .destinationAccountNumber(transferDto.getDestinationAccountNumber())
+                .transferStatus(TransferStatus.WAITING)
+                .message(message)
+                .userId(bankMember.getUserId())
+                .build());
+    }
+
+    /**
+     * 요청한 사용자의 아직 실행되지 않은 예약 송금을 취소한다. 휠에 남은 항목은 실행 시각에 선점이 실패해 건너뛴다.
+     * 다른 사용자의 송금이면 실행된 송금과 구분하지 않고 취소할 수 없다고 응답한다.
+     */
+    @Transactional
+    public void cancel(Long transferId, String userId) {
+        if (transferRepository.updateStatusIfOwnedBy(transferId, userId, TransferStatus.WAITING, TransferStatus.FAILED,
+                "예약 송금 취소") == 0) {
+            log.error("취소할 수 없는 예약 송금: ID = {}, 사용자 = {}", transferId, userId);
+            throw new CustomError(SCHEDULED_TRANSFER_NOT_CANCELABLE);
+        }
+        log.info("예약 송금 취소: ID = {}", transferId);
+    }
+
+    public int getPendingCount() {
+        synchronized (wheel) {
+            return wheel.size() + overdue.size();
+        }
+    }
+
+    public long getFiredCount() {
+        return fired.sum();
+    }
+
+    void enqueue(Long transferId, LocalDateTime transferAt) {
+        long deadline = transferAt == null ? 0 : transferAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        enqueue(transferId, deadline);
+    }
+
+    private void enqueue(Long transferId, long deadlineMillis) {
+        boolean added;
+        synchronized (wheel) {
+            added = wheel.add(transferId, deadlineMillis);
+        }
+        if (!added) {
+            overdue.add(transferId);
+        }
+    }
+
+    private void loadWaitingTransfers() {
+        long afterId = 0;
+        int loaded = 0;
+        try {
+            while (true) {
+                List<Object[]> page = transferRepository.findScheduleAfter(TransferStatus.WAITING, afterId,
+                        PageRequest.of(0, loadPageSize));
+                for (Object[] row : page) {
+                    afterId = ((Number) row[0]).longValue();
+                    enqueue(afterId, (LocalDateTime) row[1]);
+                    loaded++;
+                }
+                if (page.size() < loadPageSize) {
+                    break;
+                }
+            }
+            log.info("예약 송금 적재 완료: {} 건", loaded);
+
+            // 엔진에 넘긴 뒤 확인 전에 종료된 송금은 처리 여부를 알 수 없으므로 자동으로 다시 실행하지 않는다
+            List<Object[]> inDoubt = transferRepository.findScheduleAfter(TransferStatus.PROCESSING, 0, PageRequest.of(0, loadPageSize));
+            if (!inDoubt.isEmpty()) {
+                log.warn("처리 여부 확인이 필요한 예약 송금: {} 건, 첫 ID = {}", inDoubt.size(), inDoubt.get(0)[0]);
+            }
+        } catch (RuntimeException e) {
+            log.error("예약 송금 적재 실패: 적재된 건수 = {}", loaded, e);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Long> due = new ArrayList<>();
+            Long transferId;
+            while ((transferId = overdue.poll()) != null) {
+                due.add(transferId);
+            }
+            synchronized (wheel) {
+                wheel.advance(System.currentTimeMillis(), due::add);
+            }
+
+            for (int from = 0; from < due.size(); from += fireBatchSize) {
+                fireBatch(due.subList(from, Math.min(from + fireBatchSize, due.size())));
+            }
+        } catch (RuntimeException e) {
+            // 예외가 밖으로 나가면 이후 tick 이 실행되지 않으므로 여기서 처리
+            log.error("예약 송금 tick 처리 실패", e);
+        }
+    }
+
+    // 만료된 송금을 한 번에 조회해 건별 트랜잭션으로 실행
+    private void fireBatch(List<Long> transferIds) {
+        for (Transfer transfer : transferRepository.findAllById(transferIds)) {
+            if (transfer.getTransferStatus() == TransferStatus.WAITING) {
+                fire(transfer);
+            }
+        }
+    }
+
+    /**
+     * WAITING 송금 하나를 실행한다. 잔액 부족 등 업무 오류는 FAILED 로 남기고, 그 밖의 오류는 retry-delay 뒤 휠에서 다시 실행한다.
+     */
+    void fire(Transfer transfer) {
+        try {
+            if (ledgerEngine.isPresent()) {
+                fireWithLedgerEngine(transfer, ledgerEngine.get());
+            } else {
+                optimisticRetryExecutor.execute("scheduledTransfer",
+                        () -> transactionTemplate.execute(status -> executeClaimed(transfer)),
+                        transfer.getSourceAccountNumber(), transfer.getDestinationAccountNumber());
+            }
+        } catch (CustomError e) {
+            markFailed(transfer, e.getErrorType());
+        } catch (RuntimeException e) {
+            log.error("예약 송금 실행 오류, {}ms 후 재시도: ID = {}", retryDelayMillis, transfer.getId(), e);
+            enqueue(transfer.getId(), System.currentTimeMillis() + retryDelayMillis);
+        }
+    }
+
+    private TransferDto executeClaimed(Transfer transfer) {
+        // WAITING 일 때만 선점 (취소되었거나 다른 인스턴스가 먼저 실행했으면 0 건)
+        if (transferRepository.updateStatusIf(transfer.getId(), TransferStatus.WAITING, TransferStatus.COMPLETED, "예약 송금 실행") == 0) {
+            return null;
+        }
+        BankMember bankMember = memberRepository.findByUserId(transfer.getUserId())
+                .orElseThrow(() -> new CustomError(MEMBER_NOT_FOUND));
+
+        balanceUpdateService.lockUntilCompletion(transfer.getSourceAccountNumber(), transfer.getDestinationAccountNumber());
+        TransferDto result = transferService.executeScheduledTransfer(transfer, bankMember);
+        fired.increment();
+        return result;
+    }
+
+    /**
+     * 인메모리 원장 엔진은 자체적으로 송금 기록을 남기므로, 대기 행을 PROCESSING 으로 선점한 뒤 엔진에 넘기고
+     * 엔진이 처리를 확인한 뒤에만 지운다. 엔진이 거절하면 FAILED 로 남기고, 큐에 넣지도 못했으면 WAITING 으로 되돌려 재시도한다.
+     * 대기 시간 초과처럼 엔진이 처리했는지 알 수 없으면 중복 송금을 막기 위해 PROCESSING 으로 남겨 두고,
+     * 엔진이 나중에 결과를 알려 주면 그 결과로 정리한다.
+     */
+    private void fireWithLedgerEngine(Transfer transfer, ShardedLedgerEngine engine) {
+        BankMember bankMember = memberRepository.findByUserId(transfer.getUserId())
+                .orElseThrow(() -> new CustomError(MEMBER_NOT_FOUND));
+        Integer claimed = transactionTemplate.execute(status -> transferRepository.updateStatusIf(transfer.getId(),
+                TransferStatus.WAITING, TransferStatus.PROCESSING, "예약 송금 실행 중"));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        try {
+            engine.transfer(dtoConverter.convertToTransferDto(transfer), bankMember.getId());
+        } catch (CustomError e) {
+            settle(transfer, e);
+            return;
+        } catch (RejectedExecutionException e) {
+            // 샤드 큐에 들어가지 않았으므로 엔진은 처리하지 않았다
+            transactionTemplate.executeWithoutResult(status -> transferRepository.updateStatusIf(transfer.getId(),
+                    TransferStatus.PROCESSING, TransferStatus.WAITING, "예약 송금 대기"));
+            throw e;
+        } catch (OutcomeUnknownException e) {
+            // 샤드에 남은 명령이 나중에 처리되면 그 결과로 대기 행을 정리한다 (저널 스레드가 아닌 별도 스레드에서 DB 반영)
+            log.warn("예약 송금 결과 확인 대기, PROCESSING 으로 유지: ID = {}", transfer.getId());
+            e.getOutcome().whenCompleteAsync((result, error) -> settle(transfer, error));
+            return;
+        } catch (RuntimeException e) {
+            log.error("예약 송금 처리 여부 확인 필요, PROCESSING 으로 유지: ID = {}", transfer.getId(), e);
+            return;
+        }
+
+        settle(transfer, null);
+    }
+
+    // 엔진 처리 결과로 PROCESSING 행 정리: 성공이면 삭제, 업무 오류면 FAILED, 그 밖의 오류는 확인이 필요하므로 유지
+    private void settle(Transfer transfer, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            fired.increment();
+            transactionTemplate.executeWithoutResult(status -> transferRepository.deleteIf(transfer.getId(), TransferStatus.PROCESSING));
+        } else if (cause instanceof CustomError customError) {
+            log.warn("예약 송금 실패: ID = {}, 원인 = {}", transfer.getId(), customError.getErrorType().getMessage());
+            transactionTemplate.executeWithoutResult(status -> transferRepository.updateStatusIf(transfer.getId(),
+                    TransferStatus.PROCESSING, TransferStatus.FAILED, "예약 송금 실패: " + customError.getErrorType().getMessage()));
+        } else {
+            log.error("예약 송금 처리 여부 확인 필요, PROCESSING 으로 유지: ID = {}", transfer.getId(), cause);
+        }
+    }
+
+    private void markFailed(Transfer transfer, ErrorType errorType) {
+        log.warn("예약 송금 실패: ID = {}, 원인 = {}", transfer.getId(), errorType.getMessage());
+        transactionTemplate.executeWithoutResult(status -> transferRepository.updateStatusIf(transfer.getId(),
+                TransferStatus.WAITING, TransferStatus.FAILED, "예약 송금 실패: " + errorType.getMessage()));
+    }
+
+}
@@ -0,0 +1,16 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum AccountConcurrencyMode {
+    PESSIMISTIC("계좌 스트라이프 락 + 조건부 UPDATE"),
+    OPTIMISTIC("@Version 충돌 감지 + 재시도"),
+    EVENT_SOURCED("계좌 이벤트 추가 + 스냅샷 (account 행은 비동기 projection)");
+
+    private final String message;
+
+    AccountConcurrencyMode(String message) {
+        this.message = message;
+    }
+}
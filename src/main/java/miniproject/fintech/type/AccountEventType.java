@@ -0,0 +1,18 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum AccountEventType {
+    OPENED("개설"),
+    CREDITED("입금"),
+    DEBITED("출금"),
+    FROZEN("동결"),
+    UNFROZEN("동결 해제");
+
+    private final String message;
+
+    AccountEventType(String message) {
+        this.message = message;
+    }
+}
@@ -28,7 +28,16 @@ public enum ErrorType {
     SOURCE_ACCOUNT_DESTINATION_ACCOUNT_SHOULD_NOT_SAME("출금 계좌와 입금 계좌가 동일하면 안됩니다.", HttpStatus.BAD_REQUEST),
     INVALID_ACCOUNT_NUMBER("옳바르지 않은 계좌 입니다", HttpStatus.BAD_REQUEST),
     ACCOUNT_NUMBER_NULL("null",HttpStatus.BAD_REQUEST ),
-    ACCOUNT_CREATION_FAILED("계좌생성에 실패", HttpStatus.BAD_REQUEST);
+    ACCOUNT_CREATION_FAILED("계좌생성에 실패", HttpStatus.BAD_REQUEST),
+    BATCH_SIZE_EXCEEDED("한 번에 처리할 수 있는 건수를 초과했습니다.", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_KEY_INVALID("올바르지 않은 Idempotency-Key 입니다.", HttpStatus.BAD_REQUEST),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS("같은 Idempotency-Key 로 처리 중인 요청이 있습니다.", HttpStatus.CONFLICT),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 로 내용이 다른 요청을 보냈습니다.", HttpStatus.UNPROCESSABLE_ENTITY),
+    OPTIMISTIC_LOCK_RETRY_EXHAUSTED("동시에 변경된 계좌가 있어 처리하지 못했습니다. 다시 시도해 주세요.", HttpStatus.CONFLICT),
+    SCHEDULED_TRANSFER_NOT_CANCELABLE("이미 실행되었거나 취소된 예약 송금입니다.", HttpStatus.CONFLICT),
+    TRANSFER_QUEUE_FULL("송금 처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해 주세요.", HttpStatus.SERVICE_UNAVAILABLE),
+    ACCOUNT_FROZEN("동결된 계좌입니다.", HttpStatus.CONFLICT),
+    CACHE_NOT_FOUND("존재하지 않는 캐시입니다.", HttpStatus.NOT_FOUND);
 
     private final String message;
     private final HttpStatus status;
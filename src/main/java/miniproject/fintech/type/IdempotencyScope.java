@@ -0,0 +1,15 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum IdempotencyScope {
+    TRANSFER("송금"),
+    DEPOSIT("입금");
+
+    private final String message;
+
+    IdempotencyScope(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,15 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum IdempotencyStatus {
+    IN_PROGRESS("처리중"),
+    COMPLETED("완료");
+
+    private final String message;
+
+    IdempotencyStatus(String message) {
+        this.message = message;
+    }
+}
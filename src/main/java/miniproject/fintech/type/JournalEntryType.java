@@ -0,0 +1,15 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum JournalEntryType {
+    DEBIT("차변 (잔액 감소)"),
+    CREDIT("대변 (잔액 증가)");
+
+    private final String message;
+
+    JournalEntryType(String message) {
+        this.message = message;
+    }
+}
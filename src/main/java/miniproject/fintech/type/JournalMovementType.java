@@ -0,0 +1,19 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum JournalMovementType {
+    TRANSFER("송금"),
+    DEPOSIT("입금"),
+    BATCH_TRANSFER("일괄 송금 순포지션"),
+    OPENING("계좌 개설 잔액"),
+    ADJUSTMENT("관리자 잔액 조정"),
+    CLOSING("계좌 해지");
+
+    private final String message;
+
+    JournalMovementType(String message) {
+        this.message = message;
+    }
+}
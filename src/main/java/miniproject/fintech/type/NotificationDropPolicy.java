@@ -0,0 +1,15 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum NotificationDropPolicy {
+    DROP_NEWEST("큐가 가득 차면 새 알림을 버림"),
+    BLOCK("offer-timeout 동안 빈 자리를 기다린 뒤 버림");
+
+    private final String message;
+
+    NotificationDropPolicy(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,15 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxEventType {
+    TRANSFER_COMPLETED("송금 완료"),
+    DEPOSIT_COMPLETED("입금 완료");
+
+    private final String message;
+
+    OutboxEventType(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,16 @@
+package miniproject.fintech.type;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxStatus {
+    PENDING("전달 대기"),
+    DELIVERED("전달 완료"),
+    FAILED("전달 실패");
+
+    private final String message;
+
+    OutboxStatus(String message) {
+        this.message = message;
+    }
+}
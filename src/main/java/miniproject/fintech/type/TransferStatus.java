@@ -5,6 +5,7 @@ import lombok.Getter;
 @Getter
 public enum TransferStatus {
     WAITING("대기중"),
+    PROCESSING("처리중"),
     COMPLETED("완료"),
     FAILED("실패");
 
@@ -0,0 +1,58 @@
+package miniproject.fintech.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonCacheValueSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCacheValueSerializer serializer = new JsonCacheValueSerializer(objectMapper, "1");
+
+    @Test
+    void responseEntityKeepsStatusHeadersAndJsonBody() throws Exception {
+        // Given
+        ResponseEntity<List<Map<String, Object>>> response = ResponseEntity.status(HttpStatus.OK)
+                .header("X-Test", "cached")
+                .body(List.of(Map.of("accountNumber", "110-1", "amount", 1000)));
+
+        // When
+        ByteBuffer binary = serializer.serialize(response);
+        ResponseEntity<?> read = (ResponseEntity<?>) serializer.read(binary.duplicate());
+
+        // Then
+        assertThat(read.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(read.getHeaders().getFirst("X-Test")).isEqualTo("cached");
+        assertThat((JsonNode) read.getBody()).isEqualTo(objectMapper.valueToTree(response.getBody()));
+        assertThat(serializer.equals(response, binary.duplicate())).isTrue();
+    }
+
+    @Test
+    void otherValuesAreReadBackAsOriginalClass() throws Exception {
+        // When
+        Object read = serializer.read(serializer.serialize(42L));
+
+        // Then
+        assertThat(read).isEqualTo(42L);
+    }
+
+    @Test
+    void valueStoredWithOtherVersionIsReadAsStale() throws Exception {
+        // Given: 이전 배포(버전 1)가 디스크 계층에 남긴 값
+        ByteBuffer binary = serializer.serialize(ResponseEntity.ok("old"));
+
+        // When
+        Object read = new JsonCacheValueSerializer(objectMapper, "2").read(binary);
+
+        // Then
+        assertThat(read).isSameAs(JsonCacheValueSerializer.STALE);
+    }
+}
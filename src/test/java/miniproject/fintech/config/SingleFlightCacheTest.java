@@ -0,0 +1,91 @@
+package miniproject.fintech.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightCacheTest {
+
+    @Test
+    void concurrentMissesForSameKeyLoadOnce() throws Exception {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("accountsCache"), 0, 1.0, 100, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When: 첫 조회가 끝나기 전에 16개 요청이 같은 키로 미스
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> cache.get("110-1", () -> {
+                loads.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "account";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("account");
+        }
+        executor.shutdown();
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("cache.singleflight.loads", "cache", "accountsCache").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cache.singleflight.coalesced", "cache", "accountsCache").count()).isEqualTo(15);
+    }
+
+    @Test
+    void entryNearExpiryIsRefreshedEarly() throws Exception {
+        // Given: TTL 50ms, 조회에 20ms 걸리는 키
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("accountsCache"), 50, 1.0, 100, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("110-1", () -> {
+            Thread.sleep(20);
+            return loads.incrementAndGet();
+        });
+
+        // When: 만료 시각이 지난 뒤 (ConcurrentMapCache 는 스스로 만료하지 않으므로 값은 남아 있음)
+        Thread.sleep(60);
+        Integer refreshed = cache.get("110-1", loads::incrementAndGet);
+
+        // Then
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(meterRegistry.counter("cache.singleflight.early-refreshes", "cache", "accountsCache").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysExpiredByStoreFreeTrackingSlots() throws Exception {
+        // Given: 조회 정보를 1개만 들고 있고, 첫 키는 저장소가 만료시킨 뒤 다시 읽히지 않는다
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrentMapCache store = new ConcurrentMapCache("accountsCache");
+        SingleFlightCache cache = new SingleFlightCache(store, 50, 1.0, 1, meterRegistry);
+        cache.get("110-1", () -> "expired");
+        Thread.sleep(60);
+        store.evict("110-1");
+
+        // When: 다른 키를 조회하고 그 키의 만료 시각이 지난 뒤 다시 조회
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("110-2", loads::incrementAndGet);
+        Thread.sleep(60);
+        Integer refreshed = cache.get("110-2", loads::incrementAndGet);
+
+        // Then: 만료된 키의 자리를 넘겨받아 미리 갱신된다
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(meterRegistry.counter("cache.singleflight.early-refreshes", "cache", "accountsCache").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,124 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class AccountLockManagerTest {
+
+    private static final int ACCOUNT_COUNT = 10;
+    private static final long INITIAL_AMOUNT = 100_000;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void concurrentTransfersKeepTotalAmount() throws InterruptedException {
+        // Given: 적은 stripe 수로 경합을 유도
+        AccountLockManager lockManager = new AccountLockManager(4);
+        Map<String, long[]> balances = new HashMap<>();
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            balances.put("account" + i, new long[]{INITIAL_AMOUNT});
+        }
+
+        int threads = 8;
+        int transfersPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When: A→B, B→A 를 포함한 무작위 송금을 동시에 실행
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    int from = random.nextInt(ACCOUNT_COUNT);
+                    int to = (from + 1 + random.nextInt(ACCOUNT_COUNT - 1)) % ACCOUNT_COUNT;
+                    String source = "account" + from;
+                    String destination = "account" + to;
+                    long amount = random.nextLong(1, 1_000);
+
+                    try (AccountLockManager.AccountLocks ignored = lockManager.lock(source, destination)) {
+                        long[] sourceBalance = balances.get(source);
+                        long[] destinationBalance = balances.get(destination);
+                        if (sourceBalance[0] >= amount) {
+                            sourceBalance[0] -= amount;
+                            destinationBalance[0] += amount;
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // Then: 데드락 없이 끝나고 전체 금액이 보존되어야 한다
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        long total = balances.values().stream().mapToLong(balance -> balance[0]).sum();
+        assertThat(total).isEqualTo(INITIAL_AMOUNT * ACCOUNT_COUNT);
+        balances.values().forEach(balance -> assertThat(balance[0]).isGreaterThanOrEqualTo(0));
+
+        long histogramTotal = lockManager.getContentionHistogram().values().stream().mapToLong(Long::longValue).sum();
+        assertThat(histogramTotal).isEqualTo(lockManager.getAcquisitionCount());
+        log.info("락 획득 = {}, 대기 발생 = {}, 히스토그램 = {}",
+                lockManager.getAcquisitionCount(), lockManager.getContendedCount(), lockManager.getContentionHistogram());
+    }
+
+    @Test
+    void sameStripeIsLockedOnce() {
+        // Given: stripe 가 하나뿐이면 두 계좌가 같은 락에 매핑된다
+        AccountLockManager lockManager = new AccountLockManager(1);
+
+        // When
+        try (AccountLockManager.AccountLocks ignored = lockManager.lock("source123", "dest123")) {
+            // Then: 같은 stripe 는 한 번만 획득한다
+            assertThat(lockManager.getAcquisitionCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void lockIsHeldUntilTransactionCompletion() throws Exception {
+        // Given
+        AccountLockManager lockManager = new AccountLockManager(16);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When: 트랜잭션 범위 락 획득
+        lockManager.lockUntilCompletion("source123", "dest123");
+
+        // Then: 트랜잭션이 끝나기 전에는 다른 스레드가 락을 얻지 못한다
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        Future<?> blocked = other.submit(() -> lockManager.lock("dest123").close());
+        assertThatBlocked(blocked);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        blocked.get(5, TimeUnit.SECONDS);
+        other.shutdown();
+    }
+
+    private void assertThatBlocked(Future<?> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            throw new AssertionError("락이 해제되기 전에 획득되었습니다.");
+        } catch (TimeoutException expected) {
+            assertThat(future.isDone()).isFalse();
+        }
+    }
+}
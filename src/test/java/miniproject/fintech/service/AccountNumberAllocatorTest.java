@@ -0,0 +1,181 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.domain.AccountNumberSequence;
+import miniproject.fintech.repository.AccountNumberSequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountNumberAllocatorTest {
+
+    @Test
+    void checkDigitFollowsLuhn() {
+        // Given: Luhn 예시 번호 7992739871 의 검증 숫자는 3
+        // When
+        int checkDigit = AccountNumberAllocator.checkDigit("7992739871");
+
+        // Then
+        assertThat(checkDigit).isEqualTo(3);
+        assertThat(AccountNumberAllocator.isValid("79927398713")).isTrue();
+    }
+
+    @Test
+    void issuedNumberIsPrefixSequenceAndCheckDigit() {
+        // When
+        String accountNumber = AccountNumberAllocator.format("110", 42);
+
+        // Then
+        assertThat(accountNumber).startsWith("110000000042").hasSize(3 + AccountNumberAllocator.SERIAL_DIGITS + 1);
+        assertThat(AccountNumberAllocator.isValid(accountNumber)).isTrue();
+    }
+
+    @Test
+    void singleDigitChangeFailsValidation() {
+        // Given
+        String accountNumber = AccountNumberAllocator.format("110", 12345);
+        String typo = accountNumber.substring(0, 5) + (char) ('0' + (accountNumber.charAt(5) - '0' + 1) % 10)
+                + accountNumber.substring(6);
+
+        // Then
+        assertThat(AccountNumberAllocator.isValid(typo)).isFalse();
+        assertThat(AccountNumberAllocator.isValid("abc")).isFalse();
+    }
+
+    @Test
+    void firstReservationCreatesSequenceRowAndLaterOnesAdvanceIt() {
+        // Given: 시퀀스 행이 아직 없는 DB
+        FakeSequence sequence = new FakeSequence();
+        AccountNumberAllocator allocator = allocator(sequence, 3);
+
+        // When: 블록 크기(3)를 넘겨 발급
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            numbers.add(allocator.next());
+        }
+
+        // Then: 첫 예약이 행을 만들고 이후 블록은 이어서 예약된다 (0~2, 3~5, 6~8)
+        assertThat(sequence.reservations).hasValue(3);
+        assertThat(sequence.nextValue.get()).isEqualTo(9);
+        assertThat(numbers).containsExactly(
+                AccountNumberAllocator.format("110", 0), AccountNumberAllocator.format("110", 1),
+                AccountNumberAllocator.format("110", 2), AccountNumberAllocator.format("110", 3),
+                AccountNumberAllocator.format("110", 4), AccountNumberAllocator.format("110", 5),
+                AccountNumberAllocator.format("110", 6));
+    }
+
+    @Test
+    void nodesSharingSequenceNeverAllocateSameNumber() throws Exception {
+        // Given: 같은 시퀀스를 쓰는 두 노드
+        FakeSequence sequence = new FakeSequence();
+        List<AccountNumberAllocator> nodes = List.of(allocator(sequence, 50), allocator(sequence, 50));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        // When: 노드마다 4 스레드가 동시에 발급
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            AccountNumberAllocator node = nodes.get(thread % 2);
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    numbers.add(node.next());
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Then: 8,000 개 모두 다르고, 블록은 스레드마다가 아니라 다 쓴 경우에만 예약된다
+        assertThat(numbers).hasSize(8_000).allMatch(AccountNumberAllocator::isValid);
+        assertThat(sequence.reservations.get()).isBetween(160, 162);
+    }
+
+    @Test
+    void clientNumbersInAllocatorSpaceAreReserved() {
+        // Given
+        AccountNumberAllocator allocator = allocator(new FakeSequence(), 10);
+
+        // Then: prefix 로 시작하는 발급 길이 번호는 검증 숫자와 관계없이 발급기 전용
+        assertThat(allocator.isReserved(AccountNumberAllocator.format("110", 7))).isTrue();
+        assertThat(allocator.isReserved("1100000000070")).isTrue();
+        assertThat(allocator.isReserved("2200000000070")).isFalse();
+        assertThat(allocator.isReserved("110-123")).isFalse();
+        assertThat(allocator.isReserved(null)).isFalse();
+    }
+
+    private static AccountNumberAllocator allocator(FakeSequence sequence, long blockSize) {
+        return new AccountNumberAllocator(sequence.repository(), new NoOpTransactionManager(), "110", blockSize);
+    }
+
+    /**
+     * account_number_sequence 행 하나. reserve 는 행 락을 잡은 것처럼 원자적으로 전진하고,
+     * 같은 트랜잭션(스레드)의 findNextValue 는 자기가 전진시킨 값을 읽는다.
+     */
+    private static final class FakeSequence {
+        private final AtomicLong nextValue = new AtomicLong(-1);
+        private final AtomicInteger reservations = new AtomicInteger();
+        private final ThreadLocal<Long> reserved = new ThreadLocal<>();
+
+        private AccountNumberSequenceRepository repository() {
+            return (AccountNumberSequenceRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{AccountNumberSequenceRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "reserve" -> {
+                            long size = (Long) args[1];
+                            long next = nextValue.updateAndGet(value -> value < 0 ? value : value + size);
+                            if (next < 0) {
+                                yield 0;
+                            }
+                            reserved.set(next);
+                            reservations.incrementAndGet();
+                            yield 1;
+                        }
+                        case "saveAndFlush" -> {
+                            AccountNumberSequence row = (AccountNumberSequence) args[0];
+                            if (!nextValue.compareAndSet(-1, row.getNextValue())) {
+                                throw new org.springframework.dao.DataIntegrityViolationException("duplicate sequence row");
+                            }
+                            reserved.set(row.getNextValue());
+                            reservations.incrementAndGet();
+                            yield row;
+                        }
+                        case "findNextValue" -> Optional.ofNullable(reserved.get());
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> "FakeSequence";
+                    });
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
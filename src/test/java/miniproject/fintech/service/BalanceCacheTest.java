@@ -0,0 +1,125 @@
+package miniproject.fintech.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceCacheTest {
+
+    @Test
+    void readsNewBalanceAfterInvalidate() {
+        // Given
+        BalanceCache cache = new BalanceCache(100, 60_000);
+        AtomicLong database = new AtomicLong(1_000);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get("110-1", key -> {
+            loads.incrementAndGet();
+            return database.get();
+        })).isEqualTo(1_000);
+
+        // When: 적중은 다시 조회하지 않고, 잔액 변경 + 무효화 후에는 다시 조회
+        long hit = cache.get("110-1", key -> -1);
+        database.set(700);
+        cache.invalidate("110-1");
+
+        // Then
+        assertThat(hit).isEqualTo(1_000);
+        assertThat(cache.get("110-1", key -> {
+            loads.incrementAndGet();
+            return database.get();
+        })).isEqualTo(700);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void readsAfterCommitNeverSeeOlderBalanceDuringConcurrentTransfers() throws Exception {
+        // Given: 잔액이 계속 늘어나는 계좌 (이전 잔액 = 더 작은 값)
+        BalanceCache cache = new BalanceCache(100, 60_000);
+        AtomicLong database = new AtomicLong();
+        AtomicLong committed = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger staleReads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        // When: 읽는 스레드는 조회 중간에 양보해 커밋과 겹치는 구간을 넓힌다
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(executor.submit(() -> {
+                while (running.get()) {
+                    long floor = committed.get();
+                    long balance = cache.get("110-1", key -> {
+                        long loaded = database.get();
+                        Thread.yield();
+                        return loaded;
+                    });
+                    if (balance < floor) {
+                        staleReads.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 1; i <= 2_000; i++) {
+                database.set(i);            // 커밋
+                cache.invalidate("110-1");  // 커밋 후 무효화
+                committed.set(i);           // 송금 완료 (이후 시작한 읽기는 i 이상을 봐야 함)
+                LockSupport.parkNanos(20_000);
+            }
+        });
+        writer.get();
+        running.set(false);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(staleReads).hasValue(0);
+        assertThat(cache.get("110-1", key -> -1)).isEqualTo(2_000);
+    }
+
+    @Test
+    void expiredEntryIsReloadedWithoutInvalidate() throws InterruptedException {
+        // Given: 다른 인스턴스가 잔액을 바꿔 이 인스턴스에는 무효화가 오지 않는다
+        BalanceCache cache = new BalanceCache(100, 50);
+        AtomicLong database = new AtomicLong(1_000);
+        cache.get("110-1", key -> database.get());
+        database.set(700);
+
+        // When
+        long beforeTtl = cache.get("110-1", key -> database.get());
+        Thread.sleep(100);
+        long afterTtl = cache.get("110-1", key -> database.get());
+
+        // Then: ttl 동안만 이전 잔액이 보인다
+        assertThat(beforeTtl).isEqualTo(1_000);
+        assertThat(afterTtl).isEqualTo(700);
+    }
+
+    @Test
+    void oldestEntriesAreEvictedSoNewAccountsAreStillCached() {
+        // Given: 최대 100 계좌
+        BalanceCache cache = new BalanceCache(100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When: 용량보다 많은 계좌를 조회한 뒤 마지막 계좌를 다시 조회
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("110-" + i, key -> loads.incrementAndGet());
+        }
+        cache.get("110-999", key -> loads.incrementAndGet());
+
+        // Then: 용량을 넘지 않고, 새 계좌는 캐시되어 다시 조회하지 않는다
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(loads).hasValue(1_000);
+    }
+}
@@ -0,0 +1,108 @@
+package miniproject.fintech.service;
+
+import jakarta.transaction.Transactional;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.dto.BankMemberDto;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.type.AccountStatus;
+import miniproject.fintech.type.Grade;
+import miniproject.fintech.type.JournalMovementType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class BalanceHistoryServiceTest {
+
+    @Autowired
+    private BalanceHistoryService balanceHistoryService;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private TransferServiceImpl transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private BankMemberDto bankMemberDto;
+    private String source;
+    private String destination;
+
+    @BeforeEach
+    void setUp() {
+        BankMember bankMember = memberRepository.save(BankMember.builder()
+                .userId("history" + UUID.randomUUID().toString().substring(0, 5))
+                .name("메시")
+                .age(38)
+                .createdAt(LocalDateTime.now())
+                .birth(LocalDate.of(1995, 5, 18))
+                .email("messi@gmail.com")
+                .grade(Grade.VIP)
+                .curAmount(10000)
+                .accounts(new ArrayList<>())
+                .password("MessiGiMoZI")
+                .build());
+        bankMemberDto = BankMemberDto.builder().userId(bankMember.getUserId()).build();
+
+        source = saveAccount(bankMember, 1000);
+        destination = saveAccount(bankMember, 0);
+    }
+
+    @Test
+    void balanceAsOfUsesNearestDailyBalanceAndReplaysAfterIt() throws InterruptedException {
+        // Given: 개설 직전 시각, 송금 300 후 일별 잔액 기록, 다시 송금 100
+        LocalDateTime beforeOpening = LocalDateTime.now().minusDays(1);
+        transferService.processTransfer(transfer(300));
+        Thread.sleep(20);
+        LocalDateTime cutoff = LocalDateTime.now();
+        Thread.sleep(20);
+        balanceHistoryService.writeBalances(cutoff.minusDays(1), cutoff);
+        transferService.processTransfer(transfer(100));
+
+        // When / Then: cutoff 시점은 일별 잔액 그대로, 현재는 그 이후 분개까지, 개설 전은 0
+        assertThat(balanceHistoryService.balanceAsOf(source, cutoff)).isEqualTo(700);
+        assertThat(balanceHistoryService.balanceAsOf(destination, cutoff)).isEqualTo(300);
+        assertThat(balanceHistoryService.balanceAsOf(source, LocalDateTime.now())).isEqualTo(600);
+        assertThat(balanceHistoryService.balanceAsOf(destination, LocalDateTime.now())).isEqualTo(400);
+        assertThat(balanceHistoryService.balanceAsOf(source, beforeOpening)).isZero();
+    }
+
+    private String saveAccount(BankMember bankMember, long amount) {
+        String accountNumber = accountRepository.save(Account.builder()
+                .bankMember(bankMember)
+                .accountNumber("history-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(amount)
+                .accountStatus(AccountStatus.REGISTER)
+                .createdAt(LocalDateTime.now())
+                .build()).getAccountNumber();
+        journalEntryService.recordAdjustment(JournalMovementType.OPENING, accountNumber, amount);
+        return accountNumber;
+    }
+
+    private TransferDto transfer(long amount) {
+        return TransferDto.builder()
+                .transferAmount(amount)
+                .transferAt(LocalDateTime.now())
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .bankMemberDto(bankMemberDto)
+                .build();
+    }
+}
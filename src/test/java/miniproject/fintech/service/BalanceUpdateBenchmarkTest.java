@@ -0,0 +1,116 @@
+package miniproject.fintech.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.type.AccountStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기존 read-modify-write 방식과 조건부 UPDATE 방식의 송금 1건당 SQL 문장 수와 초당 처리량 비교.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BalanceUpdateBenchmarkTest {
+
+    private static final int TRANSFER_COUNT = 500;
+    private static final long TRANSFER_AMOUNT = 10;
+
+    @Autowired
+    private BalanceUpdateService balanceUpdateService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private Account sourceAccount;
+    private Account destinationAccount;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        sourceAccount = accountRepository.save(Account.builder()
+                .accountNumber("bench-src-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(TRANSFER_AMOUNT * TRANSFER_COUNT * 2)
+                .accountStatus(AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        destinationAccount = accountRepository.save(Account.builder()
+                .accountNumber("bench-dst-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(0)
+                .accountStatus(AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll(List.of(sourceAccount, destinationAccount));
+    }
+
+    @Test
+    void compareReadModifyWriteAndConditionalUpdate() {
+        // When: 기존 방식 (엔티티 조회 -> 자바에서 계산 -> save)
+        Result legacy = run(() -> {
+            Account source = accountRepository.findByAccountNumber(sourceAccount.getAccountNumber()).orElseThrow();
+            Account destination = accountRepository.findByAccountNumber(destinationAccount.getAccountNumber()).orElseThrow();
+            source.setAmount(source.getAmount() - TRANSFER_AMOUNT);
+            destination.setAmount(destination.getAmount() + TRANSFER_AMOUNT);
+            accountRepository.save(source);
+            accountRepository.save(destination);
+        });
+
+        // When: 조건부 UPDATE 방식
+        Result conditional = run(() -> balanceUpdateService.move(
+                sourceAccount.getAccountNumber(), destinationAccount.getAccountNumber(), TRANSFER_AMOUNT));
+
+        log.info("read-modify-write: 송금당 SQL = {}, 초당 송금 = {}", legacy.statementsPerTransfer(), legacy.transfersPerSecond());
+        log.info("조건부 UPDATE   : 송금당 SQL = {}, 초당 송금 = {}", conditional.statementsPerTransfer(), conditional.transfersPerSecond());
+
+        // Then: 문장 수가 줄고 금액은 정확히 이동해야 한다
+        assertThat(conditional.statementsPerTransfer()).isLessThan(legacy.statementsPerTransfer());
+        assertThat(accountRepository.findAmountByAccountNumber(destinationAccount.getAccountNumber()))
+                .contains(TRANSFER_AMOUNT * TRANSFER_COUNT * 2);
+    }
+
+    private Result run(Runnable transfer) {
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFER_COUNT; i++) {
+            transactionTemplate.executeWithoutResult(status -> transfer.run());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        double statementsPerTransfer = (double) statistics.getPrepareStatementCount() / TRANSFER_COUNT;
+        double transfersPerSecond = TRANSFER_COUNT / (elapsedNanos / 1_000_000_000.0);
+        return new Result(statementsPerTransfer, transfersPerSecond);
+    }
+
+    private record Result(double statementsPerTransfer, double transfersPerSecond) {
+    }
+}
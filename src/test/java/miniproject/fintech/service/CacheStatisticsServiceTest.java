@@ -0,0 +1,91 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miniproject.fintech.config.CacheConfig;
+import miniproject.fintech.dto.CacheStatisticsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 항목 수는 계층 통계로 읽어 off-heap 값을 모두 역직렬화하지 않는지, 숫자 키 삭제가 Long 범위를 넘어도 실패하지 않는지 확인.
+ * heap 항목 제한을 10 개로 두어 나머지 값은 off-heap 에만 JSON 으로 남게 한다.
+ */
+class CacheStatisticsServiceTest {
+
+    private static final String CACHE = "accountsCache";
+
+    private final AtomicInteger deserialized = new AtomicInteger();
+    private javax.cache.CacheManager jcacheManager;
+    private CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper() {
+            @Override
+            public JsonNode readTree(byte[] content) throws IOException {
+                deserialized.incrementAndGet();
+                return super.readTree(content);
+            }
+        };
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.default.heap-entries", "10")
+                .withProperty("cache.default.offheap-mb", "1");
+        CacheConfig cacheConfig = new CacheConfig(environment, objectMapper, new SimpleMeterRegistry());
+        jcacheManager = cacheConfig.jcacheManager();
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jcacheManager);
+        cacheManager.afterPropertiesSet();
+
+        cacheStatisticsService = new CacheStatisticsService(cacheManager, jcacheManager,
+                cacheConfig.ehcacheStatisticsService(), objectMapper, 4, 60_000, 2.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jcacheManager.close();
+    }
+
+    @Test
+    void entriesComeFromTierStatisticsWithoutReadingEveryValue() {
+        // Given: 200 개 중 190 개는 off-heap 에만 있다
+        javax.cache.Cache<Object, Object> cache = jcacheManager.getCache(CACHE);
+        for (long i = 0; i < 200; i++) {
+            cache.put(i, "account-" + i);
+        }
+        deserialized.set(0);
+
+        // When
+        CacheStatisticsResponse statistics = cacheStatisticsService.statistics(CACHE);
+
+        // Then: 항목 수는 전체, 역직렬화는 표본 몇 개뿐
+        assertThat(statistics.getEntries()).isEqualTo(200);
+        assertThat(statistics.getSampledEntries()).isEqualTo(4);
+        assertThat(statistics.getAverageEntryBytes()).isPositive();
+        assertThat(deserialized.get()).isLessThan(10);
+    }
+
+    @Test
+    void evictKeepsLongKeysAndIgnoresDigitsBeyondLongRange() {
+        // Given
+        javax.cache.Cache<Object, Object> cache = jcacheManager.getCache(CACHE);
+        cache.put(42L, "account-42");
+
+        // When
+        boolean evictedNumber = cacheStatisticsService.evict(CACHE, "42");
+        boolean evictedOverflow = cacheStatisticsService.evict(CACHE, "12345678901234567890123");
+
+        // Then: Long 범위를 넘는 숫자 키는 예외 없이 문자열 키로만 찾는다
+        assertThat(evictedNumber).isTrue();
+        assertThat(cache.containsKey(42L)).isFalse();
+        assertThat(evictedOverflow).isFalse();
+    }
+}
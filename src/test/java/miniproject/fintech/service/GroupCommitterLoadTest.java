@@ -0,0 +1,130 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.service.GroupCommitter.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * group commit 의 window / cap 설정에 따른 처리량과 p99 지연 시간 비교.
+ * 커밋 한 번에 고정 비용(fsync 가정)이 드는 processor 로 측정한다.
+ */
+@Slf4j
+class GroupCommitterLoadTest {
+
+    private static final long COMMIT_COST_MICROS = 2_000;
+    private static final long PER_ITEM_COST_MICROS = 20;
+    private static final int CLIENTS = 64;
+    private static final long RUN_MILLIS = 1_000;
+
+    @Test
+    void latencyVersusThroughput() throws Exception {
+        // Given: cap 1 은 요청마다 커밋하는 기존 방식과 같다
+        long[][] settings = {{0, 1}, {500, 16}, {2_000, 64}, {5_000, 256}};
+        List<Result> results = new ArrayList<>();
+
+        // When
+        for (long[] setting : settings) {
+            results.add(run(setting[0], (int) setting[1]));
+        }
+
+        // Then: 묶어서 커밋하면 처리량이 늘어난다
+        log.info("window(us) | cap | 초당 처리 | p50(ms) | p99(ms) | 평균 배치 크기");
+        for (Result result : results) {
+            log.info(String.format("%10d | %3d | %8.0f | %7.2f | %7.2f | %.1f", result.windowMicros, result.cap,
+                    result.throughput, result.p50Millis, result.p99Millis, result.averageBatchSize));
+        }
+        assertThat(results.get(2).throughput).isGreaterThan(results.get(0).throughput * 2);
+        assertThat(results.get(2).averageBatchSize).isGreaterThan(1);
+    }
+
+    @Test
+    void failureOfOneItemDoesNotFailOthers() throws Exception {
+        // Given: 음수 요청만 실패시키는 processor
+        GroupCommitter<Integer, Integer> committer = new GroupCommitter<>("test", 10_000, 8, batch -> {
+            List<Outcome<Integer>> outcomes = new ArrayList<>();
+            for (Integer request : batch) {
+                outcomes.add(request < 0 ? Outcome.failure(new IllegalArgumentException("음수")) : Outcome.success(request * 2));
+            }
+            return outcomes;
+        });
+        committer.start();
+
+        // When
+        CompletableFuture<Integer> ok = committer.submit(1);
+        CompletableFuture<Integer> failed = committer.submit(-1);
+
+        // Then
+        assertThat(ok.get(1, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThatThrownBy(() -> failed.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        committer.stop();
+    }
+
+    private Result run(long windowMicros, int cap) throws Exception {
+        GroupCommitter<Long, Long> committer = new GroupCommitter<>("load", windowMicros, cap, batch -> {
+            waitMicros(COMMIT_COST_MICROS + PER_ITEM_COST_MICROS * batch.size());
+            List<Outcome<Long>> outcomes = new ArrayList<>(batch.size());
+            batch.forEach(request -> outcomes.add(Outcome.success(request)));
+            return outcomes;
+        });
+        committer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong completed = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_MILLIS);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            executor.submit(() -> {
+                List<Long> local = new ArrayList<>();
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    committer.submit(start).get();
+                    local.add(System.nanoTime() - start);
+                    completed.incrementAndGet();
+                }
+                latencies.add(local.stream().mapToLong(Long::longValue).toArray());
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        committer.stop();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(windowMicros, cap,
+                completed.get() / (RUN_MILLIS / 1000.0),
+                percentileMillis(all, 0.50),
+                percentileMillis(all, 0.99),
+                committer.getAverageBatchSize());
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // Thread.sleep 은 타이머 해상도 영향이 커서 짧은 간격으로 깨어나며 마감 시각까지 기다린다
+    private static void waitMicros(long micros) {
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+
+    private record Result(long windowMicros, int cap, double throughput, double p50Millis, double p99Millis,
+                          double averageBatchSize) {
+    }
+}
@@ -0,0 +1,127 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.type.AccountStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 핫 계좌 슬롯 입금/출금 정합성과 동시 입금 처리량 확인.
+ */
+@Slf4j
+@SpringBootTest
+class HotAccountServiceTest {
+
+    private static final int THREADS = 16;
+    private static final int CREDITS_PER_THREAD = 100;
+    private static final long CREDIT_AMOUNT = 10;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private BalanceUpdateService balanceUpdateService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Account merchantAccount;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        merchantAccount = accountRepository.save(Account.builder()
+                .accountNumber("hot-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(1_000)
+                .accountStatus(AccountStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotAccountService.disable(merchantAccount.getAccountNumber());
+        accountRepository.deleteById(merchantAccount.getId());
+    }
+
+    @Test
+    void concurrentCreditsAreSpreadOverSlots() throws Exception {
+        // Given
+        String accountNumber = merchantAccount.getAccountNumber();
+        hotAccountService.enable(accountNumber, 8);
+
+        // When: 여러 스레드가 동시에 입금
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CREDITS_PER_THREAD; i++) {
+                    transactionTemplate.executeWithoutResult(status -> balanceUpdateService.credit(accountNumber, CREDIT_AMOUNT));
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+        log.info("핫 계좌 초당 입금 = {}", THREADS * CREDITS_PER_THREAD / (elapsedNanos / 1_000_000_000.0));
+
+        // Then: 본 잔액은 그대로이고 입금액은 모두 슬롯에 있다
+        long credited = THREADS * CREDITS_PER_THREAD * CREDIT_AMOUNT;
+        assertThat(accountRepository.findAmountByAccountNumber(accountNumber)).contains(1_000L);
+        assertThat(balanceUpdateService.balanceOf(accountNumber)).isEqualTo(1_000 + credited);
+    }
+
+    @Test
+    void debitSweepsSlotsWhenMainBalanceIsShort() {
+        // Given: 본 잔액 1,000 + 슬롯 500
+        String accountNumber = merchantAccount.getAccountNumber();
+        hotAccountService.enable(accountNumber, 4);
+        for (int i = 0; i < 50; i++) {
+            transactionTemplate.executeWithoutResult(status -> balanceUpdateService.credit(accountNumber, CREDIT_AMOUNT));
+        }
+
+        // When: 본 잔액보다 큰 금액 출금
+        transactionTemplate.executeWithoutResult(status -> balanceUpdateService.debit(accountNumber, 1_200));
+
+        // Then: 슬롯에서 부족분을 가져와 차감, 남은 금액보다 큰 출금은 잔액 부족
+        assertThat(balanceUpdateService.balanceOf(accountNumber)).isEqualTo(300);
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                status -> balanceUpdateService.debit(accountNumber, 301)))
+                .isInstanceOf(CustomError.class);
+
+        // When: 핫 계좌 해제
+        hotAccountService.disable(accountNumber);
+
+        // Then: 슬롯 잔액이 본 잔액으로 합쳐진다
+        assertThat(hotAccountService.isHot(accountNumber)).isFalse();
+        assertThat(accountRepository.findAmountByAccountNumber(accountNumber)).contains(300L);
+    }
+}
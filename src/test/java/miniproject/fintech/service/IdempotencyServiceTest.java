@@ -0,0 +1,118 @@
+package miniproject.fintech.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import miniproject.fintech.domain.IdempotencyRecord;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.error.OutcomeUnknownException;
+import miniproject.fintech.repository.IdempotencyRecordRepository;
+import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.IdempotencyScope;
+import miniproject.fintech.type.IdempotencyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 결과를 알 수 없는 요청(대기 시간 초과)의 선점이 해제되지 않아 같은 key 의 재시도가 다시 실행되지 않는지 확인.
+ * idempotency_record 테이블은 key -> 기록 맵으로 흉내 낸다.
+ */
+class IdempotencyServiceTest {
+
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyRecordRepository repository = repository(IdempotencyRecordRepository.class, (method, args) -> switch (method) {
+            case "findByScopeAndPrincipalAndIdempotencyKey" -> Optional.ofNullable(records.get((String) args[2]));
+            case "saveAndFlush", "save" -> {
+                IdempotencyRecord record = (IdempotencyRecord) args[0];
+                records.put(record.getIdempotencyKey(), record);
+                yield record;
+            }
+            case "delete" -> records.remove(((IdempotencyRecord) args[0]).getIdempotencyKey());
+            default -> null;
+        });
+        idempotencyService = new IdempotencyService(repository, new ObjectMapper(), 1_000, 3_600, 100);
+    }
+
+    @Test
+    void unknownOutcomeKeepsClaimAndStoresLateResponse() throws InterruptedException {
+        // Given: 첫 요청은 대기 시간이 지나 결과를 모른다
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+        assertThatThrownBy(() -> execute("key-1", () -> {
+            executions.incrementAndGet();
+            throw new OutcomeUnknownException("대기 시간 초과", outcome, null);
+        })).isInstanceOf(OutcomeUnknownException.class);
+
+        // When: 결과가 나오기 전 재시도, 결과가 나온 뒤 재시도
+        assertThatThrownBy(() -> execute("key-1", () -> "다시 실행"))
+                .isInstanceOf(CustomError.class)
+                .extracting(e -> ((CustomError) e).getErrorType())
+                .isEqualTo(ErrorType.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        outcome.complete("늦게 온 응답");
+        awaitStatus("key-1", IdempotencyStatus.COMPLETED);
+
+        // Then: 다시 실행하지 않고 늦게 온 응답을 돌려준다
+        assertThat(execute("key-1", () -> "다시 실행")).isEqualTo("늦게 온 응답");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void unknownOutcomeThatFailsWithBusinessErrorReleasesClaim() throws InterruptedException {
+        // Given
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        assertThatThrownBy(() -> execute("key-2", () -> {
+            throw new OutcomeUnknownException("대기 시간 초과", outcome, null);
+        })).isInstanceOf(OutcomeUnknownException.class);
+
+        // When: 나중에 반영되지 않은 것이 확실해짐 (잔액 부족)
+        outcome.completeExceptionally(new CustomError(ErrorType.NOT_ENOUGH_MONEY));
+        for (int i = 0; i < 500 && records.containsKey("key-2"); i++) {
+            Thread.sleep(2);
+        }
+
+        // Then: 같은 key 로 다시 실행할 수 있다
+        assertThat(execute("key-2", () -> "다시 실행")).isEqualTo("다시 실행");
+    }
+
+    private String execute(String key, Supplier<String> action) {
+        return idempotencyService.execute(IdempotencyScope.TRANSFER, "user", key, Map.of("amount", 100),
+                String.class, action);
+    }
+
+    private void awaitStatus(String key, IdempotencyStatus status) throws InterruptedException {
+        for (int i = 0; i < 500 && (records.get(key) == null || records.get(key).getStatus() != status); i++) {
+            Thread.sleep(2);
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName();
+                };
+            }
+            return handler.invoke(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.type.IdempotencyScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(1_000, 1, TimeUnit.HOURS);
+        AtomicInteger executions = new AtomicInteger();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When: 같은 key 로 동시에 요청
+        ConcurrentLinkedQueue<Future<Object>> results = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                IdempotencyStore.Entry entry = store.register(IdempotencyScope.TRANSFER, "user", "key-1", "hash");
+                if (entry.isOwnedBy(Thread.currentThread())) {
+                    executions.incrementAndGet();
+                    Thread.sleep(50);
+                    store.complete(entry, "응답");
+                }
+                return entry.future().get(5, TimeUnit.SECONDS);
+            }));
+        }
+        start.countDown();
+
+        // Then: 한 번만 실행되고 모두 같은 응답을 받는다
+        for (Future<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("응답");
+        }
+        executor.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(store.get(IdempotencyScope.TRANSFER, "user", "key-1")).isNotNull();
+        assertThat(store.get(IdempotencyScope.DEPOSIT, "user", "key-1")).isNull();
+    }
+
+    @Test
+    void failedEntryCanBeRetried() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(1_000, 1, TimeUnit.HOURS);
+        IdempotencyStore.Entry first = store.register(IdempotencyScope.DEPOSIT, "user", "key-2", "hash");
+
+        // When
+        store.fail(first, new IllegalStateException("실패"));
+
+        // Then: 같은 key 로 다시 실행할 수 있다
+        assertThat(store.get(IdempotencyScope.DEPOSIT, "user", "key-2")).isNull();
+        IdempotencyStore.Entry retry = store.register(IdempotencyScope.DEPOSIT, "user", "key-2", "hash");
+        assertThat(retry).isNotSameAs(first);
+        assertThat(retry.isOwnedBy(Thread.currentThread())).isTrue();
+    }
+
+    @Test
+    void sameKeyFromDifferentPrincipalsIsSeparateAndBodyHashIsKept() {
+        // Given
+        IdempotencyStore store = new IdempotencyStore(1_000, 1, TimeUnit.HOURS);
+        IdempotencyStore.Entry alice = store.register(IdempotencyScope.TRANSFER, "alice", "key-3", "hash-a");
+        store.complete(alice, "alice 응답");
+
+        // When: 다른 사용자가 같은 key 로 요청
+        IdempotencyStore.Entry bob = store.register(IdempotencyScope.TRANSFER, "bob", "key-3", "hash-b");
+
+        // Then: 서로의 항목을 돌려받지 않고, 각 항목은 처음 요청의 본문 해시와만 일치한다
+        assertThat(bob).isNotSameAs(alice);
+        assertThat(bob.isOwnedBy(Thread.currentThread())).isTrue();
+        assertThat(store.get(IdempotencyScope.TRANSFER, "alice", "key-3").matches("hash-a")).isTrue();
+        assertThat(store.get(IdempotencyScope.TRANSFER, "alice", "key-3").matches("hash-b")).isFalse();
+    }
+
+    @Test
+    void expiredAndOverflowEntriesAreEvicted() throws InterruptedException {
+        // Given: 최대 100 건, ttl 50ms
+        IdempotencyStore store = new IdempotencyStore(100, 50, TimeUnit.MILLISECONDS);
+
+        // When: 용량보다 많이 완료 처리
+        for (int i = 0; i < 1_000; i++) {
+            IdempotencyStore.Entry entry = store.register(IdempotencyScope.TRANSFER, "user", "key-" + i, "hash");
+            store.complete(entry, i);
+        }
+
+        // Then: 용량을 넘지 않고, ttl 이 지나면 조회되지 않는다
+        assertThat(store.size()).isLessThanOrEqualTo(101);
+        assertThat(store.get(IdempotencyScope.TRANSFER, "user", "key-999")).isNotNull();
+
+        Thread.sleep(100);
+        assertThat(store.get(IdempotencyScope.TRANSFER, "user", "key-999")).isNull();
+    }
+
+    @Test
+    void inProgressHeadDoesNotBlockEviction() {
+        // Given: 가장 먼저 등록된 항목은 계속 처리 중
+        IdempotencyStore store = new IdempotencyStore(10, 1, TimeUnit.HOURS);
+        IdempotencyStore.Entry inProgress = store.register(IdempotencyScope.TRANSFER, "user", "slow", "hash");
+
+        // When: 그 뒤로 용량보다 많이 완료 처리
+        for (int i = 0; i < 100; i++) {
+            IdempotencyStore.Entry entry = store.register(IdempotencyScope.TRANSFER, "user", "key-" + i, "hash");
+            store.complete(entry, i);
+        }
+
+        // Then: 처리 중인 항목은 남기고 그 뒤의 완료 항목을 제거해 용량을 지킨다
+        assertThat(store.size()).isLessThanOrEqualTo(11);
+        assertThat(store.get(IdempotencyScope.TRANSFER, "user", "slow")).isSameAs(inProgress);
+        assertThat(store.get(IdempotencyScope.TRANSFER, "user", "key-99")).isNotNull();
+    }
+}
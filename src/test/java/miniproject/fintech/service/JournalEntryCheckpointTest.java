@@ -0,0 +1,150 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.domain.AccountBalanceCheckpoint;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.repository.AccountBalanceCheckpointRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.JournalEntryBatchRepository;
+import miniproject.fintech.repository.JournalEntryRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 체크포인트가 settle-lag 전에 관찰한 최대 ID 까지만 넘어가, 그 사이 늦게 커밋된 작은 ID 도 합산하는지 확인.
+ * journal_entry 는 ID -> (계좌, 변화량) 맵으로 흉내 내고, 맵에 없는 ID 는 아직 커밋되지 않은 분개다.
+ */
+class JournalEntryCheckpointTest {
+
+    private static final long SETTLE_LAG_MILLIS = 100;
+
+    // 커밋된 분개 ID -> [계좌, 변화량]
+    private final TreeMap<Long, Object[]> committed = new TreeMap<>();
+    private final Map<String, AccountBalanceCheckpoint> balances = new HashMap<>();
+    private final LedgerCheckpoint global = LedgerCheckpoint.builder().id(LedgerCheckpoint.JOURNAL_ENTRY_ID).build();
+    private JournalEntryService journalEntryService;
+
+    @BeforeEach
+    void setUp() {
+        JournalEntryRepository journalEntryRepository = repository(JournalEntryRepository.class, (method, args) -> switch (method) {
+            case "findMaxId" -> committed.isEmpty() ? 0L : committed.lastKey();
+            case "sumByAccountBetween" -> {
+                Map<String, Long> sums = new TreeMap<>();
+                committed.subMap((Long) args[0], false, (Long) args[1], true).values()
+                        .forEach(row -> sums.merge((String) row[0], (Long) row[1], Long::sum));
+                yield sums.entrySet().stream().map(entry -> new Object[]{entry.getKey(), entry.getValue()}).toList();
+            }
+            default -> null;
+        });
+        LedgerCheckpointRepository ledgerCheckpointRepository = repository(LedgerCheckpointRepository.class, (method, args) ->
+                "findForUpdate".equals(method) || "findById".equals(method) ? Optional.of(global) : null);
+        AccountBalanceCheckpointRepository balanceCheckpointRepository = repository(AccountBalanceCheckpointRepository.class,
+                (method, args) -> switch (method) {
+                    case "findById" -> Optional.ofNullable(balances.get((String) args[0]));
+                    case "save" -> {
+                        AccountBalanceCheckpoint checkpoint = (AccountBalanceCheckpoint) args[0];
+                        balances.put(checkpoint.getAccountNumber(), checkpoint);
+                        yield checkpoint;
+                    }
+                    default -> null;
+                });
+
+        journalEntryService = new JournalEntryService(journalEntryRepository, new JournalEntryBatchRepository(null),
+                balanceCheckpointRepository, ledgerCheckpointRepository, repository(AccountRepository.class, (method, args) -> null),
+                new NoOpTransactionManager(), true, SETTLE_LAG_MILLIS, 100_000, 1);
+    }
+
+    @Test
+    void checkpointFoldsOnlyIdsObservedBeforeSettleLag() throws InterruptedException {
+        // Given: ID 3 은 아직 커밋 전이라 보이지 않는다
+        entry(1, "A", 1_000);
+        entry(2, "B", 500);
+        entry(4, "B", 300);
+
+        // When: 처음 관찰한 최대 ID(4) 는 settle-lag 가 지나야 접는다
+        journalEntryService.checkpoint();
+        long firstSequence = global.getJournalSequence();
+        entry(3, "A", -300);
+        entry(5, "A", 50);
+        Thread.sleep(SETTLE_LAG_MILLIS + 20);
+        journalEntryService.checkpoint();
+
+        // Then: 늦게 커밋된 ID 3 까지 합산하고, settle-lag 안에 관찰된 ID 5 는 남긴다
+        assertThat(firstSequence).isZero();
+        assertThat(global.getJournalSequence()).isEqualTo(4);
+        assertThat(balances.get("A").getBalance()).isEqualTo(700);
+        assertThat(balances.get("B").getBalance()).isEqualTo(800);
+    }
+
+    @Test
+    void laterCheckpointFoldsRemainingIds() throws InterruptedException {
+        // Given
+        entry(1, "A", 100);
+        entry(2, "A", 200);
+        entry(3, "B", 300);
+        journalEntryService.checkpoint();
+        Thread.sleep(SETTLE_LAG_MILLIS + 20);
+        journalEntryService.checkpoint();
+
+        // When
+        entry(4, "B", -100);
+        journalEntryService.checkpoint();
+        Thread.sleep(SETTLE_LAG_MILLIS + 20);
+        journalEntryService.checkpoint();
+
+        // Then
+        assertThat(global.getJournalSequence()).isEqualTo(4);
+        assertThat(balances.get("A").getBalance()).isEqualTo(300);
+        assertThat(balances.get("B").getBalance()).isEqualTo(200);
+    }
+
+    private void entry(long id, String accountNumber, long delta) {
+        committed.put(id, new Object[]{accountNumber, delta});
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName();
+                };
+            }
+            return handler.invoke(method.getName(), args);
+        });
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package miniproject.fintech.service;
+
+import jakarta.transaction.Transactional;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.dto.BankMemberDto;
+import miniproject.fintech.dto.JournalReconciliationResponse;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.type.AccountStatus;
+import miniproject.fintech.type.Grade;
+import miniproject.fintech.type.JournalMovementType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class JournalEntryServiceTest {
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private TransferServiceImpl transferService;
+
+    @Autowired
+    private TransferBatchService transferBatchService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private BankMemberDto bankMemberDto;
+    private String first;
+    private String second;
+
+    @BeforeEach
+    void setUp() {
+        BankMember bankMember = memberRepository.save(BankMember.builder()
+                .userId("journal" + UUID.randomUUID().toString().substring(0, 5))
+                .name("메시")
+                .age(38)
+                .createdAt(LocalDateTime.now())
+                .birth(LocalDate.of(1995, 5, 18))
+                .email("messi@gmail.com")
+                .grade(Grade.VIP)
+                .curAmount(10000)
+                .accounts(new ArrayList<>())
+                .password("MessiGiMoZI")
+                .build());
+        bankMemberDto = BankMemberDto.builder().userId(bankMember.getUserId()).build();
+
+        first = saveAccount(bankMember, 1000);
+        second = saveAccount(bankMember, 0);
+    }
+
+    @Test
+    void movementsKeepJournalBalanceEqualToAccountBalance() {
+        // Given: 개설 잔액 1000
+        assertThat(journalEntryService.balanceOf(first)).isEqualTo(1000);
+
+        // When: 단건 송금 300, 일괄 송금 200 / 50 (상계되어 순포지션 150 한 쌍)
+        transferService.processTransfer(transfer(first, second, 300));
+        transferBatchService.processBatch(List.of(transfer(first, second, 200), transfer(second, first, 50)));
+
+        // Then: 분개 잔액 = account 잔액, 대사 결과에 두 계좌의 차이 없음
+        accountRepository.flush();
+        assertThat(journalEntryService.balanceOf(first)).isEqualTo(550);
+        assertThat(journalEntryService.balanceOf(second)).isEqualTo(450);
+        assertThat(accountRepository.findAmountByAccountNumber(first)).contains(550L);
+        assertThat(accountRepository.findAmountByAccountNumber(second)).contains(450L);
+
+        JournalReconciliationResponse response = journalEntryService.reconcile();
+        assertThat(response.getAccountDrift()).doesNotContainKeys(first, second);
+        assertThat(response.getTotalDebits()).isEqualTo(response.getTotalCredits());
+    }
+
+    @Test
+    void adjustmentIsBookedAgainstExternalAccount() {
+        // When: 관리자 조정 -400
+        journalEntryService.recordAdjustment(JournalMovementType.ADJUSTMENT, first, -400);
+
+        // Then: 계좌는 줄고 EXTERNAL 이 상대편으로 늘어 전체 합은 0
+        assertThat(journalEntryService.balanceOf(first)).isEqualTo(600);
+        long external = journalEntryService.balanceOf(JournalEntryService.EXTERNAL_ACCOUNT);
+        journalEntryService.recordAdjustment(JournalMovementType.ADJUSTMENT, first, 400);
+        assertThat(journalEntryService.balanceOf(JournalEntryService.EXTERNAL_ACCOUNT)).isEqualTo(external - 400);
+        assertThat(journalEntryService.balanceOf(first)).isEqualTo(1000);
+    }
+
+    // 개설 잔액까지 분개로 남도록 account 저장과 함께 OPENING 기록
+    private String saveAccount(BankMember bankMember, long amount) {
+        String accountNumber = accountRepository.save(Account.builder()
+                .bankMember(bankMember)
+                .accountNumber("journal-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(amount)
+                .accountStatus(AccountStatus.REGISTER)
+                .createdAt(LocalDateTime.now())
+                .build()).getAccountNumber();
+        journalEntryService.recordAdjustment(JournalMovementType.OPENING, accountNumber, amount);
+        return accountNumber;
+    }
+
+    private TransferDto transfer(String source, String destination, long amount) {
+        return TransferDto.builder()
+                .transferAmount(amount)
+                .transferAt(LocalDateTime.now())
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .bankMemberDto(bankMemberDto)
+                .build();
+    }
+}
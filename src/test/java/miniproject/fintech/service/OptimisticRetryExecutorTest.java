@@ -0,0 +1,72 @@
+package miniproject.fintech.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.error.CustomError;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static miniproject.fintech.type.ErrorType.NOT_ENOUGH_MONEY;
+import static miniproject.fintech.type.ErrorType.OPTIMISTIC_LOCK_RETRY_EXHAUSTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(meterRegistry, 4, 1, 10, 100);
+
+    @Test
+    void retriesUntilNoConflict() {
+        // Given: 처음 두 번은 version 충돌
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = executor.execute("transfer", () -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+            }
+            return "송금 완료";
+        }, "source123", "dest123");
+
+        // Then: 세 번째 시도에서 성공하고 메트릭이 남는다
+        assertThat(result).isEqualTo("송금 완료");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("account.optimistic.retries", "operation", "transfer").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("account.optimistic.conflicts", "account", "source123").count()).isEqualTo(2);
+        assertThat(executor.getConflictStats(10).get("dest123").get("attempts")).isEqualTo(3L);
+    }
+
+    @Test
+    void businessErrorIsNotRetried() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When / Then: 충돌이 아닌 예외는 그대로 던진다
+        assertThatThrownBy(() -> executor.execute("deposit", () -> {
+            calls.incrementAndGet();
+            throw new CustomError(NOT_ENOUGH_MONEY);
+        }, "source123")).isInstanceOf(CustomError.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        // When / Then
+        assertThatThrownBy(() -> executor.execute("transfer", () -> {
+            throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+        }, "hot-merchant"))
+                .isInstanceOfSatisfying(CustomError.class,
+                        error -> assertThat(error.getErrorType()).isEqualTo(OPTIMISTIC_LOCK_RETRY_EXHAUSTED));
+        assertThat(executor.getConflictStats(10).get("hot-merchant").get("conflictRate")).isEqualTo(1.0);
+    }
+
+    @Test
+    void backoffStaysWithinCap() {
+        for (int attempt = 1; attempt <= 40; attempt++) {
+            assertThat(executor.backoffMillis(attempt)).isBetween(0L, 10L);
+        }
+    }
+}
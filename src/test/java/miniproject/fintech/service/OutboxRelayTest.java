@@ -0,0 +1,85 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.domain.OutboxEvent;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.repository.OutboxEventRepository;
+import miniproject.fintech.type.OutboxEventType;
+import miniproject.fintech.type.OutboxStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * outbox 이벤트가 트랜잭션과 함께 기록/롤백되고, 알림이 발송된 뒤 relay 가 전달 완료로 표시하는지 확인.
+ */
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void eventsFollowTransactionOutcomeAndGetDelivered() throws InterruptedException {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long aggregateId = System.nanoTime();
+        TransferDto payload = TransferDto.builder()
+                .id(aggregateId)
+                .transferAmount(1_000)
+                .transferAt(LocalDateTime.now())
+                .sourceAccountNumber("outbox-src")
+                .destinationAccountNumber("outbox-dst")
+                .build();
+
+        // When: 커밋된 트랜잭션 하나, 롤백된 트랜잭션 하나
+        transactionTemplate.executeWithoutResult(status ->
+                outboxService.publish(OutboxEventType.TRANSFER_COMPLETED, aggregateId, payload));
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.publish(OutboxEventType.TRANSFER_COMPLETED, aggregateId, payload);
+            status.setRollbackOnly();
+        });
+        outboxRelay.relay();
+        List<OutboxEvent> events = eventsOf(aggregateId);
+
+        // Then: 넘긴 직후에는 아직 발송 전이므로 PENDING, 발송 결과가 반영되면 커밋된 이벤트만 전달 완료
+        assertThat(events).hasSize(1);
+        for (int i = 0; i < 100 && events.get(0).getStatus() == OutboxStatus.PENDING; i++) {
+            Thread.sleep(50);
+            outboxRelay.relay();
+            events = eventsOf(aggregateId);
+        }
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getStatus()).isEqualTo(OutboxStatus.DELIVERED);
+        assertThat(events.get(0).getDeliveredAt()).isNotNull();
+    }
+
+    private List<OutboxEvent> eventsOf(long aggregateId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId() == aggregateId)
+                .toList();
+    }
+
+    @Test
+    void publishRequiresSurroundingTransaction() {
+        assertThatThrownBy(() -> outboxService.publish(OutboxEventType.DEPOSIT_COMPLETED, 1L, "payload"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
@@ -0,0 +1,41 @@
+package miniproject.fintech.service;
+
+import miniproject.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TotalBalanceTrackerTest {
+
+    @Autowired
+    private TotalBalanceTracker totalBalanceTracker;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Test
+    void balanceChangesUpdateTotalAndDriftFromDatabaseIsCorrected() {
+        // Given
+        long before = totalBalanceTracker.total();
+
+        // When: 트랜잭션 밖의 변경은 바로 반영
+        totalBalanceTracker.recordChange(500);
+
+        // Then
+        assertThat(totalBalanceTracker.total()).isEqualTo(before + 500);
+
+        // When: DB 에는 없는 변경이므로 같은 차이가 두 번 보이면 보정
+        totalBalanceTracker.reconcile();
+        totalBalanceTracker.reconcile();
+
+        // Then
+        assertThat(totalBalanceTracker.total())
+                .isEqualTo(accountRepository.sumAmount() + hotAccountService.totalSlotAmount());
+    }
+}
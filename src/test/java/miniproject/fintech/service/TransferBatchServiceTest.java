@@ -0,0 +1,117 @@
+package miniproject.fintech.service;
+
+import jakarta.transaction.Transactional;
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.dto.BankMemberDto;
+import miniproject.fintech.dto.TransferBatchResponse;
+import miniproject.fintech.dto.TransferBatchResult;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.type.AccountStatus;
+import miniproject.fintech.type.Grade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_NOT_FOUND;
+import static miniproject.fintech.type.ErrorType.NOT_ENOUGH_MONEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TransferBatchServiceTest {
+
+    @Autowired
+    private TransferBatchService transferBatchService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private BankMemberDto bankMemberDto;
+    private String first;
+    private String second;
+    private String third;
+
+    @BeforeEach
+    void setUp() {
+        BankMember bankMember = memberRepository.save(BankMember.builder()
+                .userId("batch" + UUID.randomUUID().toString().substring(0, 5))
+                .name("메시")
+                .age(38)
+                .createdAt(LocalDateTime.now())
+                .birth(LocalDate.of(1995, 5, 18))
+                .email("messi@gmail.com")
+                .grade(Grade.VIP)
+                .curAmount(10000)
+                .accounts(new ArrayList<>())
+                .password("MessiGiMoZI")
+                .build());
+        bankMemberDto = BankMemberDto.builder().userId(bankMember.getUserId()).build();
+
+        first = saveAccount(bankMember, 1000);
+        second = saveAccount(bankMember, 0);
+        third = saveAccount(bankMember, 0);
+    }
+
+    @Test
+    void batchAppliesEachItemInOrder() {
+        // Given: 두 번째 건은 첫 번째 건의 입금으로만 잔액이 충분해진다
+        List<TransferDto> transfers = List.of(
+                transfer(first, second, 700),
+                transfer(second, third, 500),
+                transfer(first, third, 500),        // 잔액 부족 (300 남음)
+                transfer(first, "unknown-account", 100));
+
+        // When
+        TransferBatchResponse response = transferBatchService.processBatch(transfers);
+
+        // Then: 건별 결과와 잔액
+        assertThat(response.getTotalCount()).isEqualTo(4);
+        assertThat(response.getSuccessCount()).isEqualTo(2);
+        assertThat(response.getFailureCount()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(TransferBatchResult::isSuccess)
+                .containsExactly(true, true, false, false);
+        assertThat(response.getResults().get(2).getErrorType()).isEqualTo(NOT_ENOUGH_MONEY);
+        assertThat(response.getResults().get(3).getErrorType()).isEqualTo(ACCOUNT_NOT_FOUND);
+
+        // 잔액은 JDBC 로 반영되므로 영속성 컨텍스트의 엔티티가 아닌 DB 값을 조회
+        accountRepository.flush();
+        assertThat(accountRepository.findAmountByAccountNumber(first)).contains(300L);
+        assertThat(accountRepository.findAmountByAccountNumber(second)).contains(200L);
+        assertThat(accountRepository.findAmountByAccountNumber(third)).contains(500L);
+        // first -700, second +200, third +500: 계좌 3 개만 UPDATE
+        assertThat(response.getBalanceUpdateCount()).isEqualTo(3);
+    }
+
+    private String saveAccount(BankMember bankMember, long amount) {
+        return accountRepository.save(Account.builder()
+                .bankMember(bankMember)
+                .accountNumber("batch-" + UUID.randomUUID().toString().substring(0, 8))
+                .amount(amount)
+                .accountStatus(AccountStatus.REGISTER)
+                .createdAt(LocalDateTime.now())
+                .build()).getAccountNumber();
+    }
+
+    private TransferDto transfer(String source, String destination, long amount) {
+        return TransferDto.builder()
+                .transferAmount(amount)
+                .transferAt(LocalDateTime.now())
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .bankMemberDto(bankMemberDto)
+                .build();
+    }
+}
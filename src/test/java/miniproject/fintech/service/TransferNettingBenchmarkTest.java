@@ -0,0 +1,94 @@
+package miniproject.fintech.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 편향된(소수 계좌 쌍에 몰린) 합성 정산 배치로 건별 반영과 상계 반영의 잔액 UPDATE 수 비교.
+ */
+@Slf4j
+class TransferNettingBenchmarkTest {
+
+    private static final int ACCOUNT_COUNT = 200;
+    private static final int TRANSFER_COUNT = 10_000;
+    private static final long OPENING_BALANCE = 1_000_000;
+
+    @Test
+    void nettingCutsBalanceWritesOnSkewedBatches() {
+        // Given: 계좌 인덱스를 u^3 으로 뽑아 앞쪽 계좌 쌍에 송금이 몰리는 배치
+        Random random = new Random(42);
+        Map<String, Long> openingBalances = new HashMap<>();
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            openingBalances.put(accountNumber(i), OPENING_BALANCE);
+        }
+        List<long[]> transfers = new ArrayList<>(TRANSFER_COUNT);
+        while (transfers.size() < TRANSFER_COUNT) {
+            int source = skewedIndex(random);
+            int destination = skewedIndex(random);
+            if (source != destination) {
+                transfers.add(new long[]{source, destination, 1 + random.nextInt(10_000)});
+            }
+        }
+
+        // When
+        long start = System.nanoTime();
+        TransferNetting netting = new TransferNetting(openingBalances);
+        Map<String, Long> sequential = new HashMap<>(openingBalances);
+        for (long[] transfer : transfers) {
+            String source = accountNumber((int) transfer[0]);
+            String destination = accountNumber((int) transfer[1]);
+            if (netting.accept(source, destination, transfer[2])) {
+                sequential.merge(source, -transfer[2], Long::sum);
+                sequential.merge(destination, transfer[2], Long::sum);
+            }
+        }
+        SortedMap<String, Long> netDeltas = netting.netDeltas();
+        long elapsedNanos = System.nanoTime() - start;
+
+        int perTransferWrites = netting.getAcceptedCount() * 2;
+        log.info("건별 반영 잔액 UPDATE = {}, 상계 후 = {} (계좌 쌍 순포지션 {} 개), 상계 처리 {}ms",
+                perTransferWrites, netDeltas.size(), netting.netPositions().size(), elapsedNanos / 1_000_000);
+
+        // Then: 잔액 UPDATE 가 10 배 이상 줄고, 결과 잔액은 건별 반영과 같다
+        assertThat(netting.getAcceptedCount()).isEqualTo(TRANSFER_COUNT);
+        assertThat(netDeltas.size() * 10).isLessThanOrEqualTo(perTransferWrites);
+        assertThat(netDeltas.values().stream().mapToLong(Long::longValue).sum()).isZero();
+        for (Map.Entry<String, Long> entry : openingBalances.entrySet()) {
+            long netted = entry.getValue() + netDeltas.getOrDefault(entry.getKey(), 0L);
+            assertThat(netted).isEqualTo(sequential.get(entry.getKey()));
+            assertThat(netting.balanceOf(entry.getKey())).isEqualTo(netted);
+        }
+    }
+
+    @Test
+    void nettingKeepsPerInstructionBalanceChecks() {
+        // Given: A 1,000, B 0
+        TransferNetting netting = new TransferNetting(Map.of("A", 1_000L, "B", 0L));
+
+        // When: B 는 A 에게서 받은 뒤에만 보낼 수 있다
+        boolean first = netting.accept("B", "A", 100);
+        boolean second = netting.accept("A", "B", 700);
+        boolean third = netting.accept("B", "A", 500);
+        boolean fourth = netting.accept("A", "B", 900);
+        boolean unknown = netting.accept("A", "C", 1);
+
+        // Then: 건별 순서대로 판단하고, 잔액에는 A→B 순 200 만 반영
+        assertThat(List.of(first, second, third, fourth, unknown)).containsExactly(false, true, true, false, false);
+        assertThat(netting.netPositions()).containsExactly(new TransferNetting.NetPosition("A", "B", 200));
+        assertThat(netting.netDeltas()).containsExactly(Map.entry("A", -200L), Map.entry("B", 200L));
+        assertThat(netting.getGrossAmount()).isEqualTo(1_200);
+    }
+
+    private static int skewedIndex(Random random) {
+        double u = random.nextDouble();
+        return (int) (ACCOUNT_COUNT * u * u * u);
+    }
+
+    private static String accountNumber(int index) {
+        return "acc-" + index;
+    }
+}
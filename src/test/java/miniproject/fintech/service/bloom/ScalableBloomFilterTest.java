@@ -0,0 +1,123 @@
+package miniproject.fintech.service.bloom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void growsPastCapacityWithoutFalseNegativesAndNearTargetFalsePositiveRate() {
+        // Given: 용량 1,000 짜리 필터에 20,000 개를 넣으면 단계가 늘어난다
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("account-" + i);
+        }
+
+        // Then: 넣은 키는 거짓 음성이 없다
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain("account-" + i)).isTrue();
+        }
+        assertThat(filter.stageCount()).isGreaterThan(1);
+
+        // Then: 넣지 않은 키의 실제 오탐률
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("missing-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThan(0.02);
+    }
+
+    @Test
+    void absentKeySkipsDatabaseLookup() {
+        // Given
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, 3,
+                scanOf(List.of("110-1", "110-2")), true, 0, 0, new SimpleMeterRegistry());
+        filter.rebuild();
+        AtomicInteger queries = new AtomicInteger();
+
+        // When
+        boolean missing = filter.exists("110-999", key -> queries.incrementAndGet() > 0);
+        boolean present = filter.exists("110-1", key -> queries.incrementAndGet() > 0);
+
+        // Then
+        assertThat(missing).isFalse();
+        assertThat(present).isTrue();
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void checksDatabaseBeforeSeedAndRebuildsWhenSaturated() {
+        // Given
+        ExistenceFilter filter = new ExistenceFilter("test", 10, 0.01, 2,
+                scanOf(List.of("a", "b")), true, 0, 0, new SimpleMeterRegistry());
+
+        // Then: 시드 전
+        assertThat(filter.exists("a", key -> true)).isTrue();
+
+        // When: 용량을 넘겨 단계가 max-stages 에 이르면 포화
+        filter.rebuild();
+        for (int i = 0; i < 20; i++) {
+            filter.put("new-" + i);
+        }
+
+        // Then
+        assertThat(filter.isSaturated()).isTrue();
+        filter.rebuild();
+        assertThat(filter.isSaturated()).isFalse();
+        assertThat(filter.exists("a", key -> true)).isTrue();
+    }
+
+    @Test
+    void keysAddedByAnotherNodeAreVisibleAfterRefresh() {
+        // Given: 다른 인스턴스도 키를 쓰는 필터 (id 순서 = 목록 순서)
+        List<String> keys = new ArrayList<>(List.of("110-1", "110-2"));
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, 3,
+                scanOf(keys), false, 60_000, 60_000, new SimpleMeterRegistry());
+        filter.rebuild();
+
+        // When: 다른 노드가 키를 추가하고 refresh
+        keys.add("110-3");
+        filter.refresh();
+
+        // Then: DB 조회로 확인되고, 모르는 키는 여전히 DB 없이 false
+        AtomicInteger queries = new AtomicInteger();
+        assertThat(filter.exists("110-3", key -> queries.incrementAndGet() > 0)).isTrue();
+        assertThat(filter.exists("110-999", key -> queries.incrementAndGet() > 0)).isFalse();
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void negativesAreVerifiedWhenRefreshIsStale() throws InterruptedException {
+        // Given: refresh 가 10ms 넘게 없으면 "없음" 을 믿지 않는 필터
+        ExistenceFilter filter = new ExistenceFilter("test", 100, 0.01, 3,
+                scanOf(List.of("110-1")), false, 10, 60_000, new SimpleMeterRegistry());
+        filter.rebuild();
+
+        // When: 다른 노드가 만든 키를 아직 refresh 하지 못한 채 시간이 지남
+        Thread.sleep(30);
+
+        // Then: 필터가 모르는 키도 DB 로 확인해 있다고 답한다
+        assertThat(filter.exists("110-2", key -> true)).isTrue();
+    }
+
+    // 목록의 위치(1부터)를 id 로 보는 스캔
+    private static ExistenceFilter.KeyScan scanOf(List<String> keys) {
+        return (afterId, sink) -> {
+            for (int i = (int) afterId; i < keys.size(); i++) {
+                sink.accept(keys.get(i));
+            }
+            return Math.max(afterId, keys.size());
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package miniproject.fintech.service.eventsource;
+
+import miniproject.fintech.domain.AccountEvent;
+import miniproject.fintech.domain.AccountSnapshot;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.type.AccountEventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static miniproject.fintech.type.ErrorType.ACCOUNT_FROZEN;
+import static miniproject.fintech.type.ErrorType.NOT_ENOUGH_MONEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountAggregateTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void snapshotPlusTailEqualsFullReplay() {
+        // Given: 개설 후 무작위 입출금 1000 건 (잔액 부족은 거절)
+        AccountAggregate live = AccountAggregate.empty("es-1");
+        List<AccountEvent> events = new ArrayList<>();
+        List<AccountSnapshot> snapshots = new ArrayList<>();
+        events.add(live.open(1_000, START));
+        Random random = new Random(11);
+        for (int i = 1; i <= 1_000; i++) {
+            long amount = 1 + random.nextInt(500);
+            try {
+                events.add(random.nextBoolean()
+                        ? live.credit(amount, START.plusSeconds(i))
+                        : live.debit(amount, START.plusSeconds(i)));
+            } catch (CustomError e) {
+                assertThat(e.getErrorType()).isEqualTo(NOT_ENOUGH_MONEY);
+            }
+            if (live.getVersion() % 100 == 0) {
+                snapshots.add(live.toSnapshot());
+            }
+        }
+
+        // When: 처음부터 적용 / 마지막 스냅샷 + 그 이후 이벤트만 적용
+        AccountAggregate full = AccountAggregate.rehydrate("es-1", null, events);
+        AccountSnapshot last = snapshots.get(snapshots.size() - 1);
+        List<AccountEvent> tail = events.stream().filter(event -> event.getVersion() > last.getVersion()).toList();
+        AccountAggregate fromSnapshot = AccountAggregate.rehydrate("es-1", last, tail);
+
+        // Then: 두 상태가 같고, 스냅샷 뒤에 읽은 이벤트는 100 건 미만
+        assertThat(full.getBalance()).isEqualTo(live.getBalance()).isGreaterThanOrEqualTo(0);
+        assertThat(fromSnapshot.getBalance()).isEqualTo(live.getBalance());
+        assertThat(fromSnapshot.getVersion()).isEqualTo(live.getVersion()).isEqualTo(events.size());
+        assertThat(tail).hasSizeLessThan(100);
+    }
+
+    @Test
+    void frozenAccountRejectsDebitButAcceptsCredit() {
+        // Given
+        AccountAggregate aggregate = AccountAggregate.empty("es-2");
+        aggregate.open(500, START);
+        AccountEvent frozen = aggregate.freeze(START.plusSeconds(1));
+
+        // When / Then: 동결 중 출금 거절, 입금은 허용, 해제 후 출금 가능
+        assertThat(frozen.getEventType()).isEqualTo(AccountEventType.FROZEN);
+        assertThatThrownBy(() -> aggregate.debit(100, START.plusSeconds(2)))
+                .isInstanceOfSatisfying(CustomError.class, e -> assertThat(e.getErrorType()).isEqualTo(ACCOUNT_FROZEN));
+        aggregate.credit(100, START.plusSeconds(3));
+        aggregate.unfreeze(START.plusSeconds(4));
+        aggregate.debit(600, START.plusSeconds(5));
+
+        assertThat(aggregate.getBalance()).isZero();
+        assertThat(aggregate.getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void eventsMustBeContiguous() {
+        // Given: version 1 다음에 3 이 오는 스트림
+        AccountAggregate source = AccountAggregate.empty("es-3");
+        AccountEvent opened = source.open(100, START);
+        source.credit(10, START.plusSeconds(1));
+        AccountEvent third = source.credit(10, START.plusSeconds(2));
+
+        // When / Then
+        assertThatThrownBy(() -> AccountAggregate.rehydrate("es-3", null, List.of(opened, third)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,186 @@
+package miniproject.fintech.service.eventsource;
+
+import miniproject.fintech.domain.AccountEvent;
+import miniproject.fintech.domain.LedgerCheckpoint;
+import miniproject.fintech.repository.AccountEventRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.AccountSnapshotRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.type.AccountConcurrencyMode;
+import miniproject.fintech.type.AccountEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IDENTITY ID 순서와 커밋 순서가 다를 때도 (작은 ID 가 늦게 커밋) 모든 이벤트가 한 번씩만 반영되는지 확인.
+ * account_event / account 테이블은 메모리 목록으로 흉내 내고, 아직 커밋되지 않은 이벤트는 조회에서 빠진다.
+ */
+class AccountProjectorTest {
+
+    private final List<AccountEvent> committed = new ArrayList<>();
+    private final Map<String, long[]> accounts = new HashMap<>();
+    private final LedgerCheckpoint checkpoint = LedgerCheckpoint.builder().id(LedgerCheckpoint.ACCOUNT_PROJECTION_ID).build();
+    private AccountProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        // [amount, projectedVersion]
+        accounts.put("A", new long[]{1_000, 0});
+        accounts.put("B", new long[]{500, 0});
+
+        AccountEventRepository eventRepository = repository(AccountEventRepository.class, (method, args) -> switch (method) {
+            case "findAfter" -> visible().stream()
+                    .filter(event -> event.getId() > (Long) args[0])
+                    .limit(((Pageable) args[1]).getPageSize())
+                    .toList();
+            case "findUnprojected" -> visible().stream()
+                    .filter(event -> event.getVersion() > accounts.get(event.getAccountNumber())[1])
+                    .sorted(Comparator.comparing(AccountEvent::getAccountNumber).thenComparingLong(AccountEvent::getVersion))
+                    .limit(((Pageable) args[0]).getPageSize())
+                    .toList();
+            case "findByAccountNumberAndVersionGreaterThanOrderByVersionAsc" -> visible().stream()
+                    .filter(event -> event.getAccountNumber().equals(args[0]) && event.getVersion() > (Long) args[1])
+                    .sorted(Comparator.comparingLong(AccountEvent::getVersion))
+                    .toList();
+            default -> null;
+        });
+        AccountRepository accountRepository = repository(AccountRepository.class, (method, args) -> switch (method) {
+            case "findProjectedVersions" -> ((Collection<?>) args[0]).stream()
+                    .filter(accounts::containsKey)
+                    .map(accountNumber -> new Object[]{accountNumber, accounts.get(accountNumber)[1]})
+                    .toList();
+            case "project" -> {
+                long[] account = accounts.get((String) args[0]);
+                if (account == null || account[1] != (Long) args[3]) {
+                    yield 0;
+                }
+                account[0] += (Long) args[1];
+                account[1] = (Long) args[4];
+                yield 1;
+            }
+            default -> null;
+        });
+        LedgerCheckpointRepository checkpointRepository = repository(LedgerCheckpointRepository.class, (method, args) ->
+                "findForUpdate".equals(method) ? Optional.of(checkpoint) : null);
+        AccountEventStore eventStore = new AccountEventStore(eventRepository,
+                repository(AccountSnapshotRepository.class, (method, args) -> null), accountRepository,
+                AccountConcurrencyMode.EVENT_SOURCED, 100);
+
+        projector = new AccountProjector(eventStore, eventRepository, accountRepository, checkpointRepository,
+                new NoOpTransactionManager(), 2);
+    }
+
+    @Test
+    void eventCommittedAfterLargerIdIsProjectedBySweep() {
+        // Given: ID 3 (B 입금) 이 ID 4, 5 보다 늦게 커밋된다
+        event(1, "A", 1, AccountEventType.OPENED, 1_000);
+        event(2, "B", 1, AccountEventType.OPENED, 500);
+        AccountEvent late = pending(3, "B", 2, AccountEventType.CREDITED, 70);
+        event(4, "A", 2, AccountEventType.CREDITED, 100);
+        event(5, "A", 3, AccountEventType.DEBITED, 30);
+
+        // When: 빠른 경로가 ID 5 까지 읽은 뒤 ID 3 이 커밋
+        projector.project();
+        committed.add(late);
+        projector.project();
+        long balanceBeforeSweep = accounts.get("B")[0];
+        projector.sweep();
+        projector.sweep();
+        projector.project();
+
+        // Then: 빠른 경로는 ID 3 을 다시 보지 않지만 sweep 이 version 으로 찾아 한 번만 반영
+        assertThat(checkpoint.getJournalSequence()).isEqualTo(5);
+        assertThat(accounts.get("A")).containsExactly(1_070, 3);
+        assertThat(balanceBeforeSweep).isEqualTo(500);
+        assertThat(accounts.get("B")).containsExactly(570, 2);
+    }
+
+    @Test
+    void fastPathStopsAtVersionGapAndFillsItOnceCommitted() {
+        // Given: A 의 version 2 가 커밋 전인데 version 3 이 보인다 (빠른 경로가 읽는 순간 version 2 의 ID 가 더 작음)
+        event(1, "A", 1, AccountEventType.OPENED, 1_000);
+        AccountEvent late = pending(2, "A", 2, AccountEventType.FROZEN, 0);
+        event(3, "A", 3, AccountEventType.CREDITED, 200);
+
+        // When
+        projector.project();
+        long[] afterFirst = accounts.get("A").clone();
+        committed.add(late);
+        event(4, "A", 4, AccountEventType.CREDITED, 50);
+        projector.project();
+
+        // Then: 빈틈 앞에서 멈췄다가, 다음 이벤트가 들어오면 빠진 version 을 직접 읽어 이어서 반영
+        assertThat(afterFirst).containsExactly(1_000, 1);
+        assertThat(accounts.get("A")).containsExactly(1_250, 4);
+    }
+
+    private List<AccountEvent> visible() {
+        return committed.stream().sorted(Comparator.comparingLong(AccountEvent::getId)).toList();
+    }
+
+    private void event(long id, String accountNumber, long version, AccountEventType type, long amount) {
+        committed.add(pending(id, accountNumber, version, type, amount));
+    }
+
+    private static AccountEvent pending(long id, String accountNumber, long version, AccountEventType type, long amount) {
+        return AccountEvent.builder()
+                .id(id)
+                .accountNumber(accountNumber)
+                .version(version)
+                .eventType(type)
+                .amount(amount)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName();
+                };
+            }
+            return handler.invoke(method.getName(), args);
+        });
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
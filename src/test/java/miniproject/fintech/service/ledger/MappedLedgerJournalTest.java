@@ -0,0 +1,166 @@
+package miniproject.fintech.service.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import miniproject.fintech.type.DepositStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class MappedLedgerJournalTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversRecordsAfterCheckpointAcrossSegments() throws Exception {
+        // Given: 세그먼트 여러 개에 걸친 2,000 건
+        MappedLedgerJournal journal = new MappedLedgerJournal(directory, SEGMENT_BYTES, true);
+        assertThat(journal.recover(0)).isEmpty();
+        journal.start();
+        CountDownLatch durable = new CountDownLatch(2_000);
+        for (int i = 0; i < 2_000; i++) {
+            journal.append(movement(i), movement -> durable.countDown());
+        }
+        assertThat(durable.await(10, TimeUnit.SECONDS)).isTrue();
+        journal.stop();
+        assertThat(segmentCount()).isGreaterThan(1);
+
+        // When: checkpoint 1,500 까지 반영된 상태에서 다시 열기
+        MappedLedgerJournal reopened = new MappedLedgerJournal(directory, SEGMENT_BYTES, true);
+        List<LedgerMovement> unapplied = reopened.recover(1_500);
+
+        // Then: 1,501 ~ 2,000 만 순서대로, 내용 그대로
+        assertThat(unapplied).hasSize(500);
+        assertThat(unapplied.get(0).journalSequence).isEqualTo(1_501);
+        assertThat(unapplied.get(499).journalSequence).isEqualTo(2_000);
+        LedgerMovement last = unapplied.get(499);
+        assertThat(last.sourceAccountNumber).isEqualTo("src-1999");
+        assertThat(last.amount).isEqualTo(2_000);
+        assertThat(last.depositStatus).isEqualTo(DepositStatus.COMPLETED);
+        assertThat(last.requestedAt).isEqualTo(LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_789));
+
+        // 이어서 쓰는 기록은 2,001 부터, checkpoint 이전 세그먼트는 삭제
+        reopened.start();
+        LedgerMovement next = movement(2_000);
+        CountDownLatch appended = new CountDownLatch(1);
+        reopened.append(next, movement -> appended.countDown());
+        assertThat(appended.await(5, TimeUnit.SECONDS)).isTrue();
+        int before = segmentCount();
+        reopened.truncateThrough(2_000);
+        reopened.stop();
+        assertThat(next.journalSequence).isEqualTo(2_001);
+        assertThat(segmentCount()).isLessThan(before);
+    }
+
+    @Test
+    void tornTailIsDiscarded() throws Exception {
+        // Given: 3 건 기록 후 마지막 레코드 본문 일부 훼손 (쓰다 만 레코드)
+        MappedLedgerJournal journal = new MappedLedgerJournal(directory, SEGMENT_BYTES, true);
+        journal.recover(0);
+        journal.start();
+        CountDownLatch durable = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            journal.append(movement(i), movement -> durable.countDown());
+        }
+        assertThat(durable.await(5, TimeUnit.SECONDS)).isTrue();
+        journal.stop();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        int recordBytes = 8 + MappedLedgerJournal.encode(movement(0)).length;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(recordBytes * 2L + 20);
+            file.writeLong(0x5a5a5a5a5a5a5a5aL);
+        }
+
+        // When
+        MappedLedgerJournal reopened = new MappedLedgerJournal(directory, SEGMENT_BYTES, true);
+        List<LedgerMovement> recovered = reopened.recover(0);
+
+        // Then: 온전한 2 건만 복구되고, 다음 기록은 3 번부터 이어진다
+        assertThat(recovered).extracting(movement -> movement.journalSequence).containsExactly(1L, 2L);
+        reopened.start();
+        LedgerMovement next = movement(3);
+        CountDownLatch appended = new CountDownLatch(1);
+        reopened.append(next, movement -> appended.countDown());
+        assertThat(appended.await(5, TimeUnit.SECONDS)).isTrue();
+        reopened.stop();
+        assertThat(next.journalSequence).isEqualTo(3);
+    }
+
+    @Test
+    void groupFsyncThroughput() throws Exception {
+        // Given: writer 8 개가 동시에 기록 (샤드 writer 스레드 흉내)
+        int writers = 8;
+        int perWriter = 5_000;
+        MappedLedgerJournal journal = new MappedLedgerJournal(directory, 16 * 1024 * 1024, true);
+        journal.recover(0);
+        journal.start();
+        CountDownLatch durable = new CountDownLatch(writers * perWriter);
+        AtomicLong maxLatencyNanos = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+
+        // When
+        long start = System.nanoTime();
+        for (int w = 0; w < writers; w++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    long appendedAt = System.nanoTime();
+                    journal.append(movement(i), movement -> {
+                        maxLatencyNanos.accumulateAndGet(System.nanoTime() - appendedAt, Math::max);
+                        durable.countDown();
+                    });
+                }
+            });
+        }
+        assertThat(durable.await(60, TimeUnit.SECONDS)).isTrue();
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        journal.stop();
+
+        // Then: fsync 한 번에 여러 기록이 묶인다
+        long records = journal.getSyncedRecords();
+        long syncs = journal.getSyncCount();
+        log.info("저널 group fsync: 기록 {} 건, fsync {} 회 (평균 {} 건/회), {} 건/초, 최대 대기 {}ms",
+                records, syncs, records / Math.max(syncs, 1), records * 1_000_000_000L / elapsedNanos,
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+        assertThat(records).isEqualTo((long) writers * perWriter);
+        assertThat(syncs).isLessThan(records);
+    }
+
+    private int segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return (int) files.count();
+        }
+    }
+
+    private static LedgerMovement movement(int i) {
+        LedgerMovement movement = new LedgerMovement(LedgerMovement.Kind.DEPOSIT, "src-" + i, "dst-" + i, i + 1,
+                7L, LocalDateTime.of(2024, 1, 1, 9, 0, 0, 123_456_789), DepositStatus.COMPLETED);
+        movement.sourceAccountId = 1L;
+        movement.destinationAccountId = 2L;
+        movement.sourceBalanceAfter = 1_000;
+        movement.destinationBalanceAfter = 2_000 + i;
+        movement.appliedAt = LocalDateTime.now();
+        return movement;
+    }
+}
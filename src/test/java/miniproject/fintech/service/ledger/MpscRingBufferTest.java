@@ -0,0 +1,72 @@
+package miniproject.fintech.service.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void offerFailsWhenFull() {
+        // Given: 용량은 2의 거듭제곱으로 올림된다
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        assertThat(ring.capacity()).isEqualTo(4);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+
+        // Then: 가득 차면 false, 하나 꺼내면 다시 넣을 수 있다
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.poll()).isEqualTo(0);
+        assertThat(ring.offer(4)).isTrue();
+    }
+
+    @Test
+    void multipleProducersKeepPerProducerOrder() throws InterruptedException {
+        // Given
+        int producers = 4;
+        int perProducer = 200_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When: 여러 스레드가 동시에 (생산자 번호, 순번) 을 넣는다
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ring.offer(new long[]{producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        // Then: 단일 소비자가 모두 한 번씩, 생산자별로는 순서대로 받는다
+        long[] next = new long[producers];
+        long received = 0;
+        while (received < (long) producers * perProducer) {
+            received += ring.drain(element -> {
+                assertThat(element[1]).isEqualTo(next[(int) element[0]]);
+                next[(int) element[0]]++;
+            }, 256);
+        }
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ring.isEmpty()).isTrue();
+        for (long count : next) {
+            assertThat(count).isEqualTo(perProducer);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package miniproject.fintech.service.ledger;
+
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountBalanceCheckpointRepository;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.DepositRepository;
+import miniproject.fintech.repository.JournalEntryRepository;
+import miniproject.fintech.repository.LedgerCheckpointRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.repository.TransactionRepository;
+import miniproject.fintech.repository.TransferRepository;
+import miniproject.fintech.service.JournalEntryService;
+import miniproject.fintech.type.ErrorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 엔진 수준 검증: 계좌 분리/재등록이 write-behind 로 밀린 변화와 섞여도 메모리 잔액과 DB 잔액이 같게 남는지.
+ * DB 는 계좌 번호별 잔액 맵으로 흉내 내고, write-behind 간격을 길게 두어 분리 시점에 반영 대기 중인 이동이 있게 한다.
+ */
+class ShardedLedgerEngineTest {
+
+    private final Map<String, Long> database = new ConcurrentHashMap<>();
+    private ShardedLedgerEngine engine;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void detachWaitsForPendingWriteBehindBeforeReturningBalance() throws Exception {
+        // Given
+        start(Map.of("A", 1_000_000L, "B", 0L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicLong transferred = new AtomicLong();
+        List<Future<?>> results = new ArrayList<>();
+
+        // When: 송금이 계속 들어오는 중에 A 를 분리
+        for (int i = 0; i < 2_000; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    engine.transfer(transfer("A", "B", 1), 1L);
+                    transferred.incrementAndGet();
+                } catch (CustomError e) {
+                    assertThat(e.getErrorType()).isEqualTo(ErrorType.ACCOUNT_NOT_FOUND);
+                }
+            }));
+        }
+        Thread.sleep(20);
+        long detached = engine.detach("A").orElseThrow();
+
+        // Then: 분리 시점에 A 의 DB 잔액은 이미 분리한 잔액과 같다
+        assertThat(database.get("A")).isEqualTo(detached);
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        assertThat(detached).isEqualTo(1_000_000L - transferred.get());
+        assertThat(engine.balanceOf("A")).isEmpty();
+
+        engine.stop();
+        engine = null;
+        assertThat(database.get("A")).isEqualTo(detached);
+        assertThat(database.get("B")).isEqualTo(transferred.get());
+    }
+
+    @Test
+    void registerDoesNotOverwriteLiveBalanceWithStaleDatabaseAmount() {
+        // Given: B 에 입금된 100 은 아직 DB 에 반영되기 전
+        start(Map.of("A", 1_000L, "B", 0L));
+        engine.transfer(transfer("A", "B", 100), 1L);
+
+        // When: DB 의 이전 잔액(0)으로 다시 등록
+        engine.registerAfterCommit(Account.builder().id(2L).accountNumber("B").amount(0L).build());
+
+        // Then: 등록은 무시되고 분리해 보면 메모리 잔액 그대로
+        assertThat(engine.detach("B")).hasValue(100L);
+        assertThat(database.get("B")).isEqualTo(100L);
+    }
+
+    @Test
+    void renamedAccountKeepsDrainedBalanceAndMovementsFollowNewNumber() throws InterruptedException {
+        // Given
+        start(Map.of("A", 1_000L, "B", 0L));
+        engine.transfer(transfer("A", "B", 300), 1L);
+
+        // When: A 를 분리하고 DB 에서 번호를 바꾼 뒤 새 번호로 다시 등록
+        long detached = engine.detach("A").orElseThrow();
+        database.put("A2", database.remove("A"));
+        engine.registerAfterCommit(Account.builder().id(1L).accountNumber("A2").amount(database.get("A2")).build());
+        awaitRegistered("A2");
+        engine.transfer(transfer("A2", "B", 200), 1L);
+
+        // Then: 이전 번호로는 송금할 수 없고, 새 번호의 잔액은 메모리와 DB 가 같다
+        assertThat(detached).isEqualTo(700L);
+        assertThatThrownBy(() -> engine.transfer(transfer("A", "B", 1), 1L))
+                .isInstanceOf(CustomError.class);
+        assertThat(engine.balanceOf("A2")).hasValue(500L);
+
+        engine.stop();
+        engine = null;
+        assertThat(database).containsOnlyKeys("A2", "B");
+        assertThat(database.get("A2")).isEqualTo(500L);
+        assertThat(database.get("B")).isEqualTo(500L);
+    }
+
+    private void start(Map<String, Long> balances) {
+        database.putAll(balances);
+        List<Object[]> rows = new ArrayList<>();
+        long id = 1;
+        for (String accountNumber : List.of("A", "B")) {
+            rows.add(new Object[]{id++, accountNumber, balances.get(accountNumber)});
+        }
+
+        AccountRepository accountRepository = repository(AccountRepository.class, (method, args) -> switch (method) {
+            case "findAllAccountBalances" -> rows;
+            case "applyDelta" -> database.computeIfPresent((String) args[0], (key, amount) -> amount + (Long) args[1]) == null ? 0 : 1;
+            default -> null;
+        });
+        LedgerCheckpointRepository checkpointRepository = repository(LedgerCheckpointRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.empty();
+            case "save" -> args[0];
+            default -> null;
+        });
+        JournalEntryService journalEntryService = new JournalEntryService(
+                repository(JournalEntryRepository.class, (method, args) -> null), null,
+                repository(AccountBalanceCheckpointRepository.class, (method, args) -> null),
+                checkpointRepository, accountRepository, new NoOpTransactionManager(), false, 60_000, 100_000, 1);
+
+        engine = new ShardedLedgerEngine(accountRepository,
+                repository(TransferRepository.class, (method, args) -> "save".equals(method) ? args[0] : null),
+                repository(DepositRepository.class, (method, args) -> "save".equals(method) ? args[0] : null),
+                repository(TransactionRepository.class, (method, args) -> "save".equals(method) ? args[0] : null),
+                repository(MemberRepository.class, (method, args) -> null),
+                checkpointRepository, journalEntryService, new NoOpTransactionManager(),
+                4, 1024, 500, 200, 5_000, false, null, 1, false);
+        engine.start();
+    }
+
+    private void awaitRegistered(String accountNumber) throws InterruptedException {
+        for (int i = 0; i < 1_000 && engine.balanceOf(accountNumber).isEmpty(); i++) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static TransferDto transfer(String source, String destination, long amount) {
+        return TransferDto.builder()
+                .sourceAccountNumber(source)
+                .destinationAccountNumber(destination)
+                .transferAmount(amount)
+                .transferAt(LocalDateTime.now())
+                .build();
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName();
+                };
+            }
+            return handler.invoke(method.getName(), args);
+        });
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
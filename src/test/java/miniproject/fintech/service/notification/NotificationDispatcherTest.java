@@ -0,0 +1,130 @@
+package miniproject.fintech.service.notification;
+
+import miniproject.fintech.type.NotificationDropPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDispatcherTest {
+
+    private static final ThreadFactory THREAD_FACTORY = Executors.defaultThreadFactory();
+
+    @Test
+    void burstsForSameRecipientAreDigested() throws InterruptedException {
+        // Given: 수신자 3 명에게 30 건씩 한꺼번에
+        List<NotificationDigest> digests = new CopyOnWriteArrayList<>();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(digests::add, THREAD_FACTORY,
+                1024, 2, NotificationDropPolicy.DROP_NEWEST, 0, 200, 50);
+        dispatcher.start();
+
+        // When
+        for (int i = 0; i < 30; i++) {
+            for (String recipient : List.of("member:1", "member:2", "member:3")) {
+                assertThat(dispatcher.submit(recipient, recipient + "-" + i)).isTrue();
+            }
+        }
+        dispatcher.stop();
+
+        // Then: 90 건이 수신자별 몇 개의 digest 로 묶이고, 수신자 안에서는 순서 유지
+        assertThat(dispatcher.getMessagesSent()).isEqualTo(90);
+        assertThat(digests.size()).isLessThanOrEqualTo(6);
+        Map<String, List<String>> byRecipient = new ConcurrentHashMap<>();
+        for (NotificationDigest digest : digests) {
+            byRecipient.computeIfAbsent(digest.recipient(), key -> new ArrayList<>()).addAll(digest.messages());
+        }
+        for (Map.Entry<String, List<String>> entry : byRecipient.entrySet()) {
+            assertThat(entry.getValue()).hasSize(30);
+            assertThat(entry.getValue().get(0)).isEqualTo(entry.getKey() + "-0");
+            assertThat(entry.getValue().get(29)).isEqualTo(entry.getKey() + "-29");
+        }
+    }
+
+    @Test
+    void callbacksRunOnlyAfterGatewaySendCompletes() throws InterruptedException {
+        // Given: member:1 은 발송 성공, member:2 는 gateway 에서 실패
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationGateway gateway = digest -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (digest.recipient().equals("member:2")) {
+                throw new IllegalStateException("발송 실패");
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher(gateway, THREAD_FACTORY,
+                16, 2, NotificationDropPolicy.DROP_NEWEST, 0, 0, 1);
+        dispatcher.start();
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        // When
+        dispatcher.submit("member:1", "알림 1", callback("member:1", results));
+        dispatcher.submit("member:2", "알림 2", callback("member:2", results));
+        Thread.sleep(100);
+
+        // Then: gateway 가 끝나기 전에는 아무 결과도 없고, 끝난 뒤에 성공/실패가 각각 전달된다
+        assertThat(results).isEmpty();
+        release.countDown();
+        dispatcher.stop();
+        assertThat(results).containsExactlyInAnyOrder("member:1 delivered", "member:2 failed");
+    }
+
+    private static DeliveryCallback callback(String recipient, List<String> results) {
+        return new DeliveryCallback() {
+            @Override
+            public void delivered() {
+                results.add(recipient + " delivered");
+            }
+
+            @Override
+            public void failed(RuntimeException cause) {
+                results.add(recipient + " failed");
+            }
+        };
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlockingCaller() throws InterruptedException {
+        // Given: gateway 가 멈춰 있고 큐/worker 가 아주 작음
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationGateway stuckGateway = digest -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher(stuckGateway, THREAD_FACTORY,
+                2, 1, NotificationDropPolicy.DROP_NEWEST, 0, 0, 1);
+        dispatcher.start();
+
+        // When
+        long start = System.nanoTime();
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (dispatcher.submit("member:" + i, "알림 " + i)) {
+                accepted++;
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        dispatcher.stop();
+
+        // Then: 호출자는 기다리지 않고, 받아들인 건만 모두 발송
+        assertThat(elapsedMillis).isLessThan(1_000);
+        assertThat(dispatcher.getDroppedCount()).isPositive();
+        assertThat(dispatcher.getDroppedCount() + accepted).isEqualTo(100);
+        assertThat(dispatcher.getMessagesSent()).isEqualTo(accepted);
+    }
+}
@@ -0,0 +1,139 @@
+package miniproject.fintech.service.schedule;
+
+import miniproject.fintech.domain.Account;
+import miniproject.fintech.domain.BankMember;
+import miniproject.fintech.dto.BankMemberDto;
+import miniproject.fintech.dto.TransferDto;
+import miniproject.fintech.error.CustomError;
+import miniproject.fintech.repository.AccountRepository;
+import miniproject.fintech.repository.MemberRepository;
+import miniproject.fintech.type.AccountStatus;
+import miniproject.fintech.type.ErrorType;
+import miniproject.fintech.type.Grade;
+import miniproject.fintech.type.TransferStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 접수는 WAITING 으로 바로 반환되고, worker 가 실행한 결과를 long-poll 로 받는지 확인.
+ * 다른 사용자는 송금 ID 를 알아도 상태를 볼 수 없다.
+ */
+@SpringBootTest
+class AsyncTransferServiceTest {
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private BankMemberDto bankMemberDto;
+    private String sourceAccountNumber;
+    private String destinationAccountNumber;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        BankMember bankMember = memberRepository.save(BankMember.builder()
+                .userId("async" + suffix)
+                .name("비동기")
+                .age(30)
+                .createdAt(LocalDateTime.now())
+                .birth(LocalDate.of(1995, 5, 18))
+                .email("async@gmail.com")
+                .grade(Grade.NORMAL)
+                .curAmount(10000)
+                .accounts(new ArrayList<>())
+                .password("password")
+                .build());
+        bankMemberDto = BankMemberDto.builder().userId(bankMember.getUserId()).build();
+        sourceAccountNumber = "async-src-" + suffix;
+        destinationAccountNumber = "async-dst-" + suffix;
+        saveAccount(bankMember, sourceAccountNumber, 10_000);
+        saveAccount(bankMember, destinationAccountNumber, 0);
+    }
+
+    @Test
+    void submittedTransferCompletesInBackground() throws Exception {
+        // Given
+        TransferDto transferDto = TransferDto.builder()
+                .transferAmount(3_000)
+                .sourceAccountNumber(sourceAccountNumber)
+                .destinationAccountNumber(destinationAccountNumber)
+                .bankMemberDto(bankMemberDto)
+                .build();
+
+        // When: 접수 후 long-poll
+        TransferDto submitted = asyncTransferService.submit(transferDto);
+        TransferDto outcome = asyncTransferService.awaitOutcome(submitted.getId(), bankMemberDto.getUserId(), 5_000)
+                .get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(submitted.getTransferStatus()).isEqualTo(TransferStatus.WAITING);
+        assertThat(outcome.getId()).isEqualTo(submitted.getId());
+        assertThat(outcome.getTransferStatus()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(accountRepository.findAmountByAccountNumber(sourceAccountNumber)).hasValue(7_000L);
+        assertThat(accountRepository.findAmountByAccountNumber(destinationAccountNumber)).hasValue(3_000L);
+    }
+
+    @Test
+    void insufficientBalanceIsReportedAsFailed() throws Exception {
+        // Given: 잔액보다 큰 송금
+        TransferDto transferDto = TransferDto.builder()
+                .transferAmount(50_000)
+                .sourceAccountNumber(sourceAccountNumber)
+                .destinationAccountNumber(destinationAccountNumber)
+                .bankMemberDto(bankMemberDto)
+                .build();
+
+        // When
+        TransferDto submitted = asyncTransferService.submit(transferDto);
+        TransferDto outcome = asyncTransferService.awaitOutcome(submitted.getId(), bankMemberDto.getUserId(), 5_000)
+                .get(10, TimeUnit.SECONDS);
+
+        // Then: 접수는 성공, 실행 결과는 FAILED
+        assertThat(outcome.getTransferStatus()).isEqualTo(TransferStatus.FAILED);
+        assertThat(accountRepository.findAmountByAccountNumber(sourceAccountNumber)).hasValue(10_000L);
+    }
+
+    @Test
+    void otherUserCannotSeeTransferStatus() {
+        // Given
+        TransferDto submitted = asyncTransferService.submit(TransferDto.builder()
+                .transferAmount(1_000)
+                .sourceAccountNumber(sourceAccountNumber)
+                .destinationAccountNumber(destinationAccountNumber)
+                .bankMemberDto(bankMemberDto)
+                .build());
+
+        // When & Then: 없는 송금과 같은 응답
+        assertThatThrownBy(() -> asyncTransferService.awaitOutcome(submitted.getId(), "someone-else", 0))
+                .isInstanceOf(CustomError.class)
+                .extracting(e -> ((CustomError) e).getErrorType())
+                .isEqualTo(ErrorType.TRANSFER_NOT_FOUND);
+    }
+
+    private void saveAccount(BankMember bankMember, String accountNumber, long amount) {
+        accountRepository.save(Account.builder()
+                .bankMember(bankMember)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .accountStatus(AccountStatus.REGISTER)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
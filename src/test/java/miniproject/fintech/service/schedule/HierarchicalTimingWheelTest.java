@@ -0,0 +1,75 @@
+package miniproject.fintech.service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK = 100;
+
+    @Test
+    void itemsNeverExpireBeforeDeadline() {
+        // Given: 최대 30 일 뒤까지 흩어진 100 만 건 (가까운 시각에 몰리도록 u^3)
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, 64, START);
+        Random random = new Random(7);
+        int count = 1_000_000;
+        long[] deadlines = new long[count];
+        long[] firedAt = new long[count];
+        Arrays.fill(firedAt, -1);
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = START + TICK + (long) (Math.pow(random.nextDouble(), 3) * 30L * 24 * 3600 * 1000);
+            assertThat(wheel.add(i, deadlines[i])).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(count);
+
+        // When: 1 초씩 시계 진행
+        long step = 1_000;
+        long now = START;
+        while (wheel.size() > 0) {
+            now += step;
+            long firedTime = now;
+            wheel.advance(now, id -> firedAt[id] = firedTime);
+        }
+
+        // Then: 모두 deadline 이후, 진행 간격 안에 만료
+        for (int i = 0; i < count; i++) {
+            assertThat(firedAt[i]).isGreaterThanOrEqualTo(deadlines[i]);
+            assertThat(firedAt[i] - deadlines[i]).isLessThan(step + TICK);
+        }
+    }
+
+    @Test
+    void overdueItemsAreRejectedAndFarItemsCascade() {
+        // Given: tick 10ms, bucket 4 개 (level 0 이 40ms 만 덮음)
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        wheel.advance(1_000, item -> { });
+
+        // When
+        boolean overdue = wheel.add("지난 송금", 995);
+        boolean near = wheel.add("가까운 송금", 1_005);
+        boolean far = wheel.add("먼 송금", 1_000 + 10 * 4 * 4 * 4 * 3 + 7);
+
+        // Then: 지난 항목은 바로 실행하도록 거절, 먼 항목은 상위 level 에서 내려와 제시각에 만료
+        assertThat(overdue).isFalse();
+        assertThat(near).isTrue();
+        assertThat(far).isTrue();
+        assertThat(wheel.levelCount()).isGreaterThan(1);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(1_010, expired::add);
+        assertThat(expired).containsExactly("가까운 송금");
+
+        wheel.advance(2_919, expired::add);
+        assertThat(expired).containsExactly("가까운 송금");
+        wheel.advance(2_930, expired::add);
+        assertThat(expired).containsExactly("가까운 송금", "먼 송금");
+        assertThat(wheel.size()).isZero();
+    }
+}